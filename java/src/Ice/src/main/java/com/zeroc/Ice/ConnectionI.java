@@ -17,6 +17,7 @@ import com.zeroc.IceInternal.Incoming;
 import com.zeroc.IceInternal.OutgoingAsyncBase;
 import com.zeroc.IceInternal.Protocol;
 import com.zeroc.IceInternal.SocketOperation;
+import com.zeroc.IceInternal.StacklessExceptions;
 import com.zeroc.IceInternal.Time;
 import com.zeroc.IceInternal.TraceUtil;
 import com.zeroc.Ice.Instrumentation.ConnectionState;
@@ -40,6 +41,15 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         }
     }
 
+    private class CoalesceCallback implements Runnable
+    {
+        @Override
+        public void run()
+        {
+            coalesceTimedOut();
+        }
+    }
+
     public void start(StartCallback callback)
     {
         try
@@ -331,7 +341,8 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             }
         }
 
-        if(_readStream.size() > Protocol.headerSize || !_writeStream.isEmpty())
+        if(_readStream.size() > Protocol.headerSize || !_writeStream.isEmpty() ||
+           (_readAheadBuffer != null && _readAheadBuffer.b.position() > _readAheadPos))
         {
             //
             // If writing or reading, nothing to do, the connection
@@ -351,7 +362,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 // Close the connection if we didn't receive a heartbeat in
                 // the last period.
                 //
-                setState(StateClosed, new ConnectionTimeoutException());
+                setState(StateClosed, StacklessExceptions.create(_instance, ConnectionTimeoutException::new));
             }
             else if(acm.close != ACMClose.CloseOnInvocation && _dispatchCount == 0 && _batchRequestQueue.isEmpty() &&
                     _asyncRequests.isEmpty())
@@ -359,7 +370,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 //
                 // The connection is idle, close it.
                 //
-                setState(StateClosing, new ConnectionTimeoutException());
+                setState(StateClosing, StacklessExceptions.create(_instance, ConnectionTimeoutException::new));
             }
         }
     }
@@ -377,7 +388,8 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             // to send our request, we always try to send the request
             // again.
             //
-            throw new com.zeroc.IceInternal.RetryException((LocalException) _exception.fillInStackTrace());
+            throw StacklessExceptions.create(_instance,
+                () -> new com.zeroc.IceInternal.RetryException((LocalException)_exception.fillInStackTrace()));
         }
 
         assert (_state > StateNotValidated);
@@ -422,6 +434,11 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
 
         out.attachRemoteObserver(initConnectionInfo(), _endpoint, requestId);
 
+        if(response && _latency != null)
+        {
+            out.setSentTime(System.nanoTime());
+        }
+
         int status;
         try
         {
@@ -440,6 +457,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             // Add to the async requests map.
             //
             _asyncRequests.put(requestId, out);
+            _asyncRequestCount = _asyncRequests.size();
         }
         return status;
     }
@@ -656,6 +674,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 if(o.requestId > 0)
                 {
                     _asyncRequests.remove(o.requestId);
+                    _asyncRequestCount = _asyncRequests.size();
                 }
 
                 if(ex instanceof ConnectionTimeoutException)
@@ -672,10 +691,29 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                     // it's fine if the OutgoingAsync output stream is released (and
                     // as long as canceled requests cannot be retried).
                     //
+                    // A message prepared for a gathering write might already be
+                    // partially sent, it's kept in the send streams but its
+                    // stream is detached from the OutgoingAsync output stream.
+                    //
                     o.canceled();
-                    if(o != _sendStreams.getFirst())
+                    if(o != _sendStreams.getFirst() || _coalescing)
                     {
-                        it.remove();
+                        if(o.prepared)
+                        {
+                            o.detach();
+                        }
+                        else
+                        {
+                            it.remove();
+                            if(_coalescing)
+                            {
+                                _coalescedBytes -= o.stream.size();
+                                if(_sendStreams.isEmpty())
+                                {
+                                    stopCoalescing();
+                                }
+                            }
+                        }
                     }
                     if(outAsync.completed(ex))
                     {
@@ -700,6 +738,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                     else
                     {
                         it2.remove();
+                        _asyncRequestCount = _asyncRequests.size();
                         if(outAsync.completed(ex))
                         {
                             outAsync.invokeCompletedAsync();
@@ -712,7 +751,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
     }
 
     @Override
-    public void sendResponse(int requestId, OutputStream os, byte compressFlag, boolean amd)
+    public void sendResponse(int requestId, String operation, OutputStream os, byte compressFlag, boolean amd)
     {
         //
         // We may be executing on the "main thread" (e.g., in Android together with a custom dispatcher)
@@ -726,7 +765,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
 
             if(!queueResponse)
             {
-                sendResponseImpl(os, compressFlag);
+                sendResponseImpl(operation, os, compressFlag);
             }
         }
 
@@ -738,14 +777,14 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 public Void call()
                     throws Exception
                 {
-                    sendResponseImpl(os, compressFlag);
+                    sendResponseImpl(operation, os, compressFlag);
                     return null;
                 }
             });
         }
     }
 
-    private synchronized void sendResponseImpl(OutputStream os, byte compressFlag)
+    private synchronized void sendResponseImpl(String operation, OutputStream os, byte compressFlag)
     {
         try
         {
@@ -760,7 +799,25 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
 
             if(_state < StateClosed)
             {
-                sendMessage(new OutgoingMessage(os, compressFlag != 0, true));
+                OutgoingMessage message = _responseMessage;
+                if(message != null)
+                {
+                    _responseMessage = null;
+                    message.reset(os, compressFlag != 0, true);
+                }
+                else
+                {
+                    message = new OutgoingMessage(os, compressFlag != 0, true);
+                }
+                message.operation = operation;
+                if((sendMessage(message) & AsyncStatus.Sent) != 0)
+                {
+                    //
+                    // The response was written, the message can be reused for the next response.
+                    //
+                    message.stream = null;
+                    _responseMessage = message;
+                }
 
                 if(_state == StateClosing && _dispatchCount == 0)
                 {
@@ -871,6 +928,25 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                            // immutable.
     }
 
+    //
+    // The number of requests waiting for a reply, read without locking the
+    // connection to select the least loaded connection of a pool.
+    //
+    public int asyncRequestCount()
+    {
+        return _asyncRequestCount;
+    }
+
+    //
+    // Set by the outgoing connection factory to record the latency of the
+    // twoway invocations, once a proxy uses a latency-aware endpoint
+    // selection type.
+    //
+    public void setLatency(com.zeroc.IceInternal.EndpointLatency latency)
+    {
+        _latency = latency;
+    }
+
     @Override
     public synchronized void setAdapter(ObjectAdapter adapter)
     {
@@ -962,14 +1038,24 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                     {
                         observerStartWrite(buf);
                     }
-                    writeOp = write(buf);
+                    writeOp = _sendStreams.size() > 1 ? writeQueuedMessages() : write(buf);
                     if(_observer != null && (writeOp & SocketOperation.Write) == 0)
                     {
                         observerFinishWrite(buf);
                     }
                 }
 
-                while((readyOp & SocketOperation.Read) != 0)
+                //
+                // Once the connection is validated, read-ahead connections read
+                // as much as possible and parse all the complete messages.
+                //
+                final boolean readingAhead = _readAheadSize > 0 && _state > StateNotValidated;
+                if((readyOp & SocketOperation.Read) != 0 && readingAhead)
+                {
+                    readOp = readAhead();
+                }
+
+                while(!readingAhead && (readyOp & SocketOperation.Read) != 0)
                 {
                     final Buffer buf = _readStream.getBuffer();
                     if(_observer != null && !_readHeader)
@@ -1006,39 +1092,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                             throw new IllegalMessageSizeException();
                         }
 
-                        _readStream.pos(0);
-                        byte[] m = new byte[4];
-                        m[0] = _readStream.readByte();
-                        m[1] = _readStream.readByte();
-                        m[2] = _readStream.readByte();
-                        m[3] = _readStream.readByte();
-                        if(m[0] != Protocol.magic[0] ||
-                           m[1] != Protocol.magic[1] ||
-                           m[2] != Protocol.magic[2] ||
-                           m[3] != Protocol.magic[3])
-                        {
-                            BadMagicException ex = new BadMagicException();
-                            ex.badMagic = m;
-                            throw ex;
-                        }
-
-                        _readProtocol.ice_readMembers(_readStream);
-                        Protocol.checkSupportedProtocol(_readProtocol);
-
-                        _readProtocolEncoding.ice_readMembers(_readStream);
-                        Protocol.checkSupportedProtocolEncoding(_readProtocolEncoding);
-
-                        _readStream.readByte(); // messageType
-                        _readStream.readByte(); // compress
-                        int size = _readStream.readInt();
-                        if(size < Protocol.headerSize)
-                        {
-                            throw new IllegalMessageSizeException();
-                        }
-                        if(size > _messageSizeMax)
-                        {
-                            com.zeroc.IceInternal.Ex.throwMemoryLimitException(size, _messageSizeMax);
-                        }
+                        int size = readHeader(buf.b, 0);
                         if(size > _readStream.size())
                         {
                             _readStream.resize(size);
@@ -1111,10 +1165,22 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                     //
                     if((readyOp & SocketOperation.Read) != 0)
                     {
-                        // Optimization: use the thread's stream.
-                        info = new MessageInfo(current.stream);
-                        newOp |= parseMessage(info);
-                        dispatchCount += info.messageDispatchCount;
+                        // Optimization: use the thread's stream and message info.
+                        if(current.messageInfo != null)
+                        {
+                            info = (MessageInfo)current.messageInfo;
+                            current.messageInfo = null;
+                            info.reset(current.stream);
+                        }
+                        else
+                        {
+                            info = new MessageInfo(current.stream);
+                        }
+                        newOp |= readingAhead ? parseReadAheadMessages(info) : parseMessage(info);
+                        for(MessageInfo p = info; p != null; p = p.next)
+                        {
+                            dispatchCount += p.messageDispatchCount;
+                        }
                     }
 
                     if((readyOp & SocketOperation.Write) != 0)
@@ -1188,20 +1254,33 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             }
         }
 
-        if(!_dispatcher) // Optimization, call dispatch() directly if there's no dispatcher.
+        //
+        // Optimization, call dispatch() directly if there's no dispatcher and
+        // if the dispatch isn't done by a virtual thread.
+        //
+        if(!_dispatcher && !_threadPool.virtualThreads())
         {
             dispatch(startCB, sentCBs, info);
+
+            //
+            // The message info isn't referenced anymore once the messages are dispatched, keep it
+            // for the next message read by this thread.
+            //
+            if(info != null)
+            {
+                info.reset(null);
+                current.messageInfo = info;
+            }
         }
         else
         {
             // No need for the stream if heartbeat callback
-            if(info != null && info.heartbeatCallback == null)
+            if(info != null && info.heartbeatCallback == null && info.stream == current.stream)
             {
                 //
                 // Create a new stream for the dispatch instead of using the
                 // thread pool's thread stream.
                 //
-                assert (info.stream == current.stream);
                 InputStream stream = info.stream;
                 info.stream = new InputStream(_instance, Protocol.currentProtocolEncoding);
                 info.stream.swap(stream);
@@ -1210,7 +1289,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             final StartCallback finalStartCB = startCB;
             final java.util.List<OutgoingMessage> finalSentCBs = sentCBs;
             final MessageInfo finalInfo = info;
-            _threadPool.dispatchFromThisThread(new com.zeroc.IceInternal.DispatchWorkItem(this)
+            current.dispatchFromThisThread(new com.zeroc.IceInternal.DispatchWorkItem(this)
             {
                 @Override
                 public void run()
@@ -1247,7 +1326,11 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             ++dispatchedCount;
         }
 
-        if(info != null)
+        //
+        // Read-ahead connections can dispatch several messages, in the order
+        // they were received.
+        //
+        for(; info != null; info = info.next)
         {
             //
             // Asynchronous replies must be handled outside the thread
@@ -1502,6 +1585,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             }
         }
         _asyncRequests.clear();
+        _asyncRequestCount = 0;
 
         //
         // Don't wait to be reaped to reclaim memory allocated by read/write streams.
@@ -1510,6 +1594,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         _writeStream.getBuffer().clear();
         _readStream.clear();
         _readStream.getBuffer().clear();
+        _readAheadBuffer = null;
 
         if(_closeCallback != null)
         {
@@ -1564,15 +1649,15 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
     {
         if(_state <= StateNotValidated)
         {
-            setState(StateClosed, new ConnectTimeoutException());
+            setState(StateClosed, StacklessExceptions.create(_instance, ConnectTimeoutException::new));
         }
         else if(_state < StateClosing)
         {
-            setState(StateClosed, new TimeoutException());
+            setState(StateClosed, StacklessExceptions.create(_instance, TimeoutException::new));
         }
         else if(_state < StateClosed)
         {
-            setState(StateClosed, new CloseTimeoutException());
+            setState(StateClosed, StacklessExceptions.create(_instance, CloseTimeoutException::new));
         }
     }
 
@@ -1610,6 +1695,40 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         _info = null; // Invalidate the cached connection info
     }
 
+    //
+    // Corks the connection: the requests and replies sent over the connection
+    // are held until uncork() is called or until they exceed Ice.Coalesce.MaxSize
+    // bytes, they are then written with a single gathering write. This is only
+    // provided by the Java mapping.
+    //
+    public synchronized void cork()
+    {
+        if(_state >= StateClosed)
+        {
+            throw (LocalException) _exception.fillInStackTrace();
+        }
+        _corked = true;
+    }
+
+    //
+    // Uncorks the connection and writes the messages held while it was corked.
+    //
+    public synchronized void uncork()
+    {
+        _corked = false;
+        if(_coalescing)
+        {
+            try
+            {
+                flushCoalesced();
+            }
+            catch(LocalException ex)
+            {
+                setState(StateClosed, ex);
+            }
+        }
+    }
+
     @Override
     public String _toString()
     {
@@ -1650,6 +1769,12 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         _writeTimeoutFuture = null;
         _readTimeout = new TimeoutCallback();
         _readTimeoutFuture = null;
+        _coalesceFlush = new CoalesceCallback();
+        _coalesceDelay = Math.max(initData.properties.getPropertyAsInt("Ice.Coalesce.Delay"), 0);
+        _coalesceMaxSize = Math.max(initData.properties.getPropertyAsIntWithDefault("Ice.Coalesce.MaxSize",
+                                                                                      64 * 1024), 0);
+        int readAheadSize = endpoint.datagram() ? 0 : initData.properties.getPropertyAsInt("Ice.ReadAhead.Size");
+        _readAheadSize = readAheadSize > 0 ? Math.max(readAheadSize, Protocol.headerSize) : 0;
         _warn = initData.properties.getPropertyAsInt("Ice.Warn.Connections") > 0;
         _warnUdp = instance.initializationData().properties.getPropertyAsInt("Ice.Warn.Datagrams") > 0;
         _cacheBuffers = instance.cacheMessageBuffers();
@@ -1682,6 +1807,16 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             compressionLevel = 9;
         }
         _compressionLevel = compressionLevel;
+        _compressorManager = instance.compressorManager();
+        _compressionPolicy = com.zeroc.IceInternal.CompressionPolicy.create(initData.properties);
+        if(initData.observer instanceof com.zeroc.IceInternal.CommunicatorObserverI)
+        {
+            _communicatorObserver = (com.zeroc.IceInternal.CommunicatorObserverI)initData.observer;
+        }
+        else
+        {
+            _communicatorObserver = null;
+        }
 
         if(adapter != null)
         {
@@ -1696,11 +1831,11 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         {
             if(adapter != null)
             {
-                _threadPool = adapter.getThreadPool();
+                _threadPool = adapter.getThreadPool().shard();
             }
             else
             {
-                _threadPool = _instance.clientThreadPool();
+                _threadPool = _instance.clientThreadPool().shard();
             }
             _threadPool.initialize(this);
         }
@@ -1743,6 +1878,11 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
     private static final int StateClosed = 6;
     private static final int StateFinished = 7;
 
+    //
+    // The maximum number of queued messages sent with a single gathering write.
+    //
+    private static final int MaxGatheringWriteBuffers = 64;
+
     private void setState(int state, LocalException ex)
     {
         //
@@ -1978,6 +2118,31 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
 
         notifyAll();
 
+        if(_coalescing && _state >= StateClosing)
+        {
+            //
+            // Write the coalesced messages before the close connection
+            // message, they are completed with the exception if the
+            // connection is closed.
+            //
+            if(_state < StateClosed)
+            {
+                try
+                {
+                    flushCoalesced();
+                }
+                catch(LocalException ex)
+                {
+                    setState(StateClosed, ex);
+                    return;
+                }
+            }
+            else
+            {
+                stopCoalescing();
+            }
+        }
+
         if(_state == StateClosing && _dispatchCount == 0)
         {
             try
@@ -2125,9 +2290,12 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                     Protocol.currentProtocol.ice_writeMembers(_writeStream);
                     Protocol.currentProtocolEncoding.ice_writeMembers(_writeStream);
                     _writeStream.writeByte(Protocol.validateConnectionMsg);
-                    _writeStream.writeByte((byte) 0); // Compression status
-                                                      // (always zero for
-                                                      // validate connection).
+                    //
+                    // The compression status of validate connection messages is
+                    // ignored by older peers, we use it to advertise the supported
+                    // compression codecs.
+                    //
+                    _writeStream.writeByte((byte) _compressorManager.advertised());
                     _writeStream.writeInt(Protocol.headerSize); // Message size.
                     TraceUtil.traceSend(_writeStream, _logger, _traceLevels);
                     _writeStream.prepareWrite();
@@ -2206,8 +2374,8 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 {
                     throw new ConnectionNotValidatedException();
                 }
-                _readStream.readByte(); // Ignore compression status for
-                                        // validate connection.
+                setPeerCompressors(_readStream.readByte()); // Only used to advertise
+                                                            // compression codecs.
                 int size = _readStream.readInt();
                 if(size != Protocol.headerSize)
                 {
@@ -2280,6 +2448,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 {
                     callbacks.add(message);
                 }
+                message.release();
                 _sendStreams.removeFirst();
 
                 //
@@ -2303,20 +2472,20 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 }
 
                 //
-                // Otherwise, prepare the next message stream for writing.
+                // Otherwise, prepare the next message stream for writing. The
+                // message might already be prepared (and even sent) if it was
+                // part of a previous gathering write.
                 //
                 message = _sendStreams.getFirst();
-                assert (!message.prepared);
-                OutputStream stream = message.stream;
-
-                message.stream = doCompress(stream, message.compress);
-                message.stream.prepareWrite();
-                message.prepared = true;
-                TraceUtil.traceSend(stream, _logger, _traceLevels);
+                if(!message.prepared)
+                {
+                    prepareMessage(message);
+                }
                 _writeStream.swap(message.stream);
 
                 //
-                // Send the message.
+                // Send the message, along with the following queued messages if
+                // there are any.
                 //
                 if(_observer != null)
                 {
@@ -2324,7 +2493,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 }
                 if(_writeStream.pos() != _writeStream.size())
                 {
-                    int op = write(_writeStream.getBuffer());
+                    int op = _sendStreams.size() > 1 ? writeQueuedMessages() : write(_writeStream.getBuffer());
                     if(op != 0)
                     {
                         return op;
@@ -2361,6 +2530,24 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
     {
         assert (_state < StateClosed);
 
+        if(_coalescing)
+        {
+            //
+            // Add the message to the coalesced messages unless it can't be
+            // coalesced or it would exceed the coalescing limits, in which
+            // case the coalesced messages are written first.
+            //
+            if(canCoalesce(message) && _coalescedBytes + message.stream.size() <= _coalesceMaxSize &&
+               _sendStreams.size() < MaxGatheringWriteBuffers)
+            {
+                message.adopt();
+                _sendStreams.addLast(message);
+                _coalescedBytes += message.stream.size();
+                return AsyncStatus.Queued;
+            }
+            flushCoalesced();
+        }
+
         if(!_sendStreams.isEmpty())
         {
             message.adopt();
@@ -2368,20 +2555,39 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             return AsyncStatus.Queued;
         }
 
+        if(canCoalesce(message) && message.stream.size() < _coalesceMaxSize)
+        {
+            //
+            // Hold the message, it's written along with the messages sent
+            // during the coalescing delay or until the connection is uncorked.
+            //
+            message.adopt();
+            _sendStreams.addLast(message);
+            _coalescing = true;
+            _coalescedBytes = message.stream.size();
+            if(_communicatorObserver != null)
+            {
+                _coalescingObserver = _communicatorObserver.getCoalescingObserver(initConnectionInfo(), _endpoint);
+                if(_coalescingObserver != null)
+                {
+                    _coalescingObserver.attach();
+                }
+            }
+            if(!_corked)
+            {
+                _coalesceFuture = _timer.schedule(_coalesceFlush, _coalesceDelay,
+                                                  java.util.concurrent.TimeUnit.MICROSECONDS);
+            }
+            return AsyncStatus.Queued;
+        }
+
         //
         // Attempt to send the message without blocking. If the send blocks, we
         // register the connection with the selector thread.
         //
 
-        assert (!message.prepared);
-
-        OutputStream stream = message.stream;
-
-        message.stream = doCompress(stream, message.compress);
-        message.stream.prepareWrite();
-        message.prepared = true;
+        prepareMessage(message);
         int op;
-        TraceUtil.traceSend(stream, _logger, _traceLevels);
 
         //
         // Send the message without blocking.
@@ -2420,25 +2626,236 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         return AsyncStatus.Queued;
     }
 
-    private OutputStream doCompress(OutputStream uncompressed, boolean compress)
+    private boolean canCoalesce(OutgoingMessage message)
+    {
+        //
+        // Only requests and replies are coalesced, validate and close
+        // connection messages are written right away.
+        //
+        return (_corked || _coalesceDelay > 0) && _state > StateNotValidated && _state < StateClosing &&
+            message.stream.getBuffer().b.get(8) <= Protocol.replyMsg;
+    }
+
+    private void flushCoalesced()
+    {
+        //
+        // Write the coalesced messages with a single gathering write from
+        // the thread pool, which also notifies the messages once they are
+        // sent.
+        //
+        assert(_coalescing && !_sendStreams.isEmpty());
+        int messages = _sendStreams.size();
+        int bytes = _coalescedBytes;
+        stopCoalescing(messages, bytes);
+
+        OutgoingMessage message = _sendStreams.getFirst();
+        prepareMessage(message);
+        _writeStream.swap(message.stream);
+        scheduleTimeout(SocketOperation.Write);
+        _threadPool.register(this, SocketOperation.Write);
+    }
+
+    private void stopCoalescing()
+    {
+        stopCoalescing(0, 0);
+    }
+
+    private void stopCoalescing(int messages, int bytes)
+    {
+        _coalescing = false;
+        _coalescedBytes = 0;
+        if(_coalesceFuture != null)
+        {
+            _coalesceFuture.cancel(false);
+            _coalesceFuture = null;
+        }
+        if(_coalescingObserver != null)
+        {
+            if(messages > 0)
+            {
+                _coalescingObserver.flushed(messages, bytes);
+            }
+            _coalescingObserver.detach();
+            _coalescingObserver = null;
+        }
+    }
+
+    private synchronized void coalesceTimedOut()
+    {
+        //
+        // The timer might fire for a previous batch which was flushed in the
+        // meantime, this only shortens the coalescing delay of the current one.
+        //
+        if(_coalescing && !_corked)
+        {
+            try
+            {
+                flushCoalesced();
+            }
+            catch(LocalException ex)
+            {
+                setState(StateClosed, ex);
+            }
+        }
+    }
+
+    private void prepareMessage(OutgoingMessage message)
+    {
+        assert (!message.prepared);
+        OutputStream stream = message.stream;
+
+        message.stream = doCompress(message);
+        message.stream.prepareWrite();
+        message.prepared = true;
+        TraceUtil.traceSend(stream, _logger, _traceLevels);
+    }
+
+    private int writeQueuedMessages()
+    {
+        //
+        // Send the message in _writeStream and the following queued messages
+        // with a single gathering write. The queued messages are prepared for
+        // writing here, messages which are fully sent are notified once they
+        // reach the front of the queue.
+        //
+        if(_writeBuffers == null)
+        {
+            _writeBuffers = new Buffer[MaxGatheringWriteBuffers];
+        }
+
+        int count = 0;
+        _writeBuffers[count++] = _writeStream.getBuffer();
+        java.util.Iterator<OutgoingMessage> p = _sendStreams.iterator();
+        p.next(); // The first message is in _writeStream.
+        while(p.hasNext() && count < MaxGatheringWriteBuffers)
+        {
+            OutgoingMessage message = p.next();
+            if(!message.prepared)
+            {
+                prepareMessage(message);
+            }
+            Buffer buf = message.stream.getBuffer();
+            if(buf.b.hasRemaining())
+            {
+                _writeBuffers[count++] = buf;
+            }
+        }
+
+        try
+        {
+            int[] start = null;
+            if(_observer != null && count > 1)
+            {
+                start = new int[count];
+                for(int i = 1; i < count; ++i)
+                {
+                    start[i] = _writeBuffers[i].b.position();
+                }
+            }
+
+            int op = write(_writeBuffers, count);
+
+            //
+            // The bytes sent for the first buffer are reported by observerFinishWrite,
+            // the bytes sent for the other buffers are reported here.
+            //
+            if(start != null)
+            {
+                for(int i = 1; i < count; ++i)
+                {
+                    if(_writeBuffers[i].b.position() > start[i])
+                    {
+                        _observer.sentBytes(_writeBuffers[i].b.position() - start[i]);
+                    }
+                }
+            }
+            return op;
+        }
+        finally
+        {
+            java.util.Arrays.fill(_writeBuffers, 0, count, null);
+        }
+    }
+
+    private OutputStream doCompress(OutgoingMessage message)
     {
-        boolean compressionSupported = false;
-        if(compress)
+        OutputStream uncompressed = message.stream;
+        com.zeroc.IceInternal.Compressor compressor = null;
+        if(message.compress)
         {
             //
             // Don't check whether compression support is available unless the
             // proxy is configured for compression.
             //
-            compressionSupported = com.zeroc.IceInternal.BZip2.supported();
+            compressor = _compressorManager.select(_peerCompressors);
         }
 
-        if(compressionSupported && uncompressed.size() >= 100)
+        //
+        // Advertise the supported codecs only to peers which advertised theirs,
+        // older peers interpret any compression status other than 0 as bzip2
+        // support.
+        //
+        int advertised = _peerCompressors != 0 ? _compressorManager.advertised() : 0;
+
+        if(compressor != null && uncompressed.size() >= 100)
         {
+            com.zeroc.IceInternal.CompressionObserverI observer = null;
+            if(_communicatorObserver != null)
+            {
+                observer = _communicatorObserver.getCompressionObserver(initConnectionInfo(), _endpoint,
+                                                                        message.operation, compressor.name());
+                if(observer != null)
+                {
+                    observer.attach();
+                }
+            }
+
             //
-            // Do compression.
+            // Skip the compression of the messages of operations whose
+            // previous messages didn't compress well.
             //
-            Buffer cbuf = com.zeroc.IceInternal.BZip2.compress(uncompressed.getBuffer(),
-                                                               Protocol.headerSize, _compressionLevel);
+            Buffer cbuf = null;
+            if(_compressionPolicy == null || _compressionPolicy.compress(message.operation))
+            {
+                //
+                // Do compression.
+                //
+                long start = _compressionPolicy != null ? System.nanoTime() : 0;
+                try
+                {
+                    cbuf = compressor.compress(uncompressed.getBuffer(), Protocol.headerSize, _compressionLevel);
+                }
+                catch(LocalException ex)
+                {
+                    if(observer != null)
+                    {
+                        observer.failed(ex.ice_id());
+                        observer.detach();
+                    }
+                    throw ex;
+                }
+
+                int size = uncompressed.size() - Protocol.headerSize;
+                int compressedSize = cbuf != null ? cbuf.size() - Protocol.headerSize : size;
+                if(_compressionPolicy != null)
+                {
+                    _compressionPolicy.compressed(message.operation, size, compressedSize, System.nanoTime() - start);
+                }
+                if(observer != null)
+                {
+                    observer.compressed(size, compressedSize);
+                }
+            }
+            else if(observer != null)
+            {
+                observer.skipped();
+            }
+
+            if(observer != null)
+            {
+                observer.detach();
+            }
+
             if(cbuf != null)
             {
                 OutputStream cstream =
@@ -2448,7 +2865,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 // Set compression status.
                 //
                 cstream.pos(9);
-                cstream.writeByte((byte) 2);
+                cstream.writeByte((byte) (compressor.id() | advertised));
 
                 //
                 // Write the size of the compressed stream into the header.
@@ -2462,7 +2879,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 // this to trace requests correctly.
                 //
                 uncompressed.pos(9);
-                uncompressed.writeByte((byte) 2);
+                uncompressed.writeByte((byte) (compressor.id() | advertised));
                 uncompressed.writeInt(cstream.size());
 
                 return cstream;
@@ -2470,7 +2887,8 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         }
 
         uncompressed.pos(9);
-        uncompressed.writeByte((byte) (compressionSupported ? 1 : 0));
+        uncompressed.writeByte((byte) ((compressor != null ? Protocol.compressionSupported :
+                                        Protocol.compressionNotSupported) | advertised));
 
         //
         // Not compressed, fill in the message size.
@@ -2481,6 +2899,15 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         return uncompressed;
     }
 
+    private void setPeerCompressors(byte compressionStatus)
+    {
+        int peerCompressors = compressionStatus & ~Protocol.compressionStatusMask & 0xff;
+        if(peerCompressors != 0)
+        {
+            _peerCompressors = peerCompressors;
+        }
+    }
+
     private static class MessageInfo
     {
         MessageInfo(InputStream stream)
@@ -2488,6 +2915,20 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             this.stream = stream;
         }
 
+        void reset(InputStream stream)
+        {
+            this.stream = stream;
+            invokeNum = 0;
+            requestId = 0;
+            compress = 0;
+            servantManager = null;
+            adapter = null;
+            outAsync = null;
+            heartbeatCallback = null;
+            messageDispatchCount = 0;
+            next = null;
+        }
+
         InputStream stream;
         int invokeNum;
         int requestId;
@@ -2497,6 +2938,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         OutgoingAsyncBase outAsync;
         HeartbeatCallback heartbeatCallback;
         int messageDispatchCount;
+        MessageInfo next;
     }
 
     private int parseMessage(MessageInfo info)
@@ -2510,6 +2952,54 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
 
         assert (info.stream.pos() == info.stream.size());
 
+        return parseMessageStream(info);
+    }
+
+    private int parseReadAheadMessages(MessageInfo info)
+    {
+        assert (_state > StateNotValidated && _state < StateClosed);
+
+        //
+        // Parse the complete messages of the read-ahead buffer. Each message
+        // stream is a slice of the buffer, the buffer is never written again
+        // before the position of the next message.
+        //
+        int op = SocketOperation.Read;
+        while(true)
+        {
+            java.nio.ByteBuffer b = _readAheadBuffer.b.duplicate();
+            b.limit(_readAheadPos + _readAheadNext);
+            b.position(_readAheadPos);
+            info.stream = new InputStream(_instance, Protocol.currentProtocolEncoding, b.slice());
+            _readAheadPos += _readAheadNext;
+            _readAheadNext = 0;
+
+            op = parseMessageStream(info);
+
+            //
+            // Don't parse the following messages once the connection is
+            // closing, the peer doesn't send messages after closing it.
+            //
+            try
+            {
+                if(_state >= StateClosingPending || !readAheadMessageComplete())
+                {
+                    break;
+                }
+            }
+            catch(LocalException ex)
+            {
+                setState(StateClosed, ex);
+                break;
+            }
+            info.next = new MessageInfo(null);
+            info = info.next;
+        }
+        return op;
+    }
+
+    private int parseMessageStream(MessageInfo info)
+    {
         //
         // Connection is validated on first message. This is only used by
         // setState() to check wether or not we can print a connection
@@ -2526,23 +3016,31 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             //
             info.stream.pos(8);
             byte messageType = info.stream.readByte();
-            info.compress = info.stream.readByte();
-            if(info.compress == (byte)2)
+            byte compressionStatus = info.stream.readByte();
+            setPeerCompressors(compressionStatus);
+            info.compress = (byte)(compressionStatus & Protocol.compressionStatusMask);
+            if(info.compress >= Protocol.compressionBZip2)
             {
-                if(com.zeroc.IceInternal.BZip2.supported())
+                com.zeroc.IceInternal.Compressor compressor = _compressorManager.get(info.compress);
+                if(compressor != null)
                 {
-                    Buffer ubuf = com.zeroc.IceInternal.BZip2.uncompress(info.stream.getBuffer(),
-                                                                         Protocol.headerSize,
-                                                                         _messageSizeMax);
+                    Buffer ubuf = compressor.uncompress(info.stream.getBuffer(), Protocol.headerSize, _messageSizeMax);
                     info.stream = new InputStream(info.stream.instance(), info.stream.getEncoding(), ubuf, true);
                 }
-                else
+                else if(info.compress == Protocol.compressionBZip2)
                 {
                     FeatureNotSupportedException ex = new FeatureNotSupportedException();
                     ex.unsupportedFeature = "Cannot uncompress compressed message: "
                                             + "org.apache.tools.bzip2.CBZip2OutputStream was not found";
                     throw ex;
                 }
+                else
+                {
+                    FeatureNotSupportedException ex = new FeatureNotSupportedException();
+                    ex.unsupportedFeature = "Cannot uncompress compressed message: unknown compression codec "
+                                            + info.compress;
+                    throw ex;
+                }
             }
             info.stream.pos(Protocol.headerSize);
 
@@ -2623,6 +3121,16 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                     info.requestId = info.stream.readInt();
 
                     OutgoingAsyncBase outAsync = _asyncRequests.remove(info.requestId);
+                    _asyncRequestCount = _asyncRequests.size();
+                    com.zeroc.IceInternal.EndpointLatency latency = _latency;
+                    if(outAsync != null && latency != null && outAsync.getSentTime() != 0)
+                    {
+                        //
+                        // The sent time isn't set if the request was sent before the
+                        // latency recording started.
+                        //
+                        latency.record(System.nanoTime() - outAsync.getSentTime());
+                    }
                     if(outAsync != null && outAsync.completed(info.stream))
                     {
                         info.outAsync = outAsync;
@@ -2687,7 +3195,14 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 // Prepare the invocation.
                 //
                 boolean response = !_endpoint.datagram() && requestId != 0;
-                in = getIncoming(adapter, response, compress, requestId);
+                if(in == null)
+                {
+                    in = getIncoming(adapter, response, compress, requestId);
+                }
+                else
+                {
+                    in.reset(_instance, this, this, adapter, response, compress, requestId);
+                }
 
                 //
                 // Dispatch the invocation.
@@ -2696,6 +3211,15 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
 
                 --invokeNum;
 
+                //
+                // Keep the Incoming for the next request of the batch if it can be reclaimed,
+                // rather than returning it to the cache and getting it back.
+                //
+                if(invokeNum > 0 && _cacheBuffers > 0 && in.reclaim())
+                {
+                    continue;
+                }
+
                 reclaimIncoming(in);
                 in = null;
             }
@@ -2875,6 +3399,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         java.io.StringWriter sw = new java.io.StringWriter();
         java.io.PrintWriter pw = new java.io.PrintWriter(sw);
         ex.printStackTrace(pw);
+        pw.print(com.zeroc.IceInternal.Ex.stackTraceNote(ex));
         pw.flush();
         String s = msg + ":\n" + _desc + "\n" + sw.toString();
         _logger.warning(s);
@@ -3005,6 +3530,91 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         return op;
     }
 
+    private int readAhead()
+    {
+        //
+        // Allocate a new buffer if there's no room left in the read-ahead
+        // buffer for the next message. The streams of the messages sliced
+        // from the previous buffer still reference it, only the start of the
+        // next message is copied.
+        //
+        if(_readAheadBuffer == null || !_readAheadBuffer.b.hasRemaining() ||
+           _readAheadPos + _readAheadNext > _readAheadBuffer.size())
+        {
+            Buffer buf = new Buffer(_instance.cacheMessageBuffers() > 1);
+            buf.resize(Math.max(_readAheadSize, _readAheadNext), true);
+            if(_readAheadBuffer != null)
+            {
+                java.nio.ByteBuffer next = _readAheadBuffer.b.duplicate();
+                next.limit(next.position());
+                next.position(_readAheadPos);
+                buf.b.put(next);
+            }
+            _readAheadBuffer = buf;
+            _readAheadPos = 0;
+        }
+
+        final Buffer buf = _readAheadBuffer;
+        int start = buf.b.position();
+        read(buf);
+        if(_observer != null && buf.b.position() > start)
+        {
+            _observer.receivedBytes(buf.b.position() - start);
+        }
+        return readAheadMessageComplete() ? SocketOperation.None : SocketOperation.Read;
+    }
+
+    private boolean readAheadMessageComplete()
+    {
+        int available = _readAheadBuffer.b.position() - _readAheadPos;
+        if(_readAheadNext == 0)
+        {
+            if(available < Protocol.headerSize)
+            {
+                return false;
+            }
+            _readAheadNext = readHeader(_readAheadBuffer.b, _readAheadPos);
+        }
+        return available >= _readAheadNext;
+    }
+
+    private int readHeader(java.nio.ByteBuffer b, int pos)
+    {
+        //
+        // Check the header of the message starting at the given position of
+        // the buffer and return the message size.
+        //
+        if(b.get(pos) != Protocol.magic[0] ||
+           b.get(pos + 1) != Protocol.magic[1] ||
+           b.get(pos + 2) != Protocol.magic[2] ||
+           b.get(pos + 3) != Protocol.magic[3])
+        {
+            BadMagicException ex = new BadMagicException();
+            ex.badMagic = new byte[] { b.get(pos), b.get(pos + 1), b.get(pos + 2), b.get(pos + 3) };
+            throw ex;
+        }
+
+        _readProtocol.major = b.get(pos + 4);
+        _readProtocol.minor = b.get(pos + 5);
+        Protocol.checkSupportedProtocol(_readProtocol);
+
+        _readProtocolEncoding.major = b.get(pos + 6);
+        _readProtocolEncoding.minor = b.get(pos + 7);
+        Protocol.checkSupportedProtocolEncoding(_readProtocolEncoding);
+
+        // Skip the message type and compression status.
+        int size = b.getInt(pos + 10);
+        if(size < Protocol.headerSize)
+        {
+            throw new IllegalMessageSizeException();
+        }
+        if(size > _messageSizeMax)
+        {
+            com.zeroc.IceInternal.Ex.throwMemoryLimitException(size, _messageSizeMax);
+        }
+        return size;
+    }
+
     private int write(Buffer buf)
     {
         int start = buf.b.position();
@@ -3027,6 +3637,45 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         return op;
     }
 
+    private int write(Buffer[] bufs, int count)
+    {
+        int start = 0;
+        int size = 0;
+        if(_instance.traceLevels().network >= 3)
+        {
+            for(int i = 0; i < count; ++i)
+            {
+                start += bufs[i].b.position();
+                size += bufs[i].b.limit();
+            }
+        }
+        int op = _transceiver.write(bufs, count);
+        if(_instance.traceLevels().network >= 3)
+        {
+            int sent = 0;
+            for(int i = 0; i < count; ++i)
+            {
+                sent += bufs[i].b.position();
+            }
+            sent -= start;
+            if(sent > 0)
+            {
+                StringBuffer s = new StringBuffer("sent ");
+                s.append(sent);
+                s.append(" of ");
+                s.append(size - start);
+                s.append(" bytes in ");
+                s.append(count);
+                s.append(" messages via ");
+                s.append(_endpoint.protocol());
+                s.append("\n");
+                s.append(toString());
+                _instance.initializationData().logger.trace(_instance.traceLevels().networkCat, s.toString());
+            }
+        }
+        return op;
+    }
+
     private static class OutgoingMessage
     {
         OutgoingMessage(OutputStream stream, boolean compress, boolean adopt)
@@ -3044,6 +3693,19 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
             this.compress = compress;
             this.outAsync = out;
             this.requestId = requestId;
+            this.operation = out.getOperation();
+        }
+
+        void reset(OutputStream stream, boolean compress, boolean adopt)
+        {
+            this.stream = stream;
+            this.compress = compress;
+            this.adopt = adopt;
+            this.requestId = 0;
+            this.outAsync = null;
+            this.operation = null;
+            this.owned = false;
+            this.prepared = false;
         }
 
         public void canceled()
@@ -3060,6 +3722,28 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
                 stream.swap(this.stream);
                 this.stream = stream;
                 adopt = false;
+                owned = true;
+            }
+        }
+
+        public void detach()
+        {
+            OutputStream stream = new OutputStream(this.stream.instance(), Protocol.currentProtocolEncoding);
+            stream.swap(this.stream);
+            this.stream = stream;
+            adopt = false;
+            owned = true;
+        }
+
+        public void release()
+        {
+            //
+            // Return the memory of the adopted stream to the buffer pool
+            // once the message is sent, the stream is no longer used.
+            //
+            if(owned)
+            {
+                stream.getBuffer().clear();
             }
         }
 
@@ -3084,7 +3768,9 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
         public OutgoingAsyncBase outAsync;
         public boolean compress;
         public int requestId;
+        public String operation;
         boolean adopt;
+        boolean owned;
         boolean prepared;
     }
 
@@ -3108,6 +3794,8 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
     private final java.util.concurrent.ScheduledExecutorService _timer;
     private final Runnable _writeTimeout;
     private java.util.concurrent.Future<?> _writeTimeoutFuture;
+    private final Runnable _coalesceFlush;
+    private java.util.concurrent.Future<?> _coalesceFuture;
     private final Runnable _readTimeout;
     private java.util.concurrent.Future<?> _readTimeoutFuture;
 
@@ -3119,10 +3807,16 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
     private long _acmLastActivity;
 
     private final int _compressionLevel;
+    private final com.zeroc.IceInternal.CompressorManager _compressorManager;
+    private int _peerCompressors; // The compression codecs advertised by the peer.
+    private final com.zeroc.IceInternal.CompressionPolicy _compressionPolicy;
+    private final com.zeroc.IceInternal.CommunicatorObserverI _communicatorObserver;
 
     private int _nextRequestId;
 
     private java.util.Map<Integer, OutgoingAsyncBase> _asyncRequests = new java.util.HashMap<>();
+    private volatile int _asyncRequestCount;
+    private volatile com.zeroc.IceInternal.EndpointLatency _latency;
 
     private LocalException _exception;
 
@@ -3130,9 +3824,30 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
     private com.zeroc.IceInternal.BatchRequestQueue _batchRequestQueue;
 
     private java.util.LinkedList<OutgoingMessage> _sendStreams = new java.util.LinkedList<>();
+    private Buffer[] _writeBuffers;
+
+    //
+    // Write coalescing (Ice.Coalesce.Delay or cork()). The coalesced messages
+    // are held in _sendStreams until they are flushed.
+    //
+    private final int _coalesceDelay; // In microseconds.
+    private final int _coalesceMaxSize;
+    private boolean _corked;
+    private boolean _coalescing;
+    private int _coalescedBytes;
+    private com.zeroc.IceInternal.CoalescingObserverI _coalescingObserver;
 
     private InputStream _readStream;
     private boolean _readHeader;
+
+    //
+    // Read-ahead (Ice.ReadAhead.Size). The bytes of _readAheadBuffer between
+    // _readAheadPos and the buffer position are the start of the next message.
+    //
+    private final int _readAheadSize;
+    private Buffer _readAheadBuffer;
+    private int _readAheadPos;
+    private int _readAheadNext; // The size of the next message once its header is read.
     private OutputStream _writeStream;
 
     private com.zeroc.Ice.Instrumentation.ConnectionObserver _observer;
@@ -3147,6 +3862,7 @@ public final class ConnectionI extends com.zeroc.IceInternal.EventHandler
     private boolean _validated = false;
 
     private Incoming _incomingCache;
+    private OutgoingMessage _responseMessage; // Reused for responses that are written right away.
     private final java.lang.Object _incomingCacheMutex = new java.lang.Object();
 
     private ProtocolVersion _readProtocol = new ProtocolVersion();
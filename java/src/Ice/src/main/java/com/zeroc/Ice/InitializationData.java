@@ -106,6 +106,21 @@ public final class InitializationData implements Cloneable
      **/
     public java.util.function.IntFunction<String> compactIdResolver;
 
+    /**
+     * Slice type IDs to register with the communicator at startup, mapped to the
+     * class used to unmarshal instances of the type. The communicator caches the
+     * translation of type IDs into classes; registering the types in advance avoids
+     * the class lookups based on the <code>Ice.Package</code> and
+     * <code>Ice.Default.Package</code> properties.
+     **/
+    public java.util.Map<String, Class<?>> types;
+
+    /**
+     * Compact type IDs to register with the communicator at startup, mapped to
+     * their type ID such as <code>"::Module::Class"</code>.
+     **/
+    public java.util.Map<Integer, String> compactIds;
+
     /**
      * The batch request interceptor.
      **/
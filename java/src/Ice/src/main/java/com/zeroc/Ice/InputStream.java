@@ -222,7 +222,7 @@ public class InputStream
     public InputStream(Instance instance, EncodingVersion encoding, boolean direct)
     {
         initialize(instance, encoding);
-        _buf = new Buffer(direct);
+        _buf = new Buffer(direct, instance.bufferPool());
     }
 
     public InputStream(Instance instance, EncodingVersion encoding, byte[] data)
@@ -552,6 +552,20 @@ public class InputStream
      * @return The encoding version used by the encapsulation.
      **/
     public EncodingVersion startEncapsulation()
+    {
+        return startEncapsulation(null);
+    }
+
+    /**
+     * Reads the start of an encapsulation.
+     *
+     * @param v The encoding version to set to the encoding version used by the encapsulation,
+     * or null to return a new encoding version.
+     * @return The encoding version used by the encapsulation.
+     *
+     * @hidden
+     **/
+    public EncodingVersion startEncapsulation(EncodingVersion v)
     {
         Encaps curr = _encapsCache;
         if(curr != null)
@@ -584,11 +598,44 @@ public class InputStream
         }
         _encapsStack.sz = sz;
 
-        EncodingVersion encoding = EncodingVersion.ice_read(this);
+        EncodingVersion encoding = readEncoding();
         Protocol.checkSupportedEncoding(encoding); // Make sure the encoding is supported.
         _encapsStack.setEncoding(encoding);
 
-        return encoding;
+        return copyEncoding(encoding, v);
+    }
+
+    //
+    // Reads an encapsulation encoding. The usual encodings are returned as the shared
+    // Util constants, rather than allocating a new EncodingVersion for each encapsulation.
+    // The constants are mutable, they must not be returned to the application (see
+    // copyEncoding).
+    //
+    private EncodingVersion readEncoding()
+    {
+        final byte major = readByte();
+        final byte minor = readByte();
+        if(major == Util.Encoding_1_1.major && minor == Util.Encoding_1_1.minor)
+        {
+            return Util.Encoding_1_1;
+        }
+        else if(major == Util.Encoding_1_0.major && minor == Util.Encoding_1_0.minor)
+        {
+            return Util.Encoding_1_0;
+        }
+        return new EncodingVersion(major, minor);
+    }
+
+    private static EncodingVersion copyEncoding(EncodingVersion encoding, EncodingVersion v)
+    {
+        if(v == null)
+        {
+            return encoding == Util.Encoding_1_0 || encoding == Util.Encoding_1_1 ?
+                new EncodingVersion(encoding.major, encoding.minor) : encoding;
+        }
+        v.major = encoding.major;
+        v.minor = encoding.minor;
+        return v;
     }
 
     /**
@@ -642,6 +689,20 @@ public class InputStream
      * @return The encapsulation's encoding version.
      **/
     public EncodingVersion skipEmptyEncapsulation()
+    {
+        return skipEmptyEncapsulation(null);
+    }
+
+    /**
+     * Skips an empty encapsulation.
+     *
+     * @param v The encoding version to set to the encapsulation's encoding version, or null to
+     * return a new encoding version.
+     * @return The encapsulation's encoding version.
+     *
+     * @hidden
+     **/
+    public EncodingVersion skipEmptyEncapsulation(EncodingVersion v)
     {
         int sz = readInt();
         if(sz < 6)
@@ -653,7 +714,7 @@ public class InputStream
             throw new UnmarshalOutOfBoundsException();
         }
 
-        EncodingVersion encoding = EncodingVersion.ice_read(this);
+        EncodingVersion encoding = readEncoding();
         Protocol.checkSupportedEncoding(encoding); // Make sure the encoding is supported.
 
         if(encoding.equals(Util.Encoding_1_0))
@@ -671,7 +732,7 @@ public class InputStream
             //
             _buf.b.position(_buf.b.position() + sz - 6);
         }
-        return encoding;
+        return copyEncoding(encoding, v);
     }
 
     /**
@@ -743,13 +804,27 @@ public class InputStream
      * @return The encoding version of the skipped encapsulation.
      **/
     public EncodingVersion skipEncapsulation()
+    {
+        return skipEncapsulation(null);
+    }
+
+    /**
+     * Skips over an encapsulation.
+     *
+     * @param v The encoding version to set to the encoding version of the skipped encapsulation,
+     * or null to return a new encoding version.
+     * @return The encoding version of the skipped encapsulation.
+     *
+     * @hidden
+     **/
+    public EncodingVersion skipEncapsulation(EncodingVersion v)
     {
         int sz = readInt();
         if(sz < 6)
         {
             throw new UnmarshalOutOfBoundsException();
         }
-        EncodingVersion encoding = EncodingVersion.ice_read(this);
+        EncodingVersion encoding = readEncoding();
         try
         {
             _buf.b.position(_buf.b.position() + sz - 6);
@@ -758,7 +833,7 @@ public class InputStream
         {
             throw new UnmarshalOutOfBoundsException();
         }
-        return encoding;
+        return copyEncoding(encoding, v);
     }
 
     /**
@@ -1021,6 +1096,9 @@ public class InputStream
 
     /**
      * Returns a byte buffer representing a sequence of bytes. This method does not copy the data.
+     * The returned buffer aliases the stream's buffer, which is kept alive and
+     * isn't reused for another message for as long as the returned buffer is
+     * reachable.
      *
      * @return A byte buffer "slice" of the internal buffer.
      **/
@@ -1032,6 +1110,7 @@ public class InputStream
             java.nio.ByteBuffer v = _buf.b.slice();
             v.limit(sz);
             _buf.b.position(_buf.b.position() + sz);
+            _buf.retain();
             return v.asReadOnlyBuffer();
         }
         catch(java.nio.BufferUnderflowException ex)
@@ -1259,6 +1338,9 @@ public class InputStream
 
     /**
      * Returns a short buffer representing a sequence of shorts. This method does not copy the data.
+     * The returned buffer aliases the stream's buffer, which is kept alive and
+     * isn't reused for another message for as long as the returned buffer is
+     * reachable.
      *
      * @return A short buffer "slice" of the internal buffer.
      **/
@@ -1271,6 +1353,7 @@ public class InputStream
             java.nio.ShortBuffer v = shortBuf.slice();
             v.limit(sz);
             _buf.b.position(_buf.b.position() + sz * 2);
+            _buf.retain();
             return v.asReadOnlyBuffer();
         }
         catch(java.nio.BufferUnderflowException ex)
@@ -1357,6 +1440,9 @@ public class InputStream
 
     /**
      * Returns an int buffer representing a sequence of ints. This method does not copy the data.
+     * The returned buffer aliases the stream's buffer, which is kept alive and
+     * isn't reused for another message for as long as the returned buffer is
+     * reachable.
      *
      * @return An int buffer "slice" of the internal buffer.
      **/
@@ -1369,6 +1455,7 @@ public class InputStream
             java.nio.IntBuffer v = intBuf.slice();
             v.limit(sz);
             _buf.b.position(_buf.b.position() + sz * 4);
+            _buf.retain();
             return v.asReadOnlyBuffer();
         }
         catch(java.nio.BufferUnderflowException ex)
@@ -1455,6 +1542,9 @@ public class InputStream
 
     /**
      * Returns a long buffer representing a sequence of longs. This method does not copy the data.
+     * The returned buffer aliases the stream's buffer, which is kept alive and
+     * isn't reused for another message for as long as the returned buffer is
+     * reachable.
      *
      * @return A long buffer "slice" of the internal buffer.
      **/
@@ -1467,6 +1557,7 @@ public class InputStream
             java.nio.LongBuffer v = longBuf.slice();
             v.limit(sz);
             _buf.b.position(_buf.b.position() + sz * 8);
+            _buf.retain();
             return v.asReadOnlyBuffer();
         }
         catch(java.nio.BufferUnderflowException ex)
@@ -1553,6 +1644,9 @@ public class InputStream
 
     /**
      * Returns a float buffer representing a sequence of floats. This method does not copy the data.
+     * The returned buffer aliases the stream's buffer, which is kept alive and
+     * isn't reused for another message for as long as the returned buffer is
+     * reachable.
      *
      * @return A float buffer "slice" of the internal buffer.
      **/
@@ -1565,6 +1659,7 @@ public class InputStream
             java.nio.FloatBuffer v = floatBuf.slice();
             v.limit(sz);
             _buf.b.position(_buf.b.position() + sz * 4);
+            _buf.retain();
             return v.asReadOnlyBuffer();
         }
         catch(java.nio.BufferUnderflowException ex)
@@ -1651,6 +1746,9 @@ public class InputStream
 
     /**
      * Returns a double buffer representing a sequence of doubles. This method does not copy the data.
+     * The returned buffer aliases the stream's buffer, which is kept alive and
+     * isn't reused for another message for as long as the returned buffer is
+     * reachable.
      *
      * @return A double buffer "slice" of the internal buffer.
      **/
@@ -1663,6 +1761,7 @@ public class InputStream
             java.nio.DoubleBuffer v = doubleBuf.slice();
             v.limit(sz);
             _buf.b.position(_buf.b.position() + sz * 8);
+            _buf.retain();
             return v.asReadOnlyBuffer();
         }
         catch(java.nio.BufferUnderflowException ex)
@@ -1696,63 +1795,105 @@ public class InputStream
             {
                 throw new UnmarshalOutOfBoundsException();
             }
+            return decodeString(len);
+        }
+    }
 
-            try
+    /**
+     * Extracts a string from the stream. The given cache is used to return the
+     * same string instance for strings that were already read.
+     *
+     * @param cache The string cache, or null to always create a new string.
+     * @return The extracted string.
+     *
+     * @hidden
+     **/
+    public String readString(com.zeroc.IceInternal.StringCache cache)
+    {
+        if(cache == null)
+        {
+            return readString();
+        }
+
+        final int len = readSize();
+        if(len == 0)
+        {
+            return "";
+        }
+        else
+        {
+            if(_buf.b.remaining() < len)
             {
-                //
-                // We reuse the _stringBytes array to avoid creating
-                // excessive garbage.
-                //
-                if(_stringBytes == null || len > _stringBytes.length)
-                {
-                    _stringBytes = new byte[len];
-                }
-                if(_stringChars == null || len > _stringChars.length)
-                {
-                    _stringChars = new char[len];
-                }
-                _buf.b.get(_stringBytes, 0, len);
+                throw new UnmarshalOutOfBoundsException();
+            }
 
-                //
-                // It's more efficient to construct a string using a
-                // character array instead of a byte array, because
-                // byte arrays require conversion.
-                //
-                for(int i = 0; i < len; i++)
-                {
-                    if(_stringBytes[i] < 0)
-                    {
-                        //
-                        // Multi-byte character found - we must use
-                        // conversion.
-                        //
-                        // TODO: If the string contains garbage bytes
-                        // that won't correctly decode as UTF, the
-                        // behavior of this constructor is
-                        // undefined. It would be better to explicitly
-                        // decode using
-                        // java.nio.charset.CharsetDecoder and to
-                        // throw MarshalException if the string won't
-                        // decode.
-                        //
-                        return new String(_stringBytes, 0, len, "UTF8");
-                    }
-                    else
-                    {
-                        _stringChars[i] = (char)_stringBytes[i];
-                    }
-                }
-                return new String(_stringChars, 0, len);
+            String s = cache.get(_buf.b, len);
+            if(s == null)
+            {
+                s = decodeString(len);
+                cache.put(_stringBytes, len, s);
             }
-            catch(java.io.UnsupportedEncodingException ex)
+            return s;
+        }
+    }
+
+    private String decodeString(int len)
+    {
+        try
+        {
+            //
+            // We reuse the _stringBytes array to avoid creating
+            // excessive garbage.
+            //
+            if(_stringBytes == null || len > _stringBytes.length)
             {
-                assert(false);
-                return "";
+                _stringBytes = new byte[len];
             }
-            catch(java.nio.BufferUnderflowException ex)
+            if(_stringChars == null || len > _stringChars.length)
             {
-                throw new UnmarshalOutOfBoundsException();
+                _stringChars = new char[len];
             }
+            _buf.b.get(_stringBytes, 0, len);
+
+            //
+            // It's more efficient to construct a string using a
+            // character array instead of a byte array, because
+            // byte arrays require conversion.
+            //
+            for(int i = 0; i < len; i++)
+            {
+                if(_stringBytes[i] < 0)
+                {
+                    //
+                    // Multi-byte character found - we must use
+                    // conversion.
+                    //
+                    // TODO: If the string contains garbage bytes
+                    // that won't correctly decode as UTF, the
+                    // behavior of this constructor is
+                    // undefined. It would be better to explicitly
+                    // decode using
+                    // java.nio.charset.CharsetDecoder and to
+                    // throw MarshalException if the string won't
+                    // decode.
+                    //
+                    return new String(_stringBytes, 0, len, "UTF8");
+                }
+                else
+                {
+                    _stringChars[i] = (char)_stringBytes[i];
+                }
+            }
+            return new String(_stringChars, 0, len);
+        }
+        catch(java.io.UnsupportedEncodingException ex)
+        {
+            assert(false);
+            return "";
+        }
+        catch(java.nio.BufferUnderflowException ex)
+        {
+            throw new UnmarshalOutOfBoundsException();
         }
     }
 
@@ -2020,7 +2161,24 @@ public class InputStream
         throws UserException
     {
         initEncaps();
-        _encapsStack.decoder.throwException(factory);
+
+        //
+        // The exception is created in the scope of the stackless exceptions mode, if enabled.
+        //
+        final com.zeroc.IceInternal.StacklessExceptions mode =
+            _instance != null ? _instance.stacklessExceptions() : null;
+        final com.zeroc.IceInternal.StacklessExceptions previous = mode != null ? mode.enter() : null;
+        try
+        {
+            _encapsStack.decoder.throwException(factory);
+        }
+        finally
+        {
+            if(mode != null)
+            {
+                com.zeroc.IceInternal.StacklessExceptions.leave(previous);
+            }
+        }
     }
 
     private boolean readOptImpl(int readTag, OptionalFormat expectedFormat)
@@ -2245,6 +2403,16 @@ public class InputStream
 
     private enum SliceType { NoSlice, ValueSlice, ExceptionSlice }
 
+    private static final class PatchList extends java.util.ArrayList<java.util.function.Consumer<Value>>
+    {
+        PatchList()
+        {
+            super(4);
+        }
+
+        public static final long serialVersionUID = 0L;
+    }
+
     abstract private static class EncapsDecoder
     {
         EncapsDecoder(InputStream stream, boolean sliceValues, ValueFactoryManager f, java.util.function.Function<String, Class<?>> cr)
@@ -2254,7 +2422,7 @@ public class InputStream
             _valueFactoryManager = f;
             _classResolver = cr;
             _typeIdIndex = 0;
-            _unmarshaledMap = new java.util.TreeMap<>();
+            _unmarshaled = new Value[16];
         }
 
         abstract void readValue(java.util.function.Consumer<Value> cb);
@@ -2278,31 +2446,49 @@ public class InputStream
 
         protected String readTypeId(boolean isIndex)
         {
-            if(_typeIdMap == null) // Lazy initialization
-            {
-                _typeIdMap = new java.util.TreeMap<>();
-            }
-
             if(isIndex)
             {
                 int index = _stream.readSize();
-                String typeId = _typeIdMap.get(index);
-                if(typeId == null)
+                if(index <= 0 || index > _typeIdIndex)
                 {
                     throw new UnmarshalOutOfBoundsException();
                 }
-                return typeId;
+                return _typeIds[index];
             }
             else
             {
                 String typeId = _stream.readString();
-                _typeIdMap.put(++_typeIdIndex, typeId);
+                if(_typeIds == null) // Lazy initialization
+                {
+                    _typeIds = new String[8];
+                }
+                else if(_typeIdIndex + 1 == _typeIds.length)
+                {
+                    _typeIds = java.util.Arrays.copyOf(_typeIds, _typeIds.length * 2);
+                }
+                _typeIds[++_typeIdIndex] = typeId;
                 return typeId;
             }
         }
 
         protected Class<?> resolveClass(String typeId)
         {
+            if(_classResolver != null && _classResolver == _stream.instance())
+            {
+                //
+                // The communicator's type ID registry already caches the translations,
+                // including the failed ones.
+                //
+                try
+                {
+                    return _classResolver.apply(typeId);
+                }
+                catch(java.lang.Exception ex)
+                {
+                    throw new NoValueFactoryException("no value factory", typeId, ex);
+                }
+            }
+
             Class<?> cls = null;
             if(_typeIdCache == null)
             {
@@ -2386,86 +2572,132 @@ public class InputStream
 
         protected void addPatchEntry(int index, java.util.function.Consumer<Value> cb)
         {
-            assert(index > 0);
+            if(index <= 0)
+            {
+                throw new MarshalException("invalid object id");
+            }
 
             //
             // Check if we have already unmarshalled the instance. If that's the case,
             // just invoke the callback and we're done.
             //
-            Value obj = _unmarshaledMap.get(index);
-            if(obj != null)
+            if(index < _unmarshaled.length)
             {
-                cb.accept(obj);
-                return;
+                Value obj = _unmarshaled[index];
+                if(obj != null)
+                {
+                    cb.accept(obj);
+                    return;
+                }
             }
 
+            checkIndex(index);
             if(_patchMap == null) // Lazy initialization
             {
-                _patchMap = new java.util.TreeMap<>();
+                _patchMap = new java.lang.Object[java.lang.Math.max(16, index + 1)];
+            }
+            else if(index >= _patchMap.length)
+            {
+                _patchMap = java.util.Arrays.copyOf(_patchMap, java.lang.Math.max(index + 1, _patchMap.length * 2));
             }
 
             //
             // Add patch entry if the instance isn't unmarshaled yet,
             // the callback will be called when the instance is
-            // unmarshaled.
+            // unmarshaled. An entry is either a single callback, the
+            // common case, or a list of callbacks.
             //
-            java.util.LinkedList<java.util.function.Consumer<Value>> l = _patchMap.get(index);
-            if(l == null)
+            java.lang.Object e = _patchMap[index];
+            if(e == null)
             {
-                //
-                // We have no outstanding instances to be patched for this
-                // index, so make a new entry in the patch map.
-                //
-                l = new java.util.LinkedList<>();
-                _patchMap.put(index, l);
+                _patchMap[index] = cb;
+                ++_patchCount;
+            }
+            else if(e instanceof PatchList)
+            {
+                ((PatchList)e).add(cb);
             }
+            else
+            {
+                @SuppressWarnings("unchecked")
+                java.util.function.Consumer<Value> first = (java.util.function.Consumer<Value>)e;
+                PatchList l = new PatchList();
+                l.add(first);
+                l.add(cb);
+                _patchMap[index] = l;
+            }
+        }
 
-            //
-            // Append a patch entry for this instance.
-            //
-            l.add(cb);
+        protected boolean hasPendingPatches()
+        {
+            return _patchCount > 0;
+        }
+
+        //
+        // Instance IDs are assigned sequentially and each instance uses at least one byte of
+        // the stream, reject larger indexes rather than allocating tables for them.
+        //
+        private void checkIndex(int index)
+        {
+            if(index > _stream.size() + 1)
+            {
+                throw new MarshalException("invalid object id");
+            }
         }
 
         protected void unmarshal(int index, Value v)
         {
             //
-            // Add the instance to the map of unmarshaled instances, this must
+            // Add the instance to the table of unmarshaled instances, this must
             // be done before reading the instances (for circular references).
             //
-            _unmarshaledMap.put(index, v);
+            if(index >= _unmarshaled.length)
+            {
+                checkIndex(index);
+                _unmarshaled = java.util.Arrays.copyOf(_unmarshaled, java.lang.Math.max(index + 1, _unmarshaled.length * 2));
+            }
+            _unmarshaled[index] = v;
 
             //
             // Read the instance.
             //
             v._iceRead(_stream);
 
-            if(_patchMap != null)
+            if(_patchCount > 0 && index < _patchMap.length)
             {
                 //
                 // Patch all instances now that the instance is unmarshaled.
                 //
-                java.util.LinkedList<java.util.function.Consumer<Value>> l = _patchMap.get(index);
-                if(l != null)
+                java.lang.Object e = _patchMap[index];
+                if(e != null)
                 {
-                    assert(l.size() > 0);
-
                     //
                     // Patch all pointers that refer to the instance.
                     //
-                    for(java.util.function.Consumer<Value> cb : l)
+                    if(e instanceof PatchList)
+                    {
+                        for(java.util.function.Consumer<Value> cb : (PatchList)e)
+                        {
+                            cb.accept(v);
+                        }
+                    }
+                    else
                     {
+                        @SuppressWarnings("unchecked")
+                        java.util.function.Consumer<Value> cb = (java.util.function.Consumer<Value>)e;
                         cb.accept(v);
                     }
 
                     //
-                    // Clear out the patch map for that index -- there is nothing left
+                    // Clear out the patch table for that index -- there is nothing left
                     // to patch for that index for the time being.
                     //
-                    _patchMap.remove(index);
+                    _patchMap[index] = null;
+                    --_patchCount;
                 }
             }
 
-            if((_patchMap == null || _patchMap.isEmpty()) && _valueList == null)
+            if(_patchCount == 0 && _valueList == null)
             {
                 try
                 {
@@ -2485,7 +2717,7 @@ public class InputStream
                 }
                 _valueList.add(v);
 
-                if(_patchMap == null || _patchMap.isEmpty())
+                if(_patchCount == 0)
                 {
                     //
                     // Iterate over the instance list and invoke ice_postUnmarshal on
@@ -2519,9 +2751,10 @@ public class InputStream
         //
         // Encapsulation attributes for value unmarshaling.
         //
-        protected java.util.TreeMap<Integer, java.util.LinkedList<java.util.function.Consumer<Value>> > _patchMap;
-        private java.util.TreeMap<Integer, Value> _unmarshaledMap;
-        private java.util.TreeMap<Integer, String> _typeIdMap;
+        private java.lang.Object[] _patchMap; // Indexed by instance ID, a callback or a PatchList.
+        private int _patchCount; // The number of instance IDs with pending callbacks.
+        private Value[] _unmarshaled; // Indexed by instance ID.
+        private String[] _typeIds; // Indexed by type ID index.
         private int _typeIdIndex;
         private java.util.List<Value> _valueList;
         private java.util.HashMap<String, Class<?> > _typeIdCache;
@@ -2544,7 +2777,7 @@ public class InputStream
             // Object references are encoded as a negative integer in 1.0.
             //
             int index = _stream.readInt();
-            if(index > 0)
+            if(index > 0 || index == Integer.MIN_VALUE)
             {
                 throw new MarshalException("invalid object id");
             }
@@ -2739,7 +2972,7 @@ public class InputStream
             }
             while(num > 0);
 
-            if(_patchMap != null && !_patchMap.isEmpty())
+            if(hasPendingPatches())
             {
                 //
                 // If any entries remain in the patch map, the sender has sent an index for an object, but failed
@@ -3353,7 +3586,7 @@ public class InputStream
             //
             unmarshal(index, v);
 
-            if(_current == null && _patchMap != null && !_patchMap.isEmpty())
+            if(_current == null && hasPendingPatches())
             {
                 //
                 // If any entries remain in the patch map, the sender has sent an index for an instance, but failed
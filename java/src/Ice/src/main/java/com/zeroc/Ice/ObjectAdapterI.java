@@ -492,7 +492,7 @@ public final class ObjectAdapterI implements ObjectAdapter
     }
 
     @Override
-    public synchronized com.zeroc.Ice.Object
+    public com.zeroc.Ice.Object
     findFacet(Identity ident, String facet)
     {
         checkForDeactivation();
@@ -502,7 +502,7 @@ public final class ObjectAdapterI implements ObjectAdapter
     }
 
     @Override
-    public synchronized java.util.Map<String, com.zeroc.Ice.Object>
+    public java.util.Map<String, com.zeroc.Ice.Object>
     findAllFacets(Identity ident)
     {
         checkForDeactivation();
@@ -512,7 +512,7 @@ public final class ObjectAdapterI implements ObjectAdapter
     }
 
     @Override
-    public synchronized com.zeroc.Ice.Object
+    public com.zeroc.Ice.Object
     findByProxy(ObjectPrx proxy)
     {
         checkForDeactivation();
@@ -522,7 +522,7 @@ public final class ObjectAdapterI implements ObjectAdapter
     }
 
     @Override
-    public synchronized com.zeroc.Ice.Object
+    public com.zeroc.Ice.Object
     findDefaultServant(String category)
     {
         checkForDeactivation();
@@ -549,7 +549,7 @@ public final class ObjectAdapterI implements ObjectAdapter
     }
 
     @Override
-    public synchronized ServantLocator
+    public ServantLocator
     findServantLocator(String prefix)
     {
         checkForDeactivation();
@@ -1540,11 +1540,13 @@ public final class ObjectAdapterI implements ObjectAdapter
         "Router.LocatorCacheTimeout",
         "Router.InvocationTimeout",
         "ProxyOptions",
+        "ThreadPool.Selectors",
         "ThreadPool.Size",
         "ThreadPool.SizeMax",
         "ThreadPool.SizeWarn",
         "ThreadPool.StackSize",
-        "ThreadPool.Serialize"
+        "ThreadPool.Serialize",
+        "ThreadPool.VirtualThreads"
     };
 
     boolean
@@ -1597,13 +1599,13 @@ public final class ObjectAdapterI implements ObjectAdapter
     private static final int StateDestroying = 6;
     private static final int StateDestroyed  = 7;
 
-    private int _state = StateUninitialized;
+    private volatile int _state = StateUninitialized; // Volatile, the servant lookups don't lock the adapter.
     private com.zeroc.IceInternal.Instance _instance;
     private Communicator _communicator;
     private com.zeroc.IceInternal.ObjectAdapterFactory _objectAdapterFactory;
     private com.zeroc.IceInternal.ThreadPool _threadPool;
     private com.zeroc.IceInternal.ACMConfig _acm;
-    private com.zeroc.IceInternal.ServantManager _servantManager;
+    final private com.zeroc.IceInternal.ServantManager _servantManager;
     final private String _name;
     final private String _id;
     final private String _replicaGroupId;
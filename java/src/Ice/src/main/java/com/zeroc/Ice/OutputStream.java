@@ -91,12 +91,12 @@ public class OutputStream
 
     public OutputStream(com.zeroc.IceInternal.Instance instance, EncodingVersion encoding)
     {
-        initialize(instance, encoding, instance.cacheMessageBuffers() > 1);
+        this(instance, encoding, instance.cacheMessageBuffers() > 1);
     }
 
     public OutputStream(com.zeroc.IceInternal.Instance instance, EncodingVersion encoding, boolean direct)
     {
-        initialize(instance, encoding, direct);
+        initialize(instance, encoding, new com.zeroc.IceInternal.Buffer(direct, instance.bufferPool()));
     }
 
     public OutputStream(com.zeroc.IceInternal.Instance instance, EncodingVersion encoding,
@@ -1811,7 +1811,7 @@ public class OutputStream
             _stream = stream;
             _encaps = encaps;
             _typeIdIndex = 0;
-            _marshaledMap = new java.util.IdentityHashMap<>();
+            _marshaledMap = new com.zeroc.IceInternal.IdentityIntMap();
         }
 
         abstract void writeValue(Value v);
@@ -1835,7 +1835,7 @@ public class OutputStream
         {
             if(_typeIdMap == null) // Lazy initialization
             {
-                _typeIdMap = new java.util.TreeMap<>();
+                _typeIdMap = new java.util.HashMap<>();
             }
 
             Integer p = _typeIdMap.get(typeId);
@@ -1854,8 +1854,8 @@ public class OutputStream
         final protected Encaps _encaps;
 
         // Encapsulation attributes for instance marshaling.
-        final protected java.util.IdentityHashMap<Value, Integer> _marshaledMap;
-        private java.util.TreeMap<String, Integer> _typeIdMap;
+        final protected com.zeroc.IceInternal.IdentityIntMap _marshaledMap;
+        private java.util.HashMap<String, Integer> _typeIdMap;
         private int _typeIdIndex;
     }
 
@@ -1866,7 +1866,7 @@ public class OutputStream
             super(stream, encaps);
             _sliceType = SliceType.NoSlice;
             _valueIdIndex = 0;
-            _toBeMarshaledMap = new java.util.IdentityHashMap<>();
+            _toBeMarshaled = new java.util.ArrayList<>();
         }
 
         @Override
@@ -1971,31 +1971,29 @@ public class OutputStream
         @Override
         void writePendingValues()
         {
-            while(_toBeMarshaledMap.size() > 0)
+            while(!_toBeMarshaled.isEmpty())
             {
                 //
-                // Consider the to be marshalled instances as marshaled now,
-                // this is necessary to avoid adding again the "to be
-                // marshaled instances" into _toBeMarshaledMap while writing
-                // instances.
+                // The to be marshaled instances are already registered in
+                // _marshaledMap with consecutive IDs, swap the list to collect
+                // the instances triggered by the instances marshaled below.
                 //
-                _marshaledMap.putAll(_toBeMarshaledMap);
-
-                java.util.IdentityHashMap<Value, Integer> savedMap = _toBeMarshaledMap;
-                _toBeMarshaledMap = new java.util.IdentityHashMap<>();
-                _stream.writeSize(savedMap.size());
-                for(java.util.Map.Entry<Value, Integer> p : savedMap.entrySet())
+                java.util.List<Value> saved = _toBeMarshaled;
+                _toBeMarshaled = new java.util.ArrayList<>();
+                int index = _valueIdIndex - saved.size();
+                _stream.writeSize(saved.size());
+                for(Value v : saved)
                 {
                     //
                     // Ask the instance to marshal itself. Any new class
                     // instances that are triggered by the classes marshaled
-                    // are added to toBeMarshaledMap.
+                    // are added to _toBeMarshaled.
                     //
-                    _stream.writeInt(p.getValue().intValue());
+                    _stream.writeInt(++index);
 
                     try
                     {
-                        p.getKey().ice_preMarshal();
+                        v.ice_preMarshal();
                     }
                     catch(java.lang.Exception ex)
                     {
@@ -2003,7 +2001,7 @@ public class OutputStream
                         _stream.instance().initializationData().logger.warning(s);
                     }
 
-                    p.getKey()._iceWrite(_stream);
+                    v._iceWrite(_stream);
                 }
             }
             _stream.writeSize(0); // Zero marker indicates end of sequence of sequences of instances.
@@ -2014,28 +2012,21 @@ public class OutputStream
             assert(v != null);
 
             //
-            // Look for this instance in the to-be-marshaled map.
-            //
-            Integer p = _toBeMarshaledMap.get(v);
-            if(p != null)
-            {
-                return p.intValue();
-            }
-
-            //
-            // Didn't find it, try the marshaled map next.
+            // Look for this instance in the marshaled map, it also contains
+            // the instances to be marshaled.
             //
-            p = _marshaledMap.get(v);
-            if(p != null)
+            int p = _marshaledMap.get(v);
+            if(p != 0)
             {
-                return p.intValue();
+                return p;
             }
 
             //
             // We haven't seen this instance previously, create a new
-            // index, and insert it into the to-be-marshaled map.
+            // index, and add it to the instances to be marshaled.
             //
-            _toBeMarshaledMap.put(v, ++_valueIdIndex);
+            _marshaledMap.put(v, ++_valueIdIndex);
+            _toBeMarshaled.add(v);
             return _valueIdIndex;
         }
 
@@ -2047,7 +2038,7 @@ public class OutputStream
 
         // Encapsulation attributes for instance marshaling.
         private int _valueIdIndex;
-        private java.util.IdentityHashMap<Value, Integer> _toBeMarshaledMap;
+        private java.util.List<Value> _toBeMarshaled; // Registered with consecutive IDs ending at _valueIdIndex.
     }
 
     private static final class EncapsEncoder11 extends EncapsEncoder
@@ -2071,7 +2062,7 @@ public class OutputStream
                 if(_current.indirectionTable == null) // Lazy initialization
                 {
                     _current.indirectionTable = new java.util.ArrayList<>();
-                    _current.indirectionMap = new java.util.IdentityHashMap<>();
+                    _current.indirectionMap = new com.zeroc.IceInternal.IdentityIntMap();
                 }
 
                 //
@@ -2081,8 +2072,8 @@ public class OutputStream
                 // each slice and is always read (even if the Slice is
                 // unknown).
                 //
-                Integer index = _current.indirectionMap.get(v);
-                if(index == null)
+                int index = _current.indirectionMap.get(v);
+                if(index == 0)
                 {
                     _current.indirectionTable.add(v);
                     final int idx = _current.indirectionTable.size(); // Position + 1 (0 is reserved for nil)
@@ -2091,7 +2082,7 @@ public class OutputStream
                 }
                 else
                 {
-                    _stream.writeSize(index.intValue());
+                    _stream.writeSize(index);
                 }
             }
             else
@@ -2307,7 +2298,7 @@ public class OutputStream
                     if(_current.indirectionTable == null) // Lazy initialization
                     {
                         _current.indirectionTable = new java.util.ArrayList<>();
-                        _current.indirectionMap = new java.util.IdentityHashMap<>();
+                        _current.indirectionMap = new com.zeroc.IceInternal.IdentityIntMap();
                     }
                     for(Value o : info.instances)
                     {
@@ -2326,8 +2317,8 @@ public class OutputStream
             //
             // If the instance was already marshaled, just write it's ID.
             //
-            Integer p = _marshaledMap.get(v);
-            if(p != null)
+            int p = _marshaledMap.get(v);
+            if(p != 0)
             {
                 _stream.writeSize(p);
                 return;
@@ -2374,7 +2365,7 @@ public class OutputStream
             int writeSlice;    // Position of the slice data members
             int sliceFlagsPos; // Position of the slice flags
             java.util.List<Value> indirectionTable;
-            java.util.IdentityHashMap<Value, Integer> indirectionMap;
+            com.zeroc.IceInternal.IdentityIntMap indirectionMap;
 
             final InstanceData previous;
             InstanceData next;
@@ -0,0 +1,449 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.Ice;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import com.zeroc.IceInternal.Incoming;
+
+/**
+ * A servant that receives the payloads sent with {@link StreamSender}. Each stream is
+ * delivered to its own {@link Subscriber}, chunk by chunk and in order, as the chunks
+ * arrive. A chunk is only acknowledged to the sender once {@link Subscriber#onNext}
+ * returns, so a slow subscriber throttles the sender.
+ *
+ * The chunks passed to the subscriber are read-only views of the request buffer; they
+ * are not copied and remain valid for as long as the subscriber holds on to them.
+ **/
+public class StreamReceiver implements com.zeroc.Ice.Object
+{
+    /**
+     * Receives the chunks of a stream. The methods of a subscriber are never called
+     * concurrently.
+     **/
+    public interface Subscriber
+    {
+        /**
+         * Called for each chunk of the stream.
+         *
+         * @param chunk The chunk data.
+         * @throws UserException A user exception raised by this method fails the stream,
+         * it's reported to the sender.
+         **/
+        void onNext(java.nio.ByteBuffer chunk)
+            throws UserException;
+
+        /**
+         * Called once all the chunks of the stream have been delivered.
+         *
+         * @throws UserException A user exception raised by this method fails the stream,
+         * it's reported to the sender.
+         **/
+        void onComplete()
+            throws UserException;
+
+        /**
+         * Called if the sender aborted the stream or if the connection of the stream
+         * was closed before the stream completed.
+         *
+         * @param ex The reason of the failure.
+         **/
+        void onError(LocalException ex);
+    }
+
+    /**
+     * Creates the subscriber of a new stream.
+     **/
+    @FunctionalInterface
+    public interface SubscriberFactory
+    {
+        /**
+         * Creates the subscriber of a new stream.
+         *
+         * @param current The Current object of the first chunk of the stream.
+         * @return The subscriber.
+         * @throws UserException A user exception raised by this method fails the stream,
+         * it's reported to the sender.
+         **/
+        Subscriber subscribe(Current current)
+            throws UserException;
+    }
+
+    /**
+     * Creates a stream receiver.
+     *
+     * @param factory The factory called to create the subscriber of each new stream.
+     **/
+    public StreamReceiver(SubscriberFactory factory)
+    {
+        this(factory, 0);
+    }
+
+    /**
+     * Creates a stream receiver.
+     *
+     * @param factory The factory called to create the subscriber of each new stream.
+     * @param window The maximum number of chunks of a stream received ahead of the next
+     * chunk to deliver, or 0 for the default (64). It must not be smaller than the credits
+     * of the senders.
+     **/
+    public StreamReceiver(SubscriberFactory factory, int window)
+    {
+        _factory = factory;
+        _window = window > 0 ? window : DefaultWindow;
+    }
+
+    /** @hidden */
+    @Override
+    public CompletionStage<OutputStream> _iceDispatch(Incoming in, Current current)
+        throws UserException
+    {
+        if(current.operation.startsWith("ice_"))
+        {
+            return com.zeroc.Ice.Object.super._iceDispatch(in, current);
+        }
+
+        InputStream istr = in.startReadParams();
+        final String id = istr.readString();
+        final long seq = istr.readLong();
+        final byte type = istr.readByte();
+        final java.nio.ByteBuffer data = istr.readByteBuffer();
+        in.endReadParams();
+
+        CompletableFuture<Void> f = new CompletableFuture<>();
+        if(type == ChunkAbort)
+        {
+            abort(id);
+            f.complete(null);
+        }
+        else if(type == ChunkData || type == ChunkEnd)
+        {
+            receive(id, new Chunk(seq, type, data, current, f));
+        }
+        else
+        {
+            throw new MarshalException("invalid stream chunk type " + type);
+        }
+        return in.setResultFuture(f);
+    }
+
+    private void receive(String id, Chunk chunk)
+    {
+        Stream stream;
+        java.util.List<Stream> closed = null;
+        synchronized(this)
+        {
+            stream = _streams.get(id);
+            if(stream == null)
+            {
+                LocalException ex = _reaped.get(id);
+                if(ex != null)
+                {
+                    //
+                    // A chunk of a stream that failed or was reaped, it's still in flight.
+                    //
+                    chunk.future.completeExceptionally(ex);
+                    return;
+                }
+                closed = reap();
+                stream = new Stream(id, chunk.current.con);
+                _streams.put(id, stream);
+            }
+        }
+
+        if(closed != null)
+        {
+            for(Stream s : closed)
+            {
+                fail(s, s.closed, true);
+            }
+        }
+
+        synchronized(stream)
+        {
+            if(stream.failure != null)
+            {
+                chunk.future.completeExceptionally(stream.failure);
+                return;
+            }
+            if(chunk.seq < stream.next || chunk.seq - stream.next >= _window ||
+               stream.pending.containsKey(chunk.seq))
+            {
+                //
+                // A duplicate or stale chunk would replace or never leave the pending chunks, and
+                // a chunk too far ahead would be buffered without limit.
+                //
+                chunk.future.completeExceptionally(
+                    new ProtocolException("invalid sequence number " + chunk.seq + " for stream `" + id + "'"));
+                return;
+            }
+            stream.pending.put(chunk.seq, chunk);
+            stream.lastActivity = com.zeroc.IceInternal.Time.currentMonotonicTimeMillis();
+            if(stream.delivering)
+            {
+                //
+                // Another thread is delivering the chunks of this stream, it will deliver
+                // this chunk once its predecessors are delivered.
+                //
+                return;
+            }
+            stream.delivering = true;
+        }
+
+        while(true)
+        {
+            Chunk next;
+            boolean notify = false;
+            synchronized(stream)
+            {
+                next = stream.failure == null ? stream.pending.remove(stream.next) : null;
+                if(next == null)
+                {
+                    stream.delivering = false;
+                    notify = stream.notifyError && stream.subscriber != null;
+                    stream.notifyError = false;
+                }
+                else
+                {
+                    ++stream.next;
+                }
+            }
+
+            if(next == null)
+            {
+                if(notify)
+                {
+                    stream.subscriber.onError(stream.failure);
+                }
+                return;
+            }
+
+            try
+            {
+                if(stream.subscriber == null)
+                {
+                    Subscriber subscriber = _factory.subscribe(next.current);
+                    synchronized(stream)
+                    {
+                        stream.subscriber = subscriber;
+                    }
+                }
+
+                if(next.type == ChunkEnd)
+                {
+                    stream.subscriber.onComplete();
+                    synchronized(this)
+                    {
+                        _streams.remove(id);
+                    }
+                }
+                else
+                {
+                    stream.subscriber.onNext(next.data);
+                }
+                next.future.complete(null);
+            }
+            catch(Throwable ex)
+            {
+                next.future.completeExceptionally(ex);
+                UnknownException failure = new UnknownException("stream `" + id + "' failed");
+                fail(stream, failure, false);
+                remove(stream, failure);
+            }
+        }
+    }
+
+    private void abort(String id)
+    {
+        Stream stream;
+        synchronized(this)
+        {
+            stream = _streams.remove(id);
+            _reaped.remove(id);
+        }
+        if(stream != null)
+        {
+            fail(stream, new InvocationCanceledException(), true);
+        }
+    }
+
+    //
+    // Removes a failed stream. The failure is remembered to reject the chunks of the stream
+    // that are still in flight until the sender aborts the stream.
+    //
+    private synchronized void remove(Stream stream, LocalException ex)
+    {
+        if(_streams.get(stream.id) == stream)
+        {
+            _streams.remove(stream.id);
+            _reaped.put(stream.id, ex);
+        }
+    }
+
+    //
+    // Removes the streams whose connection is closed and the collocated streams which didn't
+    // receive any chunk for ReapTimeout milliseconds. This is called when a new stream is
+    // created so that the streams abandoned by a sender don't accumulate.
+    //
+    private java.util.List<Stream> reap()
+    {
+        java.util.List<Stream> closed = null;
+        final long now = com.zeroc.IceInternal.Time.currentMonotonicTimeMillis();
+        java.util.Iterator<Stream> p = _streams.values().iterator();
+        while(p.hasNext())
+        {
+            final Stream stream = p.next();
+            LocalException reason = null;
+            if(stream.connection != null)
+            {
+                try
+                {
+                    stream.connection.throwException();
+                }
+                catch(LocalException ex)
+                {
+                    reason = ex;
+                }
+            }
+            else
+            {
+                synchronized(stream)
+                {
+                    if(!stream.delivering && now - stream.lastActivity > ReapTimeout)
+                    {
+                        reason = new TimeoutException();
+                    }
+                }
+            }
+
+            if(reason != null)
+            {
+                p.remove();
+                _reaped.put(stream.id, reason);
+                stream.closed = reason;
+                if(closed == null)
+                {
+                    closed = new java.util.ArrayList<>();
+                }
+                closed.add(stream);
+            }
+        }
+        return closed;
+    }
+
+    //
+    // Marks the stream as failed and fails its pending chunks. If notify is true, the
+    // subscriber is notified, by the delivering thread if there's one.
+    //
+    private static void fail(Stream stream, LocalException ex, boolean notify)
+    {
+        java.util.List<Chunk> pending;
+        boolean notifyNow = false;
+        synchronized(stream)
+        {
+            if(stream.failure != null)
+            {
+                return;
+            }
+            stream.failure = ex;
+            pending = new java.util.ArrayList<>(stream.pending.values());
+            stream.pending.clear();
+            if(notify)
+            {
+                if(stream.delivering)
+                {
+                    stream.notifyError = true;
+                }
+                else
+                {
+                    notifyNow = stream.subscriber != null;
+                }
+            }
+        }
+
+        for(Chunk chunk : pending)
+        {
+            chunk.future.completeExceptionally(ex);
+        }
+        if(notifyNow)
+        {
+            stream.subscriber.onError(ex);
+        }
+    }
+
+    private static class Chunk
+    {
+        Chunk(long seq, byte type, java.nio.ByteBuffer data, Current current, CompletableFuture<Void> future)
+        {
+            this.seq = seq;
+            this.type = type;
+            this.data = data;
+            this.current = current;
+            this.future = future;
+        }
+
+        final long seq;
+        final byte type;
+        final java.nio.ByteBuffer data;
+        final Current current;
+        final CompletableFuture<Void> future; // Completed once the chunk is consumed.
+    }
+
+    private static class Stream
+    {
+        Stream(String id, Connection connection)
+        {
+            this.id = id;
+            this.connection = connection;
+        }
+
+        final String id;
+        final Connection connection; // Null for collocated streams.
+        final java.util.Map<Long, Chunk> pending = new java.util.HashMap<>();
+        Subscriber subscriber;
+        long next;
+        long lastActivity; // The time of the last received chunk.
+        boolean delivering;
+        boolean notifyError;
+        LocalException failure;
+        LocalException closed; // Set when the stream is reaped.
+    }
+
+    //
+    // Chunk types, see StreamSender.
+    //
+    static final byte ChunkData = 0;
+    static final byte ChunkEnd = 1;
+    static final byte ChunkAbort = 2;
+
+    private static final int DefaultWindow = 64;
+    private static final int MaxReaped = 1024;
+    private static final long ReapTimeout = 60 * 1000;
+
+    private final SubscriberFactory _factory;
+    private final int _window;
+    private final java.util.Map<String, Stream> _streams = new java.util.HashMap<>();
+
+    //
+    // The failures of the streams recently failed or reaped, bounded to MaxReaped streams.
+    //
+    private final java.util.Map<String, LocalException> _reaped =
+        new java.util.LinkedHashMap<String, LocalException>()
+        {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<String, LocalException> eldest)
+            {
+                return size() > MaxReaped;
+            }
+
+            public static final long serialVersionUID = 0L;
+        };
+}
@@ -0,0 +1,356 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.Ice;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.zeroc.IceInternal.OutgoingAsync;
+
+/**
+ * Sends a payload of arbitrary size to a {@link StreamReceiver} servant. The payload is
+ * split into chunks that are each sent as a separate twoway request, so the payload
+ * isn't limited by <code>Ice.MessageSizeMax</code> and is never buffered entirely in
+ * memory on either side.
+ *
+ * Flow control is credit-based: at most <code>credits</code> chunks are outstanding at any
+ * time and a credit is only returned once the receiver has consumed the chunk. The future
+ * returned by {@link #write} completes once all the chunks of the given buffer have been
+ * sent, so a writer that waits for it never holds more than a window of chunks.
+ **/
+public final class StreamSender
+{
+    /**
+     * Creates a sender with the default chunk size and number of credits.
+     *
+     * @param proxy The proxy of the {@link StreamReceiver} servant. It must be a twoway proxy.
+     * @param operation The operation name used for the chunk requests.
+     **/
+    public StreamSender(ObjectPrx proxy, String operation)
+    {
+        this(proxy, operation, 0, 0);
+    }
+
+    /**
+     * Creates a sender.
+     *
+     * @param proxy The proxy of the {@link StreamReceiver} servant. It must be a twoway proxy.
+     * @param operation The operation name used for the chunk requests.
+     * @param chunkSize The maximum size of a chunk in bytes, or 0 for the default (256KB). The
+     * chunk size is capped so that chunk requests don't exceed <code>Ice.MessageSizeMax</code>.
+     * @param credits The maximum number of outstanding chunks, or 0 for the default (8).
+     **/
+    public StreamSender(ObjectPrx proxy, String operation, int chunkSize, int credits)
+    {
+        if(!proxy.ice_isTwoway())
+        {
+            throw new TwowayOnlyException(operation);
+        }
+
+        final int messageSizeMax = ((_ObjectPrxI)proxy)._getReference().getInstance().messageSizeMax();
+        _proxy = proxy;
+        _operation = operation;
+        _id = java.util.UUID.randomUUID().toString();
+        _chunkSize = Math.min(chunkSize > 0 ? chunkSize : DefaultChunkSize, Math.max(messageSizeMax - 1024, 1));
+        _credits = credits > 0 ? credits : DefaultCredits;
+    }
+
+    /**
+     * Sends the remaining bytes of the given buffer. The buffer must not be modified until
+     * the returned future completes.
+     *
+     * @param data The data to send.
+     * @return A future that completes once all the data has been sent. It completes
+     * exceptionally if the stream failed or was aborted.
+     **/
+    public CompletableFuture<Void> write(java.nio.ByteBuffer data)
+    {
+        CompletableFuture<Void> f = new CompletableFuture<>();
+        synchronized(this)
+        {
+            if(_closed)
+            {
+                throw new IllegalStateException("stream is closed");
+            }
+            if(_failure != null)
+            {
+                f.completeExceptionally(_failure);
+                return f;
+            }
+            if(!data.hasRemaining())
+            {
+                f.complete(null);
+                return f;
+            }
+
+            //
+            // The chunks of a write can be marshaled concurrently by different threads, the
+            // future completes once all of them are marshaled.
+            //
+            Write w = new Write(f, (data.remaining() + _chunkSize - 1) / _chunkSize);
+            java.nio.ByteBuffer b = data.duplicate();
+            while(b.hasRemaining())
+            {
+                java.nio.ByteBuffer chunk = b.slice();
+                final int sz = Math.min(_chunkSize, b.remaining());
+                chunk.limit(sz);
+                b.position(b.position() + sz);
+                _queue.add(new Chunk(chunk, StreamReceiver.ChunkData, w));
+            }
+        }
+        flush();
+        return f;
+    }
+
+    /**
+     * Ends the stream. No more data can be written once this method is called.
+     *
+     * @return A future that completes once the receiver has consumed all the data and
+     * completed the stream, or exceptionally if the stream failed or was aborted.
+     **/
+    public CompletableFuture<Void> complete()
+    {
+        synchronized(this)
+        {
+            if(!_closed)
+            {
+                _closed = true;
+                if(_failure == null)
+                {
+                    _queue.add(new Chunk(null, StreamReceiver.ChunkEnd, null));
+                }
+            }
+        }
+        flush();
+        return _completion;
+    }
+
+    /**
+     * Aborts the stream. Pending writes and the stream completion fail with
+     * <code>InvocationCanceledException</code> and the receiver is notified once the
+     * outstanding chunks are completed.
+     **/
+    public void abort()
+    {
+        java.util.List<Chunk> canceled;
+        synchronized(this)
+        {
+            _closed = true;
+            if(_failure != null)
+            {
+                return;
+            }
+            _failure = new InvocationCanceledException();
+            canceled = new java.util.ArrayList<>(_queue);
+            _queue.clear();
+        }
+        fail(canceled, new InvocationCanceledException());
+        flush();
+    }
+
+    private void flush()
+    {
+        java.util.List<Chunk> chunks = null;
+        Chunk abort = null;
+        boolean done = false;
+        Throwable failure = null;
+        synchronized(this)
+        {
+            while(_failure == null && _inFlight < _credits && !_queue.isEmpty())
+            {
+                Chunk chunk = _queue.poll();
+                chunk.seq = _seq++;
+                ++_inFlight;
+                if(chunks == null)
+                {
+                    chunks = new java.util.ArrayList<>();
+                }
+                chunks.add(chunk);
+            }
+
+            if(!_finished && _inFlight == 0 && _queue.isEmpty())
+            {
+                if(_failure != null)
+                {
+                    //
+                    // Nothing is outstanding anymore, it's safe to tell the receiver to release
+                    // the stream. Aborting an unknown stream is a no-op for the receiver.
+                    //
+                    if(_seq > 0)
+                    {
+                        abort = new Chunk(null, StreamReceiver.ChunkAbort, null);
+                        abort.seq = _seq++;
+                    }
+                    failure = _failure;
+                    _finished = true;
+                }
+                else if(_ended)
+                {
+                    done = true;
+                    _finished = true;
+                }
+            }
+        }
+
+        if(chunks != null)
+        {
+            for(Chunk chunk : chunks)
+            {
+                send(chunk);
+            }
+        }
+
+        if(abort != null)
+        {
+            invoke(abort); // Best-effort, the result is ignored.
+        }
+
+        if(failure != null)
+        {
+            _completion.completeExceptionally(failure);
+        }
+        else if(done)
+        {
+            _completion.complete(null);
+        }
+    }
+
+    private void send(Chunk chunk)
+    {
+        invoke(chunk).whenComplete((r, ex) -> completed(chunk, ex));
+
+        //
+        // The chunk is marshaled once invoke returns. The caller can reuse its buffer once
+        // all the chunks of the write are marshaled.
+        //
+        if(chunk.write != null)
+        {
+            chunk.write.done(null);
+        }
+    }
+
+    private OutgoingAsync<Void> invoke(Chunk chunk)
+    {
+        OutgoingAsync<Void> f = new OutgoingAsync<>(_proxy, _operation, OperationMode.Normal, false, null);
+        f.invoke(true, null, null, ostr ->
+            {
+                ostr.writeString(_id);
+                ostr.writeLong(chunk.seq);
+                ostr.writeByte(chunk.type);
+                ostr.writeByteBuffer(chunk.data);
+            }, null);
+        return f;
+    }
+
+    private void completed(Chunk chunk, Throwable ex)
+    {
+        java.util.List<Chunk> canceled = null;
+        synchronized(this)
+        {
+            --_inFlight;
+            if(ex != null)
+            {
+                if(_failure == null)
+                {
+                    _failure = ex;
+                    canceled = new java.util.ArrayList<>(_queue);
+                    _queue.clear();
+                }
+            }
+            else if(chunk.type == StreamReceiver.ChunkEnd)
+            {
+                _ended = true;
+            }
+        }
+        if(canceled != null)
+        {
+            fail(canceled, ex);
+        }
+        flush();
+    }
+
+    private static void fail(java.util.List<Chunk> chunks, Throwable ex)
+    {
+        for(Chunk chunk : chunks)
+        {
+            if(chunk.write != null)
+            {
+                chunk.write.done(ex);
+            }
+        }
+    }
+
+    private static class Chunk
+    {
+        Chunk(java.nio.ByteBuffer data, byte type, Write write)
+        {
+            this.data = data;
+            this.type = type;
+            this.write = write;
+        }
+
+        final java.nio.ByteBuffer data;
+        final byte type;
+        final Write write; // The write of the chunk, null for the end and abort chunks.
+        long seq;
+    }
+
+    private static class Write
+    {
+        Write(CompletableFuture<Void> future, int chunks)
+        {
+            this.future = future;
+            this.pending.set(chunks);
+        }
+
+        //
+        // Called once a chunk of the write is marshaled or canceled. The future completes
+        // once no other thread marshals a chunk of the write anymore.
+        //
+        void done(Throwable ex)
+        {
+            if(ex != null)
+            {
+                failure = ex;
+            }
+            if(pending.decrementAndGet() == 0)
+            {
+                if(failure != null)
+                {
+                    future.completeExceptionally(failure);
+                }
+                else
+                {
+                    future.complete(null);
+                }
+            }
+        }
+
+        final CompletableFuture<Void> future;
+        final java.util.concurrent.atomic.AtomicInteger pending = new java.util.concurrent.atomic.AtomicInteger();
+        volatile Throwable failure;
+    }
+
+    private static final int DefaultChunkSize = 256 * 1024;
+    private static final int DefaultCredits = 8;
+
+    private final ObjectPrx _proxy;
+    private final String _operation;
+    private final String _id;
+    private final int _chunkSize;
+    private final int _credits;
+    private final java.util.ArrayDeque<Chunk> _queue = new java.util.ArrayDeque<>();
+    private final CompletableFuture<Void> _completion = new CompletableFuture<>();
+    private long _seq;
+    private int _inFlight;
+    private boolean _closed;
+    private boolean _ended;
+    private boolean _finished;
+    private Throwable _failure;
+}
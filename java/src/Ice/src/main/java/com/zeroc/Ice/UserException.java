@@ -23,6 +23,19 @@ public abstract class UserException extends java.lang.Exception implements Clone
         super(cause);
     }
 
+    /**
+     * Fills in the stack trace of this exception, unless the exception is created by the
+     * Ice run time and the stackless exceptions mode is enabled for its type (see the
+     * <code>Ice.StacklessExceptions</code> properties).
+     *
+     * @return This exception.
+     **/
+    @Override
+    public synchronized Throwable fillInStackTrace()
+    {
+        return com.zeroc.IceInternal.StacklessExceptions.suppress(this) ? this : super.fillInStackTrace();
+    }
+
     /**
      * Creates a copy of this exception.
      *
@@ -11,20 +11,22 @@ package com.zeroc.Ice;
 
 public class ValueFactoryManagerI implements ValueFactoryManager
 {
-    public synchronized void add(ValueFactory factory, String id)
+    public void add(ValueFactory factory, String id)
     {
-        if(_factoryMap.containsKey(id))
+        if(_factoryMap.putIfAbsent(id, factory) != null)
         {
             throw new AlreadyRegisteredException("value factory", id);
         }
-
-        _factoryMap.put(id, factory);
     }
 
-    public synchronized ValueFactory find(String id)
+    //
+    // Called for every unmarshaled instance, the lookup doesn't lock.
+    //
+    public ValueFactory find(String id)
     {
         return _factoryMap.get(id);
     }
 
-    private java.util.HashMap<String, ValueFactory> _factoryMap = new java.util.HashMap<>();
+    private final java.util.concurrent.ConcurrentHashMap<String, ValueFactory> _factoryMap =
+        new java.util.concurrent.ConcurrentHashMap<>();
 }
@@ -0,0 +1,43 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+final class BZip2Compressor implements Compressor
+{
+    @Override
+    public byte id()
+    {
+        return Protocol.compressionBZip2;
+    }
+
+    @Override
+    public String name()
+    {
+        return "bzip2";
+    }
+
+    @Override
+    public boolean supported()
+    {
+        return BZip2.supported();
+    }
+
+    @Override
+    public Buffer compress(Buffer buf, int headerSize, int compressionLevel)
+    {
+        return BZip2.compress(buf, headerSize, compressionLevel);
+    }
+
+    @Override
+    public Buffer uncompress(Buffer buf, int headerSize, int messageSizeMax)
+    {
+        return BZip2.uncompress(buf, headerSize, messageSizeMax);
+    }
+}
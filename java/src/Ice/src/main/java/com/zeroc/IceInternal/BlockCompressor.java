@@ -0,0 +1,157 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// Base class for the compressors which compress the message body from
+// one byte array to another.
+//
+abstract class BlockCompressor implements Compressor
+{
+    //
+    // Compress len bytes of src starting at off into dst and return the
+    // compressed length, or -1 if the compressed data doesn't fit in dst.
+    //
+    abstract protected int compress(byte[] src, int off, int len, byte[] dst, int compressionLevel);
+
+    //
+    // Uncompress len bytes of src starting at off into the dstLen bytes of
+    // dst starting at dstOff.
+    //
+    abstract protected void uncompress(byte[] src, int off, int len, byte[] dst, int dstOff, int dstLen);
+
+    @Override
+    public boolean supported()
+    {
+        return true;
+    }
+
+    @Override
+    public Buffer compress(Buffer buf, int headerSize, int compressionLevel)
+    {
+        int uncompressedLen = buf.size() - headerSize;
+
+        byte[] data = null;
+        int offset = 0;
+        if(buf.b.hasArray())
+        {
+            //
+            // If the ByteBuffer is backed by an array then we can avoid
+            // an extra copy by using the array directly.
+            //
+            data = buf.b.array();
+            offset = buf.b.arrayOffset();
+        }
+        else
+        {
+            //
+            // Otherwise, allocate an array to hold a copy of the uncompressed data.
+            //
+            data = new byte[buf.size()];
+            buf.b.position(0);
+            buf.b.get(data);
+        }
+
+        //
+        // Don't bother if the compressed data is larger than the
+        // uncompressed data.
+        //
+        byte[] compressed = new byte[uncompressedLen];
+        int compressedLen;
+        try
+        {
+            compressedLen = compress(data, offset + headerSize, uncompressedLen, compressed, compressionLevel);
+        }
+        catch(RuntimeException ex)
+        {
+            throw new com.zeroc.Ice.CompressionException(name() + " compression failure", ex);
+        }
+        if(compressedLen < 0 || compressedLen >= uncompressedLen)
+        {
+            return null;
+        }
+
+        Buffer r = new Buffer(false);
+        r.resize(headerSize + 4 + compressedLen, false);
+        r.b.position(0);
+
+        //
+        // Copy the header from the uncompressed stream to the compressed one.
+        //
+        r.b.put(data, offset, headerSize);
+
+        //
+        // Add the size of the uncompressed stream before the message body.
+        //
+        r.b.putInt(buf.size());
+
+        //
+        // Add the compressed message body.
+        //
+        r.b.put(compressed, 0, compressedLen);
+
+        return r;
+    }
+
+    @Override
+    public Buffer uncompress(Buffer buf, int headerSize, int messageSizeMax)
+    {
+        buf.b.position(headerSize);
+        int uncompressedSize = buf.b.getInt();
+        if(uncompressedSize <= headerSize)
+        {
+            throw new com.zeroc.Ice.IllegalMessageSizeException();
+        }
+        if(uncompressedSize > messageSizeMax)
+        {
+            Ex.throwMemoryLimitException(uncompressedSize, messageSizeMax);
+        }
+
+        int compressedLen = buf.size() - headerSize - 4;
+
+        byte[] compressed = null;
+        int offset = 0;
+        if(buf.b.hasArray())
+        {
+            compressed = buf.b.array();
+            offset = buf.b.arrayOffset();
+        }
+        else
+        {
+            compressed = new byte[buf.size()];
+            buf.b.position(0);
+            buf.b.get(compressed);
+        }
+
+        Buffer r = new Buffer(false);
+        r.resize(uncompressedSize, false);
+        try
+        {
+            uncompress(compressed, offset + headerSize + 4, compressedLen, r.b.array(),
+                       r.b.arrayOffset() + headerSize, uncompressedSize - headerSize);
+        }
+        catch(com.zeroc.Ice.CompressionException ex)
+        {
+            throw ex;
+        }
+        catch(RuntimeException ex)
+        {
+            throw new com.zeroc.Ice.CompressionException(name() + " uncompression failure", ex);
+        }
+
+        //
+        // Copy the header from the compressed stream to the uncompressed one.
+        //
+        r.b.position(0);
+        r.b.put(compressed, offset, headerSize);
+
+        return r;
+    }
+}
@@ -21,12 +21,28 @@ public class Buffer
     }
 
     public Buffer(boolean direct, java.nio.ByteOrder order)
+    {
+        this(direct, order, null);
+    }
+
+    //
+    // A buffer created with a pool borrows its storage from the pool and
+    // returns it when the storage is no longer needed (on clear(), reset()
+    // or reallocation).
+    //
+    public Buffer(boolean direct, BufferPool pool)
+    {
+        this(direct, java.nio.ByteOrder.LITTLE_ENDIAN, pool);
+    }
+
+    public Buffer(boolean direct, java.nio.ByteOrder order, BufferPool pool)
     {
         b = _emptyBuffer;
         _size = 0;
         _capacity = 0;
         _direct = direct;
         _order = order;
+        _pool = pool;
     }
 
     public Buffer(byte[] data)
@@ -67,9 +83,16 @@ public class Buffer
         _direct = buf._direct;
         _shrinkCounter = buf._shrinkCounter;
         _order = buf._order;
+        _retained = buf._retained;
 
         if(adopt)
         {
+            //
+            // The storage is now owned by this buffer, make sure clear()
+            // doesn't return it to the pool.
+            //
+            _pool = buf._pool;
+            buf.b = buf._emptyBuffer;
             buf.clear();
         }
     }
@@ -82,6 +105,8 @@ public class Buffer
         final boolean direct = buf._direct;
         final int shrinkCounter = buf._shrinkCounter;
         final java.nio.ByteOrder order = buf._order;
+        final BufferPool pool = buf._pool;
+        final boolean retained = buf._retained;
 
         buf.b = b;
         buf._size = _size;
@@ -89,6 +114,8 @@ public class Buffer
         buf._direct = _direct;
         buf._shrinkCounter = _shrinkCounter;
         buf._order = _order;
+        buf._pool = _pool;
+        buf._retained = _retained;
 
         b = bb;
         _size = size;
@@ -96,6 +123,28 @@ public class Buffer
         _direct = direct;
         _shrinkCounter = shrinkCounter;
         _order = order;
+        _pool = pool;
+        _retained = retained;
+    }
+
+    //
+    // Marks the current storage as aliased by views handed out to the
+    // application (see InputStream.readIntBuffer() and friends). Retained
+    // storage is never returned to the pool or written again: clear() and
+    // reset() drop it and resize() moves the data to new storage first, so
+    // the views stay valid for as long as the application holds on to them.
+    //
+    public void retain()
+    {
+        if(b != _emptyBuffer)
+        {
+            _retained = true;
+        }
+    }
+
+    public boolean retained()
+    {
+        return _retained;
     }
 
     public int size()
@@ -110,10 +159,15 @@ public class Buffer
 
     public void clear()
     {
+        if(_pool != null && b != _emptyBuffer && !_retained)
+        {
+            _pool.release(b);
+        }
         b = _emptyBuffer;
         _size = 0;
         _capacity = 0;
         _shrinkCounter = 0;
+        _retained = false;
     }
 
     //
@@ -139,6 +193,16 @@ public class Buffer
         {
             clear();
         }
+        else if(_retained)
+        {
+            //
+            // Don't modify storage aliased by views, copy the data to new storage.
+            //
+            final int capacity = _capacity;
+            _capacity = 0;
+            reserve(java.lang.Math.max(n, capacity));
+            _retained = false;
+        }
         else if(n > _capacity)
         {
             reserve(n);
@@ -156,6 +220,17 @@ public class Buffer
 
     public void reset()
     {
+        if(_pool != null || _retained)
+        {
+            //
+            // Return the memory to the pool, it's cheap to borrow it
+            // again and this avoids holding on to large buffers. Retained
+            // storage is dropped instead, it's still in use by views.
+            //
+            clear();
+            return;
+        }
+
         if(_size > 0 && _size * 2 < _capacity)
         {
             //
@@ -202,7 +277,12 @@ public class Buffer
         {
             java.nio.ByteBuffer buf;
 
-            if(_direct)
+            if(_pool != null)
+            {
+                buf = _pool.allocate(_capacity, _direct);
+                _capacity = buf.capacity();
+            }
+            else if(_direct)
             {
                 buf = java.nio.ByteBuffer.allocateDirect(_capacity);
             }
@@ -221,6 +301,10 @@ public class Buffer
                 b.position(0);
                 b.limit(java.lang.Math.min(_capacity, b.capacity()));
                 buf.put(b);
+                if(_pool != null && !_retained)
+                {
+                    _pool.release(b);
+                }
                 b = buf;
                 b.limit(b.capacity());
                 b.position(pos);
@@ -244,4 +328,6 @@ public class Buffer
     private boolean _direct; // Use direct buffers?
     private int _shrinkCounter;
     private java.nio.ByteOrder _order;
+    private BufferPool _pool; // Null if the buffer isn't pooled.
+    private boolean _retained; // True if the storage is aliased by views.
 }
@@ -0,0 +1,392 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// A communicator-wide pool of java.nio.ByteBuffer objects used by the
+// Buffer class. Buffers are grouped into power-of-two size classes.
+// The threads of the thread pools keep a small cache per size class,
+// for the buffers up to ThreadCacheMaxBufferSize, in front of the
+// shared pool. The number of bytes retained by the shared pool and
+// the thread caches is capped by Ice.BufferPool.MaxSize.
+//
+public final class BufferPool
+{
+    public BufferPool(com.zeroc.Ice.Properties properties, com.zeroc.Ice.Logger logger)
+    {
+        int maxSize = properties.getPropertyAsIntWithDefault("Ice.BufferPool.MaxSize", 16384); // 16MB
+        if(maxSize < 0)
+        {
+            maxSize = 0;
+        }
+        _maxRetainedBytes = (long)maxSize * 1024; // Property is in kilobytes.
+
+        int maxBufferSize = properties.getPropertyAsIntWithDefault("Ice.BufferPool.MaxBufferSize", 1024); // 1MB
+        if(maxBufferSize < 1 || maxBufferSize > MaxClassSize / 1024)
+        {
+            logger.warning("invalid value for Ice.BufferPool.MaxBufferSize `" + maxBufferSize +
+                           "': adjusting to " + MaxClassSize / 1024);
+            maxBufferSize = MaxClassSize / 1024;
+        }
+        _classCount = classIndex(maxBufferSize * 1024) + 1;
+
+        int threadCacheSize = properties.getPropertyAsIntWithDefault("Ice.BufferPool.ThreadCacheSize", 4);
+        _threadCacheSize = threadCacheSize < 0 ? 0 : threadCacheSize;
+        _threadCacheClassCount = _threadCacheSize > 0 ?
+            Math.min(classIndex(ThreadCacheMaxBufferSize) + 1, _classCount) : 0;
+
+        _direct = new Pool(true);
+        _heap = new Pool(false);
+    }
+
+    //
+    // Returns a buffer whose capacity is at least the given capacity. The
+    // buffer's position is 0 and its limit is set to its capacity.
+    //
+    public java.nio.ByteBuffer allocate(int capacity, boolean direct)
+    {
+        return (direct ? _direct : _heap).allocate(capacity);
+    }
+
+    //
+    // Returns a buffer to the pool. The caller must not use the buffer (or
+    // any view of it) after calling this method.
+    //
+    public void release(java.nio.ByteBuffer buf)
+    {
+        (buf.isDirect() ? _direct : _heap).release(buf);
+    }
+
+    //
+    // Enables the thread cache of the calling thread. This is called by
+    // the thread pool threads, other threads only use the shared pool.
+    //
+    public void attachThread()
+    {
+        if(_threadCacheSize > 0)
+        {
+            _direct.attachThread();
+            _heap.attachThread();
+        }
+    }
+
+    //
+    // Returns the buffers of the thread cache of the calling thread to
+    // the shared pool. This must be called before the thread exits.
+    //
+    public void detachThread()
+    {
+        if(_threadCacheSize > 0)
+        {
+            _direct.detachThread();
+            _heap.detachThread();
+        }
+    }
+
+    public long hits()
+    {
+        return _direct.hits.get() + _heap.hits.get();
+    }
+
+    public long misses()
+    {
+        return _direct.misses.get() + _heap.misses.get();
+    }
+
+    public long retainedBytes()
+    {
+        return _direct.retainedBytes.get() + _heap.retainedBytes.get();
+    }
+
+    public synchronized void setObserver(CommunicatorObserverI observer)
+    {
+        _communicatorObserver = observer;
+        if(_communicatorObserver != null)
+        {
+            _communicatorObserver.setBufferPoolUpdater(() -> { updateObserver(); });
+        }
+        updateObserver();
+    }
+
+    public synchronized void updateObserver()
+    {
+        if(_communicatorObserver != null)
+        {
+            _direct.updateObserver(_communicatorObserver);
+            _heap.updateObserver(_communicatorObserver);
+        }
+    }
+
+    public synchronized void destroy()
+    {
+        if(_communicatorObserver != null)
+        {
+            _communicatorObserver.setBufferPoolUpdater(null);
+            _communicatorObserver = null;
+        }
+        _direct.destroy();
+        _heap.destroy();
+    }
+
+    private final class Pool
+    {
+        Pool(boolean direct)
+        {
+            _isDirect = direct;
+            _buffers = new SizeClass[_classCount];
+            for(int i = 0; i < _classCount; ++i)
+            {
+                _buffers[i] = new SizeClass();
+            }
+        }
+
+        java.nio.ByteBuffer allocate(int capacity)
+        {
+            int index = classIndex(capacity);
+            if(index >= _classCount)
+            {
+                //
+                // Too large to be pooled.
+                //
+                misses.incrementAndGet();
+                if(_observer != null)
+                {
+                    _observer.miss();
+                }
+                return newBuffer(capacity);
+            }
+
+            java.nio.ByteBuffer buf = null;
+            if(index < _threadCacheClassCount)
+            {
+                ThreadCache cache = _threadCache.get();
+                if(cache != null)
+                {
+                    buf = cache.take(index);
+                }
+            }
+
+            if(buf == null)
+            {
+                synchronized(_buffers[index])
+                {
+                    buf = _buffers[index].buffers.pollFirst();
+                }
+            }
+
+            if(buf != null)
+            {
+                retainedBytes.addAndGet(-buf.capacity());
+                if(_observer != null)
+                {
+                    _observer.retained(-buf.capacity());
+                }
+            }
+
+            if(buf == null)
+            {
+                misses.incrementAndGet();
+                if(_observer != null)
+                {
+                    _observer.miss();
+                }
+                return newBuffer(MinClassSize << index);
+            }
+
+            hits.incrementAndGet();
+            if(_observer != null)
+            {
+                _observer.hit();
+            }
+            buf.clear();
+            return buf;
+        }
+
+        void release(java.nio.ByteBuffer buf)
+        {
+            //
+            // Only buffers allocated by the pool have a capacity that matches
+            // a size class exactly, other buffers are left to the GC.
+            //
+            final int capacity = buf.capacity();
+            int index = classIndex(capacity);
+            if(index >= _classCount || (MinClassSize << index) != capacity)
+            {
+                return;
+            }
+
+            if(retainedBytes.addAndGet(capacity) > _maxRetainedBytes)
+            {
+                retainedBytes.addAndGet(-capacity);
+                return;
+            }
+
+            ThreadCache cache = index < _threadCacheClassCount ? _threadCache.get() : null;
+            if(cache == null || !cache.put(index, buf))
+            {
+                synchronized(_buffers[index])
+                {
+                    _buffers[index].buffers.addFirst(buf);
+                }
+            }
+            if(_observer != null)
+            {
+                _observer.retained(capacity);
+            }
+        }
+
+        void attachThread()
+        {
+            if(_threadCache.get() == null)
+            {
+                _threadCache.set(new ThreadCache());
+            }
+        }
+
+        void detachThread()
+        {
+            ThreadCache cache = _threadCache.get();
+            if(cache != null)
+            {
+                _threadCache.remove();
+                if(_destroyed)
+                {
+                    return;
+                }
+                for(int index = 0; index < _threadCacheClassCount; ++index)
+                {
+                    java.nio.ByteBuffer buf;
+                    while((buf = cache.take(index)) != null)
+                    {
+                        //
+                        // The buffer is already counted in the retained bytes.
+                        //
+                        synchronized(_buffers[index])
+                        {
+                            _buffers[index].buffers.addFirst(buf);
+                        }
+                    }
+                }
+            }
+        }
+
+        void updateObserver(CommunicatorObserverI obsv)
+        {
+            _observer = obsv.getBufferPoolObserver(_isDirect ? "direct" : "heap", retainedBytes.get(), _observer);
+            if(_observer != null)
+            {
+                _observer.attach();
+            }
+        }
+
+        void destroy()
+        {
+            _destroyed = true;
+            for(SizeClass sizeClass : _buffers)
+            {
+                synchronized(sizeClass)
+                {
+                    sizeClass.buffers.clear();
+                }
+            }
+            retainedBytes.set(0);
+
+            if(_observer != null)
+            {
+                _observer.detach();
+                _observer = null;
+            }
+        }
+
+        private java.nio.ByteBuffer newBuffer(int capacity)
+        {
+            return _isDirect ? java.nio.ByteBuffer.allocateDirect(capacity) : java.nio.ByteBuffer.allocate(capacity);
+        }
+
+        private final boolean _isDirect;
+        private final SizeClass[] _buffers;
+        private final java.lang.ThreadLocal<ThreadCache> _threadCache = new java.lang.ThreadLocal<>();
+
+        //
+        // We use a volatile to avoid synchronization when reading
+        // _observer. Reference assignement is atomic in Java so it
+        // also doesn't need to be synchronized.
+        //
+        private volatile BufferPoolObserverI _observer;
+        private volatile boolean _destroyed;
+
+        final java.util.concurrent.atomic.AtomicLong hits = new java.util.concurrent.atomic.AtomicLong();
+        final java.util.concurrent.atomic.AtomicLong misses = new java.util.concurrent.atomic.AtomicLong();
+        final java.util.concurrent.atomic.AtomicLong retainedBytes = new java.util.concurrent.atomic.AtomicLong();
+    }
+
+    //
+    // The shared free list of a size class, synchronized on the size class.
+    //
+    private static final class SizeClass
+    {
+        final java.util.ArrayDeque<java.nio.ByteBuffer> buffers = new java.util.ArrayDeque<>();
+    }
+
+    //
+    // Per-thread cache, accessed only by its owner thread. It holds at
+    // most Ice.BufferPool.ThreadCacheSize buffers per size class up to
+    // ThreadCacheMaxBufferSize (512KB with the default size).
+    //
+    private final class ThreadCache
+    {
+        java.nio.ByteBuffer take(int index)
+        {
+            if(_counts[index] == 0)
+            {
+                return null;
+            }
+            java.nio.ByteBuffer buf = _buffers[index][--_counts[index]];
+            _buffers[index][_counts[index]] = null;
+            return buf;
+        }
+
+        boolean put(int index, java.nio.ByteBuffer buf)
+        {
+            if(_counts[index] == _threadCacheSize)
+            {
+                return false;
+            }
+            _buffers[index][_counts[index]++] = buf;
+            return true;
+        }
+
+        private final java.nio.ByteBuffer[][] _buffers =
+            new java.nio.ByteBuffer[_threadCacheClassCount][_threadCacheSize];
+        private final int[] _counts = new int[_threadCacheClassCount];
+    }
+
+    private static int classIndex(int capacity)
+    {
+        if(capacity <= MinClassSize)
+        {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MinClassShift;
+    }
+
+    private static final int MinClassShift = 8;
+    private static final int MinClassSize = 1 << MinClassShift; // 256 bytes
+    private static final int MaxClassSize = 1 << 30;
+    private static final int ThreadCacheMaxBufferSize = 64 * 1024;
+
+    private final long _maxRetainedBytes;
+    private final int _classCount;
+    private final int _threadCacheSize;
+    private final int _threadCacheClassCount; // The number of size classes cached by the threads.
+    private final Pool _direct;
+    private final Pool _heap;
+    private CommunicatorObserverI _communicatorObserver;
+}
@@ -0,0 +1,48 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+public class BufferPoolObserverI extends com.zeroc.IceMX.Observer<com.zeroc.IceMX.BufferPoolMetrics>
+{
+    public void hit()
+    {
+        forEach(_hitUpdate);
+    }
+
+    public void miss()
+    {
+        forEach(_missUpdate);
+    }
+
+    public void retained(final long num)
+    {
+        forEach(v -> { v.retainedBytes += num; });
+    }
+
+    private static MetricsUpdate<com.zeroc.IceMX.BufferPoolMetrics> _hitUpdate =
+        new MetricsUpdate<com.zeroc.IceMX.BufferPoolMetrics>()
+        {
+            @Override
+            public void update(com.zeroc.IceMX.BufferPoolMetrics v)
+            {
+                ++v.hits;
+            }
+        };
+
+    private static MetricsUpdate<com.zeroc.IceMX.BufferPoolMetrics> _missUpdate =
+        new MetricsUpdate<com.zeroc.IceMX.BufferPoolMetrics>()
+        {
+            @Override
+            public void update(com.zeroc.IceMX.BufferPoolMetrics v)
+            {
+                ++v.misses;
+            }
+        };
+}
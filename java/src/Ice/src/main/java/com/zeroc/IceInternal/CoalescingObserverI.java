@@ -0,0 +1,24 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+
+package com.zeroc.IceInternal;
+
+public class CoalescingObserverI extends com.zeroc.IceMX.Observer<com.zeroc.IceMX.CoalescingMetrics>
+{
+    public void flushed(final int messages, final int bytes)
+    {
+        forEach(v ->
+            {
+                ++v.flushes;
+                v.messages += messages;
+                v.bytes += bytes;
+            });
+    }
+}
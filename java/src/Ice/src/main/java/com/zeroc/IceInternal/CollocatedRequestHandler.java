@@ -102,7 +102,7 @@ public class CollocatedRequestHandler implements RequestHandler, ResponseHandler
 
     @Override
     public void
-    sendResponse(int requestId, final com.zeroc.Ice.OutputStream os, byte status, boolean amd)
+    sendResponse(int requestId, String operation, final com.zeroc.Ice.OutputStream os, byte status, boolean amd)
     {
         OutgoingAsyncBase outAsync = null;
         synchronized(this)
@@ -606,6 +606,292 @@ public class CommunicatorObserverI implements com.zeroc.Ice.Instrumentation.Comm
         private com.zeroc.Ice.EndpointInfo _endpointInfo;
     }
 
+    static public final class WorkQueueHelper extends MetricsHelper<Metrics>
+    {
+        static private final AttributeResolver _attributes = new AttributeResolver()
+        {
+            {
+                try
+                {
+                    add("parent", WorkQueueHelper.class.getDeclaredMethod("getParent"));
+                    add("id", WorkQueueHelper.class.getDeclaredField("_id"));
+                }
+                catch(Exception ex)
+                {
+                    assert(false);
+                }
+            }
+        };
+
+        WorkQueueHelper(String threadPool)
+        {
+            super(_attributes);
+            _id = threadPool;
+        }
+
+        public String
+        getParent()
+        {
+            return "Communicator";
+        }
+
+        final public String _id;
+    }
+
+    static public final class BufferPoolHelper extends MetricsHelper<BufferPoolMetrics>
+    {
+        static private final AttributeResolver _attributes = new AttributeResolver()
+        {
+            {
+                try
+                {
+                    add("parent", BufferPoolHelper.class.getDeclaredMethod("getParent"));
+                    add("id", BufferPoolHelper.class.getDeclaredField("_id"));
+                }
+                catch(Exception ex)
+                {
+                    assert(false);
+                }
+            }
+        };
+
+        BufferPoolHelper(String id, long retainedBytes)
+        {
+            super(_attributes);
+            _id = id;
+            _retainedBytes = retainedBytes;
+        }
+
+        @Override
+        public void
+        initMetrics(BufferPoolMetrics v)
+        {
+            v.retainedBytes += _retainedBytes;
+        }
+
+        public String
+        getParent()
+        {
+            return "Communicator";
+        }
+
+        final public String _id;
+        final private long _retainedBytes;
+    }
+
+    static public final class TimerHelper extends MetricsHelper<TimerMetrics>
+    {
+        static private final AttributeResolver _attributes = new AttributeResolver()
+        {
+            {
+                try
+                {
+                    add("parent", TimerHelper.class.getDeclaredMethod("getParent"));
+                    add("id", TimerHelper.class.getDeclaredField("_id"));
+                }
+                catch(Exception ex)
+                {
+                    assert(false);
+                }
+            }
+        };
+
+        TimerHelper(String id)
+        {
+            super(_attributes);
+            _id = id;
+        }
+
+        public String
+        getParent()
+        {
+            return "Communicator";
+        }
+
+        final public String _id;
+    }
+
+    static public final class HostResolverHelper extends MetricsHelper<HostResolverMetrics>
+    {
+        static private final AttributeResolver _attributes = new AttributeResolver()
+        {
+            {
+                try
+                {
+                    add("parent", HostResolverHelper.class.getDeclaredMethod("getParent"));
+                    add("id", HostResolverHelper.class.getDeclaredField("_id"));
+                }
+                catch(Exception ex)
+                {
+                    assert(false);
+                }
+            }
+        };
+
+        HostResolverHelper(String id)
+        {
+            super(_attributes);
+            _id = id;
+        }
+
+        public String
+        getParent()
+        {
+            return "Communicator";
+        }
+
+        final public String _id;
+    }
+
+    static public final class CompressionHelper extends MetricsHelper<CompressionMetrics>
+    {
+        static private final AttributeResolver _attributes = new AttributeResolver()
+        {
+            {
+                try
+                {
+                    add("parent", CompressionHelper.class.getDeclaredMethod("getParent"));
+                    add("id", CompressionHelper.class.getDeclaredMethod("getId"));
+                    add("operation", CompressionHelper.class.getDeclaredField("_operation"));
+                    add("compressor", CompressionHelper.class.getDeclaredField("_compressor"));
+                    addConnectionAttributes(this, CompressionHelper.class);
+                }
+                catch(Exception ex)
+                {
+                    assert(false);
+                }
+            }
+        };
+
+        CompressionHelper(com.zeroc.Ice.ConnectionInfo con, com.zeroc.Ice.Endpoint endpt, String operation,
+                          String compressor)
+        {
+            super(_attributes);
+            _connectionInfo = con;
+            _endpoint = endpt;
+            _operation = operation != null ? operation : "";
+            _compressor = compressor;
+        }
+
+        public String
+        getId()
+        {
+            return _operation;
+        }
+
+        public String
+        getParent()
+        {
+            if(_connectionInfo.adapterName != null && !_connectionInfo.adapterName.isEmpty())
+            {
+                return _connectionInfo.adapterName;
+            }
+            else
+            {
+                return "Communicator";
+            }
+        }
+
+        public com.zeroc.Ice.ConnectionInfo
+        getConnectionInfo()
+        {
+            return _connectionInfo;
+        }
+
+        public com.zeroc.Ice.Endpoint
+        getEndpoint()
+        {
+            return _endpoint;
+        }
+
+        public com.zeroc.Ice.EndpointInfo
+        getEndpointInfo()
+        {
+            if(_endpointInfo == null)
+            {
+                _endpointInfo = _endpoint.getInfo();
+            }
+            return _endpointInfo;
+        }
+
+        final private com.zeroc.Ice.ConnectionInfo _connectionInfo;
+        final private com.zeroc.Ice.Endpoint _endpoint;
+        final public String _operation;
+        final public String _compressor;
+        private com.zeroc.Ice.EndpointInfo _endpointInfo;
+    }
+
+    static public final class CoalescingHelper extends MetricsHelper<CoalescingMetrics>
+    {
+        static private final AttributeResolver _attributes = new AttributeResolver()
+        {
+            {
+                try
+                {
+                    add("parent", CoalescingHelper.class.getDeclaredMethod("getParent"));
+                    add("id", CoalescingHelper.class.getDeclaredMethod("getId"));
+                    addConnectionAttributes(this, CoalescingHelper.class);
+                }
+                catch(Exception ex)
+                {
+                    assert(false);
+                }
+            }
+        };
+
+        CoalescingHelper(com.zeroc.Ice.ConnectionInfo con, com.zeroc.Ice.Endpoint endpt)
+        {
+            super(_attributes);
+            _connectionInfo = con;
+            _endpoint = endpt;
+        }
+
+        public String
+        getId()
+        {
+            return _endpoint.toString();
+        }
+
+        public String
+        getParent()
+        {
+            if(_connectionInfo.adapterName != null && !_connectionInfo.adapterName.isEmpty())
+            {
+                return _connectionInfo.adapterName;
+            }
+            else
+            {
+                return "Communicator";
+            }
+        }
+
+        public com.zeroc.Ice.ConnectionInfo
+        getConnectionInfo()
+        {
+            return _connectionInfo;
+        }
+
+        public com.zeroc.Ice.Endpoint
+        getEndpoint()
+        {
+            return _endpoint;
+        }
+
+        public com.zeroc.Ice.EndpointInfo
+        getEndpointInfo()
+        {
+            if(_endpointInfo == null)
+            {
+                _endpointInfo = _endpoint.getInfo();
+            }
+            return _endpointInfo;
+        }
+
+        final private com.zeroc.Ice.ConnectionInfo _connectionInfo;
+        final private com.zeroc.Ice.Endpoint _endpoint;
+        private com.zeroc.Ice.EndpointInfo _endpointInfo;
+    }
+
     public
     CommunicatorObserverI(com.zeroc.Ice.InitializationData initData)
     {
@@ -624,6 +910,16 @@ public class CommunicatorObserverI implements com.zeroc.Ice.Instrumentation.Comm
             com.zeroc.Ice.Instrumentation.Observer>(_metrics, "ConnectionEstablishment", Metrics.class);
         _endpointLookups = new ObserverFactoryWithDelegate<Metrics, ObserverWithDelegateI,
             com.zeroc.Ice.Instrumentation.Observer>(_metrics, "EndpointLookup", Metrics.class);
+        _workQueues = new ObserverFactory<Metrics, ObserverWithDelegateI>(_metrics, "WorkQueue", Metrics.class);
+        _bufferPools = new ObserverFactory<BufferPoolMetrics, BufferPoolObserverI>(_metrics, "BufferPool",
+                                                                                  BufferPoolMetrics.class);
+        _compressions = new ObserverFactory<CompressionMetrics, CompressionObserverI>(_metrics, "Compression",
+                                                                                     CompressionMetrics.class);
+        _timers = new ObserverFactory<TimerMetrics, TimerObserverI>(_metrics, "Timer", TimerMetrics.class);
+        _hostResolvers = new ObserverFactory<HostResolverMetrics, HostResolverObserverI>(_metrics, "HostResolver",
+                                                                                        HostResolverMetrics.class);
+        _coalescings = new ObserverFactory<CoalescingMetrics, CoalescingObserverI>(_metrics, "Coalescing",
+                                                                                  CoalescingMetrics.class);
 
         try
         {
@@ -807,6 +1103,133 @@ public class CommunicatorObserverI implements com.zeroc.Ice.Instrumentation.Comm
         }
     }
 
+    //
+    // The observer of a work item queued with the work queue of the given
+    // thread pool, the observer is detached when the work item is dequeued.
+    //
+    public com.zeroc.Ice.Instrumentation.Observer
+    getWorkQueueObserver(String threadPool)
+    {
+        if(_workQueues.isEnabled())
+        {
+            try
+            {
+                return _workQueues.getObserver(new WorkQueueHelper(threadPool), ObserverWithDelegateI.class);
+            }
+            catch(Exception ex)
+            {
+                _metrics.getLogger().error("unexpected exception trying to obtain observer:\n" + Ex.toString(ex));
+            }
+        }
+        return null;
+    }
+
+    public BufferPoolObserverI
+    getBufferPoolObserver(String id, long retainedBytes, BufferPoolObserverI observer)
+    {
+        if(_bufferPools.isEnabled())
+        {
+            try
+            {
+                return _bufferPools.getObserver(new BufferPoolHelper(id, retainedBytes), observer,
+                                                BufferPoolObserverI.class);
+            }
+            catch(Exception ex)
+            {
+                _metrics.getLogger().error("unexpected exception trying to obtain observer:\n" + Ex.toString(ex));
+            }
+        }
+        return null;
+    }
+
+    public void
+    setBufferPoolUpdater(Runnable updater)
+    {
+        _bufferPools.setUpdater(updater);
+    }
+
+    public CompressionObserverI
+    getCompressionObserver(com.zeroc.Ice.ConnectionInfo con, com.zeroc.Ice.Endpoint endpt, String operation,
+                           String compressor)
+    {
+        if(_compressions.isEnabled())
+        {
+            try
+            {
+                return _compressions.getObserver(new CompressionHelper(con, endpt, operation, compressor),
+                                                 CompressionObserverI.class);
+            }
+            catch(Exception ex)
+            {
+                _metrics.getLogger().error("unexpected exception trying to obtain observer:\n" + Ex.toString(ex));
+            }
+        }
+        return null;
+    }
+
+    public TimerObserverI
+    getTimerObserver(String id, TimerObserverI observer)
+    {
+        if(_timers.isEnabled())
+        {
+            try
+            {
+                return _timers.getObserver(new TimerHelper(id), observer, TimerObserverI.class);
+            }
+            catch(Exception ex)
+            {
+                _metrics.getLogger().error("unexpected exception trying to obtain observer:\n" + Ex.toString(ex));
+            }
+        }
+        return null;
+    }
+
+    public void
+    setTimerUpdater(Runnable updater)
+    {
+        _timers.setUpdater(updater);
+    }
+
+    public HostResolverObserverI
+    getHostResolverObserver(String id, HostResolverObserverI observer)
+    {
+        if(_hostResolvers.isEnabled())
+        {
+            try
+            {
+                return _hostResolvers.getObserver(new HostResolverHelper(id), observer, HostResolverObserverI.class);
+            }
+            catch(Exception ex)
+            {
+                _metrics.getLogger().error("unexpected exception trying to obtain observer:\n" + Ex.toString(ex));
+            }
+        }
+        return null;
+    }
+
+    public void
+    setHostResolverUpdater(Runnable updater)
+    {
+        _hostResolvers.setUpdater(updater);
+    }
+
+    public CoalescingObserverI
+    getCoalescingObserver(com.zeroc.Ice.ConnectionInfo con, com.zeroc.Ice.Endpoint endpt)
+    {
+        if(_coalescings.isEnabled())
+        {
+            try
+            {
+                return _coalescings.getObserver(new CoalescingHelper(con, endpt), CoalescingObserverI.class);
+            }
+            catch(Exception ex)
+            {
+                _metrics.getLogger().error("unexpected exception trying to obtain observer:\n" + Ex.toString(ex));
+            }
+        }
+        return null;
+    }
+
     public MetricsAdminI getFacet()
     {
         return _metrics;
@@ -826,4 +1249,10 @@ public class CommunicatorObserverI implements com.zeroc.Ice.Instrumentation.Comm
         com.zeroc.Ice.Instrumentation.Observer> _connects;
     final private ObserverFactoryWithDelegate<Metrics, ObserverWithDelegateI,
         com.zeroc.Ice.Instrumentation.Observer> _endpointLookups;
+    final private ObserverFactory<Metrics, ObserverWithDelegateI> _workQueues;
+    final private ObserverFactory<BufferPoolMetrics, BufferPoolObserverI> _bufferPools;
+    final private ObserverFactory<CompressionMetrics, CompressionObserverI> _compressions;
+    final private ObserverFactory<TimerMetrics, TimerObserverI> _timers;
+    final private ObserverFactory<HostResolverMetrics, HostResolverObserverI> _hostResolvers;
+    final private ObserverFactory<CoalescingMetrics, CoalescingObserverI> _coalescings;
 }
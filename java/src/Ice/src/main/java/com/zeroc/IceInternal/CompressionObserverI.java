@@ -0,0 +1,38 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+
+package com.zeroc.IceInternal;
+
+public class CompressionObserverI extends com.zeroc.IceMX.Observer<com.zeroc.IceMX.CompressionMetrics>
+{
+    public void compressed(final int uncompressedSize, final int compressedSize)
+    {
+        forEach(v ->
+            {
+                v.uncompressedBytes += uncompressedSize;
+                v.compressedBytes += compressedSize;
+            });
+    }
+
+    public void skipped()
+    {
+        forEach(_skippedUpdate);
+    }
+
+    private static MetricsUpdate<com.zeroc.IceMX.CompressionMetrics> _skippedUpdate =
+        new MetricsUpdate<com.zeroc.IceMX.CompressionMetrics>()
+        {
+            @Override
+            public void update(com.zeroc.IceMX.CompressionMetrics v)
+            {
+                ++v.skipped;
+            }
+        };
+}
@@ -0,0 +1,156 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// Decides whether or not a connection compresses a message based on the
+// compression ratio previously achieved for messages of the same
+// operation. The ratio is tracked with an exponentially weighted moving
+// average, compression is skipped for operations whose messages don't
+// shrink below the configured ratio (Ice.Compression.AdaptiveRatio). A
+// skipped message is compressed again every ProbeInterval messages to
+// detect changes in the payloads.
+//
+// The time spent compressing is also taken into account: the time saved
+// by sending fewer bytes over a link of Ice.Compression.AdaptiveBandwidth
+// megabits per second (100 by default) must exceed the compression time.
+// Compression is also skipped for operations whose messages don't pay off,
+// a bandwidth of 0 disables this criterion.
+//
+// This class isn't thread safe, it's used with the connection locked.
+//
+public final class CompressionPolicy
+{
+    public static CompressionPolicy create(com.zeroc.Ice.Properties properties)
+    {
+        if(properties.getPropertyAsIntWithDefault("Ice.Compression.Adaptive", 1) <= 0)
+        {
+            return null;
+        }
+
+        int ratio = properties.getPropertyAsIntWithDefault("Ice.Compression.AdaptiveRatio", 90);
+        if(ratio < 1)
+        {
+            ratio = 1;
+        }
+        else if(ratio > 100)
+        {
+            ratio = 100;
+        }
+
+        int bandwidth = properties.getPropertyAsIntWithDefault("Ice.Compression.AdaptiveBandwidth", 100);
+        if(bandwidth < 0)
+        {
+            bandwidth = 0;
+        }
+        return new CompressionPolicy(ratio * 10, bandwidth);
+    }
+
+    private CompressionPolicy(int maxRatio, int bandwidth)
+    {
+        _maxRatio = maxRatio;
+        _bandwidth = bandwidth;
+    }
+
+    //
+    // Returns true if a message for the given operation should be compressed.
+    //
+    public boolean compress(String operation)
+    {
+        Entry entry = getEntry(operation);
+        if(entry.ratio <= _maxRatio && entry.gain >= 0)
+        {
+            return true;
+        }
+        if(++entry.skipped >= ProbeInterval)
+        {
+            entry.skipped = 0;
+            return true;
+        }
+        return false;
+    }
+
+    //
+    // Records the result of the compression of a message. compressedSize is
+    // equal to uncompressedSize if the message didn't shrink, time is the
+    // compression time in nanoseconds.
+    //
+    public void compressed(String operation, int uncompressedSize, int compressedSize, long time)
+    {
+        assert(uncompressedSize > 0);
+        Entry entry = getEntry(operation);
+        int ratio = (int)Math.min((long)compressedSize * 1000 / uncompressedSize, 1000);
+
+        //
+        // The transmission time saved by the compression minus the
+        // compression time, in nanoseconds. A megabit per second is 8000
+        // nanoseconds per byte.
+        //
+        long gain = 0;
+        if(_bandwidth > 0)
+        {
+            gain = (long)(uncompressedSize - compressedSize) * 8000 / _bandwidth - time;
+        }
+
+        if(entry.ratio < 0)
+        {
+            entry.ratio = ratio;
+            entry.gain = gain;
+        }
+        else
+        {
+            entry.ratio += (ratio - entry.ratio) >> AlphaShift;
+            entry.gain += (gain - entry.gain) >> AlphaShift;
+        }
+    }
+
+    private Entry getEntry(String operation)
+    {
+        if(operation == null)
+        {
+            operation = "";
+        }
+
+        Entry entry = _entries.get(operation);
+        if(entry == null)
+        {
+            if(_entries.size() >= MaxEntries)
+            {
+                //
+                // Too many operations, the remaining operations share the
+                // same entry.
+                //
+                operation = "";
+                entry = _entries.get(operation);
+            }
+            if(entry == null)
+            {
+                entry = new Entry();
+                _entries.put(operation, entry);
+            }
+        }
+        return entry;
+    }
+
+    private static final class Entry
+    {
+        int ratio = -1; // Per-mille of the uncompressed size.
+        long gain; // Nanoseconds saved by the compression of a message.
+        int skipped;
+    }
+
+    private static final int MaxEntries = 128;
+    private static final int ProbeInterval = 64;
+    private static final int AlphaShift = 2; // Weight of 1/4 for the last ratio.
+
+    private final int _maxRatio;
+    private final int _bandwidth; // Megabits per second, 0 if the compression time isn't taken into account.
+    private final java.util.Map<String, Entry> _entries = new java.util.HashMap<>();
+}
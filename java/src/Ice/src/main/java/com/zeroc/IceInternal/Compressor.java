@@ -0,0 +1,41 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// A compression codec for Ice protocol messages. A compressed message
+// is made of the message header, the size of the uncompressed message
+// and the compressed message body.
+//
+public interface Compressor
+{
+    //
+    // The compression status set in the header of messages compressed
+    // with this codec.
+    //
+    byte id();
+
+    String name();
+
+    boolean supported();
+
+    //
+    // Returns null if the compressed message isn't smaller than the
+    // uncompressed message.
+    //
+    Buffer compress(Buffer buf, int headerSize, int compressionLevel);
+
+    Buffer uncompress(Buffer buf, int headerSize, int messageSizeMax);
+
+    default void destroy()
+    {
+        // Nothing to do, can be overriden to release the resources of the codec.
+    }
+}
@@ -0,0 +1,144 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// The compressors known by the communicator. The codecs listed by
+// Ice.Compression.Codecs are used in order of preference to compress
+// messages. Older peers only support bzip2, the other codecs are only
+// used with peers advertising them in the compression status of the
+// messages they send (see Protocol).
+//
+public final class CompressorManager
+{
+    CompressorManager(com.zeroc.Ice.Properties properties, com.zeroc.Ice.Logger logger)
+    {
+        _logger = logger;
+        String[] codecs = com.zeroc.IceUtilInternal.StringUtil.splitString(
+            properties.getPropertyWithDefault("Ice.Compression.Codecs", "lz4 deflate bzip2"), ", \t\r\n");
+        _codecs = codecs == null ? new String[0] : codecs;
+
+        add(new BZip2Compressor());
+        add(new DeflateCompressor());
+        add(new LZ4Compressor());
+    }
+
+    public synchronized void add(Compressor compressor)
+    {
+        if(compressor.id() < Protocol.compressionBZip2 || compressor.id() > MaxCompressorId)
+        {
+            throw new IllegalArgumentException("invalid compressor id " + compressor.id());
+        }
+        assert(_compressors[compressor.id()] == null);
+        _compressors[compressor.id()] = compressor;
+        updatePreferred();
+    }
+
+    public Compressor get(int id)
+    {
+        if(id < 0 || id > MaxCompressorId)
+        {
+            return null;
+        }
+        Compressor compressor = _compressors[id];
+        return compressor != null && compressor.supported() ? compressor : null;
+    }
+
+    //
+    // The bits advertising the preferred codecs in the compression status.
+    //
+    public int advertised()
+    {
+        return _advertised;
+    }
+
+    //
+    // Returns the preferred compressor supported by the peer or null if
+    // compression isn't supported. peerCodecs are the bits advertised by
+    // the peer, zero if the peer only supports bzip2.
+    //
+    public Compressor select(int peerCodecs)
+    {
+        for(Compressor compressor : _preferred)
+        {
+            if(compressor.id() == Protocol.compressionBZip2 || (peerCodecs & advertisedBit(compressor.id())) != 0)
+            {
+                return compressor;
+            }
+        }
+        return null;
+    }
+
+    public static int advertisedBit(int id)
+    {
+        return id > Protocol.compressionBZip2 ? 1 << (id + 1) : 0; // 0x10 for the first codec after bzip2.
+    }
+
+    private void updatePreferred()
+    {
+        java.util.List<Compressor> preferred = new java.util.ArrayList<>();
+        int advertised = 0;
+        for(String name : _codecs)
+        {
+            for(Compressor compressor : _compressors)
+            {
+                if(compressor != null && compressor.name().equals(name) && compressor.supported())
+                {
+                    preferred.add(compressor);
+                    advertised |= advertisedBit(compressor.id());
+                }
+            }
+        }
+        _preferred = preferred.toArray(new Compressor[preferred.size()]);
+        _advertised = advertised;
+    }
+
+    //
+    // Called on communicator destruction, the compressors can still be used
+    // by the connections closed concurrently.
+    //
+    void destroy()
+    {
+        for(Compressor compressor : _compressors)
+        {
+            if(compressor != null)
+            {
+                compressor.destroy();
+            }
+        }
+    }
+
+    void checkCodecs()
+    {
+        for(String name : _codecs)
+        {
+            boolean found = false;
+            for(Compressor compressor : _compressors)
+            {
+                if(compressor != null && compressor.name().equals(name))
+                {
+                    found = true;
+                }
+            }
+            if(!found)
+            {
+                _logger.warning("unknown compression codec `" + name + "' in Ice.Compression.Codecs");
+            }
+        }
+    }
+
+    private static final int MaxCompressorId = 6; // Only four codecs can be advertised after bzip2.
+
+    private final com.zeroc.Ice.Logger _logger;
+    private final String[] _codecs;
+    private final Compressor[] _compressors = new Compressor[MaxCompressorId + 1];
+    private volatile Compressor[] _preferred = new Compressor[0];
+    private volatile int _advertised;
+}
@@ -336,7 +336,16 @@ public class ConnectRequestHandler
         if(_reference.getCacheConnection() && exception == null)
         {
             RequestHandler previous = _requestHandler;
-            _requestHandler = new ConnectionRequestHandler(_reference, _connection, _compress);
+            ConnectionPool pool = null;
+            try
+            {
+                pool = _reference.getInstance().outgoingConnectionFactory().getConnectionPool(_connection);
+            }
+            catch(com.zeroc.Ice.CommunicatorDestroyedException ex)
+            {
+                // Ignore
+            }
+            _requestHandler = new ConnectionRequestHandler(_reference, _connection, _compress, pool);
             if(_reference.getInstance().queueRequests())
             {
                 _requestHandler = new QueueRequestHandler(_reference.getInstance(), _requestHandler);
@@ -0,0 +1,144 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+import com.zeroc.Ice.ConnectionI;
+
+//
+// The connections established by the outgoing connection factory to the
+// same connector when Ice.Default.ConnectionPoolSize is greater than one.
+//
+// Twoway requests sent with a connection request handler bound to one of
+// the pooled connections are sent over the least loaded connection of the
+// pool, the connection with the fewest requests waiting for a reply.
+// Oneway and batch requests are always sent over the bound connection to
+// preserve their ordering. If all the connections have requests waiting
+// for a reply and the pool isn't full, a new connection is established in
+// the background.
+//
+final class ConnectionPool
+{
+    ConnectionPool(OutgoingConnectionFactory factory, EndpointI endpoint, int size)
+    {
+        _factory = factory;
+        _endpoint = endpoint;
+        _size = size;
+    }
+
+    //
+    // Called with the outgoing connection factory locked.
+    //
+    void add(ConnectionI connection)
+    {
+        ConnectionI[] connections = java.util.Arrays.copyOf(_connections, _connections.length + 1);
+        connections[_connections.length] = connection;
+        _connections = connections;
+    }
+
+    //
+    // Called with the outgoing connection factory locked.
+    //
+    boolean remove(ConnectionI connection)
+    {
+        for(int i = 0; i < _connections.length; ++i)
+        {
+            if(_connections[i] == connection)
+            {
+                ConnectionI[] connections = new ConnectionI[_connections.length - 1];
+                System.arraycopy(_connections, 0, connections, 0, i);
+                System.arraycopy(_connections, i + 1, connections, i, _connections.length - i - 1);
+                _connections = connections;
+                break;
+            }
+        }
+        return _connections.length == 0;
+    }
+
+    boolean contains(ConnectionI connection)
+    {
+        for(ConnectionI c : _connections)
+        {
+            if(c == connection)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //
+    // Returns the least loaded connection of the pool. The given connection
+    // is returned if it's as loaded as the others or if the least loaded
+    // connection is no longer active.
+    //
+    ConnectionI select(ConnectionI connection)
+    {
+        ConnectionI best = connection;
+        int bestCount = connection.asyncRequestCount();
+        if(bestCount == 0)
+        {
+            return connection;
+        }
+
+        for(ConnectionI c : _connections)
+        {
+            int count = c.asyncRequestCount();
+            if(count < bestCount)
+            {
+                best = c;
+                bestCount = count;
+            }
+        }
+
+        if(bestCount > 0 && _connections.length < _size && !_growing.get() &&
+           (_retryTime == 0 || Time.currentMonotonicTimeMillis() >= _retryTime) && _growing.compareAndSet(false, true))
+        {
+            _factory.growConnectionPool(this, _endpoint);
+        }
+
+        if(best != connection && !best.isActiveOrHolding())
+        {
+            return connection;
+        }
+        return best;
+    }
+
+    //
+    // Called once the establishment of a new connection for the pool
+    // completes. If it failed, the pool doesn't try to grow again before
+    // a delay which doubles with each consecutive failure.
+    //
+    void grown(boolean success)
+    {
+        if(success)
+        {
+            _retryDelay = 0;
+            _retryTime = 0;
+        }
+        else
+        {
+            _retryDelay = _retryDelay == 0 ? MinRetryDelay : Math.min(_retryDelay * 2, MaxRetryDelay);
+            _retryTime = Time.currentMonotonicTimeMillis() + _retryDelay;
+        }
+        _growing.set(false);
+    }
+
+    private static final long MinRetryDelay = 1000; // ms
+    private static final long MaxRetryDelay = 30000; // ms
+
+    private final OutgoingConnectionFactory _factory;
+    private final EndpointI _endpoint;
+    private final int _size;
+    private final java.util.concurrent.atomic.AtomicBoolean _growing =
+        new java.util.concurrent.atomic.AtomicBoolean();
+    private volatile ConnectionI[] _connections = new ConnectionI[0];
+    private long _retryDelay; // Only updated by grown(), there's a single connection attempt at a time.
+    private volatile long _retryTime;
+}
@@ -42,7 +42,12 @@ public class ConnectionRequestHandler implements RequestHandler
     public int sendAsyncRequest(ProxyOutgoingAsyncBase out)
         throws RetryException
     {
-        return out.invokeRemote(_connection, _compress, _response);
+        //
+        // Twoway requests are sent over the least loaded connection of the
+        // connection pool if the connection is pooled.
+        //
+        com.zeroc.Ice.ConnectionI connection = _pool != null ? _pool.select(_connection) : _connection;
+        return out.invokeRemote(connection, _compress, _response);
     }
 
     @Override
@@ -67,16 +72,24 @@ public class ConnectionRequestHandler implements RequestHandler
     }
 
     public ConnectionRequestHandler(Reference ref, com.zeroc.Ice.ConnectionI connection, boolean compress)
+    {
+        this(ref, connection, compress, null);
+    }
+
+    ConnectionRequestHandler(Reference ref, com.zeroc.Ice.ConnectionI connection, boolean compress,
+                             ConnectionPool pool)
     {
         _reference = ref;
         _response = _reference.getMode() == Reference.ModeTwoway;
         _connection = connection;
         _compress = compress;
+        _pool = _response ? pool : null;
     }
 
     private final Reference _reference;
     private final boolean _response;
     private final com.zeroc.Ice.ConnectionI _connection;
     private final boolean _compress;
+    private final ConnectionPool _pool;
 
 }
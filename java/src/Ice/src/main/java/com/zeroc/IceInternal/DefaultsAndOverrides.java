@@ -152,16 +152,29 @@ public final class DefaultsAndOverrides
         if(value.equals("Random"))
         {
             defaultEndpointSelection = com.zeroc.Ice.EndpointSelectionType.Random;
+            defaultLatencySelection = LatencySelectionType.None;
         }
         else if(value.equals("Ordered"))
         {
             defaultEndpointSelection = com.zeroc.Ice.EndpointSelectionType.Ordered;
+            defaultLatencySelection = LatencySelectionType.None;
+        }
+        else if(value.equals("LeastLatency"))
+        {
+            defaultEndpointSelection = com.zeroc.Ice.EndpointSelectionType.Random;
+            defaultLatencySelection = LatencySelectionType.LeastLatency;
+        }
+        else if(value.equals("PowerOfTwoChoices"))
+        {
+            defaultEndpointSelection = com.zeroc.Ice.EndpointSelectionType.Random;
+            defaultLatencySelection = LatencySelectionType.PowerOfTwoChoices;
         }
         else
         {
             com.zeroc.Ice.EndpointSelectionTypeParseException ex =
                 new com.zeroc.Ice.EndpointSelectionTypeParseException();
-            ex.str = "illegal value `" + value + "'; expected `Random' or `Ordered'";
+            ex.str = "illegal value `" + value + "'; expected `Random', `Ordered', `LeastLatency' or " +
+                "`PowerOfTwoChoices'";
             throw ex;
         }
 
@@ -207,6 +220,34 @@ public final class DefaultsAndOverrides
             defaultInvocationTimeout = intValue;
         }
 
+        intValue = properties.getPropertyAsIntWithDefault("Ice.Default.ConnectionPoolSize", 1);
+        if(intValue < 1)
+        {
+            defaultConnectionPoolSize = 1;
+            StringBuffer msg = new StringBuffer("invalid value for Ice.Default.ConnectionPoolSize `");
+            msg.append(properties.getProperty("Ice.Default.ConnectionPoolSize"));
+            msg.append("': defaulting to 1");
+            logger.warning(msg.toString());
+        }
+        else
+        {
+            defaultConnectionPoolSize = intValue;
+        }
+
+        intValue = properties.getPropertyAsIntWithDefault("Ice.Default.ConnectAttemptDelay", 0);
+        if(intValue < 0)
+        {
+            defaultConnectAttemptDelay = 0;
+            StringBuffer msg = new StringBuffer("invalid value for Ice.Default.ConnectAttemptDelay `");
+            msg.append(properties.getProperty("Ice.Default.ConnectAttemptDelay"));
+            msg.append("': defaulting to 0");
+            logger.warning(msg.toString());
+        }
+        else
+        {
+            defaultConnectAttemptDelay = intValue;
+        }
+
         defaultPreferSecure = properties.getPropertyAsIntWithDefault("Ice.Default.PreferSecure", 0) > 0;
 
         value = properties.getPropertyWithDefault("Ice.Default.EncodingVersion",
@@ -223,9 +264,12 @@ public final class DefaultsAndOverrides
     final public String defaultProtocol;
     final public boolean defaultCollocationOptimization;
     final public com.zeroc.Ice.EndpointSelectionType defaultEndpointSelection;
+    final public LatencySelectionType defaultLatencySelection;
     final public int defaultTimeout;
     final public int defaultLocatorCacheTimeout;
     final public int defaultInvocationTimeout;
+    final public int defaultConnectionPoolSize;
+    final public int defaultConnectAttemptDelay;
     final public boolean defaultPreferSecure;
     final public com.zeroc.Ice.EncodingVersion defaultEncoding;
     final public com.zeroc.Ice.FormatType defaultFormat;
@@ -0,0 +1,154 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// Compressor using the zlib format provided by java.util.zip. The deflaters
+// and inflaters are costly to create and hold native memory until they are
+// ended, up to MaxPooled of each are kept for reuse and the others are ended
+// after use. The pooled instances are ended when the communicator is
+// destroyed.
+//
+final class DeflateCompressor extends BlockCompressor
+{
+    @Override
+    public byte id()
+    {
+        return Protocol.compressionDeflate;
+    }
+
+    @Override
+    public String name()
+    {
+        return "deflate";
+    }
+
+    @Override
+    protected int compress(byte[] src, int off, int len, byte[] dst, int compressionLevel)
+    {
+        java.util.zip.Deflater deflater = getDeflater();
+        try
+        {
+            deflater.setLevel(compressionLevel);
+            deflater.setInput(src, off, len);
+            deflater.finish();
+
+            int compressedLen = 0;
+            while(!deflater.finished())
+            {
+                if(compressedLen == dst.length)
+                {
+                    return -1;
+                }
+                compressedLen += deflater.deflate(dst, compressedLen, dst.length - compressedLen);
+            }
+            return compressedLen;
+        }
+        finally
+        {
+            releaseDeflater(deflater);
+        }
+    }
+
+    @Override
+    protected void uncompress(byte[] src, int off, int len, byte[] dst, int dstOff, int dstLen)
+    {
+        java.util.zip.Inflater inflater = getInflater();
+        int uncompressedLen = 0;
+        try
+        {
+            inflater.setInput(src, off, len);
+            while(uncompressedLen < dstLen)
+            {
+                int n = inflater.inflate(dst, dstOff + uncompressedLen, dstLen - uncompressedLen);
+                if(n == 0)
+                {
+                    break;
+                }
+                uncompressedLen += n;
+            }
+        }
+        catch(java.util.zip.DataFormatException ex)
+        {
+            throw new com.zeroc.Ice.CompressionException("deflate uncompression failure", ex);
+        }
+        finally
+        {
+            releaseInflater(inflater);
+        }
+
+        if(uncompressedLen != dstLen)
+        {
+            throw new com.zeroc.Ice.CompressionException("deflate uncompression failure: truncated message");
+        }
+    }
+
+    @Override
+    public synchronized void destroy()
+    {
+        _destroyed = true;
+        for(java.util.zip.Deflater deflater : _deflaters)
+        {
+            deflater.end();
+        }
+        _deflaters.clear();
+        for(java.util.zip.Inflater inflater : _inflaters)
+        {
+            inflater.end();
+        }
+        _inflaters.clear();
+    }
+
+    private synchronized java.util.zip.Deflater getDeflater()
+    {
+        java.util.zip.Deflater deflater = _deflaters.pollLast();
+        return deflater != null ? deflater : new java.util.zip.Deflater();
+    }
+
+    private void releaseDeflater(java.util.zip.Deflater deflater)
+    {
+        deflater.reset();
+        synchronized(this)
+        {
+            if(!_destroyed && _deflaters.size() < MaxPooled)
+            {
+                _deflaters.addLast(deflater);
+                return;
+            }
+        }
+        deflater.end();
+    }
+
+    private synchronized java.util.zip.Inflater getInflater()
+    {
+        java.util.zip.Inflater inflater = _inflaters.pollLast();
+        return inflater != null ? inflater : new java.util.zip.Inflater();
+    }
+
+    private void releaseInflater(java.util.zip.Inflater inflater)
+    {
+        inflater.reset();
+        synchronized(this)
+        {
+            if(!_destroyed && _inflaters.size() < MaxPooled)
+            {
+                _inflaters.addLast(inflater);
+                return;
+            }
+        }
+        inflater.end();
+    }
+
+    private static final int MaxPooled = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private final java.util.ArrayDeque<java.util.zip.Deflater> _deflaters = new java.util.ArrayDeque<>();
+    private final java.util.ArrayDeque<java.util.zip.Inflater> _inflaters = new java.util.ArrayDeque<>();
+    private boolean _destroyed;
+}
@@ -9,6 +9,18 @@
 
 package com.zeroc.IceInternal;
 
+//
+// Resolves the host names of the endpoints with up to Ice.HostResolver.Threads
+// concurrent lookups.
+//
+// If Ice.HostResolver.CacheTTL or Ice.HostResolver.NegativeCacheTTL is set, the
+// addresses (or the failure) of a lookup are cached for the given number of
+// seconds, independently of the caching of the JVM. Concurrent resolutions of
+// the same host name share the same lookup. With Ice.HostResolver.Refresh
+// (enabled by default), a cached host name used during the last quarter of its
+// time-to-live is looked up again in the background, so that resolutions keep
+// being answered from the cache.
+//
 class EndpointHostResolver
 {
     EndpointHostResolver(Instance instance)
@@ -16,11 +28,23 @@ class EndpointHostResolver
         _instance = instance;
         _protocol = instance.protocolSupport();
         _preferIPv6 = instance.preferIPv6();
+
+        com.zeroc.Ice.Properties properties = _instance.initializationData().properties;
+        int threads = properties.getPropertyAsIntWithDefault("Ice.HostResolver.Threads", 4);
+        if(threads < 1)
+        {
+            threads = 1;
+        }
+        _positiveTTL = Math.max(properties.getPropertyAsInt("Ice.HostResolver.CacheTTL"), 0) * 1000000000L;
+        _negativeTTL = Math.max(properties.getPropertyAsInt("Ice.HostResolver.NegativeCacheTTL"), 0) * 1000000000L;
+        _refresh = properties.getPropertyAsIntWithDefault("Ice.HostResolver.Refresh", 1) > 0;
+        _cache = _positiveTTL > 0 || _negativeTTL > 0 ? new java.util.HashMap<>() : null;
+
         try
         {
-            _threadName = Util.createThreadName(_instance.initializationData().properties, "Ice.HostResolver");
-            _executor = java.util.concurrent.Executors.newFixedThreadPool(1,
-                            Util.createThreadFactory(_instance.initializationData().properties, _threadName));
+            _threadName = Util.createThreadName(properties, "Ice.HostResolver");
+            _executor = java.util.concurrent.Executors.newFixedThreadPool(threads,
+                            Util.createThreadFactory(properties, _threadName));
             updateObserver();
         }
         catch(RuntimeException ex)
@@ -29,6 +53,13 @@ class EndpointHostResolver
             _instance.initializationData().logger.error(s);
             throw ex;
         }
+
+        if(_instance.initializationData().observer instanceof CommunicatorObserverI)
+        {
+            _communicatorObserver = (CommunicatorObserverI)_instance.initializationData().observer;
+            _communicatorObserver.setHostResolverUpdater(() -> { updateHostResolverObserver(); });
+            updateHostResolverObserver();
+        }
     }
 
     synchronized void resolve(final String host, final int port, final com.zeroc.Ice.EndpointSelectionType selType,
@@ -52,6 +83,27 @@ class EndpointHostResolver
                 callback.connectors(endpoint.connectors(addrs, networkProxy));
                 return;
             }
+
+            CacheEntry entry = getCachedEntry(host);
+            if(entry != null)
+            {
+                HostResolverObserverI resolverObserver = _resolverObserver;
+                if(resolverObserver != null)
+                {
+                    resolverObserver.hit(entry.exception != null);
+                }
+
+                try
+                {
+                    callback.connectors(endpoint.connectors(
+                        Network.getAddresses(entry.get(), host, port, _protocol, selType, _preferIPv6), networkProxy));
+                }
+                catch(com.zeroc.Ice.LocalException ex)
+                {
+                    callback.exception(ex);
+                }
+                return;
+            }
         }
 
         final com.zeroc.Ice.Instrumentation.ThreadObserver threadObserver = _observer;
@@ -85,7 +137,6 @@ class EndpointHostResolver
                                                 com.zeroc.Ice.Instrumentation.ThreadState.ThreadStateInUseForOther);
                 }
 
-                com.zeroc.Ice.Instrumentation.Observer obsv = observer;
                 try
                 {
                     int protocol = _protocol;
@@ -99,25 +150,39 @@ class EndpointHostResolver
                         }
                     }
 
-                    java.util.List<java.net.InetSocketAddress> addresses =
-                        Network.getAddresses(host, port, _protocol, selType, _preferIPv6, true);
-
-                    if(obsv != null)
+                    if(host == null || host.length() == 0)
                     {
-                        obsv.detach();
-                        obsv = null;
+                        resolved(Network.getAddresses(host, port, _protocol, selType, _preferIPv6, true), np,
+                                 endpoint, observer, callback);
+                    }
+                    else
+                    {
+                        //
+                        // The continuation is called by the thread which completes the lookup,
+                        // this thread doesn't wait for a lookup of the same host by another
+                        // thread.
+                        //
+                        final NetworkProxy proxy = np;
+                        lookup(host, entry ->
+                            {
+                                java.util.List<java.net.InetSocketAddress> addresses;
+                                try
+                                {
+                                    addresses = Network.getAddresses(entry.get(), host, port, _protocol, selType,
+                                                                     _preferIPv6);
+                                }
+                                catch(com.zeroc.Ice.LocalException ex)
+                                {
+                                    failed(ex, observer, callback);
+                                    return;
+                                }
+                                resolved(addresses, proxy, endpoint, observer, callback);
+                            });
                     }
-
-                    callback.connectors(endpoint.connectors(addresses, np));
                 }
                 catch(com.zeroc.Ice.LocalException ex)
                 {
-                    if(obsv != null)
-                    {
-                        obsv.failed(ex.ice_id());
-                        obsv.detach();
-                    }
-                    callback.exception(ex);
+                    failed(ex, observer, callback);
                 }
                 finally
                 {
@@ -136,6 +201,11 @@ class EndpointHostResolver
         assert(!_destroyed);
         _destroyed = true;
 
+        if(_communicatorObserver != null)
+        {
+            _communicatorObserver.setHostResolverUpdater(null);
+        }
+
         //
         // Shutdown the executor. No new tasks will be accepted.
         // Existing tasks will execute.
@@ -162,6 +232,10 @@ class EndpointHostResolver
             {
                 _observer.detach();
             }
+            if(_resolverObserver != null)
+            {
+                _resolverObserver.detach();
+            }
         }
     }
 
@@ -180,6 +254,18 @@ class EndpointHostResolver
         }
     }
 
+    private synchronized void updateHostResolverObserver()
+    {
+        if(!_destroyed)
+        {
+            _resolverObserver = _communicatorObserver.getHostResolverObserver(_threadName, _resolverObserver);
+            if(_resolverObserver != null)
+            {
+                _resolverObserver.attach();
+            }
+        }
+    }
+
     private com.zeroc.Ice.Instrumentation.Observer
     getObserver(IPEndpointI endpoint)
     {
@@ -191,11 +277,267 @@ class EndpointHostResolver
         return null;
     }
 
+    //
+    // Returns the unexpired cache entry of the given host if it's resolved,
+    // null otherwise. Must be called with the resolver locked.
+    //
+    private CacheEntry
+    getCachedEntry(final String host)
+    {
+        if(_cache == null || host == null || host.length() == 0)
+        {
+            return null;
+        }
+
+        final CacheEntry entry;
+        long now = System.nanoTime();
+        synchronized(_cache)
+        {
+            CacheEntry e = _cache.get(host);
+            if(e == null || !e.isResolved() || e.isExpired(now))
+            {
+                return null;
+            }
+            entry = e;
+
+            if(!_refresh || entry.exception != null || entry.refreshing ||
+               entry.expiration - now > _positiveTTL / 4)
+            {
+                return entry;
+            }
+            entry.refreshing = true;
+        }
+
+        //
+        // Refresh the entry in the background, the entry is kept until it
+        // expires if the lookup fails.
+        //
+        final com.zeroc.Ice.Instrumentation.ThreadObserver threadObserver = _observer;
+        _executor.execute(() ->
+            {
+                if(threadObserver != null)
+                {
+                    threadObserver.stateChanged(com.zeroc.Ice.Instrumentation.ThreadState.ThreadStateIdle,
+                                                com.zeroc.Ice.Instrumentation.ThreadState.ThreadStateInUseForOther);
+                }
+                try
+                {
+                    CacheEntry refreshed = new CacheEntry();
+                    fill(host, refreshed, true);
+                    synchronized(_cache)
+                    {
+                        if(refreshed.exception == null && _cache.get(host) == entry)
+                        {
+                            _cache.put(host, refreshed);
+                        }
+                        entry.refreshing = false;
+                    }
+                }
+                finally
+                {
+                    if(threadObserver != null)
+                    {
+                        threadObserver.stateChanged(
+                            com.zeroc.Ice.Instrumentation.ThreadState.ThreadStateInUseForOther,
+                            com.zeroc.Ice.Instrumentation.ThreadState.ThreadStateIdle);
+                    }
+                }
+            });
+        return entry;
+    }
+
+    //
+    // Lookup of the given host, the given continuation is called once the
+    // lookup completes. With the cache enabled, the lookup is shared with the
+    // concurrent resolutions of the same host: the first resolution performs
+    // the lookup and calls the continuations of the others.
+    //
+    private void
+    lookup(String host, java.util.function.Consumer<CacheEntry> continuation)
+    {
+        CacheEntry entry;
+        boolean owner = false;
+        if(_cache == null)
+        {
+            entry = new CacheEntry();
+            owner = true;
+        }
+        else
+        {
+            synchronized(_cache)
+            {
+                entry = _cache.get(host);
+                if(entry == null || entry.isExpired(System.nanoTime()))
+                {
+                    entry = new CacheEntry();
+                    owner = true;
+                    if(_cache.size() >= MaxCacheSize)
+                    {
+                        long now = System.nanoTime();
+                        _cache.values().removeIf(e -> e.isExpired(now));
+                    }
+                    if(_cache.size() < MaxCacheSize)
+                    {
+                        _cache.put(host, entry);
+                    }
+                }
+            }
+        }
+
+        entry.whenResolved(continuation);
+        if(owner)
+        {
+            fill(host, entry, false);
+        }
+    }
+
+    private void
+    resolved(java.util.List<java.net.InetSocketAddress> addresses, NetworkProxy networkProxy, IPEndpointI endpoint,
+             com.zeroc.Ice.Instrumentation.Observer observer, EndpointI_connectors callback)
+    {
+        com.zeroc.Ice.Instrumentation.Observer obsv = observer;
+        try
+        {
+            java.util.List<Connector> connectors = endpoint.connectors(addresses, networkProxy);
+            if(obsv != null)
+            {
+                obsv.detach();
+                obsv = null;
+            }
+            callback.connectors(connectors);
+        }
+        catch(com.zeroc.Ice.LocalException ex)
+        {
+            failed(ex, obsv, callback);
+        }
+    }
+
+    private void
+    failed(com.zeroc.Ice.LocalException ex, com.zeroc.Ice.Instrumentation.Observer observer,
+           EndpointI_connectors callback)
+    {
+        if(observer != null)
+        {
+            observer.failed(ex.ice_id());
+            observer.detach();
+        }
+        callback.exception(ex);
+    }
+
+    private void
+    fill(String host, CacheEntry entry, boolean refresh)
+    {
+        try
+        {
+            java.net.InetAddress[] addresses = timedLookup(host, refresh);
+            entry.set(addresses, null, System.nanoTime() + _positiveTTL);
+        }
+        catch(com.zeroc.Ice.LocalException ex)
+        {
+            entry.set(null, ex, System.nanoTime() + _negativeTTL);
+        }
+    }
+
+    private java.net.InetAddress[]
+    timedLookup(String host, boolean refresh)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            return Network.getAllByName(host);
+        }
+        finally
+        {
+            HostResolverObserverI resolverObserver = _resolverObserver;
+            if(resolverObserver != null)
+            {
+                resolverObserver.lookup((System.nanoTime() - start) / 1000, refresh);
+            }
+        }
+    }
+
+    private static final class CacheEntry
+    {
+        void set(java.net.InetAddress[] addresses, com.zeroc.Ice.LocalException exception, long expiration)
+        {
+            java.util.List<java.util.function.Consumer<CacheEntry>> continuations;
+            synchronized(this)
+            {
+                this.addresses = addresses;
+                this.exception = exception;
+                this.expiration = expiration;
+                _resolved = true;
+                continuations = _continuations;
+                _continuations = null;
+            }
+
+            for(java.util.function.Consumer<CacheEntry> continuation : continuations)
+            {
+                continuation.accept(this);
+            }
+        }
+
+        //
+        // Calls the given continuation once the entry is resolved, immediately
+        // if it's already resolved.
+        //
+        void whenResolved(java.util.function.Consumer<CacheEntry> continuation)
+        {
+            synchronized(this)
+            {
+                if(!_resolved)
+                {
+                    _continuations.add(continuation);
+                    return;
+                }
+            }
+            continuation.accept(this);
+        }
+
+        //
+        // Must only be called once the entry is resolved.
+        //
+        synchronized java.net.InetAddress[] get()
+        {
+            assert(_resolved);
+            if(exception != null)
+            {
+                throw (com.zeroc.Ice.LocalException)exception.fillInStackTrace();
+            }
+            return addresses;
+        }
+
+        synchronized boolean isResolved()
+        {
+            return _resolved;
+        }
+
+        synchronized boolean isExpired(long now)
+        {
+            return _resolved && now - expiration >= 0;
+        }
+
+        java.net.InetAddress[] addresses;
+        com.zeroc.Ice.LocalException exception;
+        long expiration;
+        boolean refreshing; // Guarded by the cache.
+        private boolean _resolved;
+        private java.util.List<java.util.function.Consumer<CacheEntry>> _continuations = new java.util.ArrayList<>();
+    }
+
+    private static final int MaxCacheSize = 1024;
+
     private final Instance _instance;
     private final int _protocol;
     private final boolean _preferIPv6;
+    private final long _positiveTTL;
+    private final long _negativeTTL;
+    private final boolean _refresh;
+    private final java.util.Map<String, CacheEntry> _cache;
     private boolean _destroyed;
     private com.zeroc.Ice.Instrumentation.ThreadObserver _observer;
+    private CommunicatorObserverI _communicatorObserver;
+    private volatile HostResolverObserverI _resolverObserver;
     private String _threadName;
     private java.util.concurrent.ExecutorService _executor;
 }
@@ -0,0 +1,66 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// The latency of the invocations sent over the connections established by
+// the outgoing connection factory to an endpoint. The latency is tracked
+// with an exponentially weighted moving average of the time between the
+// sending of a request and the reception of its reply. It's used by the
+// LeastLatency and PowerOfTwoChoices endpoint selection types.
+//
+// The average is halved for each DecayPeriod without replies, a slow
+// endpoint which is no longer used eventually becomes preferred again and
+// its latency is measured anew.
+//
+public final class EndpointLatency
+{
+    //
+    // Records the latency of an invocation, in nanoseconds.
+    //
+    public void record(long latency)
+    {
+        long now = System.nanoTime();
+        synchronized(this)
+        {
+            if(_average < 0)
+            {
+                _average = latency;
+            }
+            else
+            {
+                long average = decay(now);
+                _average = average + ((latency - average) >> AlphaShift);
+            }
+            _updated = now;
+        }
+    }
+
+    //
+    // Returns the average latency in nanoseconds or 0 if no invocations
+    // were sent to the endpoint.
+    //
+    public synchronized long average()
+    {
+        return _average < 0 ? 0 : decay(System.nanoTime());
+    }
+
+    private long decay(long now)
+    {
+        long periods = (now - _updated) / DecayPeriod;
+        return periods >= 63 ? 0 : _average >> periods;
+    }
+
+    private static final long DecayPeriod = 5000000000L; // 5s
+    private static final int AlphaShift = 2; // Weight of 1/4 for the last latency.
+
+    private long _average = -1;
+    private long _updated;
+}
@@ -41,4 +41,5 @@ public abstract class EventHandler
     public int _registered = 0;
     public int _ready = 0;
     public java.nio.channels.SelectionKey _key = null;
+    public ThreadPool _shard = null; // The thread pool shard of the handler if the thread pool is sharded.
 }
@@ -70,7 +70,23 @@ public class Ex
         java.io.StringWriter sw = new java.io.StringWriter();
         java.io.PrintWriter pw = new java.io.PrintWriter(sw);
         ex.printStackTrace(pw);
+        pw.print(stackTraceNote(ex));
         pw.flush();
         return sw.toString();
     }
+
+    //
+    // Returns a note saying that the stack trace of the exception was suppressed by the stackless
+    // exceptions mode (see StacklessExceptions), or an empty string if it wasn't. This note is
+    // appended to the warnings that print the exception stack trace.
+    //
+    public static String stackTraceNote(java.lang.Throwable ex)
+    {
+        if((ex instanceof com.zeroc.Ice.Exception || ex instanceof com.zeroc.Ice.UserException ||
+            ex instanceof RetryException) && ex.getStackTrace().length == 0)
+        {
+            return "(stack trace suppressed, see Ice.StacklessExceptions)\n";
+        }
+        return "";
+    }
 }
@@ -0,0 +1,665 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+import java.util.concurrent.TimeUnit;
+
+//
+// A ScheduledExecutorService implemented with a hashed timing wheel. The
+// wheel is an array of buckets, each bucket holding the tasks expiring
+// during a tick. Scheduling and cancelling a task are O(1) and don't
+// lock: new tasks and cancelled tasks are queued with lock-free queues
+// and moved in or out of the buckets by the timer thread on each tick.
+// The precision of the timer is the tick duration, tasks run at most a
+// tick after their deadline.
+//
+// The timer thread doesn't wake up on every tick: it parks until the end
+// of the tick of the next task to expire, or until a task is scheduled if
+// there are none. Scheduling a task with an earlier deadline wakes it up.
+//
+// The cancellation and shutdown semantics are the ones of the single
+// threaded ScheduledThreadPoolExecutor used by the communicator timer
+// (remove on cancel policy enabled, delayed and periodic tasks cancelled
+// on shutdown, including the tasks which are due but didn't run yet).
+//
+public class HashedWheelTimer extends java.util.concurrent.AbstractExecutorService
+    implements java.util.concurrent.ScheduledExecutorService
+{
+    public HashedWheelTimer(java.util.concurrent.ThreadFactory threadFactory, long tickDuration, TimeUnit unit,
+                            int wheelSize)
+    {
+        if(tickDuration <= 0 || wheelSize <= 0)
+        {
+            throw new IllegalArgumentException("invalid tick duration or wheel size");
+        }
+
+        int size = 1;
+        while(size < wheelSize && size < MaxWheelSize)
+        {
+            size <<= 1;
+        }
+        _wheel = new Bucket[size];
+        for(int i = 0; i < size; ++i)
+        {
+            _wheel[i] = new Bucket();
+        }
+        _mask = size - 1;
+        _tickDuration = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        _threadFactory = threadFactory;
+        _startTime = System.nanoTime();
+    }
+
+    public void setObserver(TimerObserverI observer)
+    {
+        _observer = observer;
+    }
+
+    @Override
+    public java.util.concurrent.ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit)
+    {
+        if(command == null || unit == null)
+        {
+            throw new NullPointerException();
+        }
+        return schedule(new Task<Void>(command, null, deadline(delay, unit), 0));
+    }
+
+    @Override
+    public <V> java.util.concurrent.ScheduledFuture<V> schedule(java.util.concurrent.Callable<V> callable, long delay,
+                                                               TimeUnit unit)
+    {
+        if(callable == null || unit == null)
+        {
+            throw new NullPointerException();
+        }
+        return schedule(new Task<V>(callable, deadline(delay, unit)));
+    }
+
+    @Override
+    public java.util.concurrent.ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay,
+                                                                       long period, TimeUnit unit)
+    {
+        if(command == null || unit == null)
+        {
+            throw new NullPointerException();
+        }
+        if(period <= 0)
+        {
+            throw new IllegalArgumentException();
+        }
+        return schedule(new Task<Void>(command, null, deadline(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    @Override
+    public java.util.concurrent.ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay,
+                                                                          long delay, TimeUnit unit)
+    {
+        if(command == null || unit == null)
+        {
+            throw new NullPointerException();
+        }
+        if(delay <= 0)
+        {
+            throw new IllegalArgumentException();
+        }
+        return schedule(new Task<Void>(command, null, deadline(initialDelay, unit), -unit.toNanos(delay)));
+    }
+
+    @Override
+    public void execute(Runnable command)
+    {
+        schedule(command, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void shutdown()
+    {
+        synchronized(this)
+        {
+            if(_state >= StateShutdown)
+            {
+                return;
+            }
+
+            if(_thread == null)
+            {
+                //
+                // The timer thread was never started, cancel the tasks
+                // which might have been queued concurrently.
+                //
+                _state = StateTerminated;
+                Task<?> task;
+                while((task = _pending.poll()) != null)
+                {
+                    task.cancel(false);
+                }
+                _cancelled.clear();
+                _terminated.countDown();
+                return;
+            }
+            _state = StateShutdown;
+        }
+        java.util.concurrent.locks.LockSupport.unpark(_thread);
+    }
+
+    //
+    // The tasks are owned by the timer thread, the scheduled tasks are
+    // cancelled by the timer thread rather than returned.
+    //
+    @Override
+    public java.util.List<Runnable> shutdownNow()
+    {
+        shutdown();
+        return new java.util.ArrayList<>();
+    }
+
+    @Override
+    public boolean isShutdown()
+    {
+        return _state >= StateShutdown;
+    }
+
+    @Override
+    public boolean isTerminated()
+    {
+        return _state == StateTerminated;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException
+    {
+        return _terminated.await(timeout, unit);
+    }
+
+    //
+    // Called by the timer thread before and after running a task.
+    //
+    protected void beforeExecute(Thread t, Runnable r)
+    {
+    }
+
+    protected void afterExecute(Runnable r, Throwable t)
+    {
+    }
+
+    private <V> Task<V> schedule(Task<V> task)
+    {
+        if(_state >= StateShutdown)
+        {
+            throw new java.util.concurrent.RejectedExecutionException("timer is shutdown");
+        }
+
+        _pending.offer(task);
+
+        if(_state >= StateShutdown)
+        {
+            //
+            // If the task is still queued, the timer thread is gone or
+            // will ignore it. Otherwise the timer thread took it and
+            // either ran it or cancelled it.
+            //
+            if(_pending.remove(task))
+            {
+                throw new java.util.concurrent.RejectedExecutionException("timer is shutdown");
+            }
+            return task;
+        }
+
+        if(_thread == null)
+        {
+            start();
+        }
+        else if(task.deadline < _wakeup)
+        {
+            //
+            // The timer thread is parked until a later deadline.
+            //
+            java.util.concurrent.locks.LockSupport.unpark(_thread);
+        }
+        return task;
+    }
+
+    private synchronized void start()
+    {
+        if(_thread == null && _state == StateCreated)
+        {
+            Thread thread = _threadFactory.newThread(() -> { run(); });
+            thread.start();
+            _state = StateRunning;
+            _thread = thread;
+        }
+    }
+
+    private long deadline(long delay, TimeUnit unit)
+    {
+        return now() + Math.min(Math.max(unit.toNanos(delay), 0), MaxDelay);
+    }
+
+    private long now()
+    {
+        return System.nanoTime() - _startTime;
+    }
+
+    private void run()
+    {
+        long tick = 0; // The next tick to process, all the tasks in the wheel expire at this tick or later.
+        while(true)
+        {
+            if(_count == 0)
+            {
+                tick = Math.max(now() / _tickDuration, tick); // Skip the ticks elapsed while the wheel was empty.
+            }
+            removeCancelled();
+            transferPending(tick);
+
+            //
+            // Park until the end of the tick of the next task to expire, the
+            // deadline is published in _wakeup before checking for pending
+            // tasks: a task scheduled concurrently either is seen here or
+            // unparks the thread if its deadline is earlier.
+            //
+            long next = nextTick(tick);
+            long wakeup = next == Long.MAX_VALUE ? Long.MAX_VALUE : (next + 1) * _tickDuration;
+            long now = now();
+            if(now < wakeup)
+            {
+                _wakeup = wakeup;
+                if(_pending.isEmpty() && _state == StateRunning)
+                {
+                    if(wakeup == Long.MAX_VALUE)
+                    {
+                        java.util.concurrent.locks.LockSupport.park(this);
+                    }
+                    else
+                    {
+                        java.util.concurrent.locks.LockSupport.parkNanos(this, wakeup - now);
+                    }
+                }
+                _wakeup = -1;
+                now = now();
+            }
+
+            if(_state != StateRunning)
+            {
+                break;
+            }
+            else if(now < wakeup)
+            {
+                continue; // Woken up by a new task or a spurious wake up.
+            }
+
+            long currentTick = now / _tickDuration;
+            int expired = expire(Math.max(next, tick), currentTick);
+
+            TimerObserverI observer = _observer;
+            if(observer != null)
+            {
+                observer.ticked(TimeUnit.NANOSECONDS.toMicros(now - wakeup), expired);
+            }
+            tick = currentTick + 1;
+        }
+
+        //
+        // Cancel the scheduled tasks, including the tasks which are due.
+        //
+        for(Bucket bucket : _wheel)
+        {
+            for(Task<?> task = bucket.head; task != null; task = task.next)
+            {
+                task.bucket = null;
+                task.cancel(false);
+            }
+            bucket.head = null;
+            bucket.tail = null;
+        }
+        _count = 0;
+        Task<?> task;
+        while((task = _pending.poll()) != null)
+        {
+            task.cancel(false);
+        }
+        _cancelled.clear();
+
+        synchronized(this)
+        {
+            _state = StateTerminated;
+        }
+        _terminated.countDown();
+    }
+
+    private void removeCancelled()
+    {
+        Task<?> task;
+        while((task = _cancelled.poll()) != null)
+        {
+            if(task.bucket != null)
+            {
+                task.bucket.remove(task);
+                --_count;
+            }
+        }
+    }
+
+    private void transferPending(long tick)
+    {
+        //
+        // Limit the number of tasks transferred on each tick to not delay
+        // the expiration of the tasks already in the wheel.
+        //
+        for(int i = 0; i < MaxTransfer; ++i)
+        {
+            Task<?> task = _pending.poll();
+            if(task == null)
+            {
+                break;
+            }
+            if(task.isCancelled())
+            {
+                continue;
+            }
+
+            task.expireTick = Math.max(task.deadline / _tickDuration, tick);
+            _wheel[(int)(task.expireTick & _mask)].add(task);
+            ++_count;
+            if(task.expireTick < _nextTick)
+            {
+                _nextTick = task.expireTick;
+            }
+        }
+    }
+
+    //
+    // Returns the tick of the next task to expire or Long.MAX_VALUE if the
+    // wheel is empty. The tick is cached until tasks expire, it can be
+    // earlier than the actual next tick if tasks were cancelled.
+    //
+    private long nextTick(long tick)
+    {
+        if(_count == 0)
+        {
+            _nextTick = Long.MAX_VALUE;
+        }
+        else if(_nextTick == -1)
+        {
+            //
+            // A task of the bucket of a tick which expires at most at this
+            // tick expires at this tick. The first such task found from the
+            // given tick is the next to expire, otherwise all the tasks
+            // expire after a full round of the wheel.
+            //
+            long next = Long.MAX_VALUE;
+            for(int i = 0; i < _wheel.length && next == Long.MAX_VALUE; ++i)
+            {
+                for(Task<?> task = _wheel[(int)((tick + i) & _mask)].head; task != null; task = task.next)
+                {
+                    if(task.expireTick <= tick + i)
+                    {
+                        next = task.expireTick;
+                        break;
+                    }
+                }
+            }
+            if(next == Long.MAX_VALUE)
+            {
+                for(Bucket bucket : _wheel)
+                {
+                    for(Task<?> task = bucket.head; task != null; task = task.next)
+                    {
+                        next = Math.min(next, task.expireTick);
+                    }
+                }
+            }
+            _nextTick = next;
+        }
+        return _nextTick;
+    }
+
+    //
+    // Runs the tasks which expire at the given ticks. If the ticks span the
+    // whole wheel, the tasks are sorted to run them in deadline order.
+    //
+    private int expire(long fromTick, long toTick)
+    {
+        _nextTick = -1;
+
+        int expired = 0;
+        if(toTick - fromTick + 1 >= _wheel.length)
+        {
+            java.util.List<Task<?>> due = new java.util.ArrayList<>();
+            for(Bucket bucket : _wheel)
+            {
+                expired += expire(bucket, toTick, due);
+            }
+            java.util.Collections.sort(due);
+            for(Task<?> task : due)
+            {
+                runTask(task);
+            }
+        }
+        else
+        {
+            for(long tick = fromTick; tick <= toTick; ++tick)
+            {
+                expired += expire(_wheel[(int)(tick & _mask)], tick, null);
+            }
+        }
+        return expired;
+    }
+
+    private int expire(Bucket bucket, long tick, java.util.List<Task<?>> due)
+    {
+        int expired = 0;
+        Task<?> task = bucket.head;
+        while(task != null)
+        {
+            Task<?> next = task.next;
+            if(task.isCancelled())
+            {
+                bucket.remove(task);
+                --_count;
+            }
+            else if(task.expireTick <= tick)
+            {
+                bucket.remove(task);
+                --_count;
+                if(due != null)
+                {
+                    due.add(task);
+                }
+                else
+                {
+                    runTask(task);
+                }
+                ++expired;
+            }
+            task = next;
+        }
+        return expired;
+    }
+
+    private void runTask(Task<?> task)
+    {
+        Throwable t = null;
+        beforeExecute(_thread, task);
+        try
+        {
+            task.run();
+        }
+        catch(RuntimeException | Error ex)
+        {
+            t = ex;
+            throw ex;
+        }
+        finally
+        {
+            afterExecute(task, t);
+        }
+    }
+
+    private static final class Bucket
+    {
+        void add(Task<?> task)
+        {
+            task.bucket = this;
+            task.next = null;
+            task.prev = tail;
+            if(tail == null)
+            {
+                head = task;
+            }
+            else
+            {
+                tail.next = task;
+            }
+            tail = task;
+        }
+
+        void remove(Task<?> task)
+        {
+            if(task.prev == null)
+            {
+                head = task.next;
+            }
+            else
+            {
+                task.prev.next = task.next;
+            }
+            if(task.next == null)
+            {
+                tail = task.prev;
+            }
+            else
+            {
+                task.next.prev = task.prev;
+            }
+            task.bucket = null;
+            task.next = null;
+            task.prev = null;
+        }
+
+        Task<?> head;
+        Task<?> tail;
+    }
+
+    private final class Task<V> extends java.util.concurrent.FutureTask<V>
+        implements java.util.concurrent.RunnableScheduledFuture<V>
+    {
+        Task(Runnable runnable, V result, long deadline, long period)
+        {
+            super(runnable, result);
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        Task(java.util.concurrent.Callable<V> callable, long deadline)
+        {
+            super(callable);
+            this.deadline = deadline;
+            this.period = 0;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit)
+        {
+            return unit.convert(deadline - now(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(java.util.concurrent.Delayed other)
+        {
+            if(other == this)
+            {
+                return 0;
+            }
+            long d = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+            return d < 0 ? -1 : (d > 0 ? 1 : 0);
+        }
+
+        @Override
+        public boolean isPeriodic()
+        {
+            return period != 0;
+        }
+
+        @Override
+        public void run()
+        {
+            if(!isPeriodic())
+            {
+                super.run();
+            }
+            else if(super.runAndReset())
+            {
+                if(_state != StateRunning)
+                {
+                    super.cancel(false);
+                    return;
+                }
+                deadline = period > 0 ? deadline + period : now() - period;
+                _pending.offer(this);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning)
+        {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if(cancelled)
+            {
+                _cancelled.offer(this); // The timer thread removes the task from its bucket on the next tick.
+            }
+            return cancelled;
+        }
+
+        volatile long deadline; // Nanoseconds since the start time of the timer.
+        final long period; // Zero for one-shot tasks, negative for fixed delay tasks.
+
+        //
+        // Only accessed by the timer thread.
+        //
+        long expireTick;
+        Bucket bucket;
+        Task<?> next;
+        Task<?> prev;
+    }
+
+    private static final int StateCreated = 0;
+    private static final int StateRunning = 1;
+    private static final int StateShutdown = 2;
+    private static final int StateTerminated = 3;
+
+    private static final int MaxWheelSize = 1 << 16;
+    private static final int MaxTransfer = 100000;
+    private static final long MaxDelay = Long.MAX_VALUE >> 2;
+
+    private final Bucket[] _wheel;
+    private final int _mask;
+    private final long _tickDuration;
+    private final long _startTime;
+    private final java.util.concurrent.ThreadFactory _threadFactory;
+
+    private final java.util.concurrent.ConcurrentLinkedQueue<Task<?>> _pending =
+        new java.util.concurrent.ConcurrentLinkedQueue<>();
+    private final java.util.concurrent.ConcurrentLinkedQueue<Task<?>> _cancelled =
+        new java.util.concurrent.ConcurrentLinkedQueue<>();
+    private final java.util.concurrent.CountDownLatch _terminated = new java.util.concurrent.CountDownLatch(1);
+
+    private volatile int _state = StateCreated;
+    private volatile Thread _thread;
+    private volatile long _wakeup = -1; // The deadline the timer thread is parked until, -1 if it's not parked.
+    private volatile TimerObserverI _observer;
+
+    //
+    // Only accessed by the timer thread.
+    //
+    private int _count; // The number of tasks in the wheel.
+    private long _nextTick = -1; // The cached tick of the next task to expire, -1 if unknown.
+}
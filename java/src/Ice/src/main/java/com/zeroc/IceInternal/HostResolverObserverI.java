@@ -0,0 +1,45 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+public class HostResolverObserverI extends com.zeroc.IceMX.Observer<com.zeroc.IceMX.HostResolverMetrics>
+{
+    public void hit(final boolean negative)
+    {
+        forEach(v ->
+            {
+                if(negative)
+                {
+                    ++v.negativeHits;
+                }
+                else
+                {
+                    ++v.hits;
+                }
+            });
+    }
+
+    public void lookup(final long time, final boolean refresh)
+    {
+        forEach(v ->
+            {
+                ++v.lookups;
+                if(refresh)
+                {
+                    ++v.refreshes;
+                }
+                v.totalLookupTime += time;
+                if(time > v.maxLookupTime)
+                {
+                    v.maxLookupTime = time;
+                }
+            });
+    }
+}
@@ -0,0 +1,134 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// A map from object identity to a non-zero int, used by the encoders to assign
+// instance IDs. Unlike java.util.IdentityHashMap<K, Integer> it doesn't box the
+// values. It uses open addressing with linear probing and never removes entries.
+//
+public final class IdentityIntMap
+{
+    public IdentityIntMap()
+    {
+        _keys = new Object[InitialCapacity];
+        _values = new int[InitialCapacity];
+    }
+
+    //
+    // Returns the value associated with the given key or 0 if there's none.
+    //
+    public int get(Object key)
+    {
+        final int mask = _keys.length - 1;
+        int i = hash(key) & mask;
+        while(true)
+        {
+            final Object k = _keys[i];
+            if(k == key)
+            {
+                return _values[i];
+            }
+            else if(k == null)
+            {
+                return 0;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void put(Object key, int value)
+    {
+        assert(key != null && value != 0);
+        final int mask = _keys.length - 1;
+        int i = hash(key) & mask;
+        while(true)
+        {
+            final Object k = _keys[i];
+            if(k == key)
+            {
+                _values[i] = value;
+                return;
+            }
+            else if(k == null)
+            {
+                _keys[i] = key;
+                _values[i] = value;
+                if(++_size * 2 > _keys.length)
+                {
+                    rehash();
+                }
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public int size()
+    {
+        return _size;
+    }
+
+    public boolean isEmpty()
+    {
+        return _size == 0;
+    }
+
+    public void clear()
+    {
+        if(_keys.length > InitialCapacity * 4)
+        {
+            _keys = new Object[InitialCapacity]; // Don't keep a large table around.
+            _values = new int[InitialCapacity];
+        }
+        else if(_size > 0)
+        {
+            java.util.Arrays.fill(_keys, null);
+        }
+        _size = 0;
+    }
+
+    private void rehash()
+    {
+        final Object[] keys = _keys;
+        final int[] values = _values;
+        _keys = new Object[keys.length * 2];
+        _values = new int[keys.length * 2];
+        final int mask = _keys.length - 1;
+        for(int j = 0; j < keys.length; ++j)
+        {
+            if(keys[j] != null)
+            {
+                int i = hash(keys[j]) & mask;
+                while(_keys[i] != null)
+                {
+                    i = (i + 1) & mask;
+                }
+                _keys[i] = keys[j];
+                _values[i] = values[j];
+            }
+        }
+    }
+
+    private static int hash(Object key)
+    {
+        //
+        // Spread the identity hash code, the low bits are used to index the table.
+        //
+        final int h = System.identityHashCode(key);
+        return h ^ (h >>> 16);
+    }
+
+    private static final int InitialCapacity = 16; // Must be a power of 2.
+
+    private Object[] _keys;
+    private int[] _values;
+    private int _size;
+}
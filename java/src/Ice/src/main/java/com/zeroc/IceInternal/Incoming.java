@@ -36,7 +36,6 @@ final public class Incoming implements com.zeroc.Ice.Request
         _compress = compress;
 
         _current = new Current();
-        _current.id = new com.zeroc.Ice.Identity();
         _current.adapter = adapter;
         _current.con = connection;
         _current.requestId = requestId;
@@ -56,10 +55,13 @@ final public class Incoming implements com.zeroc.Ice.Request
         _compress = compress;
 
         //
-        // Don't recycle the Current object, because servants may keep a reference to it.
+        // Don't recycle the Current object, because servants may keep a reference to it,
+        // unless Ice.RecycleCurrent is set (see reclaim).
         //
-        _current = new Current();
-        _current.id = new com.zeroc.Ice.Identity();
+        if(_current == null)
+        {
+            _current = new Current();
+        }
         _current.adapter = adapter;
         _current.con = connection;
         _current.requestId = requestId;
@@ -76,7 +78,10 @@ final public class Incoming implements com.zeroc.Ice.Request
             return false;
         }
 
-        _current = null;
+        if(!_instance.recycleCurrent())
+        {
+            _current = null;
+        }
         _servant = null;
         _locator = null;
         _cookie = null;
@@ -84,10 +89,15 @@ final public class Incoming implements com.zeroc.Ice.Request
         //_observer = null;
         assert(_observer == null);
 
-        if(_os != null)
+        //
+        // The response stream is kept for the next dispatch. It's safe to reuse, the
+        // connection doesn't keep a reference to it once the response is sent.
+        //
+        if(_responseStream != null)
         {
-            _os.reset();
+            _responseStream.reset();
         }
+        _os = null;
 
         _is = null;
 
@@ -112,34 +122,44 @@ final public class Incoming implements com.zeroc.Ice.Request
         int start = _is.pos();
 
         //
-        // Read the current.
+        // Read the current. The identity, facet, operation and context keys come from a
+        // small set of strings, they are read through the communicator string cache.
         //
-        _current.id.ice_readMembers(_is);
+        final StringCache cache = _instance.stringCache();
+        _current.id.name = _is.readString(cache);
+        _current.id.category = _is.readString(cache);
 
         //
         // For compatibility with the old FacetPath.
         //
-        String[] facetPath = _is.readStringSeq();
-        if(facetPath.length > 0)
+        int sz = _is.readSize();
+        if(sz > 0)
         {
-            if(facetPath.length > 1)
+            if(sz > 1)
             {
                 throw new com.zeroc.Ice.MarshalException();
             }
-            _current.facet = facetPath[0];
+            _current.facet = _is.readString(cache);
         }
         else
         {
             _current.facet = "";
         }
 
-        _current.operation = _is.readString();
-        _current.mode = com.zeroc.Ice.OperationMode.values()[_is.readByte()];
-        _current.ctx = new java.util.HashMap<>();
-        int sz = _is.readSize();
+        _current.operation = _is.readString(cache);
+        _current.mode = _operationModes[_is.readByte()];
+        if(_current.ctx == null || !_instance.recycleCurrent())
+        {
+            _current.ctx = new java.util.HashMap<>();
+        }
+        else
+        {
+            _current.ctx.clear();
+        }
+        sz = _is.readSize();
         while(sz-- > 0)
         {
-            String first = _is.readString();
+            String first = _is.readString(cache);
             String second = _is.readString();
             _current.ctx.put(first, second);
         }
@@ -159,11 +179,37 @@ final public class Incoming implements com.zeroc.Ice.Request
         }
 
         //
-        // Don't put the code above into the try block below. Exceptions
+        // Don't put the code above into the try block of dispatch. Exceptions
         // in the code above are considered fatal, and must propagate to
         // the caller of this operation.
         //
 
+        //
+        // The servant is located and called in the scope of the stackless exceptions
+        // mode, if enabled, so exceptions raised synchronously by the servant (or
+        // by the servant manager) don't fill in their stack trace.
+        //
+        final StacklessExceptions mode = _instance.stacklessExceptions();
+        if(mode == null)
+        {
+            dispatch(servantManager);
+        }
+        else
+        {
+            final StacklessExceptions previous = mode.enter();
+            try
+            {
+                dispatch(servantManager);
+            }
+            finally
+            {
+                StacklessExceptions.leave(previous);
+            }
+        }
+    }
+
+    private void dispatch(ServantManager servantManager)
+    {
         if(servantManager != null)
         {
             _servant = servantManager.findServant(_current.id, _current.facet);
@@ -361,7 +407,7 @@ final public class Incoming implements com.zeroc.Ice.Request
                 {
                     _observer.reply(_os.size() - Protocol.headerSize - 4);
                 }
-                _responseHandler.sendResponse(_current.requestId, _os, _compress, amd);
+                _responseHandler.sendResponse(_current.requestId, _current.operation, _os, _compress, amd);
             }
             else
             {
@@ -408,7 +454,7 @@ final public class Incoming implements com.zeroc.Ice.Request
         // Remember the encoding used by the input parameters, we'll
         // encode the response parameters with the same encoding.
         //
-        _current.encoding = _is.skipEncapsulation();
+        _current.encoding = _is.skipEncapsulation(recycledEncoding());
     }
 
     public InputStream startReadParams()
@@ -417,7 +463,7 @@ final public class Incoming implements com.zeroc.Ice.Request
         // Remember the encoding used by the input parameters, we'll
         // encode the response parameters with the same encoding.
         //
-        _current.encoding = _is.startEncapsulation();
+        _current.encoding = _is.startEncapsulation(recycledEncoding());
         return _is;
     }
 
@@ -428,7 +474,21 @@ final public class Incoming implements com.zeroc.Ice.Request
 
     public void readEmptyParams()
     {
-        _current.encoding = _is.skipEmptyEncapsulation();
+        _current.encoding = _is.skipEmptyEncapsulation(recycledEncoding());
+    }
+
+    //
+    // Returns the encoding version of the recycled Current object, or null if the Current
+    // object isn't recycled or if its encoding version is a shared constant.
+    //
+    private com.zeroc.Ice.EncodingVersion recycledEncoding()
+    {
+        com.zeroc.Ice.EncodingVersion encoding = _instance.recycleCurrent() ? _current.encoding : null;
+        if(encoding == com.zeroc.Ice.Util.Encoding_1_0 || encoding == com.zeroc.Ice.Util.Encoding_1_1)
+        {
+            return null;
+        }
+        return encoding;
     }
 
     public byte[] readParamEncaps()
@@ -462,7 +522,7 @@ final public class Incoming implements com.zeroc.Ice.Request
             throw new com.zeroc.Ice.MarshalException("can't marshal out parameters for oneway dispatch");
         }
 
-        OutputStream os = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+        OutputStream os = responseStream();
         os.writeBlob(Protocol.replyHdr);
         os.writeInt(_current.requestId);
         os.writeByte(ReplyStatus.replyOK);
@@ -482,7 +542,7 @@ final public class Incoming implements com.zeroc.Ice.Request
     {
         if(_response)
         {
-            OutputStream os = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+            OutputStream os = responseStream();
             os.writeBlob(Protocol.replyHdr);
             os.writeInt(_current.requestId);
             os.writeByte(ReplyStatus.replyOK);
@@ -504,7 +564,7 @@ final public class Incoming implements com.zeroc.Ice.Request
 
         if(_response)
         {
-            OutputStream os = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+            OutputStream os = responseStream();
             os.writeBlob(Protocol.replyHdr);
             os.writeInt(_current.requestId);
             os.writeByte(ok ? ReplyStatus.replyOK : ReplyStatus.replyUserException);
@@ -524,6 +584,23 @@ final public class Incoming implements com.zeroc.Ice.Request
         }
     }
 
+    //
+    // Returns the stream for the response of this dispatch. The stream is owned by this
+    // Incoming and reused by the next dispatch once this Incoming is reclaimed.
+    //
+    private OutputStream responseStream()
+    {
+        if(_responseStream == null)
+        {
+            _responseStream = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+        }
+        else
+        {
+            _responseStream.reset(); // In case the dispatch started over.
+        }
+        return _responseStream;
+    }
+
     private void warning(Throwable ex)
     {
         assert(_instance != null);
@@ -556,6 +633,7 @@ final public class Incoming implements com.zeroc.Ice.Request
         }
         out.print("\n");
         ex.printStackTrace(pw);
+        pw.print(Ex.stackTraceNote(ex));
         pw.flush();
         _instance.initializationData().logger.warning(sw.toString());
     }
@@ -598,7 +676,7 @@ final public class Incoming implements com.zeroc.Ice.Request
             if(_response)
             {
                 assert(_responseHandler != null && _current != null);
-                _os = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+                _os = responseStream();
                 _os.writeBlob(Protocol.replyHdr);
                 _os.writeInt(_current.requestId);
                 if(ex instanceof com.zeroc.Ice.ObjectNotExistException)
@@ -638,7 +716,7 @@ final public class Incoming implements com.zeroc.Ice.Request
                 {
                     _observer.reply(_os.size() - Protocol.headerSize - 4);
                 }
-                _responseHandler.sendResponse(_current.requestId, _os, _compress, amd);
+                _responseHandler.sendResponse(_current.requestId, _current.operation, _os, _compress, amd);
             }
             else
             {
@@ -660,7 +738,7 @@ final public class Incoming implements com.zeroc.Ice.Request
             if(_response)
             {
                 assert(_responseHandler != null && _current != null);
-                _os = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+                _os = responseStream();
                 _os.writeBlob(Protocol.replyHdr);
                 _os.writeInt(_current.requestId);
                 _os.writeByte(ReplyStatus.replyUnknownLocalException);
@@ -669,7 +747,7 @@ final public class Incoming implements com.zeroc.Ice.Request
                 {
                     _observer.reply(_os.size() - Protocol.headerSize - 4);
                 }
-                _responseHandler.sendResponse(_current.requestId, _os, _compress, amd);
+                _responseHandler.sendResponse(_current.requestId, _current.operation, _os, _compress, amd);
             }
             else
             {
@@ -691,7 +769,7 @@ final public class Incoming implements com.zeroc.Ice.Request
             if(_response)
             {
                 assert(_responseHandler != null && _current != null);
-                _os = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+                _os = responseStream();
                 _os.writeBlob(Protocol.replyHdr);
                 _os.writeInt(_current.requestId);
                 _os.writeByte(ReplyStatus.replyUnknownUserException);
@@ -700,7 +778,7 @@ final public class Incoming implements com.zeroc.Ice.Request
                 {
                     _observer.reply(_os.size() - Protocol.headerSize - 4);
                 }
-                _responseHandler.sendResponse(_current.requestId, _os, _compress, amd);
+                _responseHandler.sendResponse(_current.requestId, _current.operation, _os, _compress, amd);
             }
             else
             {
@@ -722,7 +800,7 @@ final public class Incoming implements com.zeroc.Ice.Request
             if(_response)
             {
                 assert(_responseHandler != null && _current != null);
-                _os = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+                _os = responseStream();
                 _os.writeBlob(Protocol.replyHdr);
                 _os.writeInt(_current.requestId);
                 _os.writeByte(ReplyStatus.replyUnknownException);
@@ -731,7 +809,7 @@ final public class Incoming implements com.zeroc.Ice.Request
                 {
                     _observer.reply(_os.size() - Protocol.headerSize - 4);
                 }
-                _responseHandler.sendResponse(_current.requestId, _os, _compress, amd);
+                _responseHandler.sendResponse(_current.requestId, _current.operation, _os, _compress, amd);
             }
             else
             {
@@ -748,7 +826,7 @@ final public class Incoming implements com.zeroc.Ice.Request
             if(_response)
             {
                 assert(_responseHandler != null && _current != null);
-                _os = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+                _os = responseStream();
                 _os.writeBlob(Protocol.replyHdr);
                 _os.writeInt(_current.requestId);
                 _os.writeByte(ReplyStatus.replyUserException);
@@ -759,7 +837,7 @@ final public class Incoming implements com.zeroc.Ice.Request
                 {
                     _observer.reply(_os.size() - Protocol.headerSize - 4);
                 }
-                _responseHandler.sendResponse(_current.requestId, _os, _compress, false);
+                _responseHandler.sendResponse(_current.requestId, _current.operation, _os, _compress, false);
             }
             else
             {
@@ -789,7 +867,7 @@ final public class Incoming implements com.zeroc.Ice.Request
             if(_response)
             {
                 assert(_responseHandler != null && _current != null);
-                _os = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+                _os = responseStream();
                 _os.writeBlob(Protocol.replyHdr);
                 _os.writeInt(_current.requestId);
                 _os.writeByte(ReplyStatus.replyUnknownLocalException);
@@ -804,7 +882,7 @@ final public class Incoming implements com.zeroc.Ice.Request
                 {
                     _observer.reply(_os.size() - Protocol.headerSize - 4);
                 }
-                _responseHandler.sendResponse(_current.requestId, _os, _compress, amd);
+                _responseHandler.sendResponse(_current.requestId, _current.operation, _os, _compress, amd);
             }
             else
             {
@@ -835,7 +913,7 @@ final public class Incoming implements com.zeroc.Ice.Request
             if(_response)
             {
                 assert(_responseHandler != null && _current != null);
-                _os = new OutputStream(_instance, Protocol.currentProtocolEncoding);
+                _os = responseStream();
                 _os.writeBlob(Protocol.replyHdr);
                 _os.writeInt(_current.requestId);
                 _os.writeByte(ReplyStatus.replyUnknownException);
@@ -849,7 +927,7 @@ final public class Incoming implements com.zeroc.Ice.Request
                 {
                     _observer.reply(_os.size() - Protocol.headerSize - 4);
                 }
-                _responseHandler.sendResponse(_current.requestId, _os, _compress, amd);
+                _responseHandler.sendResponse(_current.requestId, _current.operation, _os, _compress, amd);
             }
             else
             {
@@ -890,9 +968,12 @@ final public class Incoming implements com.zeroc.Ice.Request
     private FormatType _format = FormatType.DefaultFormat;
 
     private OutputStream _os;
+    private OutputStream _responseStream;
     private InputStream _is;
 
     private int _inParamPos = -1;
 
+    private static final com.zeroc.Ice.OperationMode[] _operationModes = com.zeroc.Ice.OperationMode.values();
+
     public Incoming next; // For use by ConnectionI.
 }
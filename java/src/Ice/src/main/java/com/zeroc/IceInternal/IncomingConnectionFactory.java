@@ -308,7 +308,7 @@ public final class IncomingConnectionFactory extends EventHandler implements Con
                         // Ignore, could be a class loading error.
                     }
 
-                    if(_adapter.getThreadPool().finish(this, true))
+                    if(_threadPool.finish(this, true))
                     {
                         closeAcceptor();
                     }
@@ -576,7 +576,7 @@ public final class IncomingConnectionFactory extends EventHandler implements Con
                         s.append(_acceptor.toString());
                         _instance.initializationData().logger.trace(_instance.traceLevels().networkCat, s.toString());
                     }
-                    _adapter.getThreadPool().register(this, SocketOperation.Read);
+                    _threadPool.register(this, SocketOperation.Read);
                 }
 
                 for(ConnectionI connection : _connections)
@@ -602,7 +602,7 @@ public final class IncomingConnectionFactory extends EventHandler implements Con
                         s.append(_acceptor.toString());
                         _instance.initializationData().logger.trace(_instance.traceLevels().networkCat, s.toString());
                     }
-                    _adapter.getThreadPool().unregister(this, SocketOperation.Read);
+                    _threadPool.unregister(this, SocketOperation.Read);
                 }
 
                 for(ConnectionI connection : _connections)
@@ -622,7 +622,7 @@ public final class IncomingConnectionFactory extends EventHandler implements Con
                     // if there are no more threads in the thread pool available to dispatch
                     // the finish() call.
                     //
-                    if(_adapter.getThreadPool().finish(this, true))
+                    if(_threadPool.finish(this, true))
                     {
                         closeAcceptor();
                     }
@@ -679,11 +679,12 @@ public final class IncomingConnectionFactory extends EventHandler implements Con
                 _instance.initializationData().logger.trace(_instance.traceLevels().networkCat, s.toString());
             }
 
-            _adapter.getThreadPool().initialize(this);
+            _threadPool = _adapter.getThreadPool().shard();
+            _threadPool.initialize(this);
 
             if(_state == StateActive)
             {
-                _adapter.getThreadPool().register(this, SocketOperation.Read);
+                _threadPool.register(this, SocketOperation.Read);
             }
 
             _acceptorStarted = true;
@@ -737,6 +738,7 @@ public final class IncomingConnectionFactory extends EventHandler implements Con
     private final EndpointI _publishedEndpoint;
 
     private com.zeroc.Ice.ObjectAdapterI _adapter;
+    private ThreadPool _threadPool;
 
     private final boolean _warn;
 
@@ -61,7 +61,12 @@ public final class Instance implements java.util.function.Function<String, Class
         private com.zeroc.Ice.Instrumentation.ThreadObserver _threadObserver;
     }
 
-    static private class Timer extends java.util.concurrent.ScheduledThreadPoolExecutor
+    private interface TimerI extends java.util.concurrent.ScheduledExecutorService
+    {
+        void updateObserver(com.zeroc.Ice.Instrumentation.CommunicatorObserver obsv);
+    }
+
+    static private class Timer extends java.util.concurrent.ScheduledThreadPoolExecutor implements TimerI
     {
         Timer(com.zeroc.Ice.Properties props, String threadName)
         {
@@ -75,6 +80,7 @@ public final class Instance implements java.util.function.Function<String, Class
             _observerHelper = new ThreadObserverHelper(threadName);
         }
 
+        @Override
         public void updateObserver(com.zeroc.Ice.Instrumentation.CommunicatorObserver obsv)
         {
             _observerHelper.updateObserver(obsv);
@@ -95,6 +101,85 @@ public final class Instance implements java.util.function.Function<String, Class
         private final ThreadObserverHelper _observerHelper;
     }
 
+    //
+    // Timer using a hashed timing wheel, enabled with Ice.Timer.Wheel. The
+    // lag of the wheel ticks is reported with the Timer metrics map.
+    //
+    static private class WheelTimer extends HashedWheelTimer implements TimerI
+    {
+        WheelTimer(com.zeroc.Ice.Properties props, String threadName)
+        {
+            super(Util.createThreadFactory(props, threadName),
+                  props.getPropertyAsIntWithDefault("Ice.Timer.WheelTick", 10), TimeUnit.MILLISECONDS,
+                  props.getPropertyAsIntWithDefault("Ice.Timer.WheelSize", 512));
+            _threadName = threadName;
+            _observerHelper = new ThreadObserverHelper(threadName);
+        }
+
+        @Override
+        public void updateObserver(com.zeroc.Ice.Instrumentation.CommunicatorObserver obsv)
+        {
+            _observerHelper.updateObserver(obsv);
+        }
+
+        synchronized public void setCommunicatorObserver(CommunicatorObserverI obsv)
+        {
+            _communicatorObserver = obsv;
+            _communicatorObserver.setTimerUpdater(() -> { updateTimerObserver(); });
+            updateTimerObserver();
+        }
+
+        synchronized private void updateTimerObserver()
+        {
+            if(_communicatorObserver != null)
+            {
+                _timerObserver = _communicatorObserver.getTimerObserver(_threadName, _timerObserver);
+                if(_timerObserver != null)
+                {
+                    _timerObserver.attach();
+                }
+                setObserver(_timerObserver);
+            }
+        }
+
+        @Override
+        public void shutdown()
+        {
+            synchronized(this)
+            {
+                if(_communicatorObserver != null)
+                {
+                    _communicatorObserver.setTimerUpdater(null);
+                    _communicatorObserver = null;
+                }
+                if(_timerObserver != null)
+                {
+                    setObserver(null);
+                    _timerObserver.detach();
+                    _timerObserver = null;
+                }
+            }
+            super.shutdown();
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r)
+        {
+            _observerHelper.beforeExecute();
+        }
+
+        @Override
+        protected void afterExecute(Runnable t, Throwable e)
+        {
+            _observerHelper.afterExecute();
+        }
+
+        private final String _threadName;
+        private final ThreadObserverHelper _observerHelper;
+        private CommunicatorObserverI _communicatorObserver;
+        private TimerObserverI _timerObserver;
+    }
+
     static private class QueueExecutor extends java.util.concurrent.ThreadPoolExecutor
     {
         QueueExecutor(com.zeroc.Ice.Properties props, String threadName)
@@ -404,6 +489,41 @@ public final class Instance implements java.util.function.Function<String, Class
         return _cacheMessageBuffers;
     }
 
+    public CompressorManager
+    compressorManager()
+    {
+        // No mutex lock, immutable.
+        return _compressorManager;
+    }
+
+    public BufferPool
+    bufferPool()
+    {
+        // No mutex lock, immutable. Null if buffer pooling is disabled.
+        return _bufferPool;
+    }
+
+    public StringCache
+    stringCache()
+    {
+        // No mutex lock, immutable. Null if string caching is disabled.
+        return _stringCache;
+    }
+
+    public boolean
+    recycleCurrent()
+    {
+        // No mutex lock, immutable.
+        return _recycleCurrent;
+    }
+
+    public StacklessExceptions
+    stacklessExceptions()
+    {
+        // No mutex lock, immutable. Null if the stackless exceptions mode is disabled.
+        return _stacklessExceptions;
+    }
+
     public ACMConfig
     clientACM()
     {
@@ -723,6 +843,24 @@ public final class Instance implements java.util.function.Function<String, Class
     //
     @Override
     public Class<?> apply(String typeId)
+    {
+        return _typeIdRegistry.resolveClass(typeId);
+    }
+
+    public String resolveCompactId(int compactId)
+    {
+        return _typeIdRegistry.resolveCompactId(compactId);
+    }
+
+    public TypeIdRegistry typeIdRegistry()
+    {
+        return _typeIdRegistry;
+    }
+
+    //
+    // Called by the type ID registry to translate a type ID it hasn't seen yet.
+    //
+    Class<?> findClassForTypeId(String typeId)
     {
         Class<?> c = null;
 
@@ -736,25 +874,7 @@ public final class Instance implements java.util.function.Function<String, Class
         // 3. If that fails, check for an Default.Package property. If found,
         //    prepend the property value to the classname.
         //
-        String className;
-        boolean addClass = false;
-
-        //
-        // See if we've already translated this type ID before.
-        //
-        synchronized(this)
-        {
-            className = _typeToClassMap.get(typeId);
-        }
-
-        //
-        // It's a new type ID, so first convert it into a Java class name.
-        //
-        if(className == null)
-        {
-            className = com.zeroc.Ice.Util.typeIdToClass(typeId);
-            addClass = true;
-        }
+        String className = com.zeroc.Ice.Util.typeIdToClass(typeId);
 
         //
         // See if we can find the class without any prefix.
@@ -790,29 +910,13 @@ public final class Instance implements java.util.function.Function<String, Class
             }
         }
 
-        //
-        // If we found the class, update our map so we don't have to translate this type ID again.
-        //
-        if(c != null && addClass)
-        {
-            synchronized(this)
-            {
-                className = c.getName();
-                if(_typeToClassMap.containsKey(typeId))
-                {
-                    assert(_typeToClassMap.get(typeId).equals(className));
-                }
-                else
-                {
-                    _typeToClassMap.put(typeId, className);
-                }
-            }
-        }
-
         return c;
     }
 
-    public String resolveCompactId(int compactId)
+    //
+    // Called by the type ID registry to translate a compact ID it hasn't seen yet.
+    //
+    String findTypeIdForCompactId(int compactId)
     {
         String className = "com.zeroc.IceCompactId.TypeId_" + Integer.toString(compactId);
         Class<?> c = getConcreteClass(className);
@@ -985,12 +1089,17 @@ public final class Instance implements java.util.function.Function<String, Class
 
             _packages = validatePackages();
 
+            _typeIdRegistry = new TypeIdRegistry(this, _initData.types, _initData.compactIds,
+                                                 _initData.compactIdResolver);
+
             _useApplicationClassLoader = _initData.properties.getPropertyAsInt("Ice.UseApplicationClassLoader") > 0;
 
             _traceLevels = new TraceLevels(_initData.properties);
 
             _defaultsAndOverrides = new DefaultsAndOverrides(_initData.properties, _initData.logger);
 
+            _compressorManager = new CompressorManager(_initData.properties, _initData.logger);
+
             _clientACM = new ACMConfig(_initData.properties,
                                        _initData.logger,
                                        "Ice.ACM.Client",
@@ -1104,6 +1213,12 @@ public final class Instance implements java.util.function.Function<String, Class
             ProtocolInstance tcpProtocol = new ProtocolInstance(this, com.zeroc.Ice.TCPEndpointType.value, "tcp", false);
             _endpointFactoryManager.add(new TcpEndpointFactory(tcpProtocol));
 
+            ProtocolInstance unixProtocol = new ProtocolInstance(this, com.zeroc.Ice.UnixEndpointType.value, "unix", false);
+            _endpointFactoryManager.add(new UnixEndpointFactory(unixProtocol));
+
+            ProtocolInstance shmProtocol = new ProtocolInstance(this, com.zeroc.Ice.ShmEndpointType.value, "shm", false);
+            _endpointFactoryManager.add(new ShmEndpointFactory(shmProtocol));
+
             ProtocolInstance udpProtocol = new ProtocolInstance(this, com.zeroc.Ice.UDPEndpointType.value, "udp", false);
             _endpointFactoryManager.add(new UdpEndpointFactory(udpProtocol));
 
@@ -1138,13 +1253,29 @@ public final class Instance implements java.util.function.Function<String, Class
                                                    Util.createThreadName(_initData.properties, "Ice.BackgroundIO"));
                 _queueExecutorService = new QueueExecutorService(_queueExecutor);
 
-                // Caching message buffers is not supported with background IO.
+                // Caching and pooling message buffers is not supported with background IO.
                 _cacheMessageBuffers = 0;
+                _bufferPool = null;
             }
             else
             {
                 _cacheMessageBuffers = _initData.properties.getPropertyAsIntWithDefault("Ice.CacheMessageBuffers", 2);
+                if(_initData.properties.getPropertyAsInt("Ice.BufferPool.Enabled") > 0)
+                {
+                    _bufferPool = new BufferPool(_initData.properties, _initData.logger);
+                }
+                else
+                {
+                    _bufferPool = null;
+                }
             }
+
+            final int stringCacheSize = _initData.properties.getPropertyAsIntWithDefault("Ice.StringCache.Size", 256);
+            _stringCache = stringCacheSize > 0 ? new StringCache(stringCacheSize) : null;
+
+            _stacklessExceptions = StacklessExceptions.create(_initData.properties);
+
+            _recycleCurrent = _initData.properties.getPropertyAsInt("Ice.RecycleCurrent") > 0;
         }
         catch(com.zeroc.Ice.LocalException ex)
         {
@@ -1200,6 +1331,12 @@ public final class Instance implements java.util.function.Function<String, Class
         //
         _endpointFactoryManager.initialize();
 
+        //
+        // Check the compression codecs once the plug-ins had the opportunity
+        // to add their compressors.
+        //
+        _compressorManager.checkCodecs();
+
         //
         // Create Admin facets, if enabled.
         //
@@ -1283,12 +1420,30 @@ public final class Instance implements java.util.function.Function<String, Class
             _initData.observer.setObserverUpdater(new ObserverUpdaterI());
         }
 
+        if(_bufferPool != null && _initData.observer instanceof CommunicatorObserverI)
+        {
+            _bufferPool.setObserver((CommunicatorObserverI)_initData.observer);
+        }
+
         //
         // Create threads.
         //
         try
         {
-            _timer = new Timer(_initData.properties, Util.createThreadName(_initData.properties, "Ice.Timer"));
+            String timerThreadName = Util.createThreadName(_initData.properties, "Ice.Timer");
+            if(_initData.properties.getPropertyAsInt("Ice.Timer.Wheel") > 0)
+            {
+                WheelTimer timer = new WheelTimer(_initData.properties, timerThreadName);
+                if(_initData.observer instanceof CommunicatorObserverI)
+                {
+                    timer.setCommunicatorObserver((CommunicatorObserverI)_initData.observer);
+                }
+                _timer = timer;
+            }
+            else
+            {
+                _timer = new Timer(_initData.properties, timerThreadName);
+            }
         }
         catch(RuntimeException ex)
         {
@@ -1489,6 +1644,14 @@ public final class Instance implements java.util.function.Function<String, Class
                 {
                     _queueExecutor.destroy();
                 }
+                if(_bufferPool != null)
+                {
+                    _bufferPool.destroy();
+                }
+                if(_compressorManager != null)
+                {
+                    _compressorManager.destroy();
+                }
                 if(_timer != null)
                 {
                     while(!_timer.isTerminated())
@@ -1583,7 +1746,7 @@ public final class Instance implements java.util.function.Function<String, Class
                 _queueExecutor = null;
                 _queueExecutorService = null;
 
-                _typeToClassMap.clear();
+                _typeIdRegistry.clear();
 
                 _state = StateDestroyed;
                 notifyAll();
@@ -1874,6 +2037,11 @@ public final class Instance implements java.util.function.Function<String, Class
     private final int _batchAutoFlushSize; // Immutable, not reset by destroy().
     private final com.zeroc.Ice.ToStringMode _toStringMode; // Immutable, not reset by destroy().
     private final int _cacheMessageBuffers; // Immutable, not reset by destroy().
+    private final BufferPool _bufferPool; // Immutable, not reset by destroy().
+    private final StringCache _stringCache; // Immutable, not reset by destroy().
+    private final StacklessExceptions _stacklessExceptions; // Immutable, not reset by destroy().
+    private final boolean _recycleCurrent; // Immutable, not reset by destroy().
+    private final CompressorManager _compressorManager; // Immutable, not reset by destroy().
     private final ACMConfig _clientACM; // Immutable, not reset by destroy().
     private final ACMConfig _serverACM; // Immutable, not reset by destroy().
     private final com.zeroc.Ice.ImplicitContextI _implicitContext;
@@ -1891,7 +2059,7 @@ public final class Instance implements java.util.function.Function<String, Class
     private ThreadPool _serverThreadPool;
     private EndpointHostResolver _endpointHostResolver;
     private RetryQueue _retryQueue;
-    private Timer _timer;
+    private TimerI _timer;
     private EndpointFactoryManager _endpointFactoryManager;
     private com.zeroc.Ice.PluginManager _pluginManager;
 
@@ -1902,7 +2070,7 @@ public final class Instance implements java.util.function.Function<String, Class
     private com.zeroc.Ice.Identity _adminIdentity;
     private java.util.Map<Short, BufSizeWarnInfo> _setBufSizeWarn = new java.util.HashMap<>();
 
-    private java.util.Map<String, String> _typeToClassMap = new java.util.HashMap<>();
+    final private TypeIdRegistry _typeIdRegistry;
     final private String[] _packages;
     final private boolean _useApplicationClassLoader;
 
@@ -0,0 +1,297 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// A fast LZ77 compressor producing the LZ4 block format. The compressor
+// trades compression ratio for speed, the compression level is ignored.
+//
+// Each sequence is made of a token (the high four bits are the literal
+// length, the low four bits the match length minus MinMatch), optional
+// literal length bytes, the literals, a two bytes little endian match
+// offset and optional match length bytes. The last sequence only has
+// literals.
+//
+final class LZ4Compressor extends BlockCompressor
+{
+    @Override
+    public byte id()
+    {
+        return Protocol.compressionLZ4;
+    }
+
+    @Override
+    public String name()
+    {
+        return "lz4";
+    }
+
+    @Override
+    protected int compress(byte[] src, int off, int len, byte[] dst, int compressionLevel)
+    {
+        final int end = off + len;
+        final int matchLimit = end - LastLiterals;
+        final int mfLimit = end - MFLimit;
+
+        int ip = off;
+        int anchor = off;
+        int op = 0;
+
+        if(len > MFLimit)
+        {
+            int[] table = _table.get();
+            java.util.Arrays.fill(table, 0);
+
+            while(ip < mfLimit)
+            {
+                final int sequence = readInt(src, ip);
+                final int h = hash(sequence);
+                int ref = table[h] - 1 + off; // Positions are stored plus one, zero is an empty entry.
+                table[h] = ip - off + 1;
+
+                if(ref < off || ip - ref > MaxOffset || readInt(src, ref) != sequence)
+                {
+                    //
+                    // No match, skip faster over data which doesn't compress.
+                    //
+                    ip += 1 + ((ip - anchor) >>> SkipStrength);
+                    continue;
+                }
+
+                //
+                // Extend the match backward and forward.
+                //
+                while(ip > anchor && ref > off && src[ip - 1] == src[ref - 1])
+                {
+                    --ip;
+                    --ref;
+                }
+                int matchLen = MinMatch;
+                while(ip + matchLen < matchLimit && src[ip + matchLen] == src[ref + matchLen])
+                {
+                    ++matchLen;
+                }
+
+                final int literalLen = ip - anchor;
+                if(op + 1 + literalLen + literalLen / 255 + 2 + matchLen / 255 + 1 > dst.length)
+                {
+                    return -1;
+                }
+
+                int token = op++;
+                if(literalLen >= RunMask)
+                {
+                    dst[token] = (byte)(RunMask << MLBits);
+                    op = writeLength(dst, op, literalLen - RunMask);
+                }
+                else
+                {
+                    dst[token] = (byte)(literalLen << MLBits);
+                }
+                System.arraycopy(src, anchor, dst, op, literalLen);
+                op += literalLen;
+
+                final int offset = ip - ref;
+                dst[op++] = (byte)offset;
+                dst[op++] = (byte)(offset >>> 8);
+
+                if(matchLen - MinMatch >= MLMask)
+                {
+                    dst[token] |= MLMask;
+                    op = writeLength(dst, op, matchLen - MinMatch - MLMask);
+                }
+                else
+                {
+                    dst[token] |= (byte)(matchLen - MinMatch);
+                }
+
+                ip += matchLen;
+                anchor = ip;
+
+                if(ip < mfLimit)
+                {
+                    table[hash(readInt(src, ip - 2))] = ip - 2 - off + 1;
+                }
+            }
+        }
+
+        //
+        // Last literals.
+        //
+        final int literalLen = end - anchor;
+        if(op + 1 + literalLen + literalLen / 255 + 1 > dst.length)
+        {
+            return -1;
+        }
+        int token = op++;
+        if(literalLen >= RunMask)
+        {
+            dst[token] = (byte)(RunMask << MLBits);
+            op = writeLength(dst, op, literalLen - RunMask);
+        }
+        else
+        {
+            dst[token] = (byte)(literalLen << MLBits);
+        }
+        System.arraycopy(src, anchor, dst, op, literalLen);
+        op += literalLen;
+
+        return op;
+    }
+
+    @Override
+    protected void uncompress(byte[] src, int off, int len, byte[] dst, int dstOff, int dstLen)
+    {
+        final int end = off + len;
+        final int dstEnd = dstOff + dstLen;
+        int ip = off;
+        int op = dstOff;
+
+        while(ip < end)
+        {
+            final int token = src[ip++] & 0xff;
+
+            //
+            // Copy the literals.
+            //
+            int literalLen = token >>> MLBits;
+            if(literalLen == RunMask)
+            {
+                int b;
+                do
+                {
+                    if(ip == end)
+                    {
+                        throw corrupted();
+                    }
+                    b = src[ip++] & 0xff;
+                    literalLen += b;
+                    if(literalLen > dstEnd - op)
+                    {
+                        throw corrupted();
+                    }
+                }
+                while(b == 255);
+            }
+            if(literalLen > end - ip || literalLen > dstEnd - op)
+            {
+                throw corrupted();
+            }
+            System.arraycopy(src, ip, dst, op, literalLen);
+            ip += literalLen;
+            op += literalLen;
+
+            if(ip == end)
+            {
+                break; // The last sequence doesn't have a match.
+            }
+
+            //
+            // Copy the match.
+            //
+            if(end - ip < 2)
+            {
+                throw corrupted();
+            }
+            final int offset = (src[ip] & 0xff) | ((src[ip + 1] & 0xff) << 8);
+            ip += 2;
+            if(offset == 0 || offset > op - dstOff)
+            {
+                throw corrupted();
+            }
+
+            int matchLen = token & MLMask;
+            if(matchLen == MLMask)
+            {
+                int b;
+                do
+                {
+                    if(ip == end)
+                    {
+                        throw corrupted();
+                    }
+                    b = src[ip++] & 0xff;
+                    matchLen += b;
+                    if(matchLen > dstEnd - op)
+                    {
+                        throw corrupted();
+                    }
+                }
+                while(b == 255);
+            }
+            matchLen += MinMatch;
+            if(matchLen > dstEnd - op)
+            {
+                throw corrupted();
+            }
+
+            int ref = op - offset;
+            if(offset >= matchLen)
+            {
+                System.arraycopy(dst, ref, dst, op, matchLen);
+                op += matchLen;
+            }
+            else
+            {
+                //
+                // Overlapping match, copy byte by byte.
+                //
+                for(int i = 0; i < matchLen; ++i)
+                {
+                    dst[op++] = dst[ref++];
+                }
+            }
+        }
+
+        if(op != dstEnd)
+        {
+            throw corrupted();
+        }
+    }
+
+    private static int writeLength(byte[] dst, int op, int len)
+    {
+        while(len >= 255)
+        {
+            dst[op++] = (byte)255;
+            len -= 255;
+        }
+        dst[op++] = (byte)len;
+        return op;
+    }
+
+    private static int readInt(byte[] buf, int i)
+    {
+        return (buf[i] & 0xff) | ((buf[i + 1] & 0xff) << 8) | ((buf[i + 2] & 0xff) << 16) |
+            ((buf[i + 3] & 0xff) << 24);
+    }
+
+    private static int hash(int sequence)
+    {
+        return (sequence * -1640531535) >>> (32 - HashLog);
+    }
+
+    private static com.zeroc.Ice.CompressionException corrupted()
+    {
+        return new com.zeroc.Ice.CompressionException("lz4 uncompression failure: corrupted data");
+    }
+
+    private static final int MinMatch = 4;
+    private static final int LastLiterals = 5;
+    private static final int MFLimit = 12;
+    private static final int MaxOffset = 65535;
+    private static final int HashLog = 12;
+    private static final int SkipStrength = 6;
+    private static final int MLBits = 4;
+    private static final int MLMask = (1 << MLBits) - 1;
+    private static final int RunMask = (1 << (8 - MLBits)) - 1;
+
+    private final java.lang.ThreadLocal<int[]> _table = java.lang.ThreadLocal.withInitial(() -> new int[1 << HashLog]);
+}
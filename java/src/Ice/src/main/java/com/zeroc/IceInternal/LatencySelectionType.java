@@ -0,0 +1,30 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// The latency-aware endpoint selection types. They are only supported by
+// the Java mapping and are configured with the LeastLatency and
+// PowerOfTwoChoices values of the Ice.Default.EndpointSelection and
+// <proxy>.EndpointSelection properties, not with the Slice
+// EndpointSelectionType enumeration shared by all the mappings.
+//
+// They refine the Random endpoint selection type: the endpoints are
+// shuffled and then arranged according to their latency (see
+// OutgoingConnectionFactory.sortByLatency). A proxy using them reports the
+// Random endpoint selection type, ice_endpointSelection(Ordered) disables
+// them.
+//
+public enum LatencySelectionType
+{
+    None,
+    LeastLatency,
+    PowerOfTwoChoices
+}
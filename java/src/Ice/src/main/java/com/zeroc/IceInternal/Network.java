@@ -929,43 +929,27 @@ public final class Network
             return addrs;
         }
 
-        java.util.List<java.net.InetSocketAddress> addresses = new java.util.ArrayList<>();
-        try
+        java.net.InetAddress[] addrs;
+        if(host == null || host.length() == 0)
         {
-            java.net.InetAddress[] addrs;
-            if(host == null || host.length() == 0)
-            {
-                addrs = getLoopbackAddresses(protocol);
-            }
-            else
-            {
-                addrs = java.net.InetAddress.getAllByName(host);
-            }
-
-            for(java.net.InetAddress addr : addrs)
-            {
-                if(protocol == EnableBoth || isValidAddr(addr, protocol))
-                {
-                    addresses.add(new java.net.InetSocketAddress(addr, port));
-                }
-            }
-
-            if(selType == EndpointSelectionType.Random)
-            {
-                java.util.Collections.shuffle(addresses);
-            }
+            addrs = getLoopbackAddresses(protocol);
+        }
+        else
+        {
+            addrs = getAllByName(host);
+        }
+        return getAddresses(addrs, host, port, protocol, selType, preferIPv6);
+    }
 
-            if(protocol == EnableBoth)
-            {
-                if(preferIPv6)
-                {
-                    java.util.Collections.sort(addresses, _preferIPv6Comparator);
-                }
-                else
-                {
-                    java.util.Collections.sort(addresses, _preferIPv4Comparator);
-                }
-            }
+    //
+    // Blocking lookup of the addresses of the given host.
+    //
+    public static java.net.InetAddress[]
+    getAllByName(String host)
+    {
+        try
+        {
+            return java.net.InetAddress.getAllByName(host);
         }
         catch(java.net.UnknownHostException ex)
         {
@@ -975,6 +959,41 @@ public final class Network
         {
             throw new SocketException(ex);
         }
+    }
+
+    //
+    // Returns the socket addresses for the given host addresses, ordered
+    // according to the endpoint selection type and IP version preference.
+    //
+    public static java.util.List<java.net.InetSocketAddress>
+    getAddresses(java.net.InetAddress[] addrs, String host, int port, int protocol, EndpointSelectionType selType,
+                 boolean preferIPv6)
+    {
+        java.util.List<java.net.InetSocketAddress> addresses = new java.util.ArrayList<>();
+        for(java.net.InetAddress addr : addrs)
+        {
+            if(protocol == EnableBoth || isValidAddr(addr, protocol))
+            {
+                addresses.add(new java.net.InetSocketAddress(addr, port));
+            }
+        }
+
+        if(selType == EndpointSelectionType.Random)
+        {
+            java.util.Collections.shuffle(addresses);
+        }
+
+        if(protocol == EnableBoth)
+        {
+            if(preferIPv6)
+            {
+                java.util.Collections.sort(addresses, _preferIPv6Comparator);
+            }
+            else
+            {
+                java.util.Collections.sort(addresses, _preferIPv4Comparator);
+            }
+        }
 
         //
         // No Inet4Address/Inet6Address available.
@@ -1349,6 +1368,333 @@ public final class Network
         return s.toString();
     }
 
+    //
+    // Unix domain sockets require JDK 16 or later. Use reflection so this
+    // code still compiles and runs with older JDK versions.
+    //
+    public static boolean
+    isUnixSocketSupported()
+    {
+        return _unixProtocolFamily != null;
+    }
+
+    public static java.net.SocketAddress
+    getUnixAddress(String path)
+    {
+        if(_unixProtocolFamily == null)
+        {
+            throw new com.zeroc.Ice.FeatureNotSupportedException("Unix domain sockets require JDK 16 or later");
+        }
+
+        try
+        {
+            return (java.net.SocketAddress)_unixAddressOf.invoke(null, path);
+        }
+        catch(java.lang.reflect.InvocationTargetException ex)
+        {
+            throw new SocketException(ex.getCause());
+        }
+        catch(IllegalAccessException ex)
+        {
+            throw new SocketException(ex);
+        }
+    }
+
+    public static java.nio.channels.SocketChannel
+    createUnixSocket()
+    {
+        if(_unixProtocolFamily == null)
+        {
+            throw new com.zeroc.Ice.FeatureNotSupportedException("Unix domain sockets require JDK 16 or later");
+        }
+
+        try
+        {
+            return (java.nio.channels.SocketChannel)_unixSocketOpen.invoke(null, _unixProtocolFamily);
+        }
+        catch(java.lang.reflect.InvocationTargetException ex)
+        {
+            throw new SocketException(ex.getCause());
+        }
+        catch(IllegalAccessException ex)
+        {
+            throw new SocketException(ex);
+        }
+    }
+
+    public static java.nio.channels.ServerSocketChannel
+    createUnixServerSocket()
+    {
+        if(_unixProtocolFamily == null)
+        {
+            throw new com.zeroc.Ice.FeatureNotSupportedException("Unix domain sockets require JDK 16 or later");
+        }
+
+        try
+        {
+            return (java.nio.channels.ServerSocketChannel)_unixServerSocketOpen.invoke(null, _unixProtocolFamily);
+        }
+        catch(java.lang.reflect.InvocationTargetException ex)
+        {
+            throw new SocketException(ex.getCause());
+        }
+        catch(IllegalAccessException ex)
+        {
+            throw new SocketException(ex);
+        }
+    }
+
+    public static void
+    doBindUnix(java.nio.channels.ServerSocketChannel fd, java.net.SocketAddress addr, int backlog)
+    {
+        try
+        {
+            try
+            {
+                fd.bind(addr, backlog);
+            }
+            catch(java.net.BindException ex)
+            {
+                //
+                // The socket file is left behind if a server didn't close
+                // its socket (e.g.: if it crashed). Remove the file and
+                // bind again if no server is listening on it anymore.
+                //
+                if(!isStaleUnixSocket(addr))
+                {
+                    throw ex;
+                }
+                java.nio.file.Files.deleteIfExists(java.nio.file.Paths.get(addr.toString()));
+                fd.bind(addr, backlog);
+            }
+        }
+        catch(java.io.IOException ex)
+        {
+            closeSocketNoThrow(fd);
+            throw new SocketException(ex);
+        }
+    }
+
+    public static java.nio.channels.SocketChannel
+    doAcceptUnix(java.nio.channels.ServerSocketChannel afd)
+    {
+        while(true)
+        {
+            try
+            {
+                return afd.accept();
+            }
+            catch(java.io.IOException ex)
+            {
+                if(interrupted(ex))
+                {
+                    continue;
+                }
+
+                throw new SocketException(ex);
+            }
+        }
+    }
+
+    public static boolean
+    doConnectUnix(java.nio.channels.SocketChannel fd, java.net.SocketAddress addr)
+    {
+        try
+        {
+            return fd.connect(addr);
+        }
+        catch(java.net.ConnectException ex)
+        {
+            closeSocketNoThrow(fd);
+
+            if(connectionRefused(ex))
+            {
+                throw new ConnectionRefusedException(ex);
+            }
+            else
+            {
+                throw new ConnectFailedException(ex);
+            }
+        }
+        catch(java.io.IOException ex)
+        {
+            closeSocketNoThrow(fd);
+
+            //
+            // Connecting to a path which doesn't exist fails with a
+            // SocketException rather than a ConnectException.
+            //
+            if(ex.getMessage() != null && ex.getMessage().contains("No such file"))
+            {
+                throw new ConnectionRefusedException(ex);
+            }
+            throw new SocketException(ex);
+        }
+    }
+
+    public static void
+    doFinishConnectUnix(java.nio.channels.SocketChannel fd)
+    {
+        //
+        // Note: we don't close the socket if there's an exception. It's the responsibility
+        // of the caller to do so.
+        //
+
+        try
+        {
+            if(!fd.finishConnect())
+            {
+                throw new ConnectFailedException();
+            }
+        }
+        catch(java.net.ConnectException ex)
+        {
+            if(connectionRefused(ex))
+            {
+                throw new ConnectionRefusedException(ex);
+            }
+            else
+            {
+                throw new ConnectFailedException(ex);
+            }
+        }
+        catch(java.io.IOException ex)
+        {
+            throw new SocketException(ex);
+        }
+    }
+
+    public static void
+    setUnixBufSize(java.nio.channels.SocketChannel fd, int rcvSize, int sndSize)
+    {
+        try
+        {
+            if(rcvSize > 0)
+            {
+                fd.setOption(java.net.StandardSocketOptions.SO_RCVBUF, rcvSize);
+            }
+            if(sndSize > 0)
+            {
+                fd.setOption(java.net.StandardSocketOptions.SO_SNDBUF, sndSize);
+            }
+        }
+        catch(java.io.IOException ex)
+        {
+            closeSocketNoThrow(fd);
+            throw new SocketException(ex);
+        }
+    }
+
+    public static int
+    getUnixRecvBufferSize(java.nio.channels.SocketChannel fd)
+    {
+        try
+        {
+            return fd.getOption(java.net.StandardSocketOptions.SO_RCVBUF);
+        }
+        catch(java.io.IOException ex)
+        {
+            throw new SocketException(ex);
+        }
+    }
+
+    public static int
+    getUnixSendBufferSize(java.nio.channels.SocketChannel fd)
+    {
+        try
+        {
+            return fd.getOption(java.net.StandardSocketOptions.SO_SNDBUF);
+        }
+        catch(java.io.IOException ex)
+        {
+            throw new SocketException(ex);
+        }
+    }
+
+    public static String
+    unixFdToString(java.nio.channels.SocketChannel fd)
+    {
+        if(fd == null)
+        {
+            return "<closed>";
+        }
+
+        //
+        // Client sockets are not bound to a path, the local address is
+        // empty for outgoing connections and the remote address is empty
+        // for incoming connections.
+        //
+        StringBuilder s = new StringBuilder(128);
+        s.append("local address = ");
+        s.append(unixAddrToString(getLocalAddress(fd)));
+        s.append("\nremote address = ");
+        java.net.SocketAddress remoteAddr = getRemoteAddress(fd);
+        if(remoteAddr == null)
+        {
+            s.append("<not connected>");
+        }
+        else
+        {
+            s.append(unixAddrToString(remoteAddr));
+        }
+        return s.toString();
+    }
+
+    private static String
+    unixAddrToString(java.net.SocketAddress addr)
+    {
+        String s = addr == null ? "" : addr.toString();
+        return s.isEmpty() ? "<unnamed>" : s;
+    }
+
+    private static java.net.SocketAddress
+    getLocalAddress(java.nio.channels.SocketChannel fd)
+    {
+        try
+        {
+            return fd.getLocalAddress();
+        }
+        catch(java.io.IOException ex)
+        {
+            return null;
+        }
+    }
+
+    private static java.net.SocketAddress
+    getRemoteAddress(java.nio.channels.SocketChannel fd)
+    {
+        try
+        {
+            return fd.getRemoteAddress();
+        }
+        catch(java.io.IOException ex)
+        {
+            return null;
+        }
+    }
+
+    private static boolean
+    isStaleUnixSocket(java.net.SocketAddress addr)
+    {
+        try(java.nio.channels.SocketChannel fd = createUnixSocket())
+        {
+            fd.connect(addr);
+            return false;
+        }
+        catch(java.net.ConnectException ex)
+        {
+            return connectionRefused(ex);
+        }
+        catch(java.io.IOException ex)
+        {
+            return false;
+        }
+        catch(com.zeroc.Ice.LocalException ex)
+        {
+            return false;
+        }
+    }
+
     public static boolean
     interrupted(java.io.IOException ex)
     {
@@ -1492,4 +1838,34 @@ public final class Network
 
     private static IPAddressComparator _preferIPv4Comparator = new IPAddressComparator(false);
     private static IPAddressComparator _preferIPv6Comparator = new IPAddressComparator(true);
+
+    private static java.net.ProtocolFamily _unixProtocolFamily;
+    private static java.lang.reflect.Method _unixAddressOf;
+    private static java.lang.reflect.Method _unixSocketOpen;
+    private static java.lang.reflect.Method _unixServerSocketOpen;
+
+    static
+    {
+        try
+        {
+            Class<?> c = Util.findClass("java.net.UnixDomainSocketAddress", null);
+            if(c != null)
+            {
+                _unixAddressOf = c.getMethod("of", String.class);
+                _unixSocketOpen =
+                    java.nio.channels.SocketChannel.class.getMethod("open", java.net.ProtocolFamily.class);
+                _unixServerSocketOpen =
+                    java.nio.channels.ServerSocketChannel.class.getMethod("open", java.net.ProtocolFamily.class);
+                _unixProtocolFamily = java.net.StandardProtocolFamily.valueOf("UNIX");
+            }
+        }
+        catch(NoSuchMethodException ex)
+        {
+            _unixProtocolFamily = null;
+        }
+        catch(IllegalArgumentException ex)
+        {
+            _unixProtocolFamily = null;
+        }
+    }
 }
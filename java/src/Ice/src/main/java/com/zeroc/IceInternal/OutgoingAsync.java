@@ -143,7 +143,7 @@ public class OutgoingAsync<T> extends ProxyOutgoingAsyncBaseI<T>
         {
             try
             {
-                throw ee.getCause().fillInStackTrace();
+                throw StacklessExceptions.fillInStackTrace(_instance, ee.getCause());
             }
             catch(RuntimeException ex) // Includes LocalException
             {
@@ -14,6 +14,8 @@ package com.zeroc.IceInternal;
 //
 public interface OutgoingAsyncBase
 {
+    String getOperation();
+
     boolean sent();
 
     boolean completed(com.zeroc.Ice.InputStream is);
@@ -35,4 +37,8 @@ public interface OutgoingAsyncBase
     void invokeCompletedAsync();
 
     void cancelable(CancellationHandler handler);
+
+    void setSentTime(long time);
+
+    long getSentTime();
 }
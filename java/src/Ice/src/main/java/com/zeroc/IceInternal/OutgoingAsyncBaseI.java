@@ -70,6 +70,18 @@ public abstract class OutgoingAsyncBaseI<T> extends InvocationFutureI<T> impleme
         return _os;
     }
 
+    @Override
+    public final void setSentTime(long time)
+    {
+        _sentTime = time;
+    }
+
+    @Override
+    public final long getSentTime()
+    {
+        return _sentTime;
+    }
+
     public T waitForResponse()
     {
         if(Thread.interrupted())
@@ -89,7 +101,7 @@ public abstract class OutgoingAsyncBaseI<T> extends InvocationFutureI<T> impleme
         {
             try
             {
-                throw ee.getCause().fillInStackTrace();
+                throw StacklessExceptions.fillInStackTrace(_instance, ee.getCause());
             }
             catch(RuntimeException ex) // Includes LocalException
             {
@@ -143,4 +155,5 @@ public abstract class OutgoingAsyncBaseI<T> extends InvocationFutureI<T> impleme
 
     protected com.zeroc.Ice.OutputStream _os;
     protected com.zeroc.Ice.Instrumentation.ChildInvocationObserver _childObserver;
+    private long _sentTime;
 }
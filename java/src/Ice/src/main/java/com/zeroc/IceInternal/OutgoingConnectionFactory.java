@@ -160,6 +160,8 @@ public final class OutgoingConnectionFactory
                 assert(cons.size() == size);
                 _connections.clear();
                 _connectionsByEndpoint.clear();
+                _pools.clear();
+                _latencies.clear();
             }
             else
             {
@@ -324,6 +326,9 @@ public final class OutgoingConnectionFactory
         _communicator = communicator;
         _instance = instance;
         _monitor = new FactoryACMMonitor(instance, instance.clientACM());
+        _poolSize = instance.defaultsAndOverrides().defaultConnectionPoolSize;
+        _connectAttemptDelay = instance.defaultsAndOverrides().defaultConnectAttemptDelay;
+        _recordLatency = instance.defaultsAndOverrides().defaultLatencySelection != LatencySelectionType.None;
         _destroyed = false;
     }
 
@@ -372,7 +377,142 @@ public final class OutgoingConnectionFactory
         return endpoints;
     }
 
-    synchronized private ConnectionI
+    //
+    // Returns the connection pool of the given connection or null if the
+    // connection isn't pooled.
+    //
+    synchronized ConnectionPool
+    getConnectionPool(ConnectionI connection)
+    {
+        ConnectionPool pool = _pools.get(connection.connector());
+        return pool != null && pool.contains(connection) ? pool : null;
+    }
+
+    //
+    // Sort the given endpoints according to the latency of the invocations
+    // sent to them, weighted by the number of invocations waiting for a
+    // reply. With LeastLatency, all the endpoints are sorted by increasing
+    // latency. With PowerOfTwoChoices, only the best of the first two
+    // endpoints is moved first. Endpoints without latency, typically the
+    // endpoints without connections, are preferred to probe them.
+    //
+    synchronized void
+    sortByLatency(java.util.List<EndpointI> endpoints, LatencySelectionType type)
+    {
+        if(!_recordLatency)
+        {
+            //
+            // The latency is only recorded once a proxy uses a latency-aware
+            // endpoint selection type, start recording it with the existing
+            // connections.
+            //
+            _recordLatency = true;
+            for(java.util.List<ConnectionI> connectionList : _connections.values())
+            {
+                for(ConnectionI connection : connectionList)
+                {
+                    setLatency(connection);
+                }
+            }
+        }
+
+        if(endpoints.size() < 2 || _latencies.isEmpty())
+        {
+            return;
+        }
+
+        if(type == LatencySelectionType.PowerOfTwoChoices)
+        {
+            if(getLatency(endpoints.get(1)) < getLatency(endpoints.get(0)))
+            {
+                java.util.Collections.swap(endpoints, 0, 1);
+            }
+        }
+        else
+        {
+            final java.util.Map<EndpointI, Long> latencies = new java.util.HashMap<>();
+            for(EndpointI endpoint : endpoints)
+            {
+                latencies.put(endpoint, getLatency(endpoint));
+            }
+            java.util.Collections.sort(endpoints, new java.util.Comparator<EndpointI>()
+                {
+                    @Override
+                    public int
+                    compare(EndpointI le, EndpointI re)
+                    {
+                        return Long.compare(latencies.get(le), latencies.get(re));
+                    }
+                });
+        }
+    }
+
+    //
+    // Must be called while synchronized.
+    //
+    private long
+    getLatency(EndpointI endpoint)
+    {
+        //
+        // Connections are registered with the overrides applied and without
+        // the compression flag.
+        //
+        DefaultsAndOverrides defaultsAndOverrides = _instance.defaultsAndOverrides();
+        if(defaultsAndOverrides.overrideTimeout)
+        {
+            endpoint = endpoint.timeout(defaultsAndOverrides.overrideTimeoutValue);
+        }
+        endpoint = endpoint.compress(false);
+
+        EndpointLatency latency = _latencies.get(endpoint);
+        if(latency == null)
+        {
+            return 0;
+        }
+
+        int outstanding = 0;
+        ConnectionI[] connectionList = _connectionsByEndpoint.get(endpoint);
+        if(connectionList != null)
+        {
+            for(ConnectionI connection : connectionList)
+            {
+                outstanding += connection.asyncRequestCount();
+            }
+        }
+        return latency.average() * (outstanding + 1);
+    }
+
+    //
+    // Establish a new connection to the given endpoint for the connection
+    // pool. The connection is added to the pool once established.
+    //
+    void
+    growConnectionPool(final ConnectionPool pool, EndpointI endpoint)
+    {
+        create(new EndpointI[] { endpoint }, false, com.zeroc.Ice.EndpointSelectionType.Ordered,
+               new CreateConnectionCallback()
+               {
+                   @Override
+                   public void
+                   setConnection(ConnectionI connection, boolean compress)
+                   {
+                       pool.grown(true);
+                   }
+
+                   @Override
+                   public void
+                   setException(LocalException ex)
+                   {
+                       pool.grown(false);
+                   }
+               });
+    }
+
+    //
+    // Doesn't lock the factory, a connection missed because it's being
+    // added is found by the connection establishment.
+    //
+    private ConnectionI
     findConnectionByEndpoint(java.util.List<EndpointI> endpoints, Holder<Boolean> compress)
     {
         if(_destroyed)
@@ -385,26 +525,24 @@ public final class OutgoingConnectionFactory
 
         for(EndpointI endpoint : endpoints)
         {
-            java.util.List<ConnectionI> connectionList = _connectionsByEndpoint.get(endpoint);
+            ConnectionI[] connectionList = _connectionsByEndpoint.get(endpoint);
             if(connectionList == null)
             {
                 continue;
             }
 
-            for(ConnectionI connection : connectionList)
+            ConnectionI connection = selectConnection(java.util.Arrays.asList(connectionList), true);
+            if(connection != null)
             {
-                if(connection.isActiveOrHolding()) // Don't return destroyed or un-validated connections
+                if(defaultsAndOverrides.overrideCompress)
                 {
-                    if(defaultsAndOverrides.overrideCompress)
-                    {
-                        compress.value = defaultsAndOverrides.overrideCompressValue;
-                    }
-                    else
-                    {
-                        compress.value = endpoint.compress();
-                    }
-                    return connection;
+                    compress.value = defaultsAndOverrides.overrideCompressValue;
                 }
+                else
+                {
+                    compress.value = endpoint.compress();
+                }
+                return connection;
             }
         }
 
@@ -420,7 +558,12 @@ public final class OutgoingConnectionFactory
         DefaultsAndOverrides defaultsAndOverrides = _instance.defaultsAndOverrides();
         for(ConnectorInfo ci : connectors)
         {
-            if(_pending.containsKey(ci.connector))
+            //
+            // If a connection is being established to the connector, only
+            // return an established connection of its connection pool.
+            //
+            boolean pending = _pending.containsKey(ci.connector);
+            if(pending && _poolSize <= 1)
             {
                 continue;
             }
@@ -431,24 +574,116 @@ public final class OutgoingConnectionFactory
                 continue;
             }
 
+            ConnectionI connection = selectConnection(connectionList, !pending);
+            if(connection != null)
+            {
+                if(defaultsAndOverrides.overrideCompress)
+                {
+                    compress.value = defaultsAndOverrides.overrideCompressValue;
+                }
+                else
+                {
+                    compress.value = ci.endpoint.compress();
+                }
+                return connection;
+            }
+        }
+
+        return null;
+    }
+
+    //
+    // Must be called while synchronized.
+    //
+    private void
+    addConnectionByEndpoint(EndpointI endpoint, ConnectionI connection)
+    {
+        ConnectionI[] connections = _connectionsByEndpoint.get(endpoint);
+        if(connections == null)
+        {
+            _connectionsByEndpoint.put(endpoint, new ConnectionI[] { connection });
+        }
+        else
+        {
+            connections = java.util.Arrays.copyOf(connections, connections.length + 1);
+            connections[connections.length - 1] = connection;
+            _connectionsByEndpoint.put(endpoint, connections);
+        }
+    }
+
+    //
+    // Must be called while synchronized.
+    //
+    private void
+    removeConnectionByEndpoint(EndpointI endpoint, ConnectionI connection)
+    {
+        ConnectionI[] connections = _connectionsByEndpoint.get(endpoint);
+        if(connections == null)
+        {
+            return;
+        }
+
+        for(int i = 0; i < connections.length; ++i)
+        {
+            if(connections[i] == connection)
+            {
+                if(connections.length == 1)
+                {
+                    _connectionsByEndpoint.remove(endpoint);
+                }
+                else
+                {
+                    ConnectionI[] c = new ConnectionI[connections.length - 1];
+                    System.arraycopy(connections, 0, c, 0, i);
+                    System.arraycopy(connections, i + 1, c, i, connections.length - i - 1);
+                    _connectionsByEndpoint.put(endpoint, c);
+                }
+                break;
+            }
+        }
+    }
+
+    //
+    // Returns an active connection from the given list. With connection
+    // pools, the connection with the fewest requests waiting for a reply
+    // is returned, or null if all the connections are busy and the pool
+    // can grow. The factory doesn't need to be locked.
+    //
+    private ConnectionI
+    selectConnection(java.util.List<ConnectionI> connectionList, boolean grow)
+    {
+        if(_poolSize <= 1)
+        {
             for(ConnectionI connection : connectionList)
             {
                 if(connection.isActiveOrHolding()) // Don't return destroyed or un-validated connections
                 {
-                    if(defaultsAndOverrides.overrideCompress)
-                    {
-                        compress.value = defaultsAndOverrides.overrideCompressValue;
-                    }
-                    else
-                    {
-                        compress.value = ci.endpoint.compress();
-                    }
                     return connection;
                 }
             }
+            return null;
         }
 
-        return null;
+        ConnectionI best = null;
+        int active = 0;
+        for(ConnectionI connection : connectionList)
+        {
+            if(connection.isActiveOrHolding()) // Don't return destroyed or un-validated connections
+            {
+                ++active;
+                if(best == null || connection.asyncRequestCount() < best.asyncRequestCount())
+                {
+                    best = connection;
+                }
+            }
+        }
+
+        if(grow && best != null && active < _poolSize && best.asyncRequestCount() > 0 &&
+           !best.endpoint().datagram())
+        {
+            return null;
+        }
+        return best;
     }
 
     synchronized private void
@@ -500,8 +735,25 @@ public final class OutgoingConnectionFactory
                 for(ConnectionI c : cons)
                 {
                     _connections.removeElementWithValue(c.connector(), c);
-                    _connectionsByEndpoint.removeElementWithValue(c.endpoint(), c);
-                    _connectionsByEndpoint.removeElementWithValue(c.endpoint().compress(true), c);
+                    removeConnectionByEndpoint(c.endpoint(), c);
+                    removeConnectionByEndpoint(c.endpoint().compress(true), c);
+
+                    ConnectionPool pool = _pools.get(c.connector());
+                    if(pool != null && pool.remove(c))
+                    {
+                        _pools.remove(c.connector());
+                    }
+
+                    //
+                    // The latency of the endpoint is kept for the next
+                    // connections, it's only removed once it decayed.
+                    //
+                    EndpointLatency latency = _latencies.get(c.endpoint());
+                    if(latency != null && latency.average() == 0 &&
+                       _connectionsByEndpoint.get(c.endpoint()) == null)
+                    {
+                        _latencies.remove(c.endpoint());
+                    }
                 }
             }
 
@@ -591,11 +843,47 @@ public final class OutgoingConnectionFactory
         }
 
         _connections.putOne(ci.connector, connection);
-        _connectionsByEndpoint.putOne(connection.endpoint(), connection);
-        _connectionsByEndpoint.putOne(connection.endpoint().compress(true), connection);
+        addConnectionByEndpoint(connection.endpoint(), connection);
+        addConnectionByEndpoint(connection.endpoint().compress(true), connection);
+
+        if(_poolSize > 1 && !ci.endpoint.datagram())
+        {
+            ConnectionPool pool = _pools.get(ci.connector);
+            if(pool == null)
+            {
+                pool = new ConnectionPool(this, connection.endpoint(), _poolSize);
+                _pools.put(ci.connector, pool);
+            }
+            pool.add(connection);
+        }
+
+        if(_recordLatency)
+        {
+            setLatency(connection);
+        }
         return connection;
     }
 
+    //
+    // Must be called while synchronized.
+    //
+    private void
+    setLatency(ConnectionI connection)
+    {
+        if(connection.endpoint().datagram())
+        {
+            return;
+        }
+
+        EndpointLatency latency = _latencies.get(connection.endpoint());
+        if(latency == null)
+        {
+            latency = new EndpointLatency();
+            _latencies.put(connection.endpoint(), latency);
+        }
+        connection.setLatency(latency);
+    }
+
     private void
     finishGetConnection(java.util.List<ConnectorInfo> connectors,
                         ConnectorInfo ci,
@@ -869,6 +1157,12 @@ public final class OutgoingConnectionFactory
         public void
         connectionStartCompleted(ConnectionI connection)
         {
+            if(_attempts != null)
+            {
+                attemptCompleted(connection);
+                return;
+            }
+
             if(_observer != null)
             {
                 _observer.detach();
@@ -881,6 +1175,17 @@ public final class OutgoingConnectionFactory
         public void
         connectionStartFailed(ConnectionI connection, LocalException ex)
         {
+            if(_attempts != null)
+            {
+                Attempt attempt;
+                synchronized(this)
+                {
+                    attempt = _attempts.remove(connection);
+                }
+                attemptFailed(attempt.connector, attempt.observer, ex);
+                return;
+            }
+
             assert(_current != null);
             if(connectionStartFailedImpl(ex))
             {
@@ -1054,6 +1359,13 @@ public final class OutgoingConnectionFactory
         private void
         nextConnector()
         {
+            if(_factory._connectAttemptDelay > 0 && _connectors.size() > 1)
+            {
+                _attempts = new java.util.HashMap<>();
+                nextAttempt();
+                return;
+            }
+
             while(true)
             {
                 try
@@ -1110,6 +1422,210 @@ public final class OutgoingConnectionFactory
             }
         }
 
+        //
+        // With Ice.Default.ConnectAttemptDelay, the connection establishment
+        // with the next connector is started if the connection isn't
+        // established after the delay or as soon as the previous attempt
+        // fails. The first established connection is used and the other
+        // attempts are canceled.
+        //
+        private void
+        nextAttempt()
+        {
+            ConnectorInfo ci;
+            synchronized(this)
+            {
+                if(_done || !_iter.hasNext())
+                {
+                    return;
+                }
+
+                ci = _iter.next();
+                ++_pendingAttempts;
+
+                if(_attemptFuture != null)
+                {
+                    _attemptFuture.cancel(false);
+                    _attemptFuture = null;
+                }
+                if(_iter.hasNext())
+                {
+                    try
+                    {
+                        _attemptFuture = _factory._instance.timer().schedule(() -> { nextAttempt(); },
+                                                                             _factory._connectAttemptDelay,
+                                                                             java.util.concurrent.TimeUnit.MILLISECONDS);
+                    }
+                    catch(java.util.concurrent.RejectedExecutionException ex)
+                    {
+                        // The communicator is being destroyed, the pending attempt will fail.
+                    }
+                }
+            }
+
+            com.zeroc.Ice.Instrumentation.Observer observer = null;
+            com.zeroc.Ice.Instrumentation.CommunicatorObserver obsv = _factory._instance.initializationData().observer;
+            if(obsv != null)
+            {
+                observer = obsv.getConnectionEstablishmentObserver(ci.endpoint, ci.connector.toString());
+                if(observer != null)
+                {
+                    observer.attach();
+                }
+            }
+
+            if(_factory._instance.traceLevels().network >= 2)
+            {
+                StringBuffer s = new StringBuffer("trying to establish ");
+                s.append(ci.endpoint.protocol());
+                s.append(" connection to ");
+                s.append(ci.connector.toString());
+                _factory._instance.initializationData().logger.trace(
+                    _factory._instance.traceLevels().networkCat, s.toString());
+            }
+
+            ConnectionI connection;
+            try
+            {
+                connection = _factory.createConnection(ci.connector.connect(), ci);
+            }
+            catch(LocalException ex)
+            {
+                if(_factory._instance.traceLevels().network >= 2)
+                {
+                    StringBuffer s = new StringBuffer("failed to establish ");
+                    s.append(ci.endpoint.protocol());
+                    s.append(" connection to ");
+                    s.append(ci.connector.toString());
+                    s.append("\n");
+                    s.append(ex);
+                    _factory._instance.initializationData().logger.trace(
+                        _factory._instance.traceLevels().networkCat, s.toString());
+                }
+                attemptFailed(ci, observer, ex);
+                return;
+            }
+
+            boolean canceled;
+            synchronized(this)
+            {
+                _attempts.put(connection, new Attempt(ci, observer));
+                canceled = _done;
+            }
+            if(canceled)
+            {
+                connection.close(com.zeroc.Ice.ConnectionClose.Forcefully);
+            }
+            connection.start(this);
+        }
+
+        private void
+        attemptCompleted(ConnectionI connection)
+        {
+            Attempt attempt;
+            java.util.List<ConnectionI> canceled;
+            synchronized(this)
+            {
+                attempt = _attempts.remove(connection);
+                --_pendingAttempts;
+                if(_done)
+                {
+                    canceled = null;
+                }
+                else
+                {
+                    _done = true;
+                    if(_attemptFuture != null)
+                    {
+                        _attemptFuture.cancel(false);
+                        _attemptFuture = null;
+                    }
+                    canceled = new java.util.ArrayList<>(_attempts.keySet());
+                }
+            }
+
+            if(attempt.observer != null)
+            {
+                attempt.observer.detach();
+            }
+
+            if(canceled == null)
+            {
+                //
+                // Another connection won the race, this connection isn't used.
+                //
+                connection.close(com.zeroc.Ice.ConnectionClose.Forcefully);
+                return;
+            }
+
+            for(ConnectionI c : canceled)
+            {
+                c.close(com.zeroc.Ice.ConnectionClose.Forcefully);
+            }
+
+            connection.activate();
+            _factory.finishGetConnection(_connectors, attempt.connector, connection, this);
+        }
+
+        private void
+        attemptFailed(ConnectorInfo ci, com.zeroc.Ice.Instrumentation.Observer observer, LocalException ex)
+        {
+            if(observer != null)
+            {
+                observer.failed(ex.ice_id());
+                observer.detach();
+            }
+
+            boolean next = false;
+            boolean finished = false;
+            java.util.List<ConnectionI> canceled = null;
+            synchronized(this)
+            {
+                --_pendingAttempts;
+                if(_done)
+                {
+                    return;
+                }
+
+                if(ex instanceof com.zeroc.Ice.CommunicatorDestroyedException) // No need to continue.
+                {
+                    _done = true;
+                    finished = true;
+                    canceled = new java.util.ArrayList<>(_attempts.keySet());
+                }
+                else if(_iter.hasNext()) // Try the next connector without waiting for the delay.
+                {
+                    next = true;
+                }
+                else if(_pendingAttempts == 0)
+                {
+                    _done = true;
+                    finished = true;
+                }
+            }
+
+            //
+            // If there are no more connectors, wait for the completion of the
+            // pending attempts before reporting the failure.
+            //
+            _factory.handleConnectionException(ex, _hasMore || !finished);
+            if(next)
+            {
+                nextAttempt();
+            }
+            else if(finished)
+            {
+                if(canceled != null)
+                {
+                    for(ConnectionI c : canceled)
+                    {
+                        c.close(com.zeroc.Ice.ConnectionClose.Forcefully);
+                    }
+                }
+                _factory.finishGetConnection(_connectors, ex, this);
+            }
+        }
+
         private boolean
         connectionStartFailedImpl(LocalException ex)
         {
@@ -1146,15 +1662,42 @@ public final class OutgoingConnectionFactory
         private java.util.Iterator<ConnectorInfo> _iter;
         private ConnectorInfo _current;
         private com.zeroc.Ice.Instrumentation.Observer _observer;
+
+        private java.util.Map<ConnectionI, Attempt> _attempts; // Only used with a connect attempt delay.
+        private int _pendingAttempts;
+        private boolean _done;
+        private java.util.concurrent.Future<?> _attemptFuture;
+    }
+
+    private static class Attempt
+    {
+        Attempt(ConnectorInfo connector, com.zeroc.Ice.Instrumentation.Observer observer)
+        {
+            this.connector = connector;
+            this.observer = observer;
+        }
+
+        final ConnectorInfo connector;
+        final com.zeroc.Ice.Instrumentation.Observer observer;
     }
 
     private com.zeroc.Ice.Communicator _communicator;
     private final Instance _instance;
     private final FactoryACMMonitor _monitor;
-    private boolean _destroyed;
+    private final int _poolSize;
+    private final int _connectAttemptDelay;
+    private volatile boolean _destroyed;
 
     private MultiHashMap<Connector, ConnectionI> _connections = new MultiHashMap<>();
-    private MultiHashMap<EndpointI, ConnectionI> _connectionsByEndpoint = new MultiHashMap<>();
+    //
+    // Updated with the factory locked, read without locking to find the
+    // connection of a new request handler.
+    //
+    private java.util.concurrent.ConcurrentHashMap<EndpointI, ConnectionI[]> _connectionsByEndpoint =
+        new java.util.concurrent.ConcurrentHashMap<>();
+    private java.util.Map<Connector, ConnectionPool> _pools = new java.util.HashMap<>();
+    private java.util.Map<EndpointI, EndpointLatency> _latencies = new java.util.HashMap<>();
+    private boolean _recordLatency; // True once a latency-aware endpoint selection type is used.
     private java.util.Map<Connector, java.util.HashSet<ConnectCallback> > _pending = new java.util.HashMap<>();
     private int _pendingConnectCount = 0;
 }
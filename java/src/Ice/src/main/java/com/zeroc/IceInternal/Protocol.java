@@ -53,6 +53,18 @@ final public class Protocol
     public final static byte validateConnectionMsg = 3;
     public final static byte closeConnectionMsg = 4;
 
+    //
+    // The compression status of a message. The four low bits are the
+    // compression status and the four high bits are used to advertise the
+    // compression codecs other than bzip2 supported by the sender.
+    //
+    public final static byte compressionNotSupported = 0;
+    public final static byte compressionSupported = 1;
+    public final static byte compressionBZip2 = 2;
+    public final static byte compressionDeflate = 3;
+    public final static byte compressionLZ4 = 4;
+    public final static int compressionStatusMask = 0x0F;
+
     public final static byte[] requestHdr =
     {
         Protocol.magic[0],
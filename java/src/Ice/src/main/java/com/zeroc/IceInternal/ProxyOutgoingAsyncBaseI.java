@@ -98,19 +98,19 @@ public abstract class ProxyOutgoingAsyncBaseI<T> extends OutgoingAsyncBaseI<T> i
                 {
                 case ReplyStatus.replyObjectNotExist:
                 {
-                    ex = new com.zeroc.Ice.ObjectNotExistException();
+                    ex = StacklessExceptions.create(_instance, com.zeroc.Ice.ObjectNotExistException::new);
                     break;
                 }
 
                 case ReplyStatus.replyFacetNotExist:
                 {
-                    ex = new com.zeroc.Ice.FacetNotExistException();
+                    ex = StacklessExceptions.create(_instance, com.zeroc.Ice.FacetNotExistException::new);
                     break;
                 }
 
                 case ReplyStatus.replyOperationNotExist:
                 {
-                    ex = new com.zeroc.Ice.OperationNotExistException();
+                    ex = StacklessExceptions.create(_instance, com.zeroc.Ice.OperationNotExistException::new);
                     break;
                 }
 
@@ -138,19 +138,19 @@ public abstract class ProxyOutgoingAsyncBaseI<T> extends OutgoingAsyncBaseI<T> i
                 {
                 case ReplyStatus.replyUnknownException:
                 {
-                    ex = new com.zeroc.Ice.UnknownException();
+                    ex = StacklessExceptions.create(_instance, com.zeroc.Ice.UnknownException::new);
                     break;
                 }
 
                 case ReplyStatus.replyUnknownLocalException:
                 {
-                    ex = new com.zeroc.Ice.UnknownLocalException();
+                    ex = StacklessExceptions.create(_instance, com.zeroc.Ice.UnknownLocalException::new);
                     break;
                 }
 
                 case ReplyStatus.replyUnknownUserException:
                 {
-                    ex = new com.zeroc.Ice.UnknownUserException();
+                    ex = StacklessExceptions.create(_instance, com.zeroc.Ice.UnknownUserException::new);
                     break;
                 }
 
@@ -167,7 +167,7 @@ public abstract class ProxyOutgoingAsyncBaseI<T> extends OutgoingAsyncBaseI<T> i
 
             default:
             {
-                throw new com.zeroc.Ice.UnknownReplyStatusException();
+                throw StacklessExceptions.create(_instance, com.zeroc.Ice.UnknownReplyStatusException::new);
             }
             }
 
@@ -246,7 +246,7 @@ public abstract class ProxyOutgoingAsyncBaseI<T> extends OutgoingAsyncBaseI<T> i
             if(timeout > 0)
             {
                 _timerFuture = _instance.timer().schedule(
-                    () -> { cancel(new com.zeroc.Ice.ConnectionTimeoutException()); },
+                    () -> { cancel(StacklessExceptions.create(_instance, com.zeroc.Ice.ConnectionTimeoutException::new)); },
                     timeout, java.util.concurrent.TimeUnit.MILLISECONDS);
             }
         }
@@ -302,7 +302,7 @@ public abstract class ProxyOutgoingAsyncBaseI<T> extends OutgoingAsyncBaseI<T> i
                 if(invocationTimeout > 0)
                 {
                     _timerFuture = _instance.timer().schedule(
-                        () -> { cancel(new com.zeroc.Ice.InvocationTimeoutException()); },
+                        () -> { cancel(StacklessExceptions.create(_instance, com.zeroc.Ice.InvocationTimeoutException::new)); },
                         invocationTimeout, java.util.concurrent.TimeUnit.MILLISECONDS);
                 }
             }
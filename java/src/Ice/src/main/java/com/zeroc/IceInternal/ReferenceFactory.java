@@ -758,6 +758,7 @@ public final class ReferenceFactory
         boolean cacheConnection = true;
         boolean preferSecure = defaultsAndOverrides.defaultPreferSecure;
         com.zeroc.Ice.EndpointSelectionType endpointSelection = defaultsAndOverrides.defaultEndpointSelection;
+        LatencySelectionType latencySelection = defaultsAndOverrides.defaultLatencySelection;
         int locatorCacheTimeout = defaultsAndOverrides.defaultLocatorCacheTimeout;
         int invocationTimeout = defaultsAndOverrides.defaultInvocationTimeout;
         java.util.Map<String, String> context = null;
@@ -827,15 +828,28 @@ public final class ReferenceFactory
                 if(type.equals("Random"))
                 {
                     endpointSelection = com.zeroc.Ice.EndpointSelectionType.Random;
+                    latencySelection = LatencySelectionType.None;
                 }
                 else if(type.equals("Ordered"))
                 {
                     endpointSelection = com.zeroc.Ice.EndpointSelectionType.Ordered;
+                    latencySelection = LatencySelectionType.None;
+                }
+                else if(type.equals("LeastLatency"))
+                {
+                    endpointSelection = com.zeroc.Ice.EndpointSelectionType.Random;
+                    latencySelection = LatencySelectionType.LeastLatency;
+                }
+                else if(type.equals("PowerOfTwoChoices"))
+                {
+                    endpointSelection = com.zeroc.Ice.EndpointSelectionType.Random;
+                    latencySelection = LatencySelectionType.PowerOfTwoChoices;
                 }
                 else
                 {
                     throw new com.zeroc.Ice.EndpointSelectionTypeParseException("illegal value `" + type +
-                                                                      "'; expected `Random' or `Ordered'");
+                                                                      "'; expected `Random', `Ordered', " +
+                                                                      "`LeastLatency' or `PowerOfTwoChoices'");
                 }
             }
 
@@ -906,6 +920,7 @@ public final class ReferenceFactory
                                      cacheConnection,
                                      preferSecure,
                                      endpointSelection,
+                                     latencySelection,
                                      locatorCacheTimeout,
                                      invocationTimeout,
                                      context);
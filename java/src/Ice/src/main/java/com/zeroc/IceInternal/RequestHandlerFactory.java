@@ -9,9 +9,8 @@
 
 package com.zeroc.IceInternal;
 
-import java.util.Map;
-import java.util.HashMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class RequestHandlerFactory
 {
@@ -36,13 +35,14 @@ public final class RequestHandlerFactory
         boolean connect = false;
         if(ref.getCacheConnection())
         {
-            synchronized(this)
+            handler = _handlers.get(ref);
+            if(handler == null)
             {
-                handler = _handlers.get(ref);
+                ConnectRequestHandler h = new ConnectRequestHandler(ref, proxy);
+                handler = _handlers.putIfAbsent(ref, h);
                 if(handler == null)
                 {
-                    handler = new ConnectRequestHandler(ref, proxy);
-                    _handlers.put(ref, handler);
+                    handler = h;
                     connect = true;
                 }
             }
@@ -81,16 +81,10 @@ public final class RequestHandlerFactory
     {
         if(ref.getCacheConnection())
         {
-            synchronized(this)
-            {
-                if(_handlers.get(ref) == handler)
-                {
-                    _handlers.remove(ref);
-                }
-            }
+            _handlers.remove(ref, handler);
         }
     }
 
     private final Instance _instance;
-    private final Map<Reference, ConnectRequestHandler> _handlers = new HashMap<>();
+    private final ConcurrentHashMap<Reference, ConnectRequestHandler> _handlers = new ConcurrentHashMap<>();
 }
@@ -17,6 +17,13 @@ public class RetryException extends Exception
         _ex = ex;
     }
 
+    @Override
+    public synchronized Throwable
+    fillInStackTrace()
+    {
+        return StacklessExceptions.suppress() ? this : super.fillInStackTrace();
+    }
+
     public com.zeroc.Ice.LocalException
     get()
     {
@@ -221,15 +221,22 @@ public class RoutableReference extends Reference
     public final Reference
     changeEndpointSelection(com.zeroc.Ice.EndpointSelectionType newType)
     {
-        if(newType == _endpointSelection)
+        if(newType == _endpointSelection && _latencySelection == LatencySelectionType.None)
         {
             return this;
         }
         RoutableReference r = (RoutableReference)getInstance().referenceFactory().copy(this);
         r._endpointSelection = newType;
+        r._latencySelection = LatencySelectionType.None;
         return r;
     }
 
+    public final LatencySelectionType
+    getLatencySelection()
+    {
+        return _latencySelection;
+    }
+
     @Override
     public Reference
     changeLocatorCacheTimeout(int newTimeout)
@@ -384,8 +391,15 @@ public class RoutableReference extends Reference
         properties.put(prefix + ".CollocationOptimized", _collocationOptimized ? "1" : "0");
         properties.put(prefix + ".ConnectionCached", _cacheConnection ? "1" : "0");
         properties.put(prefix + ".PreferSecure", _preferSecure ? "1" : "0");
-        properties.put(prefix + ".EndpointSelection",
-                       _endpointSelection == com.zeroc.Ice.EndpointSelectionType.Random ? "Random" : "Ordered");
+        if(_latencySelection != LatencySelectionType.None)
+        {
+            properties.put(prefix + ".EndpointSelection", _latencySelection.toString());
+        }
+        else
+        {
+            properties.put(prefix + ".EndpointSelection",
+                           _endpointSelection == com.zeroc.Ice.EndpointSelectionType.Random ? "Random" : "Ordered");
+        }
 
         {
             StringBuffer s = new StringBuffer();
@@ -475,6 +489,10 @@ public class RoutableReference extends Reference
         {
             return false;
         }
+        if(_latencySelection != rhs._latencySelection)
+        {
+            return false;
+        }
         if(_locatorCacheTimeout != rhs._locatorCacheTimeout)
         {
             return false;
@@ -655,6 +673,7 @@ public class RoutableReference extends Reference
                       boolean cacheConnection,
                       boolean prefereSecure,
                       com.zeroc.Ice.EndpointSelectionType endpointSelection,
+                      LatencySelectionType latencySelection,
                       int locatorCacheTimeout,
                       int invocationTimeout,
                       java.util.Map<String, String> context)
@@ -668,6 +687,7 @@ public class RoutableReference extends Reference
         _cacheConnection = cacheConnection;
         _preferSecure = prefereSecure;
         _endpointSelection = endpointSelection;
+        _latencySelection = latencySelection;
         _locatorCacheTimeout = locatorCacheTimeout;
         _overrideTimeout = false;
         _timeout = -1;
@@ -770,6 +790,16 @@ public class RoutableReference extends Reference
             case Random:
             {
                 java.util.Collections.shuffle(endpoints);
+
+                //
+                // With the latency-aware selection types, the endpoints are
+                // shuffled first to spread the load over the endpoints which
+                // don't have a latency yet.
+                //
+                if(_latencySelection != LatencySelectionType.None)
+                {
+                    getInstance().outgoingConnectionFactory().sortByLatency(endpoints, _latencySelection);
+                }
                 break;
             }
             case Ordered:
@@ -973,6 +1003,7 @@ public class RoutableReference extends Reference
     private boolean _cacheConnection;
     private boolean _preferSecure;
     private com.zeroc.Ice.EndpointSelectionType _endpointSelection;
+    private LatencySelectionType _latencySelection;
     private int _locatorCacheTimeout;
 
     private boolean _overrideTimeout;
@@ -70,6 +70,11 @@ public final class Selector
 
         if(handler.fd() == null)
         {
+            //
+            // The handler might have been marked ready for the operation
+            // before it was registered.
+            //
+            checkReady(handler);
             return;
         }
 
@@ -9,6 +9,12 @@
 
 package com.zeroc.IceInternal;
 
+//
+// The servant maps are concurrent maps and the facet maps are never
+// modified once added to the servant map (a new facet map replaces the
+// previous one), the servants and servant locators are therefore found
+// without locking. The updates are synchronized.
+//
 public final class ServantManager
 {
     public synchronized void
@@ -24,8 +30,7 @@ public final class ServantManager
         java.util.Map<String, com.zeroc.Ice.Object> m = _servantMapMap.get(ident);
         if(m == null)
         {
-            m = new java.util.HashMap<String, com.zeroc.Ice.Object>();
-            _servantMapMap.put(ident, m);
+            m = java.util.Collections.singletonMap(facet, servant);
         }
         else
         {
@@ -41,9 +46,11 @@ public final class ServantManager
                 }
                 throw ex;
             }
+            m = new java.util.HashMap<String, com.zeroc.Ice.Object>(m);
+            m.put(facet, servant);
         }
 
-        m.put(facet, servant);
+        _servantMapMap.put(ident, m);
     }
 
     public synchronized void
@@ -51,6 +58,11 @@ public final class ServantManager
     {
         assert(_instance != null); // Must not be called after destruction
 
+        if(category == null)
+        {
+            category = "";
+        }
+
         com.zeroc.Ice.Object obj = _defaultServantMap.get(category);
         if(obj != null)
         {
@@ -75,7 +87,7 @@ public final class ServantManager
 
         java.util.Map<String, com.zeroc.Ice.Object> m = _servantMapMap.get(ident);
         com.zeroc.Ice.Object obj = null;
-        if(m == null || (obj = m.remove(facet)) == null)
+        if(m == null || (obj = m.get(facet)) == null)
         {
             com.zeroc.Ice.NotRegisteredException ex = new com.zeroc.Ice.NotRegisteredException();
             ex.id = com.zeroc.Ice.Util.identityToString(ident, _instance.toStringMode());
@@ -88,10 +100,16 @@ public final class ServantManager
             throw ex;
         }
 
-        if(m.isEmpty())
+        if(m.size() == 1)
         {
             _servantMapMap.remove(ident);
         }
+        else
+        {
+            m = new java.util.HashMap<String, com.zeroc.Ice.Object>(m);
+            m.remove(facet);
+            _servantMapMap.put(ident, m);
+        }
         return obj;
     }
 
@@ -100,6 +118,11 @@ public final class ServantManager
     {
         assert(_instance != null); // Must not be called after destruction.
 
+        if(category == null)
+        {
+            category = "";
+        }
+
         com.zeroc.Ice.Object obj = _defaultServantMap.get(category);
         if(obj == null)
         {
@@ -129,10 +152,10 @@ public final class ServantManager
 
         _servantMapMap.remove(ident);
 
-        return m;
+        return new java.util.HashMap<String, com.zeroc.Ice.Object>(m);
     }
 
-    public synchronized com.zeroc.Ice.Object
+    public com.zeroc.Ice.Object
     findServant(com.zeroc.Ice.Identity ident, String facet)
     {
         //
@@ -152,7 +175,7 @@ public final class ServantManager
         com.zeroc.Ice.Object obj = null;
         if(m == null)
         {
-            obj = _defaultServantMap.get(ident.category);
+            obj = _defaultServantMap.get(ident.category != null ? ident.category : "");
             if(obj == null)
             {
                 obj = _defaultServantMap.get("");
@@ -166,15 +189,20 @@ public final class ServantManager
         return obj;
     }
 
-    public synchronized com.zeroc.Ice.Object
+    public com.zeroc.Ice.Object
     findDefaultServant(String category)
     {
         assert(_instance != null); // Must not be called after destruction.
 
+        if(category == null)
+        {
+            category = "";
+        }
+
         return _defaultServantMap.get(category);
     }
 
-    public synchronized java.util.Map<String, com.zeroc.Ice.Object>
+    public java.util.Map<String, com.zeroc.Ice.Object>
     findAllFacets(com.zeroc.Ice.Identity ident)
     {
         assert(_instance != null); // Must not be called after destruction.
@@ -188,7 +216,7 @@ public final class ServantManager
         return new java.util.HashMap<String, com.zeroc.Ice.Object>();
     }
 
-    public synchronized boolean
+    public boolean
     hasServant(com.zeroc.Ice.Identity ident)
     {
         //
@@ -216,6 +244,11 @@ public final class ServantManager
     {
         assert(_instance != null); // Must not be called after destruction.
 
+        if(category == null)
+        {
+            category = "";
+        }
+
         com.zeroc.Ice.ServantLocator l = _locatorMap.get(category);
         if(l != null)
         {
@@ -235,6 +268,11 @@ public final class ServantManager
         com.zeroc.Ice.ServantLocator l = null;
         assert(_instance != null); // Must not be called after destruction.
 
+        if(category == null)
+        {
+            category = "";
+        }
+
         l = _locatorMap.remove(category);
         if(l == null)
         {
@@ -247,7 +285,7 @@ public final class ServantManager
         return l;
     }
 
-    public synchronized com.zeroc.Ice.ServantLocator
+    public com.zeroc.Ice.ServantLocator
     findServantLocator(String category)
     {
         //
@@ -258,7 +296,7 @@ public final class ServantManager
         //
         //assert(_instance != null); // Must not be called after destruction.
 
-        return _locatorMap.get(category);
+        return _locatorMap.get(category != null ? category : "");
     }
 
     //
@@ -320,10 +358,10 @@ public final class ServantManager
 
     private Instance _instance;
     final private String _adapterName;
-    private java.util.Map<com.zeroc.Ice.Identity, java.util.Map<String, com.zeroc.Ice.Object> > _servantMapMap =
-        new java.util.HashMap<com.zeroc.Ice.Identity, java.util.Map<String, com.zeroc.Ice.Object> >();
-    private java.util.Map<String, com.zeroc.Ice.Object> _defaultServantMap =
-        new java.util.HashMap<String, com.zeroc.Ice.Object>();
-    private java.util.Map<String, com.zeroc.Ice.ServantLocator> _locatorMap =
-        new java.util.HashMap<String, com.zeroc.Ice.ServantLocator>();
+    final private java.util.Map<com.zeroc.Ice.Identity, java.util.Map<String, com.zeroc.Ice.Object> > _servantMapMap =
+        new java.util.concurrent.ConcurrentHashMap<>();
+    final private java.util.Map<String, com.zeroc.Ice.Object> _defaultServantMap =
+        new java.util.concurrent.ConcurrentHashMap<>();
+    final private java.util.Map<String, com.zeroc.Ice.ServantLocator> _locatorMap =
+        new java.util.concurrent.ConcurrentHashMap<>();
 }
@@ -0,0 +1,29 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+final class ShmAcceptor extends UnixAcceptor
+{
+    @Override
+    protected Transceiver createTransceiver(java.nio.channels.SocketChannel fd)
+    {
+        return new ShmTransceiver(_instance, _path, fd);
+    }
+
+    ShmAcceptor(ShmEndpointI endpoint, ProtocolInstance instance, String path)
+    {
+        super(endpoint, instance, path);
+        _instance = instance;
+        _path = path;
+    }
+
+    private ProtocolInstance _instance;
+    private String _path;
+}
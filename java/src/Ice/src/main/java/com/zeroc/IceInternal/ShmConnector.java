@@ -0,0 +1,94 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+final class ShmConnector implements Connector
+{
+    @Override
+    public Transceiver connect()
+    {
+        return new ShmTransceiver(_instance, _path, _addr, RingSize);
+    }
+
+    @Override
+    public short type()
+    {
+        return _instance.type();
+    }
+
+    @Override
+    public String toString()
+    {
+        return _path;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return _hashCode;
+    }
+
+    //
+    // Only for use by ShmEndpointI
+    //
+    ShmConnector(ProtocolInstance instance, String path, java.net.SocketAddress addr, int timeout,
+                 String connectionId)
+    {
+        _instance = instance;
+        _path = path;
+        _addr = addr;
+        _timeout = timeout;
+        _connectionId = connectionId;
+
+        _hashCode = 5381;
+        _hashCode = HashUtil.hashAdd(_hashCode , _path);
+        _hashCode = HashUtil.hashAdd(_hashCode , _timeout);
+        _hashCode = HashUtil.hashAdd(_hashCode , _connectionId);
+    }
+
+    @Override
+    public boolean equals(java.lang.Object obj)
+    {
+        if(!(obj instanceof ShmConnector))
+        {
+            return false;
+        }
+
+        if(this == obj)
+        {
+            return true;
+        }
+
+        ShmConnector p = (ShmConnector)obj;
+        if(_timeout != p._timeout)
+        {
+            return false;
+        }
+
+        if(!_connectionId.equals(p._connectionId))
+        {
+            return false;
+        }
+
+        return _path.equals(p._path);
+    }
+
+    //
+    // The capacity of each of the two rings of a connection.
+    //
+    private static final int RingSize = 1024 * 1024;
+
+    private ProtocolInstance _instance;
+    private String _path;
+    private java.net.SocketAddress _addr;
+    private int _timeout;
+    private String _connectionId = "";
+    private int _hashCode;
+}
@@ -0,0 +1,55 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// Endpoint for the experimental shm transport. It's configured like a unix
+// endpoint, the -p option sets the path of the Unix domain socket file used
+// to establish connections. The data is exchanged through shared memory.
+//
+final class ShmEndpointI extends UnixEndpointI
+{
+    public ShmEndpointI(ProtocolInstance instance, String path, int timeout, String connectionId, boolean compress)
+    {
+        super(instance, path, timeout, connectionId, compress);
+    }
+
+    public ShmEndpointI(ProtocolInstance instance)
+    {
+        super(instance);
+    }
+
+    public ShmEndpointI(ProtocolInstance instance, com.zeroc.Ice.InputStream s)
+    {
+        super(instance, s);
+    }
+
+    //
+    // Return an acceptor for this endpoint, or null if no acceptors
+    // is available.
+    //
+    @Override
+    public Acceptor acceptor(String adapterName)
+    {
+        return new ShmAcceptor(this, _instance, _path);
+    }
+
+    @Override
+    protected Connector createConnector(java.net.SocketAddress addr)
+    {
+        return new ShmConnector(_instance, _path, addr, _timeout, _connectionId);
+    }
+
+    @Override
+    protected UnixEndpointI createEndpoint(String path, int timeout, String connectionId, boolean compress)
+    {
+        return new ShmEndpointI(_instance, path, timeout, connectionId, compress);
+    }
+}
@@ -0,0 +1,335 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// A single producer, single consumer ring buffer stored in a memory-mapped
+// file shared by two processes. It's used by the shm transport, each
+// connection maps two rings, one for each direction.
+//
+// The ring header holds the total number of bytes written (head) and read
+// (tail) and the flags used by the consumer and producer to request a
+// wake up signal when they wait for data or space. The header fields are
+// accessed with volatile semantics through byte buffer view var handles.
+// Var handles are new in JDK 9, they are looked up with reflection so this
+// code still compiles with older JDK versions.
+//
+final class ShmRing
+{
+    static final int HeaderSize = 256;
+
+    static boolean isSupported()
+    {
+        return _getLong != null;
+    }
+
+    static int size(int capacity)
+    {
+        return HeaderSize + capacity;
+    }
+
+    ShmRing(java.nio.ByteBuffer map, int offset, int capacity)
+    {
+        assert(capacity > 0 && (capacity & (capacity - 1)) == 0);
+
+        _map = map;
+        _offset = offset;
+        _capacity = capacity;
+        _mask = capacity - 1;
+
+        java.nio.ByteBuffer data = map.duplicate();
+        data.position(offset + HeaderSize);
+        data.limit(offset + HeaderSize + capacity);
+        _data = data.slice();
+
+        _head = getLong(_offset + HeadOffset);
+        _tail = getLong(_offset + TailOffset);
+    }
+
+    int capacity()
+    {
+        return _capacity;
+    }
+
+    //
+    // Producer side: copy as much of the given buffer as fits in the ring
+    // and return the number of bytes copied.
+    //
+    int put(java.nio.ByteBuffer src)
+    {
+        long tail = getLong(_offset + TailOffset);
+        checkIndexes(_head, tail);
+        int n = Math.min(src.remaining(), _capacity - (int)(_head - tail));
+        if(n == 0)
+        {
+            return 0;
+        }
+
+        int pos = (int)(_head & _mask);
+        int first = Math.min(n, _capacity - pos);
+        copyIn(src, pos, first);
+        if(first < n)
+        {
+            copyIn(src, 0, n - first);
+        }
+
+        _head += n;
+        setLong(_offset + HeadOffset, _head);
+        return n;
+    }
+
+    //
+    // Producer side: request a wake up signal from the consumer once space
+    // is available. Returns false if space is already available.
+    //
+    boolean waitForSpace()
+    {
+        setInt(_offset + WriterWaitingOffset, 1);
+        if(getLong(_offset + TailOffset) + _capacity == _head)
+        {
+            return true;
+        }
+        setInt(_offset + WriterWaitingOffset, 0);
+        return false;
+    }
+
+    //
+    // Producer side: returns true if the consumer is waiting for data and
+    // must be signaled.
+    //
+    boolean wakeReader()
+    {
+        return getInt(_offset + ReaderWaitingOffset) != 0 && getAndSetInt(_offset + ReaderWaitingOffset, 0) != 0;
+    }
+
+    //
+    // Consumer side: copy as much data as available to the given buffer and
+    // return the number of bytes copied.
+    //
+    int get(java.nio.ByteBuffer dst)
+    {
+        long head = getLong(_offset + HeadOffset);
+        checkIndexes(head, _tail);
+        int n = Math.min(dst.remaining(), (int)(head - _tail));
+        if(n == 0)
+        {
+            return 0;
+        }
+
+        int pos = (int)(_tail & _mask);
+        int first = Math.min(n, _capacity - pos);
+        copyOut(dst, pos, first);
+        if(first < n)
+        {
+            copyOut(dst, 0, n - first);
+        }
+
+        _tail += n;
+        setLong(_offset + TailOffset, _tail);
+        return n;
+    }
+
+    //
+    // Consumer side: returns true if data is available.
+    //
+    boolean hasData()
+    {
+        return getLong(_offset + HeadOffset) != _tail;
+    }
+
+    //
+    // Consumer side: request a wake up signal from the producer once data
+    // is available. Returns false if data is already available.
+    //
+    boolean waitForData()
+    {
+        setInt(_offset + ReaderWaitingOffset, 1);
+        if(getLong(_offset + HeadOffset) == _tail)
+        {
+            return true;
+        }
+        setInt(_offset + ReaderWaitingOffset, 0);
+        return false;
+    }
+
+    //
+    // Consumer side: returns true if the producer is waiting for space and
+    // must be signaled.
+    //
+    boolean wakeWriter()
+    {
+        return getInt(_offset + WriterWaitingOffset) != 0 && getAndSetInt(_offset + WriterWaitingOffset, 0) != 0;
+    }
+
+    //
+    // The index written by the peer is validated before it's used: the peer
+    // must not be able to get us to read or write outside the ring data.
+    //
+    private void checkIndexes(long head, long tail)
+    {
+        if(head - tail < 0 || head - tail > _capacity)
+        {
+            throw new com.zeroc.Ice.ProtocolException("invalid shm ring indexes: head = " + head + ", tail = " +
+                                                      tail + ", capacity = " + _capacity);
+        }
+    }
+
+    private void copyIn(java.nio.ByteBuffer src, int pos, int len)
+    {
+        _data.limit(pos + len);
+        _data.position(pos);
+        int lim = src.limit();               // Save the current limit.
+        src.limit(src.position() + len);     // Temporarily change the limit.
+        _data.put(src);
+        src.limit(lim);                      // Restore the previous limit.
+    }
+
+    private void copyOut(java.nio.ByteBuffer dst, int pos, int len)
+    {
+        _data.limit(pos + len);
+        _data.position(pos);
+        dst.put(_data);
+    }
+
+    private long getLong(int index)
+    {
+        try
+        {
+            return (long)_getLong.invokeExact(_map, index);
+        }
+        catch(Throwable ex)
+        {
+            throw new com.zeroc.Ice.SocketException(ex);
+        }
+    }
+
+    private void setLong(int index, long value)
+    {
+        try
+        {
+            _setLong.invokeExact(_map, index, value);
+        }
+        catch(Throwable ex)
+        {
+            throw new com.zeroc.Ice.SocketException(ex);
+        }
+    }
+
+    private int getInt(int index)
+    {
+        try
+        {
+            return (int)_getInt.invokeExact(_map, index);
+        }
+        catch(Throwable ex)
+        {
+            throw new com.zeroc.Ice.SocketException(ex);
+        }
+    }
+
+    private void setInt(int index, int value)
+    {
+        try
+        {
+            _setInt.invokeExact(_map, index, value);
+        }
+        catch(Throwable ex)
+        {
+            throw new com.zeroc.Ice.SocketException(ex);
+        }
+    }
+
+    private int getAndSetInt(int index, int value)
+    {
+        try
+        {
+            return (int)_getAndSetInt.invokeExact(_map, index, value);
+        }
+        catch(Throwable ex)
+        {
+            throw new com.zeroc.Ice.SocketException(ex);
+        }
+    }
+
+    //
+    // Each header field is on its own cache line.
+    //
+    private static final int HeadOffset = 0;
+    private static final int TailOffset = 64;
+    private static final int ReaderWaitingOffset = 128;
+    private static final int WriterWaitingOffset = 192;
+
+    private final java.nio.ByteBuffer _map;
+    private final java.nio.ByteBuffer _data;
+    private final int _offset;
+    private final int _capacity;
+    private final int _mask;
+
+    private long _head; // Only used by the producer.
+    private long _tail; // Only used by the consumer.
+
+    private static final java.lang.invoke.MethodHandle _getLong;
+    private static final java.lang.invoke.MethodHandle _setLong;
+    private static final java.lang.invoke.MethodHandle _getInt;
+    private static final java.lang.invoke.MethodHandle _setInt;
+    private static final java.lang.invoke.MethodHandle _getAndSetInt;
+
+    static
+    {
+        java.lang.invoke.MethodHandle[] handles = new java.lang.invoke.MethodHandle[5];
+        try
+        {
+            Class<?> accessMode = Util.findClass("java.lang.invoke.VarHandle$AccessMode", null);
+            if(accessMode != null)
+            {
+                Class<?> c = java.lang.invoke.MethodHandles.class;
+                java.lang.reflect.Method view =
+                    c.getMethod("byteBufferViewVarHandle", Class.class, java.nio.ByteOrder.class);
+                java.lang.reflect.Method invoker =
+                    c.getMethod("varHandleInvoker", accessMode, java.lang.invoke.MethodType.class);
+                java.lang.reflect.Method valueOf = accessMode.getMethod("valueOf", String.class);
+
+                Object longHandle = view.invoke(null, long[].class, java.nio.ByteOrder.nativeOrder());
+                Object intHandle = view.invoke(null, int[].class, java.nio.ByteOrder.nativeOrder());
+
+                java.lang.invoke.MethodType getLong =
+                    java.lang.invoke.MethodType.methodType(long.class, java.nio.ByteBuffer.class, int.class);
+                java.lang.invoke.MethodType setLong = java.lang.invoke.MethodType.methodType(
+                    void.class, java.nio.ByteBuffer.class, int.class, long.class);
+                java.lang.invoke.MethodType getInt =
+                    java.lang.invoke.MethodType.methodType(int.class, java.nio.ByteBuffer.class, int.class);
+                java.lang.invoke.MethodType setInt = java.lang.invoke.MethodType.methodType(
+                    void.class, java.nio.ByteBuffer.class, int.class, int.class);
+                java.lang.invoke.MethodType getAndSetInt = java.lang.invoke.MethodType.methodType(
+                    int.class, java.nio.ByteBuffer.class, int.class, int.class);
+
+                handles[0] = ((java.lang.invoke.MethodHandle)invoker.invoke(
+                    null, valueOf.invoke(null, "GET_VOLATILE"), getLong)).bindTo(longHandle);
+                handles[1] = ((java.lang.invoke.MethodHandle)invoker.invoke(
+                    null, valueOf.invoke(null, "SET_VOLATILE"), setLong)).bindTo(longHandle);
+                handles[2] = ((java.lang.invoke.MethodHandle)invoker.invoke(
+                    null, valueOf.invoke(null, "GET_VOLATILE"), getInt)).bindTo(intHandle);
+                handles[3] = ((java.lang.invoke.MethodHandle)invoker.invoke(
+                    null, valueOf.invoke(null, "SET_VOLATILE"), setInt)).bindTo(intHandle);
+                handles[4] = ((java.lang.invoke.MethodHandle)invoker.invoke(
+                    null, valueOf.invoke(null, "GET_AND_SET"), getAndSetInt)).bindTo(intHandle);
+            }
+        }
+        catch(ReflectiveOperationException ex)
+        {
+            handles = new java.lang.invoke.MethodHandle[5];
+        }
+        _getLong = handles[0];
+        _setLong = handles[1];
+        _getInt = handles[2];
+        _setInt = handles[3];
+        _getAndSetInt = handles[4];
+    }
+}
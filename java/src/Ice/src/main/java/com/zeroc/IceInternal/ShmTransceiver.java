@@ -0,0 +1,538 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// Transceiver for the shm transport. The data is exchanged through two ring
+// buffers stored in a memory-mapped file, one for each direction. A Unix
+// domain socket connection is used for the handshake, to signal the peer
+// when it waits for data or space and to detect the closure of the peer.
+//
+// The client creates the file next to the socket file and sends its name to
+// the server during the handshake. The file is removed once both sides have
+// mapped it.
+//
+// Like the Bluetooth transport, the transceiver doesn't provide a selectable
+// channel. A helper thread performs the blocking handshake and then waits for
+// signals from the peer, it notifies the thread pool with the ready callback.
+//
+final class ShmTransceiver implements Transceiver
+{
+    @Override
+    public java.nio.channels.SelectableChannel fd()
+    {
+        return null;
+    }
+
+    @Override
+    public void setReadyCallback(ReadyCallback callback)
+    {
+        _readyCallback = callback;
+    }
+
+    @Override
+    public int initialize(Buffer readBuffer, Buffer writeBuffer)
+    {
+        synchronized(this)
+        {
+            if(_exception != null)
+            {
+                throw _exception;
+            }
+
+            if(_state == StateNotStarted)
+            {
+                _state = StateConnecting;
+                _thread = Util.createThreadFactory(_instance.properties(), "Ice.ShmTransceiver-" + _path).newThread(
+                    () -> { runThread(); });
+                _thread.setDaemon(true);
+                _thread.start();
+                return SocketOperation.Read;
+            }
+            else if(_state == StateConnecting)
+            {
+                //
+                // Wait until the helper thread completed the handshake.
+                //
+                return SocketOperation.Read;
+            }
+        }
+
+        waitForData();
+        return SocketOperation.None;
+    }
+
+    @Override
+    public int closing(boolean initiator, com.zeroc.Ice.LocalException ex)
+    {
+        // If we are initiating the connection closure, wait for the peer
+        // to close the connection. Otherwise, close immediately.
+        return initiator ? SocketOperation.Read : SocketOperation.None;
+    }
+
+    @Override
+    public void close()
+    {
+        Thread thread;
+        synchronized(this)
+        {
+            //
+            // Close the socket first in order to interrupt the helper thread.
+            //
+            Network.closeSocketNoThrow(_fd);
+            thread = _thread;
+            _thread = null;
+            _state = StateClosed;
+        }
+
+        if(thread != null && thread != Thread.currentThread())
+        {
+            try
+            {
+                thread.join();
+            }
+            catch(InterruptedException ex)
+            {
+                // Ignore.
+            }
+        }
+
+        removeFile();
+        _in = null;
+        _out = null;
+    }
+
+    @Override
+    public EndpointI bind()
+    {
+        assert(false);
+        return null;
+    }
+
+    @Override
+    public int write(Buffer buf)
+    {
+        if(_exception != null)
+        {
+            throw _exception;
+        }
+
+        if(_out.put(buf.b) > 0 && _out.wakeReader())
+        {
+            signal(_dataSignal);
+        }
+
+        if(buf.b.hasRemaining())
+        {
+            waitForSpace();
+            return SocketOperation.Write;
+        }
+        return SocketOperation.None;
+    }
+
+    @Override
+    public int write(Buffer[] bufs, int count)
+    {
+        if(_exception != null)
+        {
+            throw _exception;
+        }
+
+        //
+        // Copy as many buffers as possible before signaling the peer.
+        //
+        int n = 0;
+        for(int i = 0; i < count && (i == 0 || !bufs[i - 1].b.hasRemaining()); ++i)
+        {
+            n += _out.put(bufs[i].b);
+        }
+        if(n > 0 && _out.wakeReader())
+        {
+            signal(_dataSignal);
+        }
+
+        if(bufs[count - 1].b.hasRemaining())
+        {
+            waitForSpace();
+            return SocketOperation.Write;
+        }
+        return SocketOperation.None;
+    }
+
+    @Override
+    public int read(Buffer buf)
+    {
+        if(_in.get(buf.b) > 0)
+        {
+            if(_in.wakeWriter())
+            {
+                signal(_spaceSignal);
+            }
+        }
+        else if(_exception != null && buf.b.hasRemaining())
+        {
+            //
+            // Only report the closure of the peer once all the data it sent
+            // before closing has been read.
+            //
+            throw _exception;
+        }
+
+        //
+        // Update our Read state to indicate whether we still have more data waiting to be read.
+        //
+        if(_in.hasData())
+        {
+            _readyCallback.ready(SocketOperation.Read, true);
+        }
+        else
+        {
+            waitForData();
+        }
+
+        return buf.b.hasRemaining() ? SocketOperation.Read : SocketOperation.None;
+    }
+
+    @Override
+    public String protocol()
+    {
+        return _instance.protocol();
+    }
+
+    @Override
+    public String toString()
+    {
+        return _desc;
+    }
+
+    @Override
+    public String toDetailedString()
+    {
+        return toString();
+    }
+
+    @Override
+    public com.zeroc.Ice.ConnectionInfo getInfo()
+    {
+        com.zeroc.Ice.UnixConnectionInfo info = new com.zeroc.Ice.UnixConnectionInfo();
+        info.path = _path;
+        ShmRing in = _in;
+        ShmRing out = _out;
+        if(in != null && out != null)
+        {
+            info.rcvSize = in.capacity();
+            info.sndSize = out.capacity();
+        }
+        return info;
+    }
+
+    @Override
+    public void checkSendSize(Buffer buf)
+    {
+    }
+
+    @Override
+    public void setBufferSize(int rcvSize, int sndSize)
+    {
+        // The size of the rings is set by the client when the connection is established.
+    }
+
+    //
+    // Used by ShmConnector.
+    //
+    ShmTransceiver(ProtocolInstance instance, String path, java.net.SocketAddress addr, int capacity)
+    {
+        _instance = instance;
+        _path = path;
+        _addr = addr;
+        _capacity = capacity;
+        _incoming = false;
+        _fd = Network.createUnixSocket();
+        _desc = "local address = <not connected>\nremote address = " + path;
+    }
+
+    //
+    // Used by ShmAcceptor.
+    //
+    ShmTransceiver(ProtocolInstance instance, String path, java.nio.channels.SocketChannel fd)
+    {
+        _instance = instance;
+        _path = path;
+        _addr = null;
+        _capacity = 0;
+        _incoming = true;
+        _fd = fd;
+        _desc = Network.unixFdToString(fd);
+    }
+
+    private void waitForData()
+    {
+        //
+        // Clear the Read state before requesting a signal, the signal sets it again.
+        //
+        _readyCallback.ready(SocketOperation.Read, false);
+        if(!_in.waitForData())
+        {
+            _readyCallback.ready(SocketOperation.Read, true);
+        }
+    }
+
+    private void waitForSpace()
+    {
+        //
+        // Clear the Write state before requesting a signal, the signal sets it again.
+        //
+        _readyCallback.ready(SocketOperation.Write, false);
+        if(!_out.waitForSpace())
+        {
+            _readyCallback.ready(SocketOperation.Write, true);
+        }
+    }
+
+    private void signal(java.nio.ByteBuffer signal)
+    {
+        signal.clear();
+        try
+        {
+            while(signal.hasRemaining())
+            {
+                _fd.write(signal);
+            }
+        }
+        catch(java.io.IOException ex)
+        {
+            throw new com.zeroc.Ice.ConnectionLostException(ex);
+        }
+    }
+
+    private void runThread()
+    {
+        try
+        {
+            if(_incoming)
+            {
+                accept();
+            }
+            else
+            {
+                connect();
+            }
+
+            synchronized(this)
+            {
+                if(_state == StateClosed)
+                {
+                    return;
+                }
+                _state = StateConnected;
+            }
+
+            //
+            // This causes the Ice run time to invoke initialize() again.
+            //
+            _readyCallback.ready(SocketOperation.Read, true);
+
+            java.nio.ByteBuffer buf = java.nio.ByteBuffer.allocate(64);
+            while(true)
+            {
+                buf.clear();
+                if(_fd.read(buf) < 0)
+                {
+                    throw new com.zeroc.Ice.ConnectionLostException();
+                }
+
+                boolean data = false;
+                boolean space = false;
+                for(int i = 0; i < buf.position(); ++i)
+                {
+                    data |= buf.get(i) == DataSignal;
+                    space |= buf.get(i) == SpaceSignal;
+                }
+                if(data)
+                {
+                    _readyCallback.ready(SocketOperation.Read, true);
+                }
+                if(space)
+                {
+                    _readyCallback.ready(SocketOperation.Write, true);
+                }
+            }
+        }
+        catch(java.io.IOException ex)
+        {
+            exception(new com.zeroc.Ice.ConnectionLostException(ex));
+        }
+        catch(com.zeroc.Ice.LocalException ex)
+        {
+            exception(ex);
+        }
+
+        //
+        // Mark as ready so that the Ice run time will invoke read() or write() and we can report the exception.
+        //
+        _readyCallback.ready(SocketOperation.Read, true);
+        _readyCallback.ready(SocketOperation.Write, true);
+    }
+
+    private void connect()
+        throws java.io.IOException
+    {
+        Network.doConnectUnix(_fd, _addr);
+        _desc = Network.unixFdToString(_fd);
+
+        //
+        // Create the file holding the rings next to the socket file.
+        //
+        java.io.File socketFile = new java.io.File(_path);
+        String name = socketFile.getName() + "-" + java.util.UUID.randomUUID().toString() + ".shm";
+        _file = new java.io.File(socketFile.getAbsoluteFile().getParentFile(), name);
+        java.nio.MappedByteBuffer map = map(_file, 2 * ShmRing.size(_capacity), true);
+        _out = new ShmRing(map, 0, _capacity);
+        _in = new ShmRing(map, ShmRing.size(_capacity), _capacity);
+
+        byte[] bytes = name.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        java.nio.ByteBuffer buf = java.nio.ByteBuffer.allocate(10 + bytes.length);
+        buf.putInt(Magic);
+        buf.putInt(_capacity);
+        buf.putShort((short)bytes.length);
+        buf.put(bytes);
+        buf.flip();
+        while(buf.hasRemaining())
+        {
+            _fd.write(buf);
+        }
+
+        //
+        // Wait for the server to map the file before removing it.
+        //
+        buf = readFully(1);
+        if(buf.get(0) != DataSignal)
+        {
+            throw new com.zeroc.Ice.ConnectFailedException();
+        }
+        removeFile();
+    }
+
+    private void accept()
+        throws java.io.IOException
+    {
+        java.nio.ByteBuffer buf = readFully(10);
+        int capacity = buf.getInt(4);
+        int length = buf.getShort(8);
+        if(buf.getInt(0) != Magic || capacity <= 0 || (capacity & (capacity - 1)) != 0 || length <= 0)
+        {
+            throw new com.zeroc.Ice.ProtocolException("invalid shm handshake");
+        }
+
+        //
+        // Only map files located next to the socket file and named after it.
+        //
+        java.io.File socketFile = new java.io.File(_path);
+        String name = new String(readFully(length).array(), java.nio.charset.StandardCharsets.UTF_8);
+        if(!name.startsWith(socketFile.getName() + "-") || !name.endsWith(".shm") || name.indexOf('/') != -1 ||
+           name.indexOf(java.io.File.separatorChar) != -1)
+        {
+            throw new com.zeroc.Ice.ProtocolException("invalid shm file name `" + name + "'");
+        }
+
+        java.io.File file = new java.io.File(socketFile.getAbsoluteFile().getParentFile(), name);
+        if(file.length() != 2 * ShmRing.size(capacity))
+        {
+            throw new com.zeroc.Ice.ProtocolException("invalid shm file size");
+        }
+
+        java.nio.MappedByteBuffer map = map(file, 2 * ShmRing.size(capacity), false);
+        _in = new ShmRing(map, 0, capacity);
+        _out = new ShmRing(map, ShmRing.size(capacity), capacity);
+
+        buf = java.nio.ByteBuffer.allocate(1);
+        buf.put(0, DataSignal);
+        while(buf.hasRemaining())
+        {
+            _fd.write(buf);
+        }
+    }
+
+    private java.nio.ByteBuffer readFully(int size)
+        throws java.io.IOException
+    {
+        java.nio.ByteBuffer buf = java.nio.ByteBuffer.allocate(size);
+        while(buf.hasRemaining())
+        {
+            if(_fd.read(buf) < 0)
+            {
+                throw new com.zeroc.Ice.ConnectionLostException();
+            }
+        }
+        return buf;
+    }
+
+    private static java.nio.MappedByteBuffer map(java.io.File file, int size, boolean create)
+        throws java.io.IOException
+    {
+        try(java.io.RandomAccessFile raf = new java.io.RandomAccessFile(file, "rw"))
+        {
+            if(create)
+            {
+                raf.setLength(size);
+            }
+            return raf.getChannel().map(java.nio.channels.FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private synchronized void removeFile()
+    {
+        if(_file != null)
+        {
+            _file.delete();
+            _file = null;
+        }
+    }
+
+    private synchronized void exception(com.zeroc.Ice.LocalException ex)
+    {
+        if(_exception == null)
+        {
+            _exception = ex;
+        }
+    }
+
+    private static final int Magic = 0x49636553; // "IceS"
+    private static final byte DataSignal = 1;
+    private static final byte SpaceSignal = 2;
+
+    private static final int StateNotStarted = 0;
+    private static final int StateConnecting = 1;
+    private static final int StateConnected = 2;
+    private static final int StateClosed = 3;
+
+    private final ProtocolInstance _instance;
+    private final String _path;
+    private final java.net.SocketAddress _addr;
+    private final int _capacity;
+    private final boolean _incoming;
+
+    private final java.nio.channels.SocketChannel _fd;
+    private volatile com.zeroc.Ice.LocalException _exception;
+    private ReadyCallback _readyCallback;
+    private int _state = StateNotStarted;
+    private Thread _thread;
+    private volatile String _desc;
+    private java.io.File _file;
+
+    //
+    // Set by the helper thread before the transceiver is initialized.
+    //
+    private volatile ShmRing _in;
+    private volatile ShmRing _out;
+
+    private final java.nio.ByteBuffer _dataSignal = java.nio.ByteBuffer.wrap(new byte[] { DataSignal });
+    private final java.nio.ByteBuffer _spaceSignal = java.nio.ByteBuffer.wrap(new byte[] { SpaceSignal });
+}
@@ -0,0 +1,133 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// The stackless exceptions mode, configured with Ice.StacklessExceptions (all exceptions) and
+// Ice.StacklessExceptions.Types (a list of Slice type IDs).
+//
+// Filling in the stack trace is the most expensive part of creating an exception, and the trace is
+// useless for the exceptions created by the Ice run time: user exceptions unmarshaled from replies,
+// the exceptions created from reply statuses (such as ObjectNotExistException during locator
+// retries), timeouts and retries. The Ice exception base classes don't fill in their stack trace
+// when they are created in the scope of a communicator that enables this mode for their type.
+// The run time enters this scope while it creates these exceptions and while it dispatches a
+// request to a servant, so user exceptions raised synchronously by servants are covered as well.
+//
+public final class StacklessExceptions
+{
+    static StacklessExceptions create(com.zeroc.Ice.Properties properties)
+    {
+        final boolean all = properties.getPropertyAsInt("Ice.StacklessExceptions") > 0;
+        final String[] types = properties.getPropertyAsList("Ice.StacklessExceptions.Types");
+        if(!all && types.length == 0)
+        {
+            return null;
+        }
+        return new StacklessExceptions(all, new java.util.HashSet<>(java.util.Arrays.asList(types)));
+    }
+
+    //
+    // Makes this the mode of the calling thread and returns the previous one, which must be
+    // restored with leave.
+    //
+    public StacklessExceptions enter()
+    {
+        final StacklessExceptions previous = _current.get();
+        _current.set(this);
+        return previous;
+    }
+
+    public static void leave(StacklessExceptions previous)
+    {
+        _current.set(previous);
+    }
+
+    //
+    // Creates an exception in the scope of the mode of the given instance.
+    //
+    public static <T> T create(Instance instance, java.util.function.Supplier<T> factory)
+    {
+        final StacklessExceptions mode = instance.stacklessExceptions();
+        if(mode == null)
+        {
+            return factory.get();
+        }
+
+        final StacklessExceptions previous = mode.enter();
+        try
+        {
+            return factory.get();
+        }
+        finally
+        {
+            leave(previous);
+        }
+    }
+
+    //
+    // Fills in the stack trace of an exception that is rethrown to the caller of a synchronous
+    // invocation, unless the mode of the given instance suppresses it.
+    //
+    public static Throwable fillInStackTrace(Instance instance, Throwable ex)
+    {
+        final StacklessExceptions mode = instance.stacklessExceptions();
+        if(mode == null)
+        {
+            return ex.fillInStackTrace();
+        }
+
+        final StacklessExceptions previous = mode.enter();
+        try
+        {
+            return ex.fillInStackTrace();
+        }
+        finally
+        {
+            leave(previous);
+        }
+    }
+
+    //
+    // Returns true if the stack trace of the given exception, which is being created, must not be
+    // filled in.
+    //
+    public static boolean suppress(com.zeroc.Ice.Exception ex)
+    {
+        final StacklessExceptions mode = _current.get();
+        return mode != null && (mode._all || (!mode._types.isEmpty() && mode._types.contains(ex.ice_id())));
+    }
+
+    public static boolean suppress(com.zeroc.Ice.UserException ex)
+    {
+        final StacklessExceptions mode = _current.get();
+        return mode != null && (mode._all || (!mode._types.isEmpty() && mode._types.contains(ex.ice_id())));
+    }
+
+    //
+    // For the internal exceptions which don't have a type ID, only Ice.StacklessExceptions applies.
+    //
+    public static boolean suppress()
+    {
+        final StacklessExceptions mode = _current.get();
+        return mode != null && mode._all;
+    }
+
+    private StacklessExceptions(boolean all, java.util.Set<String> types)
+    {
+        _all = all;
+        _types = types;
+    }
+
+    private static final ThreadLocal<StacklessExceptions> _current = new ThreadLocal<>();
+
+    private final boolean _all;
+    private final java.util.Set<String> _types;
+}
@@ -19,6 +19,7 @@ public class StreamSocket
         _instance = instance;
         _proxy = proxy;
         _addr = addr;
+        _unixAddr = null;
         _fd = Network.createTcpSocket();
         _state = StateNeedConnect;
 
@@ -45,6 +46,7 @@ public class StreamSocket
         _instance = instance;
         _proxy = null;
         _addr = null;
+        _unixAddr = null;
         _fd = fd;
         _state = StateConnected;
 
@@ -62,6 +64,62 @@ public class StreamSocket
         _desc = Network.fdToString(_fd);
     }
 
+    //
+    // Create a Unix domain socket and connect it to the given address.
+    //
+    public StreamSocket(ProtocolInstance instance, java.net.SocketAddress unixAddr)
+    {
+        _instance = instance;
+        _proxy = null;
+        _addr = null;
+        _unixAddr = unixAddr;
+        _fd = Network.createUnixSocket();
+        _state = StateNeedConnect;
+
+        try
+        {
+            init();
+            if(Network.doConnectUnix(_fd, _unixAddr))
+            {
+                _state = StateConnected;
+            }
+        }
+        catch(com.zeroc.Ice.LocalException ex)
+        {
+            assert(!_fd.isOpen());
+            _fd = null; // Necessary for the finalizer
+            throw ex;
+        }
+
+        _desc = Network.unixFdToString(_fd);
+    }
+
+    //
+    // Wrap a Unix domain socket accepted on the given address.
+    //
+    public StreamSocket(ProtocolInstance instance, java.nio.channels.SocketChannel fd, java.net.SocketAddress unixAddr)
+    {
+        _instance = instance;
+        _proxy = null;
+        _addr = null;
+        _unixAddr = unixAddr;
+        _fd = fd;
+        _state = StateConnected;
+
+        try
+        {
+            init();
+        }
+        catch(com.zeroc.Ice.LocalException ex)
+        {
+            assert(!_fd.isOpen());
+            _fd = null; // Necessary for the finalizer
+            throw ex;
+        }
+
+        _desc = Network.unixFdToString(_fd);
+    }
+
     @Override
     protected synchronized void finalize()
         throws Throwable
@@ -81,7 +139,14 @@ public class StreamSocket
 
     public void setBufferSize(int rcvSize, int sndSize)
     {
-        Network.setTcpBufSize(_fd, rcvSize, sndSize, _instance);
+        if(_unixAddr != null)
+        {
+            Network.setUnixBufSize(_fd, rcvSize, sndSize);
+        }
+        else
+        {
+            Network.setTcpBufSize(_fd, rcvSize, sndSize, _instance);
+        }
     }
 
     public int connect(Buffer readBuffer, Buffer writeBuffer)
@@ -93,8 +158,16 @@ public class StreamSocket
         }
         else if(_state <= StateConnectPending)
         {
-            Network.doFinishConnect(_fd);
-            _desc = Network.fdToString(_fd, _proxy, _addr);
+            if(_unixAddr != null)
+            {
+                Network.doFinishConnectUnix(_fd);
+                _desc = Network.unixFdToString(_fd);
+            }
+            else
+            {
+                Network.doFinishConnect(_fd);
+                _desc = Network.fdToString(_fd, _proxy, _addr);
+            }
             _state = _proxy != null ? StateProxyWrite : StateConnected;
         }
 
@@ -132,6 +205,11 @@ public class StreamSocket
         return _fd;
     }
 
+    public java.net.SocketAddress unixAddress()
+    {
+        return _unixAddr;
+    }
+
     public int read(Buffer buf)
     {
         if(_state == StateProxyRead)
@@ -176,6 +254,86 @@ public class StreamSocket
         return buf.b.hasRemaining() ? SocketOperation.Write : SocketOperation.None;
     }
 
+    public int write(Buffer[] bufs, int count)
+    {
+        if(_state == StateProxyWrite || _maxSendPacketSize > 0)
+        {
+            //
+            // Gathering writes aren't used while the proxy handshake is in
+            // progress or if the send packet size is limited.
+            //
+            for(int i = 0; i < count; ++i)
+            {
+                int op = write(bufs[i]);
+                if(op != SocketOperation.None)
+                {
+                    return op;
+                }
+            }
+            return SocketOperation.None;
+        }
+
+        if(_writeBuffers == null || _writeBuffers.length < count)
+        {
+            _writeBuffers = new java.nio.ByteBuffer[count];
+        }
+        for(int i = 0; i < count; ++i)
+        {
+            _writeBuffers[i] = bufs[i].b;
+        }
+
+        try
+        {
+            write(_writeBuffers, count);
+        }
+        finally
+        {
+            java.util.Arrays.fill(_writeBuffers, 0, count, null);
+        }
+        return bufs[count - 1].b.hasRemaining() ? SocketOperation.Write : SocketOperation.None;
+    }
+
+    public long write(java.nio.ByteBuffer[] bufs, int count)
+    {
+        assert(_fd != null);
+
+        long sent = 0;
+        int offset = 0;
+        while(true)
+        {
+            while(offset < count && !bufs[offset].hasRemaining())
+            {
+                ++offset;
+            }
+            if(offset == count)
+            {
+                return sent;
+            }
+
+            try
+            {
+                long ret = _fd.write(bufs, offset, count - offset);
+                if(ret == -1)
+                {
+                    throw new com.zeroc.Ice.ConnectionLostException();
+                }
+                else if(ret == 0)
+                {
+                    return sent;
+                }
+                sent += ret;
+            }
+            catch(java.io.InterruptedIOException ex)
+            {
+                continue;
+            }
+            catch(java.io.IOException ex)
+            {
+                throw new com.zeroc.Ice.SocketException(ex);
+            }
+        }
+    }
+
     public int read(java.nio.ByteBuffer buf)
     {
         assert(_fd != null);
@@ -280,6 +438,16 @@ public class StreamSocket
     private void init()
     {
         Network.setBlock(_fd, false);
+        if(_unixAddr != null)
+        {
+            //
+            // Unix domain sockets use the system default buffer sizes and
+            // are not subject to the Windows TCP send size limitation.
+            //
+            _maxSendPacketSize = 0;
+            return;
+        }
+
         Network.setTcpBufSize(_fd, _instance);
 
         if(System.getProperty("os.name").startsWith("Windows"))
@@ -314,9 +482,11 @@ public class StreamSocket
 
     final private NetworkProxy _proxy;
     final private java.net.InetSocketAddress _addr;
+    final private java.net.SocketAddress _unixAddr;
 
     private java.nio.channels.SocketChannel _fd;
     private int _maxSendPacketSize;
+    private java.nio.ByteBuffer[] _writeBuffers;
     private int _state;
     private String _desc;
 
@@ -0,0 +1,111 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// A bounded cache of the strings unmarshaled from request headers (identity, facet,
+// operation and context keys). These come from a small and repetitive set, the cache
+// returns the same String instance for the same encoded bytes so the dispatch doesn't
+// allocate a new String (and recompute its hash code) for each request.
+//
+// The cache is direct-mapped: each string hashes to a single slot, which is replaced
+// on collision. Entries are immutable and published with plain reference writes, so
+// lookups don't lock; a racing reader sees either the old or the new entry.
+//
+public final class StringCache
+{
+    public StringCache(int size)
+    {
+        int capacity = 1;
+        while(capacity < size)
+        {
+            capacity <<= 1;
+        }
+        _entries = new Entry[capacity];
+    }
+
+    //
+    // Returns the cached string for the len bytes of b starting at the buffer position and
+    // advances the position, or returns null and leaves the position unchanged if there's none.
+    //
+    public String get(java.nio.ByteBuffer b, int len)
+    {
+        if(len > MaxLength)
+        {
+            return null;
+        }
+
+        final int pos = b.position();
+        final Entry e = _entries[index(hash(b, pos, len))];
+        if(e != null && e.bytes.length == len)
+        {
+            final byte[] bytes = e.bytes;
+            for(int i = 0; i < len; ++i)
+            {
+                if(b.get(pos + i) != bytes[i])
+                {
+                    return null;
+                }
+            }
+            b.position(pos + len);
+            return e.value;
+        }
+        return null;
+    }
+
+    //
+    // Adds the string decoded from the first len bytes of the given array.
+    //
+    public void put(byte[] bytes, int len, String value)
+    {
+        if(len > MaxLength)
+        {
+            return;
+        }
+
+        int h = 0;
+        for(int i = 0; i < len; ++i)
+        {
+            h = 31 * h + bytes[i];
+        }
+        _entries[index(h)] = new Entry(java.util.Arrays.copyOf(bytes, len), value);
+    }
+
+    private static int hash(java.nio.ByteBuffer b, int pos, int len)
+    {
+        int h = 0;
+        for(int i = 0; i < len; ++i)
+        {
+            h = 31 * h + b.get(pos + i);
+        }
+        return h;
+    }
+
+    private int index(int h)
+    {
+        return (h ^ (h >>> 16)) & (_entries.length - 1);
+    }
+
+    private static final class Entry
+    {
+        Entry(byte[] bytes, String value)
+        {
+            this.bytes = bytes;
+            this.value = value;
+        }
+
+        final byte[] bytes;
+        final String value;
+    }
+
+    private static final int MaxLength = 64; // Longer strings are not cached.
+
+    private final Entry[] _entries;
+}
@@ -93,6 +93,19 @@ public final class ThreadPool implements java.util.concurrent.Executor
 
     public
     ThreadPool(Instance instance, String prefix, int timeout)
+    {
+        this(instance, prefix, timeout, null, -1);
+    }
+
+    //
+    // With <prefix>.Selectors > 1, the thread pool is split in several
+    // shards. Each shard is a thread pool with its own selector and its
+    // own leader/follower threads, event handlers are assigned to the
+    // least loaded shard. This thread pool only dispatches the work items
+    // to the shards.
+    //
+    private
+    ThreadPool(Instance instance, String prefix, int timeout, ThreadPool parent, int shard)
     {
         com.zeroc.Ice.Properties properties = instance.initializationData().properties;
 
@@ -100,14 +113,29 @@ public final class ThreadPool implements java.util.concurrent.Executor
         _dispatcher = instance.initializationData().dispatcher;
         _destroyed = false;
         _prefix = prefix;
-        _selector = new Selector(instance);
+        _parent = parent;
+
+        int selectors = 1;
+        if(parent == null)
+        {
+            selectors = properties.getPropertyAsIntWithDefault(_prefix + ".Selectors", 1);
+            if(selectors < 1)
+            {
+                String s = _prefix + ".Selectors < 1; Selectors adjusted to 1";
+                _instance.initializationData().logger.warning(s);
+                selectors = 1;
+            }
+        }
+        _shards = selectors > 1 ? new ThreadPool[selectors] : null;
+        _selector = _shards == null ? new Selector(instance) : null;
+
         _threadIndex = 0;
         _inUse = 0;
         _inUseIO = 0;
         _promote = true;
         _serialize = properties.getPropertyAsInt(_prefix + ".Serialize") > 0;
         _serverIdleTime = timeout;
-        _threadPrefix = Util.createThreadName(properties, _prefix);
+        _threadPrefix = Util.createThreadName(properties, _prefix) + (shard >= 0 ? "-" + shard : "");
 
         int nProcessors = Runtime.getRuntime().availableProcessors();
 
@@ -183,19 +211,54 @@ public final class ThreadPool implements java.util.concurrent.Executor
         _hasPriority = hasPriority;
         _priority = priority;
 
-        _workQueue = new ThreadPoolWorkQueue(_instance, this, _selector);
+        //
+        // With VirtualThreads, the thread pool threads only perform IO and the
+        // dispatch of requests and user callbacks is done by virtual threads.
+        // Virtual threads require Java 21, they are created with reflection.
+        //
+        java.util.concurrent.ThreadFactory virtualThreadFactory = null;
+        if(parent != null)
+        {
+            virtualThreadFactory = parent._virtualThreadFactory;
+        }
+        else if(properties.getPropertyAsInt(_prefix + ".VirtualThreads") > 0)
+        {
+            virtualThreadFactory = createVirtualThreadFactory(_threadPrefix + "-virtual-");
+            if(virtualThreadFactory == null)
+            {
+                String s = _prefix + ".VirtualThreads requires Java 21 or later; virtual threads are disabled";
+                _instance.initializationData().logger.warning(s);
+            }
+        }
+        _virtualThreadFactory = virtualThreadFactory;
+
+        _workQueue = _selector != null ? new ThreadPoolWorkQueue(_instance, this, _selector, _prefix,
+                                                                 _sizeMax == 1) : null;
         _nextHandler = _handlers.iterator();
 
-        if(_instance.traceLevels().threadPool >= 1)
+        if(_instance.traceLevels().threadPool >= 1 && parent == null)
         {
             String s = "creating " + _prefix + ": Size = " + _size + ", SizeMax = " + _sizeMax + ", SizeWarn = " +
                        _sizeWarn;
+            if(_shards != null)
+            {
+                s += ", Selectors = " + _shards.length;
+            }
+            if(_virtualThreadFactory != null)
+            {
+                s += ", VirtualThreads = 1";
+            }
             _instance.initializationData().logger.trace(_instance.traceLevels().threadPoolCat, s);
         }
 
         try
         {
-            for(int i = 0; i < _size; i++)
+            for(int i = 0; _shards != null && i < _shards.length; i++)
+            {
+                _shards[i] = new ThreadPool(instance, prefix, timeout, this, i);
+            }
+
+            for(int i = 0; _shards == null && i < _size; i++)
             {
                 EventHandlerThread thread = new EventHandlerThread(_threadPrefix + "-" + _threadIndex++);
                 if(_hasPriority)
@@ -254,7 +317,20 @@ public final class ThreadPool implements java.util.concurrent.Executor
         }
 
         _destroyed = true;
-        _workQueue.destroy();
+        if(_shards != null)
+        {
+            for(ThreadPool shard : _shards)
+            {
+                if(shard != null)
+                {
+                    shard.destroy();
+                }
+            }
+        }
+        else
+        {
+            _workQueue.destroy();
+        }
     }
 
     public synchronized void
@@ -264,13 +340,50 @@ public final class ThreadPool implements java.util.concurrent.Executor
         {
             thread.updateObserver();
         }
+
+        if(_shards != null)
+        {
+            for(ThreadPool shard : _shards)
+            {
+                shard.updateObservers();
+            }
+        }
+    }
+
+    //
+    // Returns the thread pool which should be initialized with a new event
+    // handler: this thread pool or its least loaded shard if the thread
+    // pool is sharded.
+    //
+    public ThreadPool
+    shard()
+    {
+        if(_shards == null)
+        {
+            return this;
+        }
+
+        ThreadPool shard = _shards[0];
+        for(int i = 1; i < _shards.length; ++i)
+        {
+            if(_shards[i]._handlerCount < shard._handlerCount)
+            {
+                shard = _shards[i];
+            }
+        }
+        return shard;
     }
 
     public synchronized void
     initialize(final EventHandler handler)
     {
-        assert(!_destroyed);
+        assert(!_destroyed && _shards == null);
         _selector.initialize(handler);
+        if(_parent != null)
+        {
+            handler._shard = this;
+        }
+        ++_handlerCount;
 
         handler.setReadyCallback(
             new ReadyCallback()
@@ -324,6 +437,7 @@ public final class ThreadPool implements java.util.concurrent.Executor
     {
         assert(!_destroyed);
         closeNow = _selector.finish(handler, closeNow);
+        --_handlerCount;
         _workQueue.queue(new FinishedWorkItem(handler, !closeNow));
         return closeNow;
     }
@@ -344,6 +458,7 @@ public final class ThreadPool implements java.util.concurrent.Executor
                     java.io.StringWriter sw = new java.io.StringWriter();
                     java.io.PrintWriter pw = new java.io.PrintWriter(sw);
                     ex.printStackTrace(pw);
+                    pw.print(Ex.stackTraceNote(ex));
                     pw.flush();
                     _instance.initializationData().logger.warning("dispatch exception:\n" + sw.toString());
                 }
@@ -355,20 +470,135 @@ public final class ThreadPool implements java.util.concurrent.Executor
         }
     }
 
-    synchronized public void
+    //
+    // Dispatch the work item from a thread pool thread which called
+    // ioCompleted(). The work item is executed by a new virtual thread if
+    // virtual threads are enabled, otherwise it's executed by this thread.
+    //
+    void
+    dispatchFromThisThread(DispatchWorkItem workItem, ThreadPoolCurrent current)
+    {
+        if(_virtualThreadFactory == null)
+        {
+            dispatchFromThisThread(workItem);
+            return;
+        }
+
+        //
+        // If requests are serialized, the handler is re-enabled once the
+        // virtual thread completes the dispatch instead of when the thread
+        // pool thread returns (see run()). This is also the case with a
+        // single thread: the thread pool thread would otherwise read the
+        // next message of the connection while the virtual thread is
+        // still dispatching the previous one.
+        //
+        final EventHandler handler;
+        final int operation;
+        if((_serialize || _sizeMax == 1) && current._ioCompleted && current._handler != null)
+        {
+            handler = current._handler;
+            operation = current.operation;
+            if(_sizeMax == 1)
+            {
+                //
+                // ioCompleted() only disables the handler if there's more
+                // than one thread.
+                //
+                synchronized(this)
+                {
+                    if(!_destroyed)
+                    {
+                        _selector.disable(handler, operation);
+                    }
+                }
+            }
+            current._dispatched = true;
+        }
+        else
+        {
+            handler = null;
+            operation = SocketOperation.None;
+        }
+
+        try
+        {
+            _virtualThreadFactory.newThread(() -> runVirtual(workItem, handler, operation)).start();
+        }
+        catch(RuntimeException ex)
+        {
+            current._dispatched = false;
+            if(handler != null && _sizeMax == 1)
+            {
+                synchronized(this)
+                {
+                    if(!_destroyed)
+                    {
+                        _selector.enable(handler, operation);
+                    }
+                }
+            }
+            throw ex;
+        }
+    }
+
+    public boolean
+    virtualThreads()
+    {
+        return _virtualThreadFactory != null;
+    }
+
+    public void
     dispatch(DispatchWorkItem workItem)
     {
-        if(_destroyed)
+        if(_shards != null)
+        {
+            //
+            // Dispatch the work item with the shard of its connection to
+            // preserve the ordering of the work items of a connection.
+            //
+            ThreadPool shard = null;
+            if(workItem.getConnection() instanceof EventHandler)
+            {
+                shard = ((EventHandler)workItem.getConnection())._shard;
+            }
+            if(shard == null || shard._parent != this)
+            {
+                //
+                // The work items without a connection, such as the tasks of
+                // the executor or the collocated dispatches, are spread over
+                // the shards.
+                //
+                shard = _shards[(_nextShard.getAndIncrement() & Integer.MAX_VALUE) % _shards.length];
+            }
+            shard.dispatch(workItem);
+            return;
+        }
+
+        //
+        // The work queue doesn't require locking the thread pool.
+        //
+        if(!_workQueue.queue(workItem))
         {
             throw new com.zeroc.Ice.CommunicatorDestroyedException();
         }
-        _workQueue.queue(workItem);
     }
 
     public void
     joinWithAllThreads()
         throws InterruptedException
     {
+        if(_shards != null)
+        {
+            for(ThreadPool shard : _shards)
+            {
+                if(shard != null)
+                {
+                    shard.joinWithAllThreads();
+                }
+            }
+            return;
+        }
+
         //
         // _threads is immutable after destroy() has been called,
         // therefore no synchronization is needed. (Synchronization
@@ -436,7 +666,7 @@ public final class ThreadPool implements java.util.concurrent.Executor
                 {
                     synchronized(this)
                     {
-                        if(!_destroyed && _inUse == 0)
+                        if(!_destroyed && _inUse == 0 && (_parent == null || _parent.idle()))
                         {
                             _workQueue.queue(new ShutdownWorkItem()); // Select timed-out.
                         }
@@ -476,7 +706,7 @@ public final class ThreadPool implements java.util.concurrent.Executor
                         // If the handler called ioCompleted(), we re-enable the handler in
                         // case it was disabled and we decrease the number of thread in use.
                         //
-                        if(_serialize)
+                        if(_serialize && !current._dispatched)
                         {
                             _selector.enable(current._handler, current.operation);
                         }
@@ -494,6 +724,7 @@ public final class ThreadPool implements java.util.concurrent.Executor
                 // Get the next ready handler.
                 //
                 current._handler = null;
+                current._dispatched = false;
                 while(_nextHandler.hasNext())
                 {
                     EventHandlerOpPair n = _nextHandler.next();
@@ -544,6 +775,117 @@ public final class ThreadPool implements java.util.concurrent.Executor
         }
     }
 
+    private void
+    runVirtual(DispatchWorkItem workItem, EventHandler handler, int operation)
+    {
+        if(_instance.initializationData().threadStart != null)
+        {
+            try
+            {
+                _instance.initializationData().threadStart.run();
+            }
+            catch(java.lang.Exception ex)
+            {
+                String s = "threadStart method raised an unexpected exception in `";
+                s += _prefix + "' virtual thread:\n" + Ex.toString(ex);
+                _instance.initializationData().logger.error(s);
+            }
+        }
+
+        //
+        // Virtual threads only live for the dispatch, they share the same
+        // thread observer id.
+        //
+        com.zeroc.Ice.Instrumentation.ThreadObserver observer = null;
+        com.zeroc.Ice.Instrumentation.CommunicatorObserver obsv = _instance.initializationData().observer;
+        if(obsv != null)
+        {
+            observer = obsv.getThreadObserver(_prefix, _threadPrefix + "-virtual",
+                                              com.zeroc.Ice.Instrumentation.ThreadState.ThreadStateInUseForUser, null);
+            if(observer != null)
+            {
+                observer.attach();
+            }
+        }
+
+        try
+        {
+            dispatchFromThisThread(workItem);
+        }
+        catch(java.lang.Exception ex)
+        {
+            String s = "exception in `" + _prefix + "' virtual thread:\n" + Ex.toString(ex);
+            _instance.initializationData().logger.error(s);
+        }
+        finally
+        {
+            if(observer != null)
+            {
+                observer.stateChanged(com.zeroc.Ice.Instrumentation.ThreadState.ThreadStateInUseForUser,
+                                      com.zeroc.Ice.Instrumentation.ThreadState.ThreadStateIdle);
+                observer.detach();
+            }
+
+            if(handler != null)
+            {
+                synchronized(this)
+                {
+                    if(!_destroyed)
+                    {
+                        _selector.enable(handler, operation);
+                    }
+                }
+            }
+        }
+
+        if(_instance.initializationData().threadStop != null)
+        {
+            try
+            {
+                _instance.initializationData().threadStop.run();
+            }
+            catch(java.lang.Exception ex)
+            {
+                String s = "threadStop method raised an unexpected exception in `";
+                s += _prefix + "' virtual thread:\n" + Ex.toString(ex);
+                _instance.initializationData().logger.error(s);
+            }
+        }
+    }
+
+    private static java.util.concurrent.ThreadFactory
+    createVirtualThreadFactory(String name)
+    {
+        try
+        {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> cls = Class.forName("java.lang.Thread$Builder");
+            builder = cls.getMethod("name", String.class, long.class).invoke(builder, name, 0L);
+            return (java.util.concurrent.ThreadFactory)cls.getMethod("factory").invoke(builder);
+        }
+        catch(java.lang.Exception ex)
+        {
+            return null;
+        }
+    }
+
+    //
+    // Returns true if no threads of the shards are in use, _inUse is
+    // volatile to allow checking it without locking the shards.
+    //
+    private boolean
+    idle()
+    {
+        for(ThreadPool shard : _shards)
+        {
+            if(shard._inUse > 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     synchronized void
     ioCompleted(ThreadPoolCurrent current)
     {
@@ -707,7 +1049,10 @@ public final class ThreadPool implements java.util.concurrent.Executor
     private boolean _destroyed;
     private final String _prefix;
     private final String _threadPrefix;
-    private final Selector _selector;
+    private final Selector _selector; // Null if the thread pool is sharded.
+    private final ThreadPool _parent; // The sharded thread pool if this thread pool is a shard.
+    private final ThreadPool[] _shards; // Null if the thread pool isn't sharded.
+    private final java.util.concurrent.atomic.AtomicInteger _nextShard = new java.util.concurrent.atomic.AtomicInteger();
 
     final class EventHandlerThread implements Runnable
     {
@@ -780,6 +1125,12 @@ public final class ThreadPool implements java.util.concurrent.Executor
                 }
             }
 
+            BufferPool bufferPool = _instance.bufferPool();
+            if(bufferPool != null)
+            {
+                bufferPool.attachThread();
+            }
+
             try
             {
                 ThreadPool.this.run(this);
@@ -789,6 +1140,13 @@ public final class ThreadPool implements java.util.concurrent.Executor
                 String s = "exception in `" + _prefix + "' thread " + _name + ":\n" + Ex.toString(ex);
                 _instance.initializationData().logger.error(s);
             }
+            finally
+            {
+                if(bufferPool != null)
+                {
+                    bufferPool.detachThread();
+                }
+            }
 
             if(_observer != null)
             {
@@ -831,11 +1189,13 @@ public final class ThreadPool implements java.util.concurrent.Executor
     private final long _serverIdleTime;
     private final long _threadIdleTime;
     private final int _stackSize;
+    private final java.util.concurrent.ThreadFactory _virtualThreadFactory; // Null if virtual threads are disabled.
 
     private java.util.List<EventHandlerThread> _threads = new java.util.ArrayList<>();
     private int _threadIndex; // For assigning thread names.
-    private int _inUse; // Number of threads that are currently in use.
+    private volatile int _inUse; // Number of threads that are currently in use.
     private int _inUseIO; // Number of threads that are currently performing IO.
+    private volatile int _handlerCount; // Number of initialized event handlers.
 
     private java.util.List<EventHandlerOpPair> _handlers = new java.util.ArrayList<>();
     private java.util.Iterator<EventHandlerOpPair> _nextHandler;
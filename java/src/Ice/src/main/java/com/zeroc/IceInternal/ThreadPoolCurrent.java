@@ -24,6 +24,7 @@ public final class ThreadPoolCurrent
 
     public int operation;
     public com.zeroc.Ice.InputStream stream; // A per-thread stream to be used by event handlers for optimization.
+    public java.lang.Object messageInfo; // For use by ConnectionI, a per-thread message info reused across messages.
 
     public boolean
     ioReady()
@@ -40,7 +41,7 @@ public final class ThreadPoolCurrent
     public void
     dispatchFromThisThread(DispatchWorkItem workItem)
     {
-        _threadPool.dispatchFromThisThread(workItem);
+        _threadPool.dispatchFromThisThread(workItem, this);
     }
 
     final ThreadPool _threadPool;
@@ -48,4 +49,5 @@ public final class ThreadPoolCurrent
     EventHandler _handler;
     boolean _ioCompleted;
     boolean _leader;
+    boolean _dispatched; // True if the handler is re-enabled by the virtual thread dispatching its messages.
 }
@@ -9,14 +9,26 @@
 
 package com.zeroc.IceInternal;
 
-import java.util.List;
-
+//
+// The work queue of a thread pool. Work items are queued without locking
+// the thread pool, only the first work item queued after the queue was
+// drained locks the thread pool to make the work queue ready with the
+// selector. This coalesces the selector wake ups of work items queued in
+// a burst. A thread pool thread executes the queued work items in batches
+// (see message()).
+//
 final class ThreadPoolWorkQueue extends EventHandler
 {
-    ThreadPoolWorkQueue(Instance instance, ThreadPool threadPool, Selector selector)
+    ThreadPoolWorkQueue(Instance instance, ThreadPool threadPool, Selector selector, String prefix,
+                        boolean singleThreaded)
     {
         _threadPool = threadPool;
         _selector = selector;
+        _prefix = prefix;
+        _singleThreaded = singleThreaded;
+
+        com.zeroc.Ice.Instrumentation.CommunicatorObserver obsv = instance.initializationData().observer;
+        _observer = obsv instanceof CommunicatorObserverI ? (CommunicatorObserverI)obsv : null;
         _destroyed = false;
         _registered = SocketOperation.Read;
     }
@@ -45,43 +57,114 @@ final class ThreadPoolWorkQueue extends EventHandler
         _selector.ready(this, SocketOperation.Read, true);
     }
 
-    void queue(ThreadPoolWorkItem item)
+    //
+    // Queue the work item, returns false if the work queue is destroyed.
+    // This can be called with or without the thread pool locked.
+    //
+    boolean queue(ThreadPoolWorkItem item)
     {
-        // Called with the thread pool locked
         assert(item != null);
-        _workItems.add(item);
-        if(_workItems.size() == 1)
+        if(_destroyed)
         {
-            _selector.ready(this, SocketOperation.Read, true);
+            return false;
         }
-    }
 
-    @Override
-    public void message(ThreadPoolCurrent current)
-    {
-        ThreadPoolWorkItem workItem = null;
-        synchronized(_threadPool)
+        //
+        // The work item is only wrapped if the work queue metrics are
+        // enabled, the observer measures the time spent by the work item
+        // in the queue.
+        //
+        if(_observer != null)
         {
-            if(!_workItems.isEmpty())
+            com.zeroc.Ice.Instrumentation.Observer observer = _observer.getWorkQueueObserver(_prefix);
+            if(observer != null)
             {
-                workItem = _workItems.removeFirst();
-                assert(workItem != null);
+                observer.attach();
+                item = new ObservedWorkItem(item, observer);
             }
-            if(_workItems.isEmpty() && !_destroyed)
+        }
+
+        _workItems.offer(item);
+
+        if(_destroyed && _workItems.remove(item))
+        {
+            //
+            // The work queue was destroyed concurrently and the work item
+            // won't be executed.
+            //
+            if(item instanceof ObservedWorkItem)
             {
-                _selector.ready(this, SocketOperation.Read, false);
+                ((ObservedWorkItem)item).observer.detach();
             }
+            return false;
         }
 
-        if(workItem != null)
+        if(!_signaled.get() && _signaled.compareAndSet(false, true))
         {
-            workItem.execute(current);
+            synchronized(_threadPool)
+            {
+                if(!_destroyed)
+                {
+                    _selector.ready(this, SocketOperation.Read, true);
+                }
+            }
         }
-        else
+        return true;
+    }
+
+    //
+    // Execute the queued work items. Work items are executed by this thread
+    // until the queue is drained or MaxBatchSize work items are executed,
+    // as long as this thread is the only thread of the thread pool or it
+    // didn't call ioCompleted(). Once a work item called ioCompleted() on
+    // a thread pool with multiple threads, the remaining work items are
+    // left to the promoted follower thread to execute them concurrently.
+    // The batch also stops if the dispatch of a work item is handed off to
+    // a virtual thread which holds the work queue.
+    //
+    @Override
+    public void message(ThreadPoolCurrent current)
+    {
+        for(int i = 0; i < MaxBatchSize; ++i)
         {
-            assert(_destroyed);
-            _threadPool.ioCompleted(current);
-            throw new ThreadPool.DestroyedException();
+            ThreadPoolWorkItem item = _workItems.poll();
+            if(_workItems.isEmpty())
+            {
+                //
+                // The queue is drained, the work queue is no longer ready unless
+                // a work item was queued concurrently. The next queued work item
+                // makes it ready again.
+                //
+                synchronized(_threadPool)
+                {
+                    _signaled.set(false);
+                    if(!_workItems.isEmpty())
+                    {
+                        _signaled.set(true);
+                    }
+                    else if(!_destroyed)
+                    {
+                        _selector.ready(this, SocketOperation.Read, false);
+                    }
+                }
+            }
+
+            if(item == null)
+            {
+                if(i == 0 && _destroyed)
+                {
+                    _threadPool.ioCompleted(current);
+                    throw new ThreadPool.DestroyedException();
+                }
+                return;
+            }
+
+            item.execute(current);
+
+            if((current._ioCompleted && !_singleThreaded) || current._dispatched)
+            {
+                return;
+            }
         }
     }
 
@@ -109,8 +192,35 @@ final class ThreadPoolWorkQueue extends EventHandler
         // Ignore, we don't use the ready callback.
     }
 
+    private static final class ObservedWorkItem implements ThreadPoolWorkItem
+    {
+        ObservedWorkItem(ThreadPoolWorkItem item, com.zeroc.Ice.Instrumentation.Observer observer)
+        {
+            this.item = item;
+            this.observer = observer;
+        }
+
+        @Override
+        public void execute(ThreadPoolCurrent current)
+        {
+            observer.detach();
+            item.execute(current);
+        }
+
+        final ThreadPoolWorkItem item;
+        final com.zeroc.Ice.Instrumentation.Observer observer;
+    }
+
+    private static final int MaxBatchSize = 32;
+
     private final ThreadPool _threadPool;
-    private boolean _destroyed;
+    private final String _prefix;
+    private final boolean _singleThreaded;
+    private final CommunicatorObserverI _observer;
+    private volatile boolean _destroyed;
     private Selector _selector;
-    private java.util.LinkedList<ThreadPoolWorkItem> _workItems = new java.util.LinkedList<>();
+    private final java.util.concurrent.ConcurrentLinkedQueue<ThreadPoolWorkItem> _workItems =
+        new java.util.concurrent.ConcurrentLinkedQueue<>();
+    private final java.util.concurrent.atomic.AtomicBoolean _signaled =
+        new java.util.concurrent.atomic.AtomicBoolean(); // True if the work queue is ready with the selector.
 }
@@ -0,0 +1,27 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+public class TimerObserverI extends com.zeroc.IceMX.Observer<com.zeroc.IceMX.TimerMetrics>
+{
+    public void ticked(final long lag, final int expired)
+    {
+        forEach(v ->
+            {
+                ++v.ticks;
+                v.expired += expired;
+                v.totalLag += lag;
+                if(lag > v.maxLag)
+                {
+                    v.maxLag = lag;
+                }
+            });
+    }
+}
@@ -419,8 +419,8 @@ public final class TraceUtil
         {
             out.write("\nmessage type = " + (int)type + " (" + getMessageTypeAsString(type) + ')');
             byte compress = stream.readByte();
-            out.write("\ncompression status = " + (int)compress + ' ');
-            switch(compress)
+            out.write("\ncompression status = " + (compress & Protocol.compressionStatusMask) + ' ');
+            switch(compress & Protocol.compressionStatusMask)
             {
                 case (byte)0:
                 {
@@ -440,6 +440,18 @@ public final class TraceUtil
                     break;
                 }
 
+                case (byte)3:
+                {
+                    out.write("(compressed with deflate; compress response, if any)");
+                    break;
+                }
+
+                case (byte)4:
+                {
+                    out.write("(compressed with lz4; compress response, if any)");
+                    break;
+                }
+
                 default:
                 {
                     out.write("(unknown)");
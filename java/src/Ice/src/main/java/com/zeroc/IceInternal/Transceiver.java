@@ -22,6 +22,24 @@ public interface Transceiver
     int write(Buffer buf);
     int read(Buffer buf);
 
+    //
+    // Write the given buffers in order. Transceivers which support it
+    // override this method to send the buffers with a single gathering
+    // write. Returns SocketOperation.Write if some data couldn't be sent.
+    //
+    default int write(Buffer[] bufs, int count)
+    {
+        for(int i = 0; i < count; ++i)
+        {
+            int op = write(bufs[i]);
+            if(op != SocketOperation.None)
+            {
+                return op;
+            }
+        }
+        return SocketOperation.None;
+    }
+
     String protocol();
     @Override
     String toString();
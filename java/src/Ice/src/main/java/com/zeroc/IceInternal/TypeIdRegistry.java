@@ -0,0 +1,269 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// Communicator-wide registry of the translations of Slice type IDs into Java classes and of
+// compact IDs into type IDs, shared by all the streams of the communicator. Failed translations
+// are cached as well: translating an unknown type ID involves several class loading attempts
+// (see Instance.findClassForTypeId) and without negative caching messages with sliced or unknown
+// types would pay for them on every message.
+//
+// Besides the communicator's class loader, the translations use the context class loader of the
+// calling thread, which Incoming sets for each dispatch with Ice.UseApplicationClassLoader. The
+// translations are therefore cached separately for each context class loader. The caches don't
+// prevent the class loaders and their classes from being garbage collected.
+//
+// The type IDs and compact IDs of failed translations come from the peers, they are kept in
+// separate caches bounded by MaxNotFound entries so that peers can't grow the registry without
+// limit. Explicit registrations apply to all the class loaders.
+//
+public final class TypeIdRegistry
+{
+    TypeIdRegistry(Instance instance, java.util.Map<String, Class<?>> types,
+                   java.util.Map<Integer, String> compactIds, java.util.function.IntFunction<String> compactIdResolver)
+    {
+        _instance = instance;
+        _compactIdResolver = compactIdResolver;
+        if(types != null)
+        {
+            for(java.util.Map.Entry<String, Class<?>> p : types.entrySet())
+            {
+                registerClass(p.getKey(), p.getValue());
+            }
+        }
+        if(compactIds != null)
+        {
+            for(java.util.Map.Entry<Integer, String> p : compactIds.entrySet())
+            {
+                registerCompactId(p.getKey(), p.getValue());
+            }
+        }
+    }
+
+    //
+    // Returns the class for the given type ID or null if there's none.
+    //
+    public Class<?> resolveClass(String typeId)
+    {
+        Class<?> c = _classes.get(typeId);
+        if(c != null)
+        {
+            return c;
+        }
+
+        LoaderCache cache = cache();
+        java.lang.ref.WeakReference<Class<?>> r = cache.classes.get(typeId);
+        c = r != null ? r.get() : null;
+        if(c == null && !cache.classesNotFound.contains(typeId))
+        {
+            c = _instance.findClassForTypeId(typeId);
+            if(c == null)
+            {
+                cache.classesNotFound.add(typeId);
+                c = _classes.get(typeId); // Registered concurrently.
+            }
+            else
+            {
+                cache.classes.put(typeId, new java.lang.ref.WeakReference<Class<?>>(c));
+            }
+        }
+        return c;
+    }
+
+    //
+    // Returns the type ID for the given compact ID or an empty string if there's none.
+    //
+    public String resolveCompactId(int compactId)
+    {
+        String typeId = _compactIds.get(compactId);
+        if(typeId != null)
+        {
+            return typeId;
+        }
+
+        LoaderCache cache = cache();
+        typeId = cache.compactIds.get(compactId);
+        if(typeId == null)
+        {
+            if(cache.compactIdsNotFound.contains(compactId))
+            {
+                return "";
+            }
+
+            if(_compactIdResolver != null)
+            {
+                typeId = _compactIdResolver.apply(compactId);
+            }
+            if(typeId == null || typeId.isEmpty())
+            {
+                typeId = _instance.findTypeIdForCompactId(compactId);
+            }
+            if(typeId.isEmpty())
+            {
+                cache.compactIdsNotFound.add(compactId);
+                String p = _compactIds.get(compactId); // Registered concurrently.
+                if(p != null)
+                {
+                    typeId = p;
+                }
+            }
+            else
+            {
+                cache.compactIds.put(compactId, typeId);
+            }
+        }
+        return typeId;
+    }
+
+    //
+    // Registers the class for the given type ID, replacing any previous translation.
+    //
+    public void registerClass(String typeId, Class<?> cls)
+    {
+        if(typeId == null || cls == null)
+        {
+            throw new IllegalArgumentException("invalid type ID registration");
+        }
+        _classes.put(typeId, cls);
+    }
+
+    //
+    // Registers the type ID for the given compact ID, replacing any previous translation.
+    //
+    public void registerCompactId(int compactId, String typeId)
+    {
+        if(compactId < 0 || typeId == null || typeId.isEmpty())
+        {
+            throw new IllegalArgumentException("invalid compact ID registration");
+        }
+        _compactIds.put(compactId, typeId);
+    }
+
+    void clear()
+    {
+        _classes.clear();
+        _compactIds.clear();
+        synchronized(_caches)
+        {
+            _caches.clear();
+            _last = null;
+        }
+        _noLoaderCache.clear();
+    }
+
+    //
+    // Returns the cache of the context class loader of the calling thread. The cache of the
+    // last class loader is kept to avoid locking when the context class loader doesn't change.
+    //
+    private LoaderCache cache()
+    {
+        ClassLoader cl;
+        try
+        {
+            cl = Thread.currentThread().getContextClassLoader();
+        }
+        catch(SecurityException ex)
+        {
+            cl = null;
+        }
+        if(cl == null)
+        {
+            return _noLoaderCache;
+        }
+
+        LoaderCache cache = _last;
+        if(cache != null && cache.loader.get() == cl)
+        {
+            return cache;
+        }
+
+        synchronized(_caches)
+        {
+            cache = _caches.get(cl);
+            if(cache == null)
+            {
+                cache = new LoaderCache(cl);
+                _caches.put(cl, cache);
+            }
+            _last = cache;
+        }
+        return cache;
+    }
+
+    //
+    // The translations of a context class loader. The class loader and the classes are weakly
+    // referenced so that the cache doesn't prevent their garbage collection.
+    //
+    private static final class LoaderCache
+    {
+        LoaderCache(ClassLoader loader)
+        {
+            this.loader = new java.lang.ref.WeakReference<>(loader);
+        }
+
+        void clear()
+        {
+            classes.clear();
+            compactIds.clear();
+            classesNotFound.clear();
+            compactIdsNotFound.clear();
+        }
+
+        final java.lang.ref.WeakReference<ClassLoader> loader;
+        final java.util.concurrent.ConcurrentHashMap<String, java.lang.ref.WeakReference<Class<?>>> classes =
+            new java.util.concurrent.ConcurrentHashMap<>();
+        final java.util.concurrent.ConcurrentHashMap<Integer, String> compactIds =
+            new java.util.concurrent.ConcurrentHashMap<>();
+        final NotFoundCache<String> classesNotFound = new NotFoundCache<>();
+        final NotFoundCache<Integer> compactIdsNotFound = new NotFoundCache<>();
+    }
+
+    //
+    // A bounded set of keys which couldn't be translated. It's simply emptied when it's full: the
+    // keys which are still in use are added back by the next failed translations.
+    //
+    private static final class NotFoundCache<K>
+    {
+        boolean contains(K key)
+        {
+            return _keys.containsKey(key);
+        }
+
+        void add(K key)
+        {
+            if(_keys.size() >= MaxNotFound)
+            {
+                _keys.clear();
+            }
+            _keys.put(key, Boolean.TRUE);
+        }
+
+        void clear()
+        {
+            _keys.clear();
+        }
+
+        private final java.util.concurrent.ConcurrentHashMap<K, Boolean> _keys =
+            new java.util.concurrent.ConcurrentHashMap<>();
+    }
+
+    private static final int MaxNotFound = 1024;
+
+    private final Instance _instance;
+    private final java.util.function.IntFunction<String> _compactIdResolver;
+    private final java.util.concurrent.ConcurrentHashMap<String, Class<?>> _classes =
+        new java.util.concurrent.ConcurrentHashMap<>(); // Registered translations.
+    private final java.util.concurrent.ConcurrentHashMap<Integer, String> _compactIds =
+        new java.util.concurrent.ConcurrentHashMap<>(); // Registered translations.
+    private final java.util.Map<ClassLoader, LoaderCache> _caches = new java.util.WeakHashMap<>();
+    private final LoaderCache _noLoaderCache = new LoaderCache(null);
+    private volatile LoaderCache _last;
+}
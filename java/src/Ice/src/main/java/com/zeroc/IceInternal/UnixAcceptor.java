@@ -0,0 +1,145 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+class UnixAcceptor implements Acceptor
+{
+    @Override
+    public java.nio.channels.ServerSocketChannel fd()
+    {
+        return _fd;
+    }
+
+    @Override
+    public void setReadyCallback(ReadyCallback callback)
+    {
+        // No need to for the ready callback.
+    }
+
+    @Override
+    public void close()
+    {
+        if(_fd != null)
+        {
+            Network.closeSocketNoThrow(_fd);
+            _fd = null;
+
+            //
+            // Remove the socket file, it's not removed when the socket is
+            // closed and would otherwise prevent binding again to the path.
+            //
+            if(_bound)
+            {
+                try
+                {
+                    java.nio.file.Files.deleteIfExists(java.nio.file.Paths.get(_path));
+                }
+                catch(java.io.IOException ex)
+                {
+                    // Ignore
+                }
+                catch(java.nio.file.InvalidPathException ex)
+                {
+                    // Ignore
+                }
+            }
+        }
+    }
+
+    @Override
+    public EndpointI listen()
+    {
+        try
+        {
+            Network.doBindUnix(_fd, _addr, _backlog);
+            _bound = true;
+        }
+        catch(com.zeroc.Ice.Exception ex)
+        {
+            _fd = null;
+            throw ex;
+        }
+        return _endpoint;
+    }
+
+    @Override
+    public Transceiver accept()
+    {
+        return createTransceiver(Network.doAcceptUnix(_fd));
+    }
+
+    @Override
+    public String protocol()
+    {
+        return _instance.protocol();
+    }
+
+    @Override
+    public String toString()
+    {
+        return _path;
+    }
+
+    @Override
+    public String toDetailedString()
+    {
+        return "local address = " + _path;
+    }
+
+    protected Transceiver createTransceiver(java.nio.channels.SocketChannel fd)
+    {
+        return new UnixTransceiver(_instance, new StreamSocket(_instance, fd, _addr), _path);
+    }
+
+    UnixAcceptor(UnixEndpointI endpoint, ProtocolInstance instance, String path)
+    {
+        _endpoint = endpoint;
+        _instance = instance;
+        _path = path;
+        _backlog = instance.properties().getPropertyAsIntWithDefault("Ice.TCP.Backlog", 511);
+        _addr = Network.getUnixAddress(path);
+
+        try
+        {
+            _fd = Network.createUnixServerSocket();
+            Network.setBlock(_fd, false);
+        }
+        catch(RuntimeException ex)
+        {
+            _fd = null;
+            throw ex;
+        }
+    }
+
+    @Override
+    protected synchronized void finalize()
+        throws Throwable
+    {
+        try
+        {
+            com.zeroc.IceUtilInternal.Assert.FinalizerAssert(_fd == null);
+        }
+        catch(java.lang.Exception ex)
+        {
+        }
+        finally
+        {
+            super.finalize();
+        }
+    }
+
+    private UnixEndpointI _endpoint;
+    private ProtocolInstance _instance;
+    private String _path;
+    private java.net.SocketAddress _addr;
+    private int _backlog;
+    private boolean _bound;
+    private java.nio.channels.ServerSocketChannel _fd;
+}
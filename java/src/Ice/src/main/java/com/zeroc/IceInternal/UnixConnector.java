@@ -0,0 +1,89 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+final class UnixConnector implements Connector
+{
+    @Override
+    public Transceiver connect()
+    {
+        return new UnixTransceiver(_instance, new StreamSocket(_instance, _addr), _path);
+    }
+
+    @Override
+    public short type()
+    {
+        return _instance.type();
+    }
+
+    @Override
+    public String toString()
+    {
+        return _path;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return _hashCode;
+    }
+
+    //
+    // Only for use by UnixEndpointI
+    //
+    UnixConnector(ProtocolInstance instance, String path, java.net.SocketAddress addr, int timeout,
+                  String connectionId)
+    {
+        _instance = instance;
+        _path = path;
+        _addr = addr;
+        _timeout = timeout;
+        _connectionId = connectionId;
+
+        _hashCode = 5381;
+        _hashCode = HashUtil.hashAdd(_hashCode , _path);
+        _hashCode = HashUtil.hashAdd(_hashCode , _timeout);
+        _hashCode = HashUtil.hashAdd(_hashCode , _connectionId);
+    }
+
+    @Override
+    public boolean equals(java.lang.Object obj)
+    {
+        if(!(obj instanceof UnixConnector))
+        {
+            return false;
+        }
+
+        if(this == obj)
+        {
+            return true;
+        }
+
+        UnixConnector p = (UnixConnector)obj;
+        if(_timeout != p._timeout)
+        {
+            return false;
+        }
+
+        if(!_connectionId.equals(p._connectionId))
+        {
+            return false;
+        }
+
+        return _path.equals(p._path);
+    }
+
+    private ProtocolInstance _instance;
+    private String _path;
+    private java.net.SocketAddress _addr;
+    private int _timeout;
+    private String _connectionId = "";
+    private int _hashCode;
+}
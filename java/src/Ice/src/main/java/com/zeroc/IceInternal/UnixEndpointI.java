@@ -0,0 +1,480 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+//
+// Endpoint for Unix domain stream sockets. The socket is identified by the
+// path of its socket file, set with the -p option. Unix domain sockets
+// require JDK 16 or later.
+//
+class UnixEndpointI extends EndpointI
+{
+    public UnixEndpointI(ProtocolInstance instance, String path, int timeout, String connectionId, boolean compress)
+    {
+        _instance = instance;
+        _path = path;
+        _timeout = timeout;
+        _connectionId = connectionId;
+        _compress = compress;
+    }
+
+    public UnixEndpointI(ProtocolInstance instance)
+    {
+        _instance = instance;
+        _path = "";
+        _timeout = instance.defaultTimeout();
+        _connectionId = "";
+        _compress = false;
+    }
+
+    public UnixEndpointI(ProtocolInstance instance, com.zeroc.Ice.InputStream s)
+    {
+        _instance = instance;
+        _path = s.readString();
+        _timeout = s.readInt();
+        _connectionId = "";
+        _compress = s.readBool();
+    }
+
+    //
+    // Marshal the endpoint
+    //
+    @Override
+    public void streamWriteImpl(com.zeroc.Ice.OutputStream s)
+    {
+        s.writeString(_path);
+        s.writeInt(_timeout);
+        s.writeBool(_compress);
+    }
+
+    //
+    // Return the endpoint information.
+    //
+    @Override
+    public com.zeroc.Ice.EndpointInfo getInfo()
+    {
+        com.zeroc.Ice.UnixEndpointInfo info = new com.zeroc.Ice.UnixEndpointInfo()
+        {
+            @Override
+            public short type()
+            {
+                return UnixEndpointI.this.type();
+            }
+
+            @Override
+            public boolean datagram()
+            {
+                return UnixEndpointI.this.datagram();
+            }
+
+            @Override
+            public boolean secure()
+            {
+                return UnixEndpointI.this.secure();
+            }
+        };
+        info.timeout = _timeout;
+        info.compress = _compress;
+        info.path = _path;
+        return info;
+    }
+
+    //
+    // Return the endpoint type
+    //
+    @Override
+    public short type()
+    {
+        return _instance.type();
+    }
+
+    //
+    // Return the protocol name
+    //
+    @Override
+    public String protocol()
+    {
+        return _instance.protocol();
+    }
+
+    //
+    // Return the timeout for the endpoint in milliseconds. 0 means
+    // non-blocking, -1 means no timeout.
+    //
+    @Override
+    public int timeout()
+    {
+        return _timeout;
+    }
+
+    //
+    // Return a new endpoint with a different timeout value, provided
+    // that timeouts are supported by the endpoint. Otherwise the same
+    // endpoint is returned.
+    //
+    @Override
+    public EndpointI timeout(int timeout)
+    {
+        if(timeout == _timeout)
+        {
+            return this;
+        }
+        else
+        {
+            return createEndpoint(_path, timeout, _connectionId, _compress);
+        }
+    }
+
+    @Override
+    public String connectionId()
+    {
+        return _connectionId;
+    }
+
+    //
+    // Return a new endpoint with a different connection id.
+    //
+    @Override
+    public EndpointI connectionId(String connectionId)
+    {
+        if(connectionId.equals(_connectionId))
+        {
+            return this;
+        }
+        else
+        {
+            return createEndpoint(_path, _timeout, connectionId, _compress);
+        }
+    }
+
+    //
+    // Return true if the endpoints support bzip2 compress, or false
+    // otherwise.
+    //
+    @Override
+    public boolean compress()
+    {
+        return _compress;
+    }
+
+    //
+    // Return a new endpoint with a different compression value,
+    // provided that compression is supported by the
+    // endpoint. Otherwise the same endpoint is returned.
+    //
+    @Override
+    public EndpointI compress(boolean compress)
+    {
+        if(compress == _compress)
+        {
+            return this;
+        }
+        else
+        {
+            return createEndpoint(_path, _timeout, _connectionId, compress);
+        }
+    }
+
+    //
+    // Return true if the endpoint is datagram-based.
+    //
+    @Override
+    public boolean datagram()
+    {
+        return false;
+    }
+
+    //
+    // Return true if the endpoint is secure.
+    //
+    @Override
+    public boolean secure()
+    {
+        return _instance.secure();
+    }
+
+    //
+    // Return a server side transceiver for this endpoint, or null if a
+    // transceiver can only be created by an acceptor.
+    //
+    @Override
+    public Transceiver transceiver()
+    {
+        return null;
+    }
+
+    //
+    // Return connectors for this endpoint, or empty list if no connector
+    // is available. The path doesn't need to be resolved, the connector is
+    // returned synchronously.
+    //
+    @Override
+    public void connectors_async(com.zeroc.Ice.EndpointSelectionType selType, EndpointI_connectors callback)
+    {
+        java.util.List<Connector> connectors = new java.util.ArrayList<>();
+        try
+        {
+            connectors.add(createConnector(Network.getUnixAddress(_path)));
+        }
+        catch(com.zeroc.Ice.LocalException ex)
+        {
+            callback.exception(ex);
+            return;
+        }
+        callback.connectors(connectors);
+    }
+
+    //
+    // Return an acceptor for this endpoint, or null if no acceptors
+    // is available.
+    //
+    @Override
+    public Acceptor acceptor(String adapterName)
+    {
+        return new UnixAcceptor(this, _instance, _path);
+    }
+
+    //
+    // Unix domain socket endpoints have no wildcard address and no host
+    // to resolve, they are never expanded.
+    //
+    @Override
+    public java.util.List<EndpointI> expandIfWildcard()
+    {
+        java.util.List<EndpointI> endps = new java.util.ArrayList<>();
+        endps.add(this);
+        return endps;
+    }
+
+    @Override
+    public EndpointI.ExpandHostResult expandHost()
+    {
+        EndpointI.ExpandHostResult result = new EndpointI.ExpandHostResult();
+        result.endpoints = new java.util.ArrayList<>();
+        result.endpoints.add(this);
+        return result;
+    }
+
+    //
+    // Check whether the endpoint is equivalent to another one.
+    //
+    @Override
+    public boolean equivalent(EndpointI endpoint)
+    {
+        if(!(endpoint instanceof UnixEndpointI) || endpoint.type() != type())
+        {
+            return false;
+        }
+        return ((UnixEndpointI)endpoint)._path.equals(_path);
+    }
+
+    @Override
+    public String options()
+    {
+        //
+        // WARNING: Certain features, such as proxy validation in Glacier2,
+        // depend on the format of proxy strings. Changes to toString() and
+        // methods called to generate parts of the reference string could break
+        // these features. Please review for all features that depend on the
+        // format of proxyToString() before changing this and related code.
+        //
+        String s = "";
+
+        if(_path != null && _path.length() > 0)
+        {
+            s += " -p ";
+            boolean addQuote = com.zeroc.IceUtilInternal.StringUtil.findFirstOf(_path, ": \t\n\r") != -1;
+            if(addQuote)
+            {
+                s += "\"";
+            }
+            s += _path;
+            if(addQuote)
+            {
+                s += "\"";
+            }
+        }
+
+        if(_timeout == -1)
+        {
+            s += " -t infinite";
+        }
+        else
+        {
+            s += " -t " + _timeout;
+        }
+
+        if(_compress)
+        {
+            s += " -z";
+        }
+
+        return s;
+    }
+
+    @Override
+    synchronized public int hashCode()
+    {
+        if(!_hashInitialized)
+        {
+            _hashValue = 5381;
+            _hashValue = HashUtil.hashAdd(_hashValue, type());
+            _hashValue = HashUtil.hashAdd(_hashValue, _path);
+            _hashValue = HashUtil.hashAdd(_hashValue, _timeout);
+            _hashValue = HashUtil.hashAdd(_hashValue, _connectionId);
+            _hashValue = HashUtil.hashAdd(_hashValue, _compress);
+            _hashInitialized = true;
+        }
+        return _hashValue;
+    }
+
+    //
+    // Compare endpoints for sorting purposes
+    //
+    @Override
+    public int compareTo(EndpointI obj) // From java.lang.Comparable
+    {
+        if(!(obj instanceof UnixEndpointI) || obj.type() != type())
+        {
+            return type() < obj.type() ? -1 : 1;
+        }
+
+        UnixEndpointI p = (UnixEndpointI)obj;
+        if(this == p)
+        {
+            return 0;
+        }
+
+        int v = _path.compareTo(p._path);
+        if(v != 0)
+        {
+            return v;
+        }
+
+        if(_timeout < p._timeout)
+        {
+            return -1;
+        }
+        else if(p._timeout < _timeout)
+        {
+            return 1;
+        }
+
+        if(!_compress && p._compress)
+        {
+            return -1;
+        }
+        else if(!p._compress && _compress)
+        {
+            return 1;
+        }
+
+        return _connectionId.compareTo(p._connectionId);
+    }
+
+    public void initWithOptions(java.util.ArrayList<String> args, boolean oaEndpoint)
+    {
+        super.initWithOptions(args);
+
+        if(_path.isEmpty())
+        {
+            throw new com.zeroc.Ice.EndpointParseException("no -p option in endpoint " + toString());
+        }
+    }
+
+    @Override
+    protected boolean checkOption(String option, String argument, String endpoint)
+    {
+        switch(option.charAt(1))
+        {
+            case 'p':
+            {
+                if(argument == null)
+                {
+                    throw new com.zeroc.Ice.EndpointParseException("no argument provided for -p option in endpoint " +
+                                                                   endpoint);
+                }
+
+                _path = argument;
+
+                return true;
+            }
+
+            case 't':
+            {
+                if(argument == null)
+                {
+                    throw new com.zeroc.Ice.EndpointParseException("no argument provided for -t option in endpoint " +
+                                                                   endpoint);
+                }
+
+                if(argument.equals("infinite"))
+                {
+                    _timeout = -1;
+                }
+                else
+                {
+                    try
+                    {
+                        _timeout = Integer.parseInt(argument);
+                        if(_timeout < 1)
+                        {
+                            throw new com.zeroc.Ice.EndpointParseException("invalid timeout value `" + argument +
+                                                                           "' in endpoint " + endpoint);
+                        }
+                    }
+                    catch(NumberFormatException ex)
+                    {
+                        throw new com.zeroc.Ice.EndpointParseException("invalid timeout value `" + argument +
+                                                                       "' in endpoint " + endpoint);
+                    }
+                }
+
+                return true;
+            }
+
+            case 'z':
+            {
+                if(argument != null)
+                {
+                    throw new com.zeroc.Ice.EndpointParseException("unexpected argument `" + argument +
+                                                                   "' provided for -z option in " + endpoint);
+                }
+
+                _compress = true;
+
+                return true;
+            }
+
+            default:
+            {
+                return false;
+            }
+        }
+    }
+
+    protected Connector createConnector(java.net.SocketAddress addr)
+    {
+        return new UnixConnector(_instance, _path, addr, _timeout, _connectionId);
+    }
+
+    protected UnixEndpointI createEndpoint(String path, int timeout, String connectionId, boolean compress)
+    {
+        return new UnixEndpointI(_instance, path, timeout, connectionId, compress);
+    }
+
+    protected ProtocolInstance _instance;
+    protected String _path;
+    protected int _timeout;
+    protected String _connectionId;
+    protected boolean _compress;
+    private boolean _hashInitialized;
+    private int _hashValue;
+}
@@ -0,0 +1,124 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package com.zeroc.IceInternal;
+
+final class UnixTransceiver implements Transceiver
+{
+    @Override
+    public java.nio.channels.SelectableChannel fd()
+    {
+        assert(_stream != null);
+        return _stream.fd();
+    }
+
+    @Override
+    public void setReadyCallback(ReadyCallback callback)
+    {
+        // No need of the callback
+    }
+
+    @Override
+    public int initialize(Buffer readBuffer, Buffer writeBuffer)
+    {
+        return _stream.connect(readBuffer, writeBuffer);
+    }
+
+    @Override
+    public int closing(boolean initiator, com.zeroc.Ice.LocalException ex)
+    {
+        // If we are initiating the connection closure, wait for the peer
+        // to close the connection. Otherwise, close immediately.
+        return initiator ? SocketOperation.Read : SocketOperation.None;
+    }
+
+    @Override
+    public void close()
+    {
+        _stream.close();
+    }
+
+    @Override
+    public EndpointI bind()
+    {
+        assert(false);
+        return null;
+    }
+
+    @Override
+    public int write(Buffer buf)
+    {
+        return _stream.write(buf);
+    }
+
+    @Override
+    public int write(Buffer[] bufs, int count)
+    {
+        return _stream.write(bufs, count);
+    }
+
+    @Override
+    public int read(Buffer buf)
+    {
+        return _stream.read(buf);
+    }
+
+    @Override
+    public String protocol()
+    {
+        return _instance.protocol();
+    }
+
+    @Override
+    public String toString()
+    {
+        return _stream.toString();
+    }
+
+    @Override
+    public String toDetailedString()
+    {
+        return toString();
+    }
+
+    @Override
+    public com.zeroc.Ice.ConnectionInfo getInfo()
+    {
+        com.zeroc.Ice.UnixConnectionInfo info = new com.zeroc.Ice.UnixConnectionInfo();
+        info.path = _path;
+        if(_stream.fd() != null && _stream.fd().isOpen())
+        {
+            info.rcvSize = Network.getUnixRecvBufferSize(_stream.fd());
+            info.sndSize = Network.getUnixSendBufferSize(_stream.fd());
+        }
+        return info;
+    }
+
+    @Override
+    public void checkSendSize(Buffer buf)
+    {
+    }
+
+    @Override
+    public void setBufferSize(int rcvSize, int sndSize)
+    {
+        _stream.setBufferSize(rcvSize, sndSize);
+    }
+
+    UnixTransceiver(ProtocolInstance instance, StreamSocket stream, String path)
+    {
+        _instance = instance;
+        _stream = stream;
+        _path = path;
+    }
+
+    final private ProtocolInstance _instance;
+    final private StreamSocket _stream;
+    final private String _path;
+}
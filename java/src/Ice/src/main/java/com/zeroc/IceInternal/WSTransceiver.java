@@ -986,7 +986,7 @@ final class WSTransceiver implements Transceiver
                     }
                     _readState = ReadStatePayload;
                     assert(buf.b.hasRemaining());
-                    _readFrameStart = buf.b.position();
+                    _readFrameOffset = 0;
                     break;
                 }
                 case OP_CLOSE: // Connection close
@@ -1166,19 +1166,20 @@ final class WSTransceiver implements Transceiver
                 int offset = buf.b.arrayOffset();
                 for(int n = _readStart; n < pos; ++n)
                 {
-                    arr[n + offset] = (byte)(arr[n + offset] ^ _readMask[(n - _readFrameStart) % 4]);
+                    arr[n + offset] = (byte)(arr[n + offset] ^ _readMask[(_readFrameOffset + n - _readStart) % 4]);
                 }
             }
             else
             {
                 for(int n = _readStart; n < pos; ++n)
                 {
-                    final byte b = (byte)(buf.b.get(n) ^ _readMask[(n - _readFrameStart) % 4]);
+                    final byte b = (byte)(buf.b.get(n) ^ _readMask[(_readFrameOffset + n - _readStart) % 4]);
                     buf.b.put(n, b);
                 }
             }
         }
 
+        _readFrameOffset += buf.b.position() - _readStart;
         _readPayloadLength -= buf.b.position() - _readStart;
         _readStart = buf.b.position();
         if(_readPayloadLength == 0)
@@ -1558,7 +1559,7 @@ final class WSTransceiver implements Transceiver
     private int _readHeaderLength;
     private int _readPayloadLength;
     private int _readStart;
-    private int _readFrameStart;
+    private int _readFrameOffset; // The number of payload bytes of the frame already read, to unmask the payload.
     private byte[] _readMask;
 
     private static final int WriteStateHeader = 0;
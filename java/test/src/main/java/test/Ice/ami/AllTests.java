@@ -1118,6 +1118,42 @@ public class AllTests
         }
         out.println("ok");
 
+        if(!collocated)
+        {
+            out.print("testing read-ahead... ");
+            out.flush();
+            {
+                //
+                // The pipelined replies are read with a small read-ahead
+                // buffer, several replies are parsed per read and the buffer
+                // is often replaced with the start of a reply.
+                //
+                com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+                initData.properties = communicator.getProperties()._clone();
+                initData.properties.setProperty("Ice.ReadAhead.Size", "1024");
+                com.zeroc.Ice.Communicator ic = app.initialize(initData);
+                TestIntfPrx p2 = TestIntfPrx.uncheckedCast(ic.stringToProxy(p.toString()));
+
+                java.util.List<CompletableFuture<Integer>> results = new java.util.ArrayList<>();
+                java.util.List<CompletableFuture<Void>> payloads = new java.util.ArrayList<>();
+                for(int i = 0; i < 100; ++i)
+                {
+                    results.add(p2.opWithResultAsync());
+                    payloads.add(p2.opWithPayloadAsync(new byte[i % 10 == 0 ? 5000 : 10]));
+                }
+                for(CompletableFuture<Integer> r : results)
+                {
+                    test(r.join() == 15);
+                }
+                for(CompletableFuture<Void> r : payloads)
+                {
+                    r.join();
+                }
+                ic.destroy();
+            }
+            out.println("ok");
+        }
+
         out.print("testing result struct... ");
         out.flush();
         {
@@ -739,6 +739,147 @@ public class AllTests
         }
         out.println("ok");
 
+        out.print("testing per request binding and latency-aware endpoint selection... ");
+        out.flush();
+        {
+            //
+            // The latency-aware endpoint selection types are only supported
+            // by the Java mapping, they are configured with proxy properties
+            // and refine the Random endpoint selection type.
+            //
+            String[] types = { "LeastLatency", "PowerOfTwoChoices" };
+            for(String type : types)
+            {
+                java.util.List<RemoteObjectAdapterPrx> adapters = new java.util.ArrayList<>();
+                adapters.add(rcom.createObjectAdapter("Adapter91", "default"));
+                adapters.add(rcom.createObjectAdapter("Adapter92", "default"));
+                adapters.add(rcom.createObjectAdapter("Adapter93", "default"));
+
+                com.zeroc.Ice.Properties properties = communicator.getProperties();
+                properties.setProperty("LatencyProxy", communicator.proxyToString(createTestIntfPrx(adapters)));
+                properties.setProperty("LatencyProxy.EndpointSelection", type);
+                properties.setProperty("LatencyProxy.ConnectionCached", "0");
+                TestIntfPrx test = TestIntfPrx.uncheckedCast(communicator.propertyToProxy("LatencyProxy"));
+                properties.setProperty("LatencyProxy", "");
+                properties.setProperty("LatencyProxy.EndpointSelection", "");
+                properties.setProperty("LatencyProxy.ConnectionCached", "");
+                test(test.ice_getEndpointSelection() == EndpointSelectionType.Random);
+                test(!test.ice_isConnectionCached());
+                test(communicator.proxyToProperty(test, "P").get("P.EndpointSelection").equals(type));
+                test(!test.equals(test.ice_endpointSelection(EndpointSelectionType.Ordered).ice_endpointSelection(
+                                      EndpointSelectionType.Random)));
+
+                //
+                // Endpoints without latency are preferred, all the endpoints
+                // end up being used.
+                //
+                java.util.Set<String> names = new java.util.HashSet<>();
+                names.add("Adapter91");
+                names.add("Adapter92");
+                names.add("Adapter93");
+                int i;
+                for(i = 0; i < 100 && !names.isEmpty(); i++)
+                {
+                    names.remove(test.getAdapterName());
+                }
+                test(names.isEmpty());
+
+                //
+                // The remaining endpoints are used once an adapter is deactivated.
+                //
+                rcom.deactivateObjectAdapter(adapters.get(0));
+                for(i = 0; i < 20; i++)
+                {
+                    test(!test.getAdapterName().equals("Adapter91"));
+                }
+
+                adapters.remove(0);
+                deactivate(rcom, adapters);
+            }
+        }
+        out.println("ok");
+
+        out.print("testing staggered connection establishment... ");
+        out.flush();
+        {
+            com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+            initData.properties = communicator.getProperties()._clone();
+            initData.properties.setProperty("Ice.Default.ConnectAttemptDelay", "50");
+            com.zeroc.Ice.Communicator ic = app.initialize(initData);
+
+            java.util.List<RemoteObjectAdapterPrx> adapters = new java.util.ArrayList<>();
+            adapters.add(rcom.createObjectAdapter("Adapter101", "default"));
+            adapters.add(rcom.createObjectAdapter("Adapter102", "default"));
+            adapters.add(rcom.createObjectAdapter("Adapter103", "default"));
+
+            TestIntfPrx test = TestIntfPrx.uncheckedCast(
+                ic.stringToProxy(createTestIntfPrx(adapters).toString()));
+            test = test.ice_endpointSelection(EndpointSelectionType.Ordered).ice_connectionCached(false);
+
+            //
+            // The connection to the first endpoint is used if it's established
+            // before the delay, the next endpoints are tried once it fails.
+            //
+            test(test.getAdapterName().equals("Adapter101"));
+            rcom.deactivateObjectAdapter(adapters.get(0));
+            test(test.getAdapterName().equals("Adapter102"));
+            rcom.deactivateObjectAdapter(adapters.get(1));
+            test(test.getAdapterName().equals("Adapter103"));
+            rcom.deactivateObjectAdapter(adapters.get(2));
+
+            try
+            {
+                test.getAdapterName();
+                test(false);
+            }
+            catch(com.zeroc.Ice.ConnectFailedException ex)
+            {
+            }
+            catch(com.zeroc.Ice.ConnectTimeoutException ex)
+            {
+                //
+                // On Windows, we set Ice.Override.ConnectTimeout to speed up testing.
+                //
+            }
+
+            //
+            // The connection to the second endpoint is established shortly after
+            // the delay if the first endpoint doesn't respond. The first endpoint
+            // is a listening socket which never accepts connections, the transport
+            // or connection validation never completes. The connection must be
+            // cached for the connectors of all the endpoints to be tried together.
+            //
+            String protocol = app.getTestProtocol();
+            if(protocol.equals("tcp") || protocol.equals("ssl") || protocol.equals("ws") || protocol.equals("wss"))
+            {
+                try(java.net.ServerSocket socket = new java.net.ServerSocket())
+                {
+                    socket.bind(new java.net.InetSocketAddress(app.getTestHost(), 0), 1);
+
+                    RemoteObjectAdapterPrx adapter = rcom.createObjectAdapter("Adapter104", "default");
+                    java.util.List<Endpoint> endpoints = new java.util.ArrayList<>();
+                    endpoints.addAll(java.util.Arrays.asList(ic.stringToProxy(
+                        "dummy:" + protocol + " -h " + app.getTestHost() + " -p " + socket.getLocalPort() +
+                        " -t 60000").ice_getEndpoints()));
+                    endpoints.addAll(java.util.Arrays.asList(adapter.getTestIntf().ice_getEndpoints()));
+                    test = test.ice_connectionCached(true).ice_endpoints(
+                        endpoints.toArray(new Endpoint[endpoints.size()]));
+
+                    long start = System.nanoTime();
+                    test(test.getAdapterName().equals("Adapter104"));
+                    long elapsed = (System.nanoTime() - start) / 1000000;
+                    test(elapsed < 50 + 2000); // The delay plus a margin well below the connect timeout.
+                    rcom.deactivateObjectAdapter(adapter);
+                }
+                catch(java.io.IOException ex)
+                {
+                    throw new RuntimeException(ex);
+                }
+            }
+            ic.destroy();
+        }
+        out.println("ok");
+
         out.print("testing endpoint mode filtering... ");
         out.flush();
         {
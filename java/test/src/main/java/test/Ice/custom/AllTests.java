@@ -313,6 +313,149 @@ public class AllTests
 
         out.println("ok");
 
+        out.print("testing buffer views with cached message buffers... ");
+        out.flush();
+        {
+            //
+            // Buffer views alias the reply buffer, make sure they remain valid once the
+            // stream is cached and reused for subsequent invocations.
+            //
+            com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+            initData.properties = communicator.getProperties()._clone();
+            initData.properties.setProperty("Ice.CacheMessageBuffers", "1");
+            com.zeroc.Ice.Communicator comm = app.initialize(initData);
+            TestIntfPrx p = TestIntfPrx.uncheckedCast(comm.stringToProxy(ref));
+
+            final int[] seq1 = new int[] {0, 1, 2, 3, 4, 5, 6, 7};
+            final int[] seq2 = new int[] {7, 6, 5, 4, 3, 2, 1, 0};
+            TestIntf.OpIntBufferSeqResult r1 = p.opIntBufferSeq(IntBuffer.wrap(seq1));
+            for(int i = 0; i < 10; ++i)
+            {
+                TestIntf.OpIntBufferSeqResult r2 = p.opIntBufferSeq(IntBuffer.wrap(seq2));
+                int[] arr = new int[r2.returnValue.limit()];
+                r2.returnValue.get(arr, 0, arr.length);
+                test(Arrays.equals(arr, seq2));
+            }
+            int[] arr = new int[r1.returnValue.limit()];
+            r1.returnValue.get(arr, 0, arr.length);
+            test(Arrays.equals(arr, seq1));
+            arr = new int[r1.outSeq.limit()];
+            r1.outSeq.get(arr, 0, arr.length);
+            test(Arrays.equals(arr, seq1));
+
+            comm.destroy();
+        }
+        out.println("ok");
+
+        out.print("testing streams larger than Ice.MessageSizeMax... ");
+        out.flush();
+        {
+            com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+            initData.properties = communicator.getProperties()._clone();
+            initData.properties.setProperty("Ice.MessageSizeMax", "64");
+            initData.properties.setProperty("Ice.Warn.Dispatch", "0");
+            com.zeroc.Ice.Communicator comm = app.initialize(initData);
+            com.zeroc.Ice.ObjectAdapter adapter =
+                comm.createObjectAdapterWithEndpoints("StreamAdapter", app.getTestProtocol() + " -h " +
+                                                      app.getTestHost());
+
+            final java.io.ByteArrayOutputStream received = new java.io.ByteArrayOutputStream();
+            final int[] completed = new int[1];
+            final int[] errors = new int[1];
+            com.zeroc.Ice.ObjectPrx p = adapter.addWithUUID(new com.zeroc.Ice.StreamReceiver(current ->
+                new com.zeroc.Ice.StreamReceiver.Subscriber()
+                {
+                    @Override
+                    public void onNext(ByteBuffer chunk)
+                    {
+                        test(chunk.isReadOnly());
+                        synchronized(received)
+                        {
+                            while(chunk.hasRemaining())
+                            {
+                                received.write(chunk.get());
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onComplete()
+                    {
+                        synchronized(received)
+                        {
+                            ++completed[0];
+                        }
+                    }
+
+                    @Override
+                    public void onError(com.zeroc.Ice.LocalException ex)
+                    {
+                        synchronized(received)
+                        {
+                            ++errors[0];
+                        }
+                    }
+                })).ice_collocationOptimized(false);
+            adapter.activate();
+
+            byte[] data = new byte[1024 * 1024];
+            for(int i = 0; i < data.length; ++i)
+            {
+                data[i] = (byte)i;
+            }
+
+            com.zeroc.Ice.StreamSender sender = new com.zeroc.Ice.StreamSender(p, "upload", 4096, 4);
+            sender.write(ByteBuffer.wrap(data, 0, 1000)).join();
+            sender.write(ByteBuffer.wrap(data, 1000, data.length - 1000)).join();
+            sender.complete().join();
+            synchronized(received)
+            {
+                test(completed[0] == 1 && errors[0] == 0);
+                test(Arrays.equals(received.toByteArray(), data));
+            }
+
+            sender = new com.zeroc.Ice.StreamSender(p, "upload");
+            sender.write(ByteBuffer.wrap(data)).join();
+            sender.abort();
+            try
+            {
+                sender.complete().join();
+                test(false);
+            }
+            catch(java.util.concurrent.CompletionException ex)
+            {
+                test(ex.getCause() instanceof com.zeroc.Ice.InvocationCanceledException);
+            }
+
+            //
+            // Stale, duplicate and out of window chunks are rejected.
+            //
+            int accepted = 0;
+            for(long seq : new long[] { 0, 0, -1, 1000 })
+            {
+                com.zeroc.Ice.OutputStream os = new com.zeroc.Ice.OutputStream(communicator);
+                os.startEncapsulation();
+                os.writeString("invalid");
+                os.writeLong(seq);
+                os.writeByte((byte)0);
+                os.writeByteSeq(new byte[1]);
+                os.endEncapsulation();
+                try
+                {
+                    p.ice_invoke("upload", com.zeroc.Ice.OperationMode.Normal, os.finished());
+                    ++accepted;
+                }
+                catch(com.zeroc.Ice.UnknownLocalException ex)
+                {
+                    test(ex.unknown.indexOf("ProtocolException") >= 0);
+                }
+            }
+            test(accepted == 1);
+
+            comm.destroy();
+        }
+        out.println("ok");
+
         return t;
     }
 }
@@ -607,6 +607,72 @@ public class AllTests
 
         out.println("ok");
 
+        out.print("testing stackless exceptions... ");
+        out.flush();
+
+        {
+            com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+            initData.properties = communicator.getProperties()._clone();
+            initData.properties.setProperty("Ice.StacklessExceptions.Types", "::Test::A");
+            com.zeroc.Ice.Communicator comm = app.initialize(initData);
+            ThrowerPrx thrower2 = ThrowerPrx.uncheckedCast(comm.stringToProxy(ref));
+            try
+            {
+                thrower2.throwAasA(1);
+                test(false);
+            }
+            catch(A ex)
+            {
+                test(ex.aMem == 1);
+                test(ex.getStackTrace().length == 0);
+            }
+            catch(Throwable ex)
+            {
+                ex.printStackTrace();
+                test(false);
+            }
+
+            com.zeroc.Ice.Identity id = com.zeroc.Ice.Util.stringToIdentity("does not exist");
+            try
+            {
+                thrower2.ice_identity(id).ice_ping();
+                test(false);
+            }
+            catch(com.zeroc.Ice.ObjectNotExistException ex)
+            {
+                test(ex.getStackTrace().length > 0); // Not a listed type.
+            }
+            comm.destroy();
+
+            initData.properties.setProperty("Ice.StacklessExceptions.Types", "");
+            initData.properties.setProperty("Ice.StacklessExceptions", "1");
+            comm = app.initialize(initData);
+            thrower2 = ThrowerPrx.uncheckedCast(comm.stringToProxy(ref));
+            try
+            {
+                thrower2.ice_identity(id).ice_ping();
+                test(false);
+            }
+            catch(com.zeroc.Ice.ObjectNotExistException ex)
+            {
+                test(ex.id.equals(id));
+                test(ex.getStackTrace().length == 0);
+            }
+            comm.destroy();
+
+            try
+            {
+                thrower.throwAasA(1);
+                test(false);
+            }
+            catch(A ex)
+            {
+                test(ex.getStackTrace().length > 0); // Disabled by default.
+            }
+        }
+
+        out.println("ok");
+
         out.print("testing asynchronous exceptions... ");
         out.flush();
 
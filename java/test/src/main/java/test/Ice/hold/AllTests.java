@@ -212,6 +212,49 @@ public class AllTests
         }
         out.println("ok");
 
+        out.print("testing single threaded dispatch... ");
+        out.flush();
+        {
+            //
+            // The requests of a connection must be dispatched in order by a
+            // single threaded adapter, including when its thread pool
+            // dispatches with virtual threads.
+            //
+            HoldPrx holdSingle = HoldPrx.uncheckedCast(communicator.stringToProxy("hold:" + app.getTestEndpoint(2)));
+            Condition cond = new Condition(true);
+            int value = 0;
+            holdSingle.set(value, 0);
+            CompletableFuture<Integer> r = null;
+            InvocationFuture<Integer> f = null;
+            while(value < 1000 && cond.value())
+            {
+                AMICheckSetValue cb = new AMICheckSetValue(cond, value);
+                r = holdSingle.setAsync(value + 1, random.nextInt(2));
+                f = com.zeroc.Ice.Util.getInvocationFuture(r);
+                r.whenComplete((result, ex) ->
+                    {
+                        test(ex == null);
+                        cb.response(result);
+                    });
+                ++value;
+                if(value % 100 == 0)
+                {
+                    f.waitForSent();
+                }
+            }
+            r.join();
+            test(cond.value());
+
+            HoldPrx holdSingleOneway = holdSingle.ice_oneway();
+            for(int i = 0; i < 1000; ++i)
+            {
+                holdSingleOneway.setOneway(value + 1, value);
+                ++value;
+            }
+            test(holdSingle.set(0, 0) == value);
+        }
+        out.println("ok");
+
         out.print("testing waitForHold... ");
         out.flush();
         {
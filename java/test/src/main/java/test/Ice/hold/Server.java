@@ -23,8 +23,12 @@ public class Server extends test.Util.Application
         com.zeroc.Ice.ObjectAdapter adapter2 = communicator.createObjectAdapter("TestAdapter2");
         adapter2.add(new HoldI(timer, adapter2), com.zeroc.Ice.Util.stringToIdentity("hold"));
 
+        com.zeroc.Ice.ObjectAdapter adapter3 = communicator.createObjectAdapter("TestAdapter3");
+        adapter3.add(new HoldI(timer, adapter3), com.zeroc.Ice.Util.stringToIdentity("hold"));
+
         adapter1.activate();
         adapter2.activate();
+        adapter3.activate();
 
         serverReady();
         communicator.waitForShutdown();
@@ -50,6 +54,22 @@ public class Server extends test.Util.Application
         initData.properties.setProperty("TestAdapter2.ThreadPool.SizeMax", "5");
         initData.properties.setProperty("TestAdapter2.ThreadPool.SizeWarn", "0");
         initData.properties.setProperty("TestAdapter2.ThreadPool.Serialize", "1");
+
+        //
+        // A single threaded adapter which dispatches with virtual threads if
+        // supported by the JVM (Java 21 or later).
+        //
+        initData.properties.setProperty("TestAdapter3.Endpoints", getTestEndpoint(initData.properties, 2));
+        initData.properties.setProperty("TestAdapter3.ThreadPool.Size", "1");
+        initData.properties.setProperty("TestAdapter3.ThreadPool.SizeMax", "1");
+        try
+        {
+            Thread.class.getMethod("ofVirtual");
+            initData.properties.setProperty("TestAdapter3.ThreadPool.VirtualThreads", "1");
+        }
+        catch(NoSuchMethodException ex)
+        {
+        }
         return initData;
     }
 
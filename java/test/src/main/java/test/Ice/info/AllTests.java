@@ -17,12 +17,16 @@ import com.zeroc.Ice.EndpointInfo;
 import com.zeroc.Ice.IPConnectionInfo;
 import com.zeroc.Ice.OpaqueEndpointInfo;
 import com.zeroc.Ice.SSLEndpointType;
+import com.zeroc.Ice.ShmEndpointType;
 import com.zeroc.Ice.TCPConnectionInfo;
 import com.zeroc.Ice.TCPEndpointInfo;
 import com.zeroc.Ice.TCPEndpointType;
 import com.zeroc.Ice.UDPConnectionInfo;
 import com.zeroc.Ice.UDPEndpointInfo;
 import com.zeroc.Ice.UDPEndpointType;
+import com.zeroc.Ice.UnixConnectionInfo;
+import com.zeroc.Ice.UnixEndpointInfo;
+import com.zeroc.Ice.UnixEndpointType;
 import com.zeroc.Ice.WSConnectionInfo;
 import com.zeroc.Ice.WSEndpointInfo;
 import com.zeroc.Ice.WSEndpointType;
@@ -265,6 +269,137 @@ public class AllTests
         }
         out.println("ok");
 
+        out.print("testing connection pools... ");
+        out.flush();
+        {
+            com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+            initData.properties = communicator.getProperties()._clone();
+            initData.properties.setProperty("Ice.Default.ConnectionPoolSize", "2");
+            com.zeroc.Ice.Communicator comm = app.initialize(initData);
+            TestIntfPrx prx = TestIntfPrx.uncheckedCast(comm.stringToProxy("test:" + app.getTestEndpoint(0)));
+            com.zeroc.Ice.Connection connection = prx.ice_getConnection();
+            String port = Integer.toString(getTCPConnectionInfo(connection.getInfo()).localPort);
+
+            //
+            // Twoway requests are spread over the pooled connections once
+            // the pool grew, the proxy remains bound to its connection.
+            //
+            java.util.Set<String> ports = new java.util.HashSet<>();
+            for(int i = 0; i < 100 && ports.size() < 2; ++i)
+            {
+                java.util.List<java.util.concurrent.CompletableFuture<java.util.Map<String, String>>> results =
+                    new java.util.ArrayList<>();
+                for(int j = 0; j < 10; ++j)
+                {
+                    results.add(prx.getConnectionInfoAsContextAsync());
+                }
+                for(java.util.concurrent.CompletableFuture<java.util.Map<String, String>> r : results)
+                {
+                    ports.add(r.join().get("remotePort"));
+                }
+            }
+            test(ports.size() == 2 && ports.contains(port));
+            test(prx.ice_getConnection() == connection);
+            comm.destroy();
+        }
+        out.println("ok");
+
+        out.print("testing unix domain socket and shm endpoint and connection information... ");
+        out.flush();
+        {
+            String path = new java.io.File(System.getProperty("java.io.tmpdir"),
+                                           "ice info " + java.util.UUID.randomUUID() + ".sock").getPath();
+
+            com.zeroc.Ice.ObjectPrx p = communicator.stringToProxy("test:unix -p \"" + path + "\" -t 15000 -z");
+            test(p.ice_getEndpoints()[0].toString().equals("unix -p \"" + path + "\" -t 15000 -z"));
+            UnixEndpointInfo unixEndpoint = (UnixEndpointInfo)p.ice_getEndpoints()[0].getInfo();
+            test(unixEndpoint.type() == UnixEndpointType.value);
+            test(unixEndpoint.path.equals(path));
+            test(unixEndpoint.timeout == 15000);
+            test(unixEndpoint.compress);
+            test(!unixEndpoint.datagram() && !unixEndpoint.secure());
+
+            try
+            {
+                communicator.stringToProxy("test:unix -t 15000");
+                test(false);
+            }
+            catch(com.zeroc.Ice.EndpointParseException ex)
+            {
+            }
+
+            boolean supported;
+            try
+            {
+                Class.forName("java.net.UnixDomainSocketAddress");
+                supported = true;
+            }
+            catch(ClassNotFoundException ex)
+            {
+                supported = false; // Requires JDK 16 or later.
+            }
+
+            if(supported)
+            {
+                communicator.getProperties().setProperty("UnixAdapter.Endpoints", "unix -p \"" + path + "\"");
+                com.zeroc.Ice.ObjectAdapter adapter = communicator.createObjectAdapter("UnixAdapter");
+                adapter.add(new TestI(), com.zeroc.Ice.Util.stringToIdentity("test"));
+                adapter.activate();
+
+                p = adapter.createProxy(com.zeroc.Ice.Util.stringToIdentity("test")).ice_collocationOptimized(false);
+                p.ice_ping();
+
+                com.zeroc.Ice.Connection connection = p.ice_getConnection();
+                test(connection.type().equals("unix"));
+                test(connection.toString().contains(path));
+
+                UnixConnectionInfo info = (UnixConnectionInfo)connection.getInfo();
+                test(!info.incoming);
+                test(info.adapterName.length() == 0);
+                test(info.path.equals(path));
+                test(info.rcvSize > 0);
+                test(info.sndSize > 0);
+
+                unixEndpoint = (UnixEndpointInfo)connection.getEndpoint().getInfo();
+                test(unixEndpoint.path.equals(path));
+
+                connection.close(com.zeroc.Ice.ConnectionClose.GracefullyWithWait);
+                adapter.destroy();
+                test(!new java.io.File(path).exists());
+
+                //
+                // The shm transport is configured like the unix transport,
+                // the socket is only used to establish the connection.
+                //
+                communicator.getProperties().setProperty("ShmAdapter.Endpoints", "shm -p \"" + path + "\"");
+                adapter = communicator.createObjectAdapter("ShmAdapter");
+                adapter.add(new TestI(), com.zeroc.Ice.Util.stringToIdentity("test"));
+                adapter.activate();
+
+                p = adapter.createProxy(com.zeroc.Ice.Util.stringToIdentity("test")).ice_collocationOptimized(false);
+                test(p.ice_getEndpoints()[0].getInfo().type() == ShmEndpointType.value);
+                for(int i = 0; i < 10; ++i)
+                {
+                    p.ice_ping();
+                }
+
+                connection = p.ice_getConnection();
+                test(connection.type().equals("shm"));
+
+                info = (UnixConnectionInfo)connection.getInfo();
+                test(!info.incoming);
+                test(info.path.equals(path));
+                test(info.rcvSize > 0);
+                test(info.sndSize > 0);
+
+                connection.close(com.zeroc.Ice.ConnectionClose.GracefullyWithWait);
+                p.ice_ping();
+                adapter.destroy();
+                test(!new java.io.File(path).exists());
+            }
+        }
+        out.println("ok");
+
         testIntf.shutdown();
 
         communicator.shutdown();
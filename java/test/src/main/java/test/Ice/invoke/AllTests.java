@@ -173,6 +173,105 @@ public class AllTests
 
         out.println("ok");
 
+        out.print("testing dispatch allocations... ");
+        out.flush();
+
+        {
+            //
+            // Recycling the Current object must save allocations, and a recycled dispatch
+            // allocates about 90 bytes (the selector and thread pool garbage) once the JIT
+            // warmed up. The bound leaves room for a cold JIT and JVM differences.
+            //
+            long created = dispatchAllocations(app, false);
+            long recycled = dispatchAllocations(app, true);
+            if(created >= 0 && recycled >= 0) // Not supported by all JVMs.
+            {
+                test(recycled < created);
+                test(recycled < 384);
+            }
+        }
+
+        out.println("ok");
+
         return cl;
     }
+
+    //
+    // Returns the memory allocated by the server threads to dispatch a twoway
+    // "void add(int)" request, or -1 if the JVM doesn't support measuring it.
+    //
+    private static long dispatchAllocations(test.Util.Application app, boolean recycleCurrent)
+    {
+        com.zeroc.Ice.Communicator communicator = app.communicator();
+        com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+        initData.properties = communicator.getProperties()._clone();
+        initData.properties.setProperty("Ice.ProgramName", "DispatchAllocations");
+        initData.properties.setProperty("Ice.RecycleCurrent", recycleCurrent ? "1" : "0");
+        com.zeroc.Ice.Communicator comm = app.initialize(initData);
+        try
+        {
+            com.zeroc.Ice.ObjectAdapter adapter =
+                comm.createObjectAdapterWithEndpoints("DispatchAllocations", app.getTestProtocol() + " -h " +
+                                                      app.getTestHost());
+            CounterI counter = new CounterI();
+            com.zeroc.Ice.ObjectPrx prx = adapter.add(counter, com.zeroc.Ice.Util.stringToIdentity("counter"));
+            adapter.activate();
+            prx = communicator.stringToProxy(comm.proxyToString(prx));
+
+            OutputStream outS = new OutputStream(communicator);
+            outS.startEncapsulation();
+            outS.writeInt(1);
+            outS.endEncapsulation();
+            byte[] inEncaps = outS.finished();
+
+            final int count = 10000;
+            long allocated = 0;
+            for(int i = 0; i < 2; ++i) // The first round warms up the JIT.
+            {
+                long before = allocatedBytes("DispatchAllocations-");
+                for(int j = 0; j < count; ++j)
+                {
+                    test(prx.ice_invoke("add", OperationMode.Normal, inEncaps).returnValue);
+                }
+                allocated = before < 0 ? -1 : allocatedBytes("DispatchAllocations-") - before;
+            }
+            test(counter.total() == 2 * count);
+            return allocated < 0 ? -1 : allocated / count;
+        }
+        finally
+        {
+            comm.destroy();
+        }
+    }
+
+    //
+    // Returns the memory allocated by the threads whose name starts with the given
+    // prefix, or -1 if the JVM doesn't support measuring it.
+    //
+    private static long allocatedBytes(String prefix)
+    {
+        try
+        {
+            java.lang.management.ThreadMXBean mx = java.lang.management.ManagementFactory.getThreadMXBean();
+            if(!(mx instanceof com.sun.management.ThreadMXBean) ||
+               !((com.sun.management.ThreadMXBean)mx).isThreadAllocatedMemoryEnabled())
+            {
+                return -1;
+            }
+
+            long allocated = 0;
+            for(Thread t : Thread.getAllStackTraces().keySet())
+            {
+                if(t.getName().startsWith(prefix))
+                {
+                    allocated += Math.max(((com.sun.management.ThreadMXBean)mx).getThreadAllocatedBytes(t.getId()), 0);
+                }
+            }
+            return allocated;
+        }
+        catch(LinkageError ex)
+        {
+            return -1;
+        }
+    }
 }
@@ -0,0 +1,51 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package test.Ice.invoke;
+
+import java.util.concurrent.CompletionStage;
+
+import com.zeroc.Ice.Current;
+import com.zeroc.Ice.InputStream;
+import com.zeroc.Ice.OutputStream;
+import com.zeroc.IceInternal.Incoming;
+
+//
+// A servant for "void add(int)" that unmarshals its parameters like generated code,
+// used to measure the garbage created by the dispatch of a simple twoway request.
+//
+public class CounterI implements com.zeroc.Ice.Object
+{
+    @Override
+    public CompletionStage<OutputStream> _iceDispatch(Incoming in, Current current)
+        throws com.zeroc.Ice.UserException
+    {
+        if(current.operation.equals("add"))
+        {
+            InputStream istr = in.startReadParams();
+            int value = istr.readInt();
+            in.endReadParams();
+            add(value);
+            return in.setResult(in.writeEmptyParams());
+        }
+        return com.zeroc.Ice.Object.super._iceDispatch(in, current);
+    }
+
+    private synchronized void add(int value)
+    {
+        _total += value;
+    }
+
+    public synchronized int total()
+    {
+        return _total;
+    }
+
+    private int _total;
+}
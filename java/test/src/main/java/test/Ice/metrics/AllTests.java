@@ -1214,6 +1214,250 @@ public class AllTests
 
         out.println("ok");
 
+        out.print("testing buffer pool metrics... ");
+        out.flush();
+
+        {
+            com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+            initData.properties = communicator.getProperties()._clone();
+            initData.properties.setProperty("Ice.Admin.Enabled", "1");
+            initData.properties.setProperty("Ice.Admin.Endpoints", "");
+            initData.properties.setProperty("Ice.Admin.DelayCreation", "0");
+            initData.properties.setProperty("Ice.Admin.InstanceName", "bufferpool");
+            initData.properties.setProperty("Ice.BufferPool.Enabled", "1");
+            initData.properties.setProperty("IceMX.Metrics.BufferPoolView.Map.BufferPool.GroupBy", "id");
+            com.zeroc.Ice.Communicator ic = app.initialize(initData);
+            com.zeroc.IceInternal.MetricsAdminI icMetrics =
+                (com.zeroc.IceInternal.MetricsAdminI)ic.findAdminFacet("Metrics");
+
+            MetricsPrx prx = MetricsPrx.uncheckedCast(ic.stringToProxy("metrics:" + endpoint));
+            prx.opByteS(new byte[1024]);
+            prx.opByteS(new byte[1024]);
+
+            com.zeroc.IceMX.Metrics[] m = icMetrics.getMetricsView("BufferPoolView", null).returnValue.get("BufferPool");
+            test(m.length == 2);
+            long allocations = 0;
+            for(com.zeroc.IceMX.Metrics p : m)
+            {
+                test(p.id.equals("direct") || p.id.equals("heap"));
+                BufferPoolMetrics bm = (BufferPoolMetrics)p;
+                test(bm.hits >= 0 && bm.misses >= 0 && bm.retainedBytes >= 0);
+                allocations += bm.hits + bm.misses;
+            }
+            test(allocations > 0);
+            ic.destroy();
+        }
+
+        out.println("ok");
+
+        out.print("testing work queue metrics... ");
+        out.flush();
+
+        {
+            Map<String, String> dict = new java.util.HashMap<>();
+            dict.put("IceMX.Metrics.WorkQueueView.Map.WorkQueue.GroupBy", "id");
+            clientProps.setProperties(dict);
+
+            java.util.List<CompletableFuture<Void>> futures = new java.util.ArrayList<>();
+            for(int i = 0; i < 10; ++i)
+            {
+                futures.add(CompletableFuture.runAsync(() -> {}, metrics.ice_executor()));
+            }
+            for(CompletableFuture<Void> f : futures)
+            {
+                f.join();
+            }
+
+            r = clientMetrics.getMetricsView("WorkQueueView");
+            com.zeroc.IceMX.Metrics client = null;
+            for(com.zeroc.IceMX.Metrics m : r.returnValue.get("WorkQueue"))
+            {
+                if(m.id.equals("Ice.ThreadPool.Client"))
+                {
+                    client = m;
+                }
+            }
+            test(client != null && client.total >= 10 && client.current == 0);
+
+            dict.put("IceMX.Metrics.WorkQueueView.Map.WorkQueue.GroupBy", "");
+            clientProps.setProperties(dict);
+        }
+
+        out.println("ok");
+
+        out.print("testing timer metrics... ");
+        out.flush();
+
+        {
+            com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+            initData.properties = communicator.getProperties()._clone();
+            initData.properties.setProperty("Ice.Admin.Enabled", "1");
+            initData.properties.setProperty("Ice.Admin.Endpoints", "");
+            initData.properties.setProperty("Ice.Admin.DelayCreation", "0");
+            initData.properties.setProperty("Ice.Admin.InstanceName", "timer");
+            initData.properties.setProperty("Ice.Timer.Wheel", "1");
+            initData.properties.setProperty("IceMX.Metrics.TimerView.Map.Timer.GroupBy", "id");
+            com.zeroc.Ice.Communicator ic = app.initialize(initData);
+            com.zeroc.IceInternal.MetricsAdminI icMetrics =
+                (com.zeroc.IceInternal.MetricsAdminI)ic.findAdminFacet("Metrics");
+
+            java.util.concurrent.ScheduledExecutorService timer = com.zeroc.IceInternal.Util.getInstance(ic).timer();
+            java.util.List<java.util.concurrent.ScheduledFuture<?>> futures = new java.util.ArrayList<>();
+            for(int i = 0; i < 10; ++i)
+            {
+                futures.add(timer.schedule(() -> {}, 10 * (i + 1), java.util.concurrent.TimeUnit.MILLISECONDS));
+            }
+            java.util.concurrent.ScheduledFuture<?> cancelled =
+                timer.schedule(() -> {}, 1, java.util.concurrent.TimeUnit.HOURS);
+            test(cancelled.cancel(false) && cancelled.isCancelled() && !cancelled.cancel(false));
+            for(java.util.concurrent.ScheduledFuture<?> f : futures)
+            {
+                try
+                {
+                    f.get();
+                }
+                catch(Exception ex)
+                {
+                    test(false);
+                }
+                test(!f.cancel(false));
+            }
+
+            com.zeroc.IceMX.Metrics[] m = icMetrics.getMetricsView("TimerView", null).returnValue.get("Timer");
+            test(m.length == 1);
+            com.zeroc.IceMX.TimerMetrics tm = (com.zeroc.IceMX.TimerMetrics)m[0];
+            test(tm.id.endsWith("Ice.Timer") && tm.current == 1 && tm.ticks > 0 && tm.expired >= 10);
+            test(tm.maxLag >= 0 && tm.totalLag >= tm.maxLag);
+            ic.destroy();
+        }
+
+        out.println("ok");
+
+        out.print("testing host resolver metrics... ");
+        out.flush();
+
+        {
+            com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+            initData.properties = communicator.getProperties()._clone();
+            initData.properties.setProperty("Ice.Admin.Enabled", "1");
+            initData.properties.setProperty("Ice.Admin.Endpoints", "");
+            initData.properties.setProperty("Ice.Admin.DelayCreation", "0");
+            initData.properties.setProperty("Ice.Admin.InstanceName", "resolver");
+            initData.properties.setProperty("Ice.HostResolver.CacheTTL", "60");
+            initData.properties.setProperty("IceMX.Metrics.ResolverView.Map.HostResolver.GroupBy", "id");
+            com.zeroc.Ice.Communicator ic = app.initialize(initData);
+            com.zeroc.IceInternal.MetricsAdminI metrics =
+                (com.zeroc.IceInternal.MetricsAdminI)ic.findAdminFacet("Metrics");
+
+            com.zeroc.Ice.ObjectPrx prx = ic.stringToProxy("metrics:" + protocol + " -p " + port + " -h localhost");
+            for(int i = 0; i < 2; ++i)
+            {
+                prx.ice_ping();
+                prx.ice_getConnection().close(com.zeroc.Ice.ConnectionClose.GracefullyWithWait);
+            }
+
+            //
+            // The second resolution of localhost is answered from the cache.
+            //
+            com.zeroc.IceMX.Metrics[] m = metrics.getMetricsView("ResolverView", null).returnValue.get("HostResolver");
+            test(m.length == 1);
+            com.zeroc.IceMX.HostResolverMetrics hm = (com.zeroc.IceMX.HostResolverMetrics)m[0];
+            test(hm.id.endsWith("Ice.HostResolver") && hm.lookups == 1 && hm.hits == 1 && hm.negativeHits == 0);
+            test(hm.maxLookupTime >= 0 && hm.totalLookupTime >= hm.maxLookupTime);
+            ic.destroy();
+        }
+
+        out.println("ok");
+
+        if(!collocated)
+        {
+            out.print("testing coalescing metrics... ");
+            out.flush();
+
+            com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+            initData.properties = communicator.getProperties()._clone();
+            initData.properties.setProperty("Ice.Admin.Enabled", "1");
+            initData.properties.setProperty("Ice.Admin.Endpoints", "");
+            initData.properties.setProperty("Ice.Admin.DelayCreation", "0");
+            initData.properties.setProperty("Ice.Admin.InstanceName", "coalescing");
+            initData.properties.setProperty("IceMX.Metrics.CoalescingView.Map.Coalescing.GroupBy", "none");
+            com.zeroc.Ice.Communicator ic = app.initialize(initData);
+            com.zeroc.IceInternal.MetricsAdminI metrics =
+                (com.zeroc.IceInternal.MetricsAdminI)ic.findAdminFacet("Metrics");
+
+            com.zeroc.Ice.ObjectPrx prx = ic.stringToProxy("metrics:" + protocol + " -p " + port + " -h localhost");
+            prx.ice_ping();
+
+            //
+            // The oneway requests sent while the connection is corked are
+            // written with a single write once it's uncorked.
+            //
+            com.zeroc.Ice.ConnectionI connection = (com.zeroc.Ice.ConnectionI)prx.ice_getConnection();
+            connection.cork();
+            java.util.List<java.util.concurrent.CompletableFuture<Void>> sent = new java.util.ArrayList<>();
+            for(int i = 0; i < 3; ++i)
+            {
+                sent.add(prx.ice_oneway().ice_pingAsync());
+            }
+            test(!com.zeroc.Ice.Util.getInvocationFuture(sent.get(0)).isSent());
+            connection.uncork();
+            for(java.util.concurrent.CompletableFuture<Void> f : sent)
+            {
+                f.join();
+            }
+            prx.ice_ping();
+
+            com.zeroc.IceMX.Metrics[] m =
+                metrics.getMetricsView("CoalescingView", null).returnValue.get("Coalescing");
+            test(m.length == 1);
+            com.zeroc.IceMX.CoalescingMetrics cm = (com.zeroc.IceMX.CoalescingMetrics)m[0];
+            test(cm.total == 1 && cm.current == 0 && cm.flushes == 1 && cm.messages == 3 && cm.bytes > 0);
+            ic.destroy();
+
+            out.println("ok");
+        }
+
+        if(!collocated)
+        {
+            out.print("testing compression metrics... ");
+            out.flush();
+
+            Map<String, String> dict = new java.util.HashMap<>();
+            dict.put("IceMX.Metrics.CompressionView.Map.Compression.GroupBy", "operation");
+            clientProps.setProperties(dict);
+
+            MetricsPrx compressed = metrics.ice_compress(true);
+            compressed.opByteS(new byte[4096]);
+            compressed.opByteS(new byte[4096]);
+
+            r = clientMetrics.getMetricsView("CompressionView");
+            test(r.returnValue.get("Compression").length == 1);
+            CompressionMetrics cm = (CompressionMetrics)r.returnValue.get("Compression")[0];
+            test(cm.id.equals("opByteS") && cm.total == 2 && cm.current == 0);
+            test(cm.compressedBytes > 0 && cm.compressedBytes < cm.uncompressedBytes && cm.skipped == 0);
+
+            //
+            // Random payloads don't compress, the compression of the
+            // following messages is skipped.
+            //
+            java.util.Random rand = new java.util.Random();
+            byte[] seq = new byte[4096];
+            for(int i = 0; i < 20; ++i)
+            {
+                rand.nextBytes(seq);
+                compressed.opByteS(seq);
+            }
+
+            r = clientMetrics.getMetricsView("CompressionView");
+            cm = (CompressionMetrics)r.returnValue.get("Compression")[0];
+            test(cm.total == 22 && cm.skipped > 0);
+
+            dict.put("IceMX.Metrics.CompressionView.Map.Compression.GroupBy", "");
+            clientProps.setProperties(dict);
+
+            out.println("ok");
+        }
+
         out.print("testing instrumentation observer delegate... ");
         out.flush();
 
@@ -11,11 +11,20 @@ package test.Ice.operations;
 
 import java.io.PrintWriter;
 
+import test.Ice.operations.Test.MyClass;
 import test.Ice.operations.Test.MyClassPrx;
 import test.Ice.operations.Test.MyDerivedClassPrx;
 
 public class AllTests
 {
+    private static void test(boolean b)
+    {
+        if(!b)
+        {
+            throw new RuntimeException();
+        }
+    }
+
     public static MyClassPrx allTests(test.Util.Application app)
     {
         PrintWriter out = app.getWriter();
@@ -32,6 +41,44 @@ public class AllTests
         derived.opDerived();
         out.println("ok");
 
+        out.print("testing compression codecs... ");
+        out.flush();
+        {
+            final byte[] seq = new byte[64 * 1024];
+            for(int i = 0; i < seq.length; ++i)
+            {
+                seq[i] = (byte)(i % 251 < 128 ? i % 17 : i);
+            }
+
+            for(String codecs : new String[] { "", "lz4", "deflate", "bzip2", "deflate lz4" })
+            {
+                com.zeroc.Ice.InitializationData initData = app.createInitializationData();
+                initData.properties = communicator.getProperties()._clone();
+                if(!codecs.isEmpty())
+                {
+                    initData.properties.setProperty("Ice.Compression.Codecs", codecs);
+                }
+                com.zeroc.Ice.Communicator ic = app.initialize(initData);
+                try
+                {
+                    MyClassPrx p = MyClassPrx.uncheckedCast(ic.stringToProxy(ref).ice_compress(true));
+                    MyClass.OpByteSResult r = p.opByteS(seq, seq);
+                    test(r.returnValue.length == seq.length * 2);
+                    test(r.p3.length == seq.length);
+                    for(int i = 0; i < seq.length; ++i)
+                    {
+                        test(r.returnValue[i] == seq[i] && r.returnValue[seq.length + i] == seq[i]);
+                        test(r.p3[i] == seq[seq.length - i - 1]);
+                    }
+                }
+                finally
+                {
+                    ic.destroy();
+                }
+            }
+        }
+        out.println("ok");
+
         out.print("testing oneway operations... ");
         out.flush();
         Oneways.oneways(app, cl);
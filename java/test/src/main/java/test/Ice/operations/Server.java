@@ -32,6 +32,11 @@ public class Server extends test.Util.Application
         //
         initData.properties.setProperty("Ice.Warn.Dispatch", "0");
         initData.properties.setProperty("Ice.Package.Test", "test.Ice.operations");
+
+        //
+        // Use two selectors to exercise sharded thread pools.
+        //
+        initData.properties.setProperty("Ice.ThreadPool.Server.Selectors", "2");
         return initData;
     }
 
@@ -789,6 +789,132 @@ public class Client extends test.Util.Application
 
         printWriter.println("ok");
 
+        printWriter.print("testing type ID registration... ");
+        printWriter.flush();
+
+        {
+            out = new OutputStream(comm);
+            OptionalClass obj = new OptionalClass();
+            obj.bo = true;
+            obj.by = (byte)5;
+            out.writeValue(obj);
+            out.writePendingValues();
+            byte[] data = out.finished();
+
+            //
+            // Without Ice.Package.Test, the type ID can't be translated into a class.
+            //
+            com.zeroc.Ice.InitializationData initData = createInitializationData();
+            initData.properties = comm.getProperties()._clone();
+            initData.properties.setProperty("Ice.Package.Test", "");
+            com.zeroc.Ice.Communicator comm2 = initialize(initData);
+            for(int i = 0; i < 2; ++i) // The second attempt uses the cached failed translation.
+            {
+                try
+                {
+                    in = new InputStream(comm2, data);
+                    in.setSliceValues(false);
+                    in.readValue(value -> {});
+                    in.readPendingValues();
+                    test(false);
+                }
+                catch(com.zeroc.Ice.NoValueFactoryException ex)
+                {
+                    test(ex.type.equals(OptionalClass.ice_staticId()));
+                }
+            }
+
+            //
+            // Registering the type ID replaces the cached failed translation.
+            //
+            com.zeroc.IceInternal.Util.getInstance(comm2).typeIdRegistry().registerClass(
+                OptionalClass.ice_staticId(), OptionalClass.class);
+            in = new InputStream(comm2, data);
+            final Wrapper<OptionalClass> cb1 = new Wrapper<>();
+            in.readValue(value -> cb1.obj = value, OptionalClass.class);
+            in.readPendingValues();
+            test(cb1.obj != null && cb1.obj.by == (byte)5);
+            comm2.destroy();
+
+            initData.types = new java.util.HashMap<>();
+            initData.types.put(OptionalClass.ice_staticId(), OptionalClass.class);
+            comm2 = initialize(initData);
+            in = new InputStream(comm2, data);
+            final Wrapper<OptionalClass> cb = new Wrapper<>();
+            in.readValue(value -> cb.obj = value, OptionalClass.class);
+            in.readPendingValues();
+            test(cb.obj != null && cb.obj.bo && cb.obj.by == (byte)5);
+            comm2.destroy();
+        }
+
+        printWriter.println("ok");
+
+        printWriter.print("testing string cache... ");
+        printWriter.flush();
+
+        {
+            final String longString = new String(new char[100]).replace('\0', 'x');
+            final String[] strings = { "", "ice_ping", "\u20ac\u00e9", longString, "ice_ping" };
+            out = new OutputStream(comm);
+            for(int i = 0; i < 2; ++i)
+            {
+                for(String s : strings)
+                {
+                    out.writeString(s);
+                }
+            }
+            byte[] data = out.finished();
+
+            com.zeroc.IceInternal.StringCache cache = new com.zeroc.IceInternal.StringCache(16);
+            String[] first = new String[strings.length];
+            in = new InputStream(comm, data);
+            for(int i = 0; i < strings.length; ++i)
+            {
+                first[i] = in.readString(cache);
+                test(first[i].equals(strings[i]));
+            }
+            test(first[1] == first[4]);
+            for(int i = 0; i < strings.length; ++i)
+            {
+                String s = in.readString(cache);
+                test(s.equals(strings[i]));
+                test(i == 3 ? s != first[i] : s == first[i]); // Long strings aren't cached.
+            }
+            test(in.pos() == data.length);
+        }
+
+        printWriter.println("ok");
+
+        printWriter.print("testing malformed class references... ");
+        printWriter.flush();
+
+        {
+            //
+            // 1.0 references are negative instance IDs, -Integer.MIN_VALUE isn't
+            // a valid ID and large IDs can't refer to an instance of the stream.
+            //
+            final int[] references = { Integer.MIN_VALUE, 1, -Integer.MAX_VALUE };
+            for(int reference : references)
+            {
+                out = new OutputStream(comm, com.zeroc.Ice.Util.Encoding_1_0);
+                out.writeInt(reference);
+                out.writeSize(0);
+                byte[] data = out.finished();
+                in = new InputStream(comm, com.zeroc.Ice.Util.Encoding_1_0, data);
+                try
+                {
+                    in.readValue(value -> {});
+                    in.readPendingValues();
+                    test(false);
+                }
+                catch(com.zeroc.Ice.MarshalException ex)
+                {
+                }
+            }
+        }
+
+        printWriter.println("ok");
+
         return 0;
     }
 
@@ -0,0 +1,160 @@
+// **********************************************************************
+//
+// Copyright (c) 2003-2017 ZeroC, Inc. All rights reserved.
+//
+// This copy of Ice is licensed to you under the terms described in the
+// ICE_LICENSE file included in this distribution.
+//
+// **********************************************************************
+
+package test.IceUtil.identityIntMap;
+
+import com.zeroc.IceInternal.IdentityIntMap;
+
+public class Client
+{
+    private static void test(boolean b)
+    {
+        if(!b)
+        {
+            throw new RuntimeException();
+        }
+    }
+
+    //
+    // A key equal to all the other keys with the same hash code, the map
+    // must only find a key with its identity.
+    //
+    private static class Key
+    {
+        @Override
+        public boolean equals(java.lang.Object o)
+        {
+            return o instanceof Key;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 0;
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        System.out.print("testing identity int map... ");
+        System.out.flush();
+        {
+            IdentityIntMap map = new IdentityIntMap();
+            test(map.isEmpty() && map.size() == 0);
+
+            Key k1 = new Key();
+            Key k2 = new Key();
+            test(map.get(k1) == 0);
+            map.put(k1, 1);
+            test(map.get(k1) == 1);
+            test(map.get(k2) == 0);
+            map.put(k2, 2);
+            test(map.get(k1) == 1 && map.get(k2) == 2);
+            test(map.size() == 2 && !map.isEmpty());
+
+            map.put(k1, 3);
+            test(map.get(k1) == 3 && map.get(k2) == 2);
+            test(map.size() == 2);
+        }
+        System.out.println("ok");
+
+        System.out.print("testing identity int map collisions and growth... ");
+        System.out.flush();
+        {
+            //
+            // With enough keys, some identity hash codes share the same slot
+            // of the table and the keys are found by probing the next slots.
+            // The table is also rehashed several times.
+            //
+            final int count = 100000;
+            IdentityIntMap map = new IdentityIntMap();
+            java.lang.Object[] keys = new java.lang.Object[count];
+            for(int i = 0; i < count; ++i)
+            {
+                keys[i] = new Key();
+                map.put(keys[i], i + 1);
+                test(map.size() == i + 1);
+                test(map.get(keys[i]) == i + 1);
+            }
+
+            for(int i = 0; i < count; ++i)
+            {
+                test(map.get(keys[i]) == i + 1);
+            }
+            for(int i = 0; i < 1000; ++i)
+            {
+                test(map.get(new Key()) == 0);
+            }
+
+            for(int i = 0; i < count; i += 2)
+            {
+                map.put(keys[i], -(i + 1));
+            }
+            test(map.size() == count);
+            for(int i = 0; i < count; ++i)
+            {
+                test(map.get(keys[i]) == (i % 2 == 0 ? -(i + 1) : i + 1));
+            }
+        }
+        System.out.println("ok");
+
+        System.out.print("testing identity int map clear... ");
+        System.out.flush();
+        {
+            IdentityIntMap map = new IdentityIntMap();
+            java.lang.Object[] keys = new java.lang.Object[8];
+            for(int i = 0; i < keys.length; ++i)
+            {
+                keys[i] = new Key();
+                map.put(keys[i], i + 1);
+            }
+
+            //
+            // Clearing a small map keeps its table, clearing a large map
+            // releases it. In both cases, the removed keys are no longer found
+            // and the map can be reused.
+            //
+            map.clear();
+            test(map.isEmpty() && map.size() == 0);
+            for(java.lang.Object key : keys)
+            {
+                test(map.get(key) == 0);
+            }
+
+            map.put(keys[0], 10);
+            test(map.get(keys[0]) == 10 && map.get(keys[1]) == 0 && map.size() == 1);
+
+            keys = new java.lang.Object[10000];
+            for(int i = 0; i < keys.length; ++i)
+            {
+                keys[i] = new Key();
+                map.put(keys[i], i + 1);
+            }
+            test(map.size() == keys.length + 1);
+
+            map.clear();
+            test(map.isEmpty() && map.size() == 0);
+            for(java.lang.Object key : keys)
+            {
+                test(map.get(key) == 0);
+            }
+
+            for(int i = 0; i < keys.length; ++i)
+            {
+                map.put(keys[i], i + 1);
+            }
+            test(map.size() == keys.length);
+            for(int i = 0; i < keys.length; ++i)
+            {
+                test(map.get(keys[i]) == i + 1);
+            }
+        }
+        System.out.println("ok");
+    }
+}
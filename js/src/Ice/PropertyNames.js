@@ -64,9 +64,11 @@ PropertyNames.IceProps =
     new Property("/^Ice\.Admin\.ThreadPool\.SizeMax/", false, null),
     new Property("/^Ice\.Admin\.ThreadPool\.SizeWarn/", false, null),
     new Property("/^Ice\.Admin\.ThreadPool\.StackSize/", false, null),
+    new Property("/^Ice\.Admin\.ThreadPool\.Selectors/", false, null),
     new Property("/^Ice\.Admin\.ThreadPool\.Serialize/", false, null),
     new Property("/^Ice\.Admin\.ThreadPool\.ThreadIdleTime/", false, null),
     new Property("/^Ice\.Admin\.ThreadPool\.ThreadPriority/", false, null),
+    new Property("/^Ice\.Admin\.ThreadPool\.VirtualThreads/", false, null),
     new Property("/^Ice\.Admin\.MessageSizeMax/", false, null),
     new Property("/^Ice\.Admin\.DelayCreation/", false, null),
     new Property("/^Ice\.Admin\.Enabled/", false, null),
@@ -79,14 +81,26 @@ PropertyNames.IceProps =
     new Property("/^Ice\.BackgroundLocatorCacheUpdates/", false, null),
     new Property("/^Ice\.BatchAutoFlush/", true, null),
     new Property("/^Ice\.BatchAutoFlushSize/", false, null),
+    new Property("/^Ice\.BufferPool\.Enabled/", false, null),
+    new Property("/^Ice\.BufferPool\.MaxBufferSize/", false, null),
+    new Property("/^Ice\.BufferPool\.MaxSize/", false, null),
+    new Property("/^Ice\.BufferPool\.ThreadCacheSize/", false, null),
     new Property("/^Ice\.ChangeUser/", false, null),
     new Property("/^Ice\.ClassGraphDepthMax/", false, null),
     new Property("/^Ice\.ClientAccessPolicyProtocol/", false, null),
+    new Property("/^Ice\.Coalesce\.Delay/", false, null),
+    new Property("/^Ice\.Coalesce\.MaxSize/", false, null),
+    new Property("/^Ice\.Compression\.Adaptive/", false, null),
+    new Property("/^Ice\.Compression\.AdaptiveBandwidth/", false, null),
+    new Property("/^Ice\.Compression\.AdaptiveRatio/", false, null),
+    new Property("/^Ice\.Compression\.Codecs/", false, null),
     new Property("/^Ice\.Compression\.Level/", false, null),
     new Property("/^Ice\.CollectObjects/", false, null),
     new Property("/^Ice\.Config/", false, null),
     new Property("/^Ice\.ConsoleListener/", false, null),
     new Property("/^Ice\.Default\.CollocationOptimized/", false, null),
+    new Property("/^Ice\.Default\.ConnectAttemptDelay/", false, null),
+    new Property("/^Ice\.Default\.ConnectionPoolSize/", false, null),
     new Property("/^Ice\.Default\.EncodingVersion/", false, null),
     new Property("/^Ice\.Default\.EndpointSelection/", false, null),
     new Property("/^Ice\.Default\.Host/", false, null),
@@ -120,6 +134,10 @@ PropertyNames.IceProps =
     new Property("/^Ice\.Default\.Timeout/", false, null),
     new Property("/^Ice\.EventLog\.Source/", false, null),
     new Property("/^Ice\.FactoryAssemblies/", false, null),
+    new Property("/^Ice\.HostResolver\.CacheTTL/", false, null),
+    new Property("/^Ice\.HostResolver\.NegativeCacheTTL/", false, null),
+    new Property("/^Ice\.HostResolver\.Refresh/", false, null),
+    new Property("/^Ice\.HostResolver\.Threads/", false, null),
     new Property("/^Ice\.HTTPProxyHost/", false, null),
     new Property("/^Ice\.HTTPProxyPort/", false, null),
     new Property("/^Ice\.ImplicitContext/", false, null),
@@ -146,28 +164,40 @@ PropertyNames.IceProps =
     new Property("/^Ice\.PrintProcessId/", false, null),
     new Property("/^Ice\.PrintStackTraces/", false, null),
     new Property("/^Ice\.ProgramName/", false, null),
+    new Property("/^Ice\.ReadAhead\.Size/", false, null),
+    new Property("/^Ice\.RecycleCurrent/", false, null),
     new Property("/^Ice\.RetryIntervals/", false, null),
     new Property("/^Ice\.ServerIdleTime/", false, null),
     new Property("/^Ice\.SOCKSProxyHost/", false, null),
     new Property("/^Ice\.SOCKSProxyPort/", false, null),
+    new Property("/^Ice\.StacklessExceptions/", false, null),
+    new Property("/^Ice\.StacklessExceptions\.Types/", false, null),
     new Property("/^Ice\.StdErr/", false, null),
     new Property("/^Ice\.StdOut/", false, null),
+    new Property("/^Ice\.StringCache\.Size/", false, null),
     new Property("/^Ice\.SyslogFacility/", false, null),
     new Property("/^Ice\.ThreadPool\.Client\.Size/", false, null),
     new Property("/^Ice\.ThreadPool\.Client\.SizeMax/", false, null),
     new Property("/^Ice\.ThreadPool\.Client\.SizeWarn/", false, null),
     new Property("/^Ice\.ThreadPool\.Client\.StackSize/", false, null),
+    new Property("/^Ice\.ThreadPool\.Client\.Selectors/", false, null),
     new Property("/^Ice\.ThreadPool\.Client\.Serialize/", false, null),
     new Property("/^Ice\.ThreadPool\.Client\.ThreadIdleTime/", false, null),
     new Property("/^Ice\.ThreadPool\.Client\.ThreadPriority/", false, null),
+    new Property("/^Ice\.ThreadPool\.Client\.VirtualThreads/", false, null),
     new Property("/^Ice\.ThreadPool\.Server\.Size/", false, null),
     new Property("/^Ice\.ThreadPool\.Server\.SizeMax/", false, null),
     new Property("/^Ice\.ThreadPool\.Server\.SizeWarn/", false, null),
     new Property("/^Ice\.ThreadPool\.Server\.StackSize/", false, null),
+    new Property("/^Ice\.ThreadPool\.Server\.Selectors/", false, null),
     new Property("/^Ice\.ThreadPool\.Server\.Serialize/", false, null),
     new Property("/^Ice\.ThreadPool\.Server\.ThreadIdleTime/", false, null),
     new Property("/^Ice\.ThreadPool\.Server\.ThreadPriority/", false, null),
+    new Property("/^Ice\.ThreadPool\.Server\.VirtualThreads/", false, null),
     new Property("/^Ice\.ThreadPriority/", false, null),
+    new Property("/^Ice\.Timer\.Wheel/", false, null),
+    new Property("/^Ice\.Timer\.WheelSize/", false, null),
+    new Property("/^Ice\.Timer\.WheelTick/", false, null),
     new Property("/^Ice\.ToStringMode/", false, null),
     new Property("/^Ice\.Trace\.Admin\.Properties/", false, null),
     new Property("/^Ice\.Trace\.Admin\.Logger/", false, null),